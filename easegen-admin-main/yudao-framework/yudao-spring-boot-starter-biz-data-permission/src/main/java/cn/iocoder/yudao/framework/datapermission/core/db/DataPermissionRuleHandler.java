@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.datapermission.core.db;
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactory;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteHandler;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.extension.plugins.handler.MultiDataPermissionHandler;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +22,7 @@ import java.util.List;
  * @author 芋道源码
  */
 @RequiredArgsConstructor
-public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
+public class DataPermissionRuleHandler implements MultiDataPermissionHandler, SqlRewriteHandler {
 
     private final DataPermissionRuleFactory ruleFactory;
 
@@ -54,4 +55,33 @@ public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
         return allExpression;
     }
 
+    @Override
+    public String getShape(String mappedStatementId) {
+        List<DataPermissionRule> rules = ruleFactory.getDataPermissionRule(mappedStatementId);
+        if (CollUtil.isEmpty(rules)) {
+            return "";
+        }
+        // 生效的规则，以及每个规则的形状
+        StringBuilder shape = new StringBuilder();
+        for (DataPermissionRule rule : rules) {
+            String ruleShape = rule.getShape();
+            if (ruleShape == null) {
+                return null;
+            }
+            shape.append(rule.getClass().getName()).append('=').append(ruleShape).append(';');
+        }
+        return shape.toString();
+    }
+
+    @Override
+    public Object getParameter(String mappedStatementId, String name) {
+        for (DataPermissionRule rule : ruleFactory.getDataPermissionRule(mappedStatementId)) {
+            Object value = rule.getParameter(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
 }
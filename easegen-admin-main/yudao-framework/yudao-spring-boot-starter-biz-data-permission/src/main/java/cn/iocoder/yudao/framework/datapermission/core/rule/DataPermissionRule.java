@@ -33,4 +33,26 @@ public interface DataPermissionRule {
      */
     Expression getExpression(String tableName, Alias tableAlias);
 
+    /**
+     * 获得当前上下文中，{@link #getExpression(String, Alias)} 生成的条件的形状
+     *
+     * 形状相同时，生成的条件除参数值外完全相同，改写后的 SQL 可以被缓存。
+     * 参数值需要通过 SqlRewriteInnerInterceptor#buildParameter 生成占位，并在 {@link #getParameter(String)} 中返回
+     *
+     * @return 形状；默认返回 null，表示不支持缓存
+     */
+    default String getShape() {
+        return null;
+    }
+
+    /**
+     * 获得条件中参数占位的值
+     *
+     * @param name 参数名
+     * @return 参数值；不是当前规则的参数时，返回 null
+     */
+    default Object getParameter(String name) {
+        return null;
+    }
+
 }
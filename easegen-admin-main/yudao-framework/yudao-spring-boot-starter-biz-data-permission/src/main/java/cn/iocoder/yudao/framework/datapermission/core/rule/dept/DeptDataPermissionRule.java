@@ -4,10 +4,10 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
-import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
 import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
@@ -23,10 +23,7 @@ import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * 基于部门的 {@link DataPermissionRule} 数据权限规则实现
@@ -57,6 +54,12 @@ public class DeptDataPermissionRule implements DataPermissionRule {
     private static final String DEPT_COLUMN_NAME = "dept_id";
     private static final String USER_COLUMN_NAME = "user_id";
 
+    /**
+     * 参数名，以参数的方式绑定部门编号、用户编号，使改写后的 SQL 可以被缓存
+     */
+    private static final String DEPT_ID_PARAMETER_PREFIX = "dept_rule_dept_id_";
+    private static final String USER_ID_PARAMETER = "dept_rule_user_id";
+
     static final Expression EXPRESSION_NULL = new NullValue();
 
     private final PermissionApi permissionApi;
@@ -100,17 +103,11 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         }
 
         // 获得数据权限
-        DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
-        // 从上下文中拿不到，则调用逻辑进行获取
+        DeptDataPermissionRespDTO deptDataPermission = getDeptDataPermission(loginUser);
         if (deptDataPermission == null) {
-            deptDataPermission = permissionApi.getDeptDataPermission(loginUser.getId());
-            if (deptDataPermission == null) {
-                log.error("[getExpression][LoginUser({}) 获取数据权限为 null]", JsonUtils.toJsonString(loginUser));
-                throw new NullPointerException(String.format("LoginUser(%d) Table(%s/%s) 未返回数据权限",
-                        loginUser.getId(), tableName, tableAlias.getName()));
-            }
-            // 添加到上下文中，避免重复计算
-            loginUser.setContext(CONTEXT_KEY, deptDataPermission);
+            log.error("[getExpression][LoginUser({}) 获取数据权限为 null]", JsonUtils.toJsonString(loginUser));
+            throw new NullPointerException(String.format("LoginUser(%d) Table(%s/%s) 未返回数据权限",
+                    loginUser.getId(), tableName, tableAlias.getName()));
         }
 
         // 情况一，如果是 ALL 可查看全部，则无需拼接条件
@@ -126,7 +123,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
 
         // 情况三，拼接 Dept 和 User 的条件，最后组合
         Expression deptExpression = buildDeptExpression(tableName,tableAlias, deptDataPermission.getDeptIds());
-        Expression userExpression = buildUserExpression(tableName, tableAlias, deptDataPermission.getSelf(), loginUser.getId());
+        Expression userExpression = buildUserExpression(tableName, tableAlias, deptDataPermission.getSelf());
         if (deptExpression == null && userExpression == null) {
             // TODO 芋艿：获得不到条件的时候，暂时不抛出异常，而是不返回数据
             log.warn("[getExpression][LoginUser({}) Table({}/{}) DeptDataPermission({}) 构建的条件为空]",
@@ -155,13 +152,17 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         if (CollUtil.isEmpty(deptIds)) {
             return null;
         }
-        // 拼接条件
+        // 拼接条件，部门编号以参数的方式绑定，见 getParameter 方法
+        List<Expression> values = new ArrayList<>(deptIds.size());
+        for (int i = 0; i < deptIds.size(); i++) {
+            values.add(SqlRewriteInnerInterceptor.buildParameter(DEPT_ID_PARAMETER_PREFIX + i));
+        }
         return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
                 // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
-                new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(deptIds, LongValue::new))));
+                new ParenthesedExpressionList<>(new ExpressionList<>(values)));
     }
 
-    private Expression buildUserExpression(String tableName, Alias tableAlias, Boolean self, Long userId) {
+    private Expression buildUserExpression(String tableName, Alias tableAlias, Boolean self) {
         // 如果不查看自己，则无需作为条件
         if (Boolean.FALSE.equals(self)) {
             return null;
@@ -171,7 +172,58 @@ public class DeptDataPermissionRule implements DataPermissionRule {
             return null;
         }
         // 拼接条件
-        return new EqualsTo(MyBatisUtils.buildColumn(tableName, tableAlias, columnName), new LongValue(userId));
+        return new EqualsTo(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
+                SqlRewriteInnerInterceptor.buildParameter(USER_ID_PARAMETER));
+    }
+
+    @Override
+    public String getShape() {
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        if (loginUser == null || ObjectUtil.notEqual(loginUser.getUserType(), UserTypeEnum.ADMIN.getValue())) {
+            return "";
+        }
+        DeptDataPermissionRespDTO deptDataPermission = getDeptDataPermission(loginUser);
+        if (deptDataPermission == null) {
+            return null; // 不缓存，由 getExpression 抛出异常
+        }
+        if (deptDataPermission.getAll()) {
+            return "all";
+        }
+        // 条件的结构，只取决于部门编号的数量、是否可查看自己
+        return "dept:" + CollUtil.size(deptDataPermission.getDeptIds())
+                + ",self:" + !Boolean.FALSE.equals(deptDataPermission.getSelf());
+    }
+
+    @Override
+    public Object getParameter(String name) {
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        if (loginUser == null) {
+            return null;
+        }
+        if (USER_ID_PARAMETER.equals(name)) {
+            return loginUser.getId();
+        }
+        if (name.startsWith(DEPT_ID_PARAMETER_PREFIX)) {
+            DeptDataPermissionRespDTO deptDataPermission = getDeptDataPermission(loginUser);
+            // 同一个 Set 的遍历顺序是固定的，与 buildDeptExpression 生成的参数一一对应
+            return deptDataPermission != null ? CollUtil.get(deptDataPermission.getDeptIds(),
+                    Integer.parseInt(name.substring(DEPT_ID_PARAMETER_PREFIX.length()))) : null;
+        }
+        return null;
+    }
+
+    private DeptDataPermissionRespDTO getDeptDataPermission(LoginUser loginUser) {
+        DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
+        // 从上下文中拿不到，则调用逻辑进行获取
+        if (deptDataPermission == null) {
+            deptDataPermission = permissionApi.getDeptDataPermission(loginUser.getId());
+            if (deptDataPermission == null) {
+                return null;
+            }
+            // 添加到上下文中，避免重复计算
+            loginUser.setContext(CONTEXT_KEY, deptDataPermission);
+        }
+        return deptDataPermission;
     }
 
     // ==================== 添加配置 ====================
@@ -0,0 +1,185 @@
+package cn.iocoder.yudao.framework.datapermission.core.db;
+
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactory;
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactoryImpl;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
+import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.framework.test.core.util.BenchmarkUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * {@link DataPermissionRuleHandler} 配合 {@link SqlRewriteInnerInterceptor} 缓存改写结果的单元测试
+ *
+ * @author 芋道源码
+ */
+public class DataPermissionSqlRewriteTest extends BaseMockitoUnitTest {
+
+    private static final String SQL = "select * from t_user where name = '?' and id = ?";
+
+    @InjectMocks
+    private DataPermissionRuleHandler handler;
+
+    @Mock
+    private DataPermissionRuleFactory ruleFactory;
+
+    private final Configuration configuration = new Configuration();
+    private final MappedStatement ms = new MappedStatement.Builder(configuration, "cn.iocoder.UserMapper.selectList",
+            new StaticSqlSource(configuration, SQL), SqlCommandType.SELECT).build();
+
+    /**
+     * 当前可查看的部门编号
+     */
+    private List<Long> deptIds;
+    /**
+     * {@link DataPermissionRule#getExpression(String, Alias)} 的调用次数
+     */
+    private final AtomicInteger expressionCount = new AtomicInteger();
+
+    private DataPermissionRule deptRule;
+    private SqlRewriteInnerInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        // 部门的数据权限规则，部门编号以参数的方式绑定
+        deptRule = new DataPermissionRule() {
+
+            @Override
+            public Set<String> getTableNames() {
+                return asSet("t_user");
+            }
+
+            @Override
+            public Expression getExpression(String tableName, Alias tableAlias) {
+                expressionCount.incrementAndGet();
+                List<Expression> values = new ArrayList<>();
+                for (int i = 0; i < deptIds.size(); i++) {
+                    values.add(SqlRewriteInnerInterceptor.buildParameter("dept_id_" + i));
+                }
+                return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, "dept_id"),
+                        new ParenthesedExpressionList<>(new ExpressionList<>(values)));
+            }
+
+            @Override
+            public String getShape() {
+                return "dept:" + deptIds.size();
+            }
+
+            @Override
+            public Object getParameter(String name) {
+                return name.startsWith("dept_id_") ? deptIds.get(Integer.parseInt(name.substring(8))) : null;
+            }
+
+        };
+        lenient().when(ruleFactory.getDataPermissionRule(any())).thenReturn(Collections.singletonList(deptRule));
+
+        interceptor = new SqlRewriteInnerInterceptor();
+        interceptor.addInterceptor(new DataPermissionInterceptor(handler), handler);
+    }
+
+    @Test
+    public void testBeforeQuery() throws SQLException {
+        // 准备参数
+        deptIds = Arrays.asList(10L, 20L);
+        BoundSql boundSql = buildBoundSql();
+
+        // 调用
+        interceptor.beforeQuery(null, ms, boundSql.getParameterObject(), RowBounds.DEFAULT, null, boundSql);
+        // 断言：部门编号以参数的方式绑定，字符串中的 ? 不受影响
+        assertEquals("SELECT * FROM t_user WHERE name = '?' AND id = ? AND t_user.dept_id IN (?, ?)", boundSql.getSql());
+        assertEquals(Arrays.asList("id", "__yudao_dept_id_0", "__yudao_dept_id_1"),
+                convertList(boundSql.getParameterMappings(), ParameterMapping::getProperty));
+        assertEquals(10L, boundSql.getAdditionalParameter("__yudao_dept_id_0"));
+        assertEquals(20L, boundSql.getAdditionalParameter("__yudao_dept_id_1"));
+    }
+
+    @Test
+    public void testBeforeQuery_cache() throws SQLException {
+        // 调用：第一次改写
+        deptIds = Arrays.asList(10L, 20L);
+        interceptor.beforeQuery(null, ms, null, RowBounds.DEFAULT, null, buildBoundSql());
+        // 调用：部门编号变化，但数量相同，复用改写结果
+        deptIds = Arrays.asList(30L, 40L);
+        BoundSql boundSql = buildBoundSql();
+        interceptor.beforeQuery(null, ms, null, RowBounds.DEFAULT, null, boundSql);
+        // 断言
+        assertEquals(1, expressionCount.get());
+        assertEquals("SELECT * FROM t_user WHERE name = '?' AND id = ? AND t_user.dept_id IN (?, ?)", boundSql.getSql());
+        assertEquals(30L, boundSql.getAdditionalParameter("__yudao_dept_id_0"));
+        assertEquals(40L, boundSql.getAdditionalParameter("__yudao_dept_id_1"));
+
+        // 调用：部门编号的数量变化，形状不同，重新改写
+        deptIds = Collections.singletonList(50L);
+        boundSql = buildBoundSql();
+        interceptor.beforeQuery(null, ms, null, RowBounds.DEFAULT, null, boundSql);
+        // 断言
+        assertEquals(2, expressionCount.get());
+        assertEquals("SELECT * FROM t_user WHERE name = '?' AND id = ? AND t_user.dept_id IN (?)", boundSql.getSql());
+        assertEquals(50L, boundSql.getAdditionalParameter("__yudao_dept_id_0"));
+    }
+
+    /**
+     * 改写的耗时对比，需要时手动执行
+     *
+     * mvn test -Dtest=DataPermissionSqlRewriteTest -Djunit.jupiter.conditions.deactivate='org.junit.*DisabledCondition'
+     */
+    @Test
+    @Disabled("性能对比，手动执行")
+    public void benchmark() throws Exception {
+        deptIds = Arrays.asList(10L, 20L, 30L, 40L, 50L);
+        // 不使用 mock 的 ruleFactory，避免 Mockito 的开销影响结果
+        DataPermissionRuleHandler benchmarkHandler = new DataPermissionRuleHandler(
+                new DataPermissionRuleFactoryImpl(Collections.singletonList(deptRule)));
+        InnerInterceptor original = new DataPermissionInterceptor(benchmarkHandler);
+        SqlRewriteInnerInterceptor cached = new SqlRewriteInnerInterceptor();
+        cached.addInterceptor(new DataPermissionInterceptor(benchmarkHandler), benchmarkHandler);
+        Map<String, BenchmarkUtils.TaskFactory> candidates = new LinkedHashMap<>();
+        candidates.put("直接改写", () -> () -> beforeQuery(original));
+        candidates.put("缓存改写结果", () -> () -> beforeQuery(cached));
+        Map<String, BenchmarkUtils.Result> results = BenchmarkUtils.compare("数据权限改写", 3, 5, 20000, candidates);
+        // 断言：缓存改写结果后，省去了每次的 SQL 解析
+        assertTrue(results.get("缓存改写结果").medianNanos() < results.get("直接改写").medianNanos());
+    }
+
+    private void beforeQuery(InnerInterceptor inner) throws SQLException {
+        BoundSql boundSql = buildBoundSql();
+        inner.beforeQuery(null, ms, boundSql.getParameterObject(), RowBounds.DEFAULT, null, boundSql);
+    }
+
+    private BoundSql buildBoundSql() {
+        List<ParameterMapping> mappings = new ArrayList<>();
+        mappings.add(new ParameterMapping.Builder(configuration, "id", Long.class).build());
+        return new BoundSql(configuration, SQL, mappings, Collections.singletonMap("id", 1L));
+    }
+
+}
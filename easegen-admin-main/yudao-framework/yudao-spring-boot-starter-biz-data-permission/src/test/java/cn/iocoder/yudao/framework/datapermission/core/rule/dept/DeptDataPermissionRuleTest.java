@@ -176,7 +176,9 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
             // 调用
             Expression expression = rule.getExpression(tableName, tableAlias);
             // 断言
-            assertEquals("u.id = 1", expression.toString());
+            assertEquals("u.id = :__yudao_dept_rule_user_id", expression.toString());
+            assertEquals(1L, rule.getParameter("dept_rule_user_id"));
+            assertEquals("dept:0,self:true", rule.getShape());
             assertSame(deptDataPermission, loginUser.getContext(DeptDataPermissionRule.CONTEXT_KEY, DeptDataPermissionRespDTO.class));
         }
     }
@@ -202,7 +204,10 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
             // 调用
             Expression expression = rule.getExpression(tableName, tableAlias);
             // 断言
-            assertEquals("u.dept_id IN (10, 20)", expression.toString());
+            assertEquals("u.dept_id IN (:__yudao_dept_rule_dept_id_0, :__yudao_dept_rule_dept_id_1)", expression.toString());
+            assertEquals(10L, rule.getParameter("dept_rule_dept_id_0"));
+            assertEquals(20L, rule.getParameter("dept_rule_dept_id_1"));
+            assertEquals("dept:2,self:false", rule.getShape());
             assertSame(deptDataPermission, loginUser.getContext(DeptDataPermissionRule.CONTEXT_KEY, DeptDataPermissionRespDTO.class));
         }
     }
@@ -230,7 +235,10 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
             // 调用
             Expression expression = rule.getExpression(tableName, tableAlias);
             // 断言
-            assertEquals("(u.dept_id IN (10, 20) OR u.id = 1)", expression.toString());
+            assertEquals("(u.dept_id IN (:__yudao_dept_rule_dept_id_0, :__yudao_dept_rule_dept_id_1)"
+                    + " OR u.id = :__yudao_dept_rule_user_id)", expression.toString());
+            assertEquals(20L, rule.getParameter("dept_rule_dept_id_1"));
+            assertEquals(1L, rule.getParameter("dept_rule_user_id"));
             assertSame(deptDataPermission, loginUser.getContext(DeptDataPermissionRule.CONTEXT_KEY, DeptDataPermissionRespDTO.class));
         }
     }
@@ -1,8 +1,10 @@
 package cn.iocoder.yudao.framework.tenant.config;
 
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 
@@ -46,4 +48,31 @@ public class TenantProperties {
      */
     private Set<String> ignoreCaches = Collections.emptySet();
 
+    /**
+     * 多租户 Job 的配置
+     */
+    private Job job = new Job();
+
+    @Data
+    public static class Job {
+
+        /**
+         * 执行 Job 的线程数，所有多租户 Job 共用
+         */
+        private Integer poolSize = 8;
+
+        /**
+         * 每个 Job 同时执行的租户数，可通过 {@link TenantJob#parallelism()} 覆盖
+         */
+        private Integer parallelism = 4;
+
+        /**
+         * 单个租户的执行超时时间，可通过 {@link TenantJob#timeout()} 覆盖
+         *
+         * 为 0 时，表示不超时
+         */
+        private Duration timeout = Duration.ZERO;
+
+    }
+
 }
@@ -1,11 +1,12 @@
 package cn.iocoder.yudao.framework.tenant.config;
 
 import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
-import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
 import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnoreAspect;
 import cn.iocoder.yudao.framework.tenant.core.db.TenantDatabaseInterceptor;
 import cn.iocoder.yudao.framework.tenant.core.job.TenantJobAspect;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobExecutor;
 import cn.iocoder.yudao.framework.tenant.core.mq.rabbitmq.TenantRabbitMQInitializer;
 import cn.iocoder.yudao.framework.tenant.core.mq.redis.TenantRedisMessageInterceptor;
 import cn.iocoder.yudao.framework.tenant.core.mq.rocketmq.TenantRocketMQInitializer;
@@ -17,7 +18,6 @@ import cn.iocoder.yudao.framework.tenant.core.web.TenantContextWebFilter;
 import cn.iocoder.yudao.framework.web.config.WebProperties;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
 import cn.iocoder.yudao.module.system.api.tenant.TenantApi;
-import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -56,11 +56,11 @@ public class YudaoTenantAutoConfiguration {
 
     @Bean
     public TenantLineInnerInterceptor tenantLineInnerInterceptor(TenantProperties properties,
-                                                                 MybatisPlusInterceptor interceptor) {
-        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(new TenantDatabaseInterceptor(properties));
-        // 添加到 interceptor 中
-        // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
-        MyBatisUtils.addInterceptor(interceptor, inner, 0);
+                                                                 SqlRewriteInnerInterceptor interceptor) {
+        TenantDatabaseInterceptor handler = new TenantDatabaseInterceptor(properties);
+        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(handler);
+        // 添加到 interceptor 中，由它缓存改写后的 SQL
+        interceptor.addInterceptor(inner, handler);
         return inner;
     }
 
@@ -110,8 +110,15 @@ public class YudaoTenantAutoConfiguration {
     // ========== Job ==========
 
     @Bean
-    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService) {
-        return new TenantJobAspect(tenantFrameworkService);
+    public TenantJobExecutor tenantJobExecutor(TenantProperties tenantProperties) {
+        return new TenantJobExecutor(tenantProperties.getJob().getPoolSize());
+    }
+
+    @Bean
+    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService,
+                                           TenantJobExecutor tenantJobExecutor,
+                                           TenantProperties tenantProperties) {
+        return new TenantJobAspect(tenantFrameworkService, tenantJobExecutor, tenantProperties);
     }
 
     // ========== Redis ==========
@@ -1,12 +1,13 @@
 package cn.iocoder.yudao.framework.tenant.core.db;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteHandler;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
 import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
 import com.baomidou.mybatisplus.extension.toolkit.SqlParserUtils;
 import net.sf.jsqlparser.expression.Expression;
-import net.sf.jsqlparser.expression.LongValue;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,9 +15,13 @@ import java.util.Set;
 /**
  * 基于 MyBatis Plus 多租户的功能，实现 DB 层面的多租户的功能
  *
+ * 租户编号以参数的方式绑定，不拼接到 SQL 中，使改写后的 SQL 可以被 {@link SqlRewriteInnerInterceptor} 缓存
+ *
  * @author 芋道源码
  */
-public class TenantDatabaseInterceptor implements TenantLineHandler {
+public class TenantDatabaseInterceptor implements TenantLineHandler, SqlRewriteHandler {
+
+    private static final String TENANT_ID_PARAMETER = "tenant_id";
 
     private final Set<String> ignoreTables = new HashSet<>();
 
@@ -32,7 +37,7 @@ public class TenantDatabaseInterceptor implements TenantLineHandler {
 
     @Override
     public Expression getTenantId() {
-        return new LongValue(TenantContextHolder.getRequiredTenantId());
+        return SqlRewriteInnerInterceptor.buildParameter(TENANT_ID_PARAMETER);
     }
 
     @Override
@@ -41,4 +46,18 @@ public class TenantDatabaseInterceptor implements TenantLineHandler {
                 || CollUtil.contains(ignoreTables, SqlParserUtils.removeWrapperSymbol(tableName)); // 情况二，忽略多租户的表
     }
 
+    @Override
+    public String getShape(String mappedStatementId) {
+        // 忽略的表是固定的，只有全局忽略多租户会影响改写结果
+        return TenantContextHolder.isIgnore() ? "tenant:ignore" : "tenant";
+    }
+
+    @Override
+    public Object getParameter(String mappedStatementId, String name) {
+        if (!TENANT_ID_PARAMETER.equals(name)) {
+            return null;
+        }
+        return TenantContextHolder.getRequiredTenantId();
+    }
+
 }
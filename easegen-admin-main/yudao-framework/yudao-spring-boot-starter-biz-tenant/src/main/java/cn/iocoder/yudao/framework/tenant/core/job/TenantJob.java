@@ -4,6 +4,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 多租户 Job 注解
@@ -11,4 +12,20 @@ import java.lang.annotation.Target;
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface TenantJob {
+
+    /**
+     * 同时执行的租户数，默认 0 表示使用 yudao.tenant.job.parallelism 配置
+     */
+    int parallelism() default 0;
+
+    /**
+     * 单个租户的执行超时时间，包括排队时间，默认 0 表示使用 yudao.tenant.job.timeout 配置
+     */
+    int timeout() default 0;
+
+    /**
+     * 超时时间的单位，默认为秒
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
 }
@@ -1,26 +1,30 @@
 package cn.iocoder.yudao.framework.tenant.core.job;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.quartz.core.context.JobContextHolder;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobExecutor.TenantResult;
 import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
-import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * 多租户 JobHandler AOP
  * 任务执行时，会按照租户逐个执行 Job 的逻辑
  *
- * 注意，需要保证 JobHandler 的幂等性。因为 Job 因为某个租户执行失败重试时，之前执行成功的租户也会再次执行。
+ * 租户通过 {@link TenantJobExecutor} 并行执行。有租户执行失败时，Job 整体失败；
+ * 如果 Job 配置了重试，重试时只执行上次失败的租户。
+ *
+ * 注意，需要保证 JobHandler 的幂等性。因为 Job 因为某个租户执行失败重试时，可能会再次执行该租户。
  *
  * @author 芋道源码
  */
@@ -29,31 +33,48 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class TenantJobAspect {
 
+    /**
+     * 重试数据的 key 前缀，数据为上次执行失败的租户编号
+     */
+    private static final String RETRY_TENANT_IDS_KEY_PREFIX = "tenant_job_failed_tenant_ids:";
+
     private final TenantFrameworkService tenantFrameworkService;
+    private final TenantJobExecutor tenantJobExecutor;
+    private final TenantProperties tenantProperties;
 
     @Around("@annotation(tenantJob)")
-    public String around(ProceedingJoinPoint joinPoint, TenantJob tenantJob) {
-        // 获得租户列表
-        List<Long> tenantIds = tenantFrameworkService.getTenantIds();
+    public String around(ProceedingJoinPoint joinPoint, TenantJob tenantJob) throws InterruptedException {
+        String jobName = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        // 获得租户列表；重试时，只执行上次失败的租户
+        String retryKey = RETRY_TENANT_IDS_KEY_PREFIX + joinPoint.getSignature().toLongString();
+        Collection<Long> tenantIds = JobContextHolder.getRetryData(retryKey);
+        if (tenantIds != null) {
+            log.info("[around][Job({}) 重试，只执行上次失败的租户({})]", jobName, tenantIds);
+        } else {
+            tenantIds = tenantFrameworkService.getTenantIds();
+        }
         if (CollUtil.isEmpty(tenantIds)) {
             return null;
         }
 
         // 逐个租户，执行 Job
-        Map<Long, String> results = new ConcurrentHashMap<>();
-        tenantIds.parallelStream().forEach(tenantId -> {
-            // TODO 芋艿：先通过 parallel 实现并行；1）多个租户，是一条执行日志；2）异常的情况
-            TenantUtils.execute(tenantId, () -> {
-                try {
-                    Object result = joinPoint.proceed();
-                    results.put(tenantId, StrUtil.toStringOrNull(result));
-                } catch (Throwable e) {
-                    log.error("[execute][租户({}) 执行 Job 发生异常", tenantId, e);
-                    results.put(tenantId, ExceptionUtil.getRootCauseMessage(e));
-                }
-            });
-        });
-        return JsonUtils.toJsonString(results);
+        TenantProperties.Job jobProperties = tenantProperties.getJob();
+        int parallelism = tenantJob.parallelism() > 0 ? tenantJob.parallelism() : jobProperties.getParallelism();
+        long timeoutMillis = tenantJob.timeout() > 0 ? tenantJob.timeUnit().toMillis(tenantJob.timeout())
+                : jobProperties.getTimeout().toMillis();
+        List<TenantResult> results = tenantJobExecutor.execute(jobName, tenantIds, parallelism, timeoutMillis,
+                joinPoint::proceed);
+
+        // 汇总结果。有租户失败时，抛出异常，使 Job 记录为失败并触发重试
+        Map<Long, String> resultMap = new TreeMap<>();
+        results.forEach(result -> resultMap.put(result.getTenantId(), result.getData()));
+        Set<Long> failedTenantIds = convertSet(results, TenantResult::getTenantId, result -> !result.getSuccess());
+        JobContextHolder.setRetryData(retryKey, failedTenantIds.isEmpty() ? null : failedTenantIds);
+        if (!failedTenantIds.isEmpty()) {
+            throw new IllegalStateException(StrUtil.format("租户({}) 执行 Job 失败：{}",
+                    failedTenantIds, JsonUtils.toJsonString(resultMap)));
+        }
+        return JsonUtils.toJsonString(resultMap);
     }
 
 }
@@ -0,0 +1,307 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多租户 Job 的执行器
+ *
+ * 所有多租户 Job 共用一个固定大小的线程池，不占用 JVM 公共的 ForkJoinPool；
+ * 每个 Job 同时执行的租户数不超过 parallelism，所以线程池的队列长度不会超过各 Job 的 parallelism 之和。
+ * 单个租户超过 timeout 未完成时，中断执行并记为超时，不影响其它租户
+ *
+ * 不响应中断的租户，超时后仍会占用线程，这里记录为「已放弃」的任务，直到其真正结束。
+ * 线程池已满（执行中 + 排队中的任务数达到线程数）时暂停提交，避免租户在队列中耗尽超时时间；
+ * 线程全部被已放弃的任务占用时，剩余的租户直接记为失败，避免 Job 无限等待
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class TenantJobExecutor implements MeterBinder, DisposableBean {
+
+    private static final String METRIC_NAME = "yudao.tenant.job";
+
+    /**
+     * 线程池已满时，重新检查的间隔
+     */
+    private static final long SATURATED_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int poolSize;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 正在线程中执行的任务数，包括已放弃的任务
+     */
+    private final AtomicInteger busyCount = new AtomicInteger();
+    /**
+     * 已放弃的任务：超时被取消，但不响应中断、仍在占用线程
+     */
+    private final Set<Running> abandoned = ConcurrentHashMap.newKeySet();
+
+    private volatile MeterRegistry registry;
+
+    public TenantJobExecutor(int poolSize) {
+        this.poolSize = poolSize;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("tenant-job-").setDaemon(true).build());
+    }
+
+    /**
+     * 逐个租户执行任务，阻塞直到所有租户执行完成或超时
+     *
+     * @param jobName Job 名字，用于日志和监控
+     * @param tenantIds 租户编号数组
+     * @param parallelism 同时执行的租户数
+     * @param timeoutMillis 单个租户的执行超时时间，为 0 时表示不超时
+     * @param task 任务
+     * @return 每个租户的执行结果，按完成的顺序
+     * @throws InterruptedException 调用线程被中断时，取消未完成的租户
+     */
+    public List<TenantResult> execute(String jobName, Collection<Long> tenantIds, int parallelism, long timeoutMillis,
+                                      TenantTask task) throws InterruptedException {
+        List<TenantResult> results = new ArrayList<>(tenantIds.size());
+        CompletionService<TenantResult> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<TenantResult>, Running> runnings = new HashMap<>();
+        Iterator<Long> pending = tenantIds.iterator();
+        try {
+            while (pending.hasNext() || !runnings.isEmpty()) {
+                // 1. 提交租户，直到达到 parallelism，或者线程池已满
+                while (pending.hasNext() && runnings.size() < Math.max(parallelism, 1) && !isSaturated()) {
+                    Long tenantId = pending.next();
+                    long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+                    Running running = new Running(tenantId, deadline);
+                    runnings.put(completionService.submit(() -> run(jobName, running, task)), running);
+                }
+                // 因线程池已满而暂停提交。线程全部被已放弃的任务占用时，无法恢复，剩余的租户记为失败
+                boolean saturated = pending.hasNext() && runnings.size() < Math.max(parallelism, 1);
+                if (saturated && abandoned.size() >= poolSize) {
+                    log.error("[execute][Job({}) 线程池已被超时未结束的任务占满，剩余租户不再执行]", jobName);
+                    pending.forEachRemaining(tenantId -> {
+                        results.add(new TenantResult().setTenantId(tenantId).setSuccess(false)
+                                .setData("线程池已被超时未结束的任务占满").setDuration(0L));
+                        record(jobName, "rejected", 0);
+                    });
+                    continue;
+                }
+
+                // 2. 等待任一租户完成，最多等到最早的超时时间；暂停提交时，定期检查线程池是否空闲
+                long waitNanos = Long.MAX_VALUE;
+                if (timeoutMillis > 0 && !runnings.isEmpty()) {
+                    long deadline = runnings.values().stream().mapToLong(Running::getDeadline).min().orElse(Long.MAX_VALUE);
+                    waitNanos = Math.max(deadline - System.nanoTime(), 0);
+                }
+                if (saturated) {
+                    waitNanos = Math.min(waitNanos, SATURATED_WAIT_NANOS);
+                }
+                Future<TenantResult> future = waitNanos == Long.MAX_VALUE ? completionService.take()
+                        : completionService.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (future != null) {
+                    // 超时被取消的任务，也会进入完成队列，此时 runnings 中已经不存在，忽略即可
+                    if (runnings.remove(future) != null) {
+                        TenantResult result = getResult(future);
+                        results.add(result);
+                        record(jobName, result.getSuccess() ? "success" : "failure", result.getDuration());
+                    }
+                    continue;
+                }
+
+                // 3. 取消超时的租户。取消失败，说明刚好完成，下一轮从完成队列中获取结果
+                long now = System.nanoTime();
+                boolean cancelled = runnings.entrySet().removeIf(entry -> {
+                    if (entry.getValue().getDeadline() > now || !entry.getKey().cancel(true)) {
+                        return false;
+                    }
+                    log.error("[execute][Job({}) 租户({}) 执行超过 {} ms，已中断]", jobName, entry.getValue().getTenantId(), timeoutMillis);
+                    abandon(entry.getValue());
+                    results.add(new TenantResult().setTenantId(entry.getValue().getTenantId()).setSuccess(false)
+                            .setData(StrUtil.format("执行超时（{} ms）", timeoutMillis)).setDuration(timeoutMillis));
+                    record(jobName, "timeout", timeoutMillis);
+                    return true;
+                });
+                if (cancelled) {
+                    // 移除队列中已取消的任务，使 isSaturated 的判断准确
+                    executor.purge();
+                }
+            }
+        } finally {
+            // 调用线程被中断时，取消未完成的租户
+            runnings.forEach((future, running) -> {
+                if (future.cancel(true)) {
+                    abandon(running);
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * 线程池是否已满：执行中、排队中的任务数达到线程数，再提交只能排队
+     */
+    private boolean isSaturated() {
+        return busyCount.get() + executor.getQueue().size() >= poolSize;
+    }
+
+    /**
+     * 取消后仍在执行的任务，记为已放弃，直到其真正结束
+     */
+    private void abandon(Running running) {
+        if (!running.started) {
+            return;
+        }
+        abandoned.add(running);
+        // 添加前已经结束的，移除。与 run 中的顺序配合，保证不会残留
+        if (running.finished) {
+            abandoned.remove(running);
+        }
+    }
+
+    private TenantResult run(String jobName, Running running, TenantTask task) {
+        Long tenantId = running.getTenantId();
+        TenantResult result = new TenantResult().setTenantId(tenantId);
+        long startTime = System.currentTimeMillis();
+        running.started = true;
+        busyCount.incrementAndGet();
+        try {
+            TenantUtils.execute(tenantId, () -> {
+                try {
+                    result.setSuccess(true).setData(StrUtil.toStringOrNull(task.execute()));
+                } catch (Throwable ex) {
+                    log.error("[run][Job({}) 租户({}) 执行发生异常]", jobName, tenantId, ex);
+                    result.setSuccess(false).setData(ExceptionUtil.getRootCauseMessage(ex));
+                }
+            });
+        } finally {
+            busyCount.decrementAndGet();
+            running.finished = true;
+            if (abandoned.remove(running)) {
+                log.warn("[run][Job({}) 租户({}) 超时后才结束，耗时 {} ms]", jobName, tenantId,
+                        System.currentTimeMillis() - startTime);
+            }
+        }
+        return result.setDuration(System.currentTimeMillis() - startTime);
+    }
+
+    public int getAbandonedCount() {
+        return abandoned.size();
+    }
+
+    private static TenantResult getResult(Future<TenantResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            // run 方法已经捕获所有异常，不会走到这里
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void record(String jobName, String outcome, long durationMillis) {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME).description("多租户 Job 单个租户的执行耗时")
+                .tag("job", jobName).tag("outcome", outcome)
+                .register(registry).record(durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(METRIC_NAME + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行的租户数").register(registry);
+        Gauge.builder(METRIC_NAME + ".queued", executor, e -> e.getQueue().size())
+                .description("排队中的租户数").register(registry);
+        Gauge.builder(METRIC_NAME + ".abandoned", this, TenantJobExecutor::getAbandonedCount)
+                .description("超时后仍在占用线程的租户数").register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 单个租户的任务
+     */
+    @FunctionalInterface
+    public interface TenantTask {
+
+        /**
+         * 执行任务，执行时已经设置好租户上下文
+         *
+         * @return 结果
+         */
+        Object execute() throws Throwable;
+
+    }
+
+    /**
+     * 单个租户的执行结果
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class TenantResult {
+
+        /**
+         * 租户编号
+         */
+        private Long tenantId;
+        /**
+         * 是否成功
+         */
+        private Boolean success;
+        /**
+         * 成功时为执行结果，失败时为失败原因
+         */
+        private String data;
+        /**
+         * 执行耗时，单位：毫秒
+         */
+        private Long duration;
+
+    }
+
+    /**
+     * 一次租户的执行。按对象标识比较，用于 {@link #abandoned}
+     */
+    @Getter
+    private static class Running {
+
+        private final Long tenantId;
+        /**
+         * 超时的时间点，基于 {@link System#nanoTime()}
+         */
+        private final long deadline;
+        /**
+         * 是否已开始执行
+         */
+        private volatile boolean started;
+        /**
+         * 是否已执行结束
+         */
+        private volatile boolean finished;
+
+        private Running(Long tenantId, long deadline) {
+            this.tenantId = tenantId;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
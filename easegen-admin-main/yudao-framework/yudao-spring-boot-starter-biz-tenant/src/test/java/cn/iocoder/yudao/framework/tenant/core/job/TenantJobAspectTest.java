@@ -0,0 +1,107 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.iocoder.yudao.framework.quartz.core.context.JobContextHolder;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.quartz.JobExecutionContext;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TenantJobAspect} 的单元测试，覆盖重试时只执行上次失败的租户
+ *
+ * @author 芋道源码
+ */
+public class TenantJobAspectTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private TenantFrameworkService tenantFrameworkService;
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+    @Mock
+    private Signature signature;
+    @Mock
+    private JobExecutionContext jobExecutionContext;
+
+    private TenantJobExecutor tenantJobExecutor;
+    private TenantJobAspect tenantJobAspect;
+
+    /**
+     * 模拟 Quartz 的 JobDataMap，同一次触发的多次重试之间共享
+     */
+    private final Map<Object, Object> retryData = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        tenantJobExecutor = new TenantJobExecutor(2);
+        tenantJobAspect = new TenantJobAspect(tenantFrameworkService, tenantJobExecutor, new TenantProperties());
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn(TestJob.class);
+        when(signature.toLongString()).thenReturn("TestJob.execute()");
+        when(jobExecutionContext.get(any())).thenAnswer(invocation -> retryData.get(invocation.getArgument(0)));
+        doAnswer(invocation -> retryData.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(jobExecutionContext).put(anyString(), any());
+        JobContextHolder.set(jobExecutionContext);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JobContextHolder.clear();
+        tenantJobExecutor.destroy();
+    }
+
+    @Test
+    public void testAround_retryFailedTenants() throws Throwable {
+        // mock 数据：租户 2 第一次执行失败
+        when(tenantFrameworkService.getTenantIds()).thenReturn(Arrays.asList(1L, 2L, 3L));
+        List<Long> executedTenantIds = new CopyOnWriteArrayList<>();
+        Set<Long> failedOnce = Collections.synchronizedSet(new HashSet<>());
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            Long tenantId = TenantContextHolder.getTenantId();
+            executedTenantIds.add(tenantId);
+            if (tenantId == 2L && failedOnce.add(tenantId)) {
+                throw new IllegalStateException("租户 2 失败");
+            }
+            return "ok";
+        });
+        TenantJob tenantJob = TestJob.class.getMethod("execute").getAnnotation(TenantJob.class);
+
+        // 调用：第一次执行，租户 2 失败
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> tenantJobAspect.around(joinPoint, tenantJob));
+        assertTrue(ex.getMessage().contains("[2]"));
+        assertEquals(3, executedTenantIds.size());
+
+        // 调用：重试，只执行租户 2
+        executedTenantIds.clear();
+        String result = tenantJobAspect.around(joinPoint, tenantJob);
+        // 断言
+        assertEquals(Collections.singletonList(2L), executedTenantIds);
+        assertEquals("{\"2\":\"ok\"}", result);
+        verify(tenantFrameworkService, times(1)).getTenantIds();
+        // 断言：成功后清除重试数据，下一次执行所有租户
+        assertTrue(retryData.values().stream().allMatch(Objects::isNull));
+    }
+
+    public static class TestJob {
+
+        @TenantJob(parallelism = 2)
+        public void execute() {
+        }
+
+    }
+
+}
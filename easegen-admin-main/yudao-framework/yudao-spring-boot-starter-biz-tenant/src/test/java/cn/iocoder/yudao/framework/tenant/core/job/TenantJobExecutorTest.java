@@ -0,0 +1,171 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobExecutor.TenantResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TenantJobExecutor} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantJobExecutorTest {
+
+    private TenantJobExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testExecute_parallelism() throws InterruptedException {
+        executor = new TenantJobExecutor(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // 调用：6 个租户，同时最多执行 2 个
+        List<TenantResult> results = executor.execute("test", Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), 2, 0, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return TenantContextHolder.getTenantId();
+        });
+        // 断言：全部成功，并且在各自的租户上下文中执行
+        assertEquals(6, results.size());
+        results.forEach(result -> {
+            assertTrue(result.getSuccess());
+            assertEquals(String.valueOf(result.getTenantId()), result.getData());
+        });
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void testExecute_failure() throws InterruptedException {
+        executor = new TenantJobExecutor(2);
+
+        // 调用：租户 2 执行失败
+        List<TenantResult> results = executor.execute("test", Arrays.asList(1L, 2L, 3L), 2, 0, () -> {
+            if (TenantContextHolder.getTenantId() == 2L) {
+                throw new IllegalStateException("租户 2 失败");
+            }
+            return "ok";
+        });
+        // 断言：不影响其它租户
+        Map<Long, TenantResult> resultMap = convertMap(results, TenantResult::getTenantId);
+        assertTrue(resultMap.get(1L).getSuccess());
+        assertFalse(resultMap.get(2L).getSuccess());
+        assertTrue(resultMap.get(2L).getData().contains("租户 2 失败"));
+        assertTrue(resultMap.get(3L).getSuccess());
+    }
+
+    @Test
+    public void testExecute_timeout() throws InterruptedException {
+        executor = new TenantJobExecutor(2);
+
+        // 调用：租户 1 超时，可以响应中断
+        long startTime = System.currentTimeMillis();
+        List<TenantResult> results = executor.execute("test", Arrays.asList(1L, 2L), 2, 200, () -> {
+            if (TenantContextHolder.getTenantId() == 1L) {
+                Thread.sleep(10_000);
+            }
+            return "ok";
+        });
+        // 断言：租户 1 超时，租户 2 成功，不等待租户 1
+        assertTrue(System.currentTimeMillis() - startTime < 5_000);
+        Map<Long, TenantResult> resultMap = convertMap(results, TenantResult::getTenantId);
+        assertFalse(resultMap.get(1L).getSuccess());
+        assertTrue(resultMap.get(1L).getData().contains("执行超时"));
+        assertTrue(resultMap.get(2L).getSuccess());
+        // 断言：已中断，线程已释放
+        waitUntil(() -> executor.getAbandonedCount() == 0);
+    }
+
+    @Test
+    public void testExecute_abandonedTaskHoldsAllThreads() throws InterruptedException {
+        executor = new TenantJobExecutor(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // 调用：租户 1 超时，且不响应中断，占住唯一的线程
+        List<TenantResult> results = executor.execute("test", Arrays.asList(1L, 2L), 1, 100, () -> {
+            if (TenantContextHolder.getTenantId() == 1L) {
+                awaitUninterruptibly(release);
+            }
+            return "ok";
+        });
+        // 断言：租户 2 直接失败，而不是无限等待
+        Map<Long, TenantResult> resultMap = convertMap(results, TenantResult::getTenantId);
+        assertTrue(resultMap.get(1L).getData().contains("执行超时"));
+        assertFalse(resultMap.get(2L).getSuccess());
+        assertEquals(1, executor.getAbandonedCount());
+
+        // 调用：租户 1 结束后，线程恢复可用
+        release.countDown();
+        waitUntil(() -> executor.getAbandonedCount() == 0);
+        results = executor.execute("test", Collections.singletonList(3L), 1, 1_000, () -> "ok");
+        assertTrue(results.get(0).getSuccess());
+    }
+
+    @Test
+    public void testExecute_waitWhenSaturated() throws Exception {
+        executor = new TenantJobExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        // 另一个 Job 占住唯一的线程 500 ms，不超时
+        ExecutorService otherJob = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<TenantResult>> otherResults = otherJob.submit(() ->
+                    executor.execute("other", Collections.singletonList(1L), 1, 0, () -> {
+                        started.countDown();
+                        Thread.sleep(500);
+                        return "ok";
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // 调用：超时时间 300 ms，小于需要等待的时间
+            List<TenantResult> results = executor.execute("test", Collections.singletonList(2L), 1, 300, () -> "ok");
+            // 断言：等待线程空闲后再提交，排队不消耗超时时间
+            assertTrue(results.get(0).getSuccess());
+            assertTrue(otherResults.get(5, TimeUnit.SECONDS).get(0).getSuccess());
+        } finally {
+            otherJob.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+}
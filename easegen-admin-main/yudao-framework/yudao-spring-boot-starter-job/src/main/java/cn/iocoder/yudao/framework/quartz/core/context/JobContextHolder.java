@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.framework.quartz.core.context;
+
+import org.quartz.JobExecutionContext;
+
+/**
+ * Job 执行上下文 Holder
+ *
+ * 由 JobHandlerInvoker 在执行 JobHandler 时设置，用于在失败重试之间传递数据。
+ * 例如说，多租户 Job 重试时，只执行上次失败的租户
+ *
+ * @author 芋道源码
+ */
+public class JobContextHolder {
+
+    private static final ThreadLocal<JobExecutionContext> CONTEXT = new ThreadLocal<>();
+
+    public static void set(JobExecutionContext context) {
+        CONTEXT.set(context);
+    }
+
+    public static void clear() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * 获得上次执行失败时，保存的重试数据
+     *
+     * 重试时，Quartz 复用同一个 {@link JobExecutionContext}，所以数据只在同一次触发的多次重试之间保留，
+     * 下一次触发时为空
+     *
+     * @param key 数据的 key
+     * @return 数据；不在 Job 中执行，或者不是重试时，返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getRetryData(String key) {
+        JobExecutionContext context = CONTEXT.get();
+        return context != null ? (T) context.get(key) : null;
+    }
+
+    /**
+     * 保存重试数据，供重试时通过 {@link #getRetryData(String)} 获得
+     *
+     * @param key 数据的 key
+     * @param value 数据；为 null 时，表示清除
+     */
+    public static void setRetryData(String key, Object value) {
+        JobExecutionContext context = CONTEXT.get();
+        if (context != null) {
+            context.put(key, value);
+        }
+    }
+
+}
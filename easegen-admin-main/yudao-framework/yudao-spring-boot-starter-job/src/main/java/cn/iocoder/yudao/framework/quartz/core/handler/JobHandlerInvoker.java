@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.quartz.core.handler;
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.quartz.core.context.JobContextHolder;
 import cn.iocoder.yudao.framework.quartz.core.enums.JobDataKeyEnum;
 import cn.iocoder.yudao.framework.quartz.core.service.JobLogFrameworkService;
 import lombok.extern.slf4j.Slf4j;
@@ -53,9 +54,12 @@ public class JobHandlerInvoker extends QuartzJobBean {
             // 记录 Job 日志（初始）
             jobLogId = jobLogFrameworkService.createJobLog(jobId, startTime, jobHandlerName, jobHandlerParam, refireCount + 1);
             // 执行任务
+            JobContextHolder.set(executionContext);
             data = this.executeInternal(jobHandlerName, jobHandlerParam);
         } catch (Throwable ex) {
             exception = ex;
+        } finally {
+            JobContextHolder.clear();
         }
 
         // 第三步，记录执行日志
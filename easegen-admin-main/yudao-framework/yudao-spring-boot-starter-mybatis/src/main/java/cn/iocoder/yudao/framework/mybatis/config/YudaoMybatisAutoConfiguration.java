@@ -2,10 +2,14 @@ package cn.iocoder.yudao.framework.mybatis.config;
 
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.mybatis.core.handler.DefaultDBFieldHandler;
+import cn.iocoder.yudao.framework.mybatis.core.injector.YudaoSqlInjector;
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
+import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.autoconfigure.MybatisPlusAutoConfiguration;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.core.incrementer.IKeyGenerator;
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.incrementer.*;
 import com.baomidou.mybatisplus.extension.parser.JsqlParserGlobal;
 import com.baomidou.mybatisplus.extension.parser.cache.JdkSerialCaffeineJsqlParseCache;
@@ -45,6 +49,20 @@ public class YudaoMybatisAutoConfiguration {
         return mybatisPlusInterceptor;
     }
 
+    @Bean
+    public SqlRewriteInnerInterceptor sqlRewriteInnerInterceptor(MybatisPlusInterceptor interceptor) {
+        SqlRewriteInnerInterceptor inner = new SqlRewriteInnerInterceptor();
+        // 多租户、数据权限等改写 SQL 的拦截器，统一注册到 inner 中，缓存改写结果
+        // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
+        MyBatisUtils.addInterceptor(interceptor, inner, 0);
+        return inner;
+    }
+
+    @Bean
+    public ISqlInjector yudaoSqlInjector() {
+        return new YudaoSqlInjector(); // 注入 BaseMapperX 的批量写入方法
+    }
+
     @Bean
     public MetaObjectHandler defaultMetaObjectHandler() {
         return new DefaultDBFieldHandler(); // 自动填充参数类
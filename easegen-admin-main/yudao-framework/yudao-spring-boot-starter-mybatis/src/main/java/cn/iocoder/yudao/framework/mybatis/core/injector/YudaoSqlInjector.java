@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.InsertBatchValues;
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.SelectSequenceValues;
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.UpsertBatchValues;
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在 MyBatis Plus 默认方法的基础上，注入 {@link BaseMapperX} 的批量写入方法
+ *
+ * 注意：MyBatis Plus Join 会包装该 Injector，继续注入连表相关的方法
+ *
+ * @author 芋道源码
+ */
+public class YudaoSqlInjector extends DefaultSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Configuration configuration, Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methods = new ArrayList<>(super.getMethodList(configuration, mapperClass, tableInfo));
+        methods.add(new InsertBatchValues());
+        methods.add(new UpsertBatchValues());
+        methods.add(new SelectSequenceValues());
+        return methods;
+    }
+
+}
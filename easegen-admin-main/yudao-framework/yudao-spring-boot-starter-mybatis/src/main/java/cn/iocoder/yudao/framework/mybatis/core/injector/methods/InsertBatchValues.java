@@ -0,0 +1,122 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector.methods;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 多行 VALUES 的批量插入：INSERT INTO table (a, b) VALUES (?, ?), (?, ?)
+ *
+ * 写入的列由参数 {@link #COLUMNS} 决定，只包含非 null 的字段，与 MyBatis Plus 的 insert 保持一致：
+ * 1. 为 null 的字段不写入，使用数据库的默认值
+ * 2. 多租户字段为 null 时不写入，由多租户插件拼接当前租户
+ *
+ * 自增主键时，通过 JDBC 的 getGeneratedKeys 按顺序回填到实体
+ *
+ * @author 芋道源码
+ */
+public class InsertBatchValues extends AbstractMethod {
+
+    /**
+     * 参数：实体数组
+     */
+    public static final String LIST = "list";
+    /**
+     * 参数：写入的字段（属性名）集合
+     */
+    public static final String COLUMNS = "columns";
+
+    protected static final String ITEM = "et";
+
+    /**
+     * 默认每条 SQL 插入的行数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /**
+     * 每条 SQL 插入的最大行数，SQL Server 的多行 VALUES 最多 1000 行
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+    /**
+     * 每条 SQL 的最大参数数，SQL Server 最多 2100 个参数
+     */
+    public static final int MAX_PARAMETERS = 2000;
+
+    public InsertBatchValues() {
+        this("insertValues");
+    }
+
+    protected InsertBatchValues(String methodName) {
+        super(methodName);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        boolean autoKey = tableInfo.havePK() && tableInfo.getIdType() == IdType.AUTO;
+        String sql = String.format("<script>\nINSERT INTO %s %s VALUES %s\n</script>", tableInfo.getTableName(),
+                buildColumnsScript(tableInfo, !autoKey), buildValuesScript(tableInfo, !autoKey));
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        // 自增主键，按顺序回填
+        KeyGenerator keyGenerator = NoKeyGenerator.INSTANCE;
+        String keyProperty = null;
+        String keyColumn = null;
+        if (autoKey) {
+            keyGenerator = Jdbc3KeyGenerator.INSTANCE;
+            keyProperty = LIST + DOT + tableInfo.getKeyProperty();
+            keyColumn = tableInfo.getKeyColumn();
+        }
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+    /**
+     * 获得可写入的字段
+     */
+    protected static List<TableFieldInfo> getInsertFields(TableInfo tableInfo) {
+        return tableInfo.getFieldList().stream()
+                .filter(field -> field.getInsertStrategy() != FieldStrategy.NEVER)
+                .collect(Collectors.toList());
+    }
+
+    protected static String buildColumnsScript(TableInfo tableInfo, boolean withKey) {
+        StringBuilder script = new StringBuilder();
+        if (withKey && tableInfo.havePK()) {
+            script.append(tableInfo.getKeyColumn()).append(COMMA);
+        }
+        for (TableFieldInfo field : getInsertFields(tableInfo)) {
+            script.append(buildIfColumn(field, field.getColumn() + COMMA));
+        }
+        return SqlScriptUtils.convertTrim(script.toString(), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+    }
+
+    protected static String buildValuesScript(TableInfo tableInfo, boolean withKey) {
+        StringBuilder script = new StringBuilder();
+        if (withKey && tableInfo.havePK()) {
+            script.append(SqlScriptUtils.safeParam(ITEM + DOT + tableInfo.getKeyProperty())).append(COMMA);
+        }
+        for (TableFieldInfo field : getInsertFields(tableInfo)) {
+            script.append(buildIfColumn(field, field.getInsertSqlProperty(ITEM + DOT)));
+        }
+        String row = SqlScriptUtils.convertTrim(script.toString(), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        return SqlScriptUtils.convertForeach(row, LIST, null, ITEM, COMMA);
+    }
+
+    /**
+     * 生成「字段在 {@link #COLUMNS} 中才拼接」的脚本
+     *
+     * 使用单引号包裹 test，避免 OGNL 将单个字符的属性名解析为 char
+     */
+    protected static String buildIfColumn(TableFieldInfo field, String script) {
+        return String.format("<if test='%s.contains(\"%s\")'>%s</if>", COLUMNS, field.getProperty(), script);
+    }
+
+}
@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector.methods;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 一次查询获取多个序列值，用于批量插入前预分配 {@link com.baomidou.mybatisplus.annotation.KeySequence} 主键，
+ * 避免逐条 SELECT nextval
+ *
+ * @author 芋道源码
+ */
+public class SelectSequenceValues extends AbstractMethod {
+
+    /**
+     * 参数：数据库方言，{@link #DIALECT_POSTGRESQL}、{@link #DIALECT_H2} 或 {@link #DIALECT_ORACLE}
+     */
+    public static final String DIALECT = "dialect";
+    /**
+     * 参数：获取的数量
+     */
+    public static final String SIZE = "size";
+
+    public static final String DIALECT_POSTGRESQL = "postgresql";
+    public static final String DIALECT_H2 = "h2";
+    public static final String DIALECT_ORACLE = "oracle";
+
+    public SelectSequenceValues() {
+        super("selectSequenceValues");
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        if (tableInfo.getKeySequence() == null) {
+            return null;
+        }
+        String sequence = tableInfo.getKeySequence().value();
+        String sql = String.format("<script>\n<choose>"
+                        + "<when test='%1$s == \"%2$s\"'>SELECT nextval('%5$s') FROM generate_series(1, #{%6$s})</when>"
+                        + "<when test='%1$s == \"%3$s\"'>SELECT NEXT VALUE FOR %5$s FROM SYSTEM_RANGE(1, #{%6$s})</when>"
+                        + "<when test='%1$s == \"%4$s\"'>SELECT %5$s.NEXTVAL FROM DUAL CONNECT BY LEVEL &lt;= #{%6$s}</when>"
+                        + "</choose>\n</script>",
+                DIALECT, DIALECT_POSTGRESQL, DIALECT_H2, DIALECT_ORACLE, sequence, SIZE);
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        return addSelectMappedStatementForOther(mapperClass, methodName, sqlSource, Long.class);
+    }
+
+}
@@ -0,0 +1,69 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector.methods;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 多行 VALUES 的批量插入或更新，实体必须已有主键
+ *
+ * 1. MySQL：INSERT ... ON DUPLICATE KEY UPDATE a = VALUES(a)
+ * 2. PostgreSQL：INSERT ... ON CONFLICT (id) DO UPDATE SET a = EXCLUDED.a
+ *
+ * 主键已存在时，只更新 {@link #COLUMNS} 中的字段，与 updateById 一致跳过 null 的字段；
+ * 插入时才填充的字段（例如创建人、创建时间）不会被更新。
+ * 主键冲突时不校验租户，所以多租户的表不使用该方法，见 BaseMapperX#upsertBatch
+ *
+ * @author 芋道源码
+ */
+public class UpsertBatchValues extends InsertBatchValues {
+
+    /**
+     * 参数：数据库方言，{@link #DIALECT_MYSQL} 或 {@link #DIALECT_POSTGRESQL}
+     */
+    public static final String DIALECT = "dialect";
+
+    public static final String DIALECT_MYSQL = "mysql";
+    public static final String DIALECT_POSTGRESQL = "postgresql";
+
+    /**
+     * 多租户字段，插入或更新都不允许修改
+     */
+    private static final String TENANT_ID_COLUMN = "tenant_id";
+
+    public UpsertBatchValues() {
+        super("upsertValues");
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        if (!tableInfo.havePK()) {
+            return null;
+        }
+        String sql = String.format("<script>\nINSERT INTO %s %s VALUES %s\n<choose>%s%s</choose>\n</script>",
+                tableInfo.getTableName(), buildColumnsScript(tableInfo, true), buildValuesScript(tableInfo, true),
+                String.format("<when test='%s == \"%s\"'> ON DUPLICATE KEY UPDATE %s</when>", DIALECT, DIALECT_MYSQL,
+                        buildUpdateScript(tableInfo, "%1$s = VALUES(%1$s),")),
+                String.format("<otherwise> ON CONFLICT (%s) DO UPDATE SET %s</otherwise>", tableInfo.getKeyColumn(),
+                        buildUpdateScript(tableInfo, "%1$s = EXCLUDED.%1$s,")));
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, NoKeyGenerator.INSTANCE, null, null);
+    }
+
+    private static String buildUpdateScript(TableInfo tableInfo, String format) {
+        StringBuilder script = new StringBuilder();
+        // 主键冲突时至少更新主键自身，避免没有可更新字段时语法错误
+        script.append(String.format(format, tableInfo.getKeyColumn()));
+        for (TableFieldInfo field : getInsertFields(tableInfo)) {
+            if (field.getFieldFill() == FieldFill.INSERT || TENANT_ID_COLUMN.equalsIgnoreCase(field.getColumn())) {
+                continue;
+            }
+            script.append(buildIfColumn(field, String.format(format, field.getColumn())));
+        }
+        return "<trim suffixOverrides=\",\">" + script + "</trim>";
+    }
+
+}
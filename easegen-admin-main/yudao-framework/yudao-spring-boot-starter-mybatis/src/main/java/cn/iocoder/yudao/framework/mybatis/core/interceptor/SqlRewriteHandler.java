@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.framework.mybatis.core.interceptor;
+
+/**
+ * SQL 改写的处理器，配合 {@link SqlRewriteInnerInterceptor} 缓存改写后的 SQL
+ *
+ * 改写时，租户编号、部门编号等随上下文变化的值，不直接拼接到 SQL 中，而是通过
+ * {@link SqlRewriteInnerInterceptor#buildParameter(String)} 生成参数占位，执行时再通过 {@link #getParameter(String, String)} 绑定。
+ * 这样，同一条 SQL 在“形状”相同的上下文中，改写结果相同，可以被缓存
+ *
+ * @author 芋道源码
+ */
+public interface SqlRewriteHandler {
+
+    /**
+     * 获得当前上下文中，改写的形状
+     *
+     * 例如说，多租户是否忽略、生效的数据权限规则、部门编号的数量等，决定了改写后 SQL 结构的因素
+     *
+     * @param mappedStatementId Mapper 方法的编号
+     * @return 形状；返回 null 时，表示当前上下文不支持缓存，每次都重新改写
+     */
+    String getShape(String mappedStatementId);
+
+    /**
+     * 获得改写时生成的参数的值
+     *
+     * @param mappedStatementId Mapper 方法的编号
+     * @param name 参数名，即 {@link SqlRewriteInnerInterceptor#buildParameter(String)} 的参数
+     * @return 参数值；不是当前处理器的参数时，返回 null
+     */
+    Object getParameter(String mappedStatementId, String name);
+
+}
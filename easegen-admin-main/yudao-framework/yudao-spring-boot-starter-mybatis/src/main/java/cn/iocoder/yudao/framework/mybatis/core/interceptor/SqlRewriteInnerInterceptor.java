@@ -0,0 +1,310 @@
+package cn.iocoder.yudao.framework.mybatis.core.interceptor;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcNamedParameter;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * 缓存 SQL 改写结果的拦截器
+ *
+ * 多租户、数据权限等拦截器，每次执行都要解析 SQL、改写 AST、再生成 SQL，开销较大。
+ * 它们统一注册到该拦截器中，改写结果按「Mapper 方法 + 原始 SQL 的哈希 + 各 {@link SqlRewriteHandler} 的形状」缓存；
+ * 改写时生成的参数占位，替换为 ? 并绑定为参数，所以租户编号、部门编号不同时，也能复用同一份改写结果
+ *
+ * @author 芋道源码
+ */
+public class SqlRewriteInnerInterceptor implements InnerInterceptor {
+
+    /**
+     * 参数占位的前缀，避免与 SQL 中原有的命名参数冲突
+     */
+    public static final String PARAMETER_PREFIX = "__yudao_";
+
+    /**
+     * 缓存的最大权重，即缓存的 key 与改写后的 SQL 的总字符数
+     *
+     * 数量约等于 Mapper 方法数 × 形状数，超过时按 Caffeine 的策略淘汰
+     */
+    private static final long CACHE_MAXIMUM_WEIGHT = 8 * 1024 * 1024;
+    /**
+     * 缓存的 SQL 的最大长度，超过时不缓存
+     *
+     * 过长的 SQL 一般是拼接了大量参数，例如说批量操作、大的 IN 条件，几乎不会重复
+     */
+    private static final int CACHE_SQL_MAXIMUM_LENGTH = 8192;
+
+    /**
+     * 改写的拦截器，与 {@link #handlers} 一一对应
+     */
+    private final List<InnerInterceptor> interceptors = new ArrayList<>();
+    private final List<SqlRewriteHandler> handlers = new ArrayList<>();
+
+    private final Cache<String, RewrittenSql> cache = Caffeine.newBuilder()
+            .maximumWeight(CACHE_MAXIMUM_WEIGHT)
+            .weigher((String key, RewrittenSql value) -> key.length() + value.getSql().length())
+            .build();
+
+    /**
+     * 生成参数占位，执行时通过 {@link SqlRewriteHandler#getParameter(String, String)} 获得参数值
+     *
+     * @param name 参数名，只能包含字母、数字、下划线
+     * @return 参数占位
+     */
+    public static Expression buildParameter(String name) {
+        return new JdbcNamedParameter(PARAMETER_PREFIX + name);
+    }
+
+    /**
+     * 添加改写的拦截器
+     *
+     * 和 MyBatis Plus 的规定一样，后添加的先执行
+     *
+     * @param inner 拦截器
+     * @param handler 拦截器对应的处理器
+     */
+    public void addInterceptor(InnerInterceptor inner, SqlRewriteHandler handler) {
+        interceptors.add(0, inner);
+        handlers.add(0, handler);
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        for (InnerInterceptor inner : interceptors) {
+            if (!inner.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        String key = buildCacheKey(ms, boundSql.getSql());
+        RewrittenSql rewritten = key != null ? cache.getIfPresent(key) : null;
+        if (rewritten == null) {
+            for (InnerInterceptor inner : interceptors) {
+                inner.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+            rewritten = RewrittenSql.parse(boundSql.getSql(), boundSql.getParameterMappings().size());
+            if (key != null) {
+                cache.put(key, rewritten);
+            }
+        }
+        apply(ms, boundSql, rewritten);
+    }
+
+    @Override
+    public boolean willDoUpdate(Executor executor, MappedStatement ms, Object parameter) throws SQLException {
+        for (InnerInterceptor inner : interceptors) {
+            if (!inner.willDoUpdate(executor, ms, parameter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) throws SQLException {
+        for (InnerInterceptor inner : interceptors) {
+            inner.beforeUpdate(executor, ms, parameter);
+        }
+    }
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        PluginUtils.MPStatementHandler mpSh = PluginUtils.mpStatementHandler(sh);
+        MappedStatement ms = mpSh.mappedStatement();
+        SqlCommandType sct = ms.getSqlCommandType();
+        // SELECT 已经在 beforeQuery 中改写，这里只改写 INSERT、UPDATE、DELETE
+        if (sct != SqlCommandType.INSERT && sct != SqlCommandType.UPDATE && sct != SqlCommandType.DELETE) {
+            for (InnerInterceptor inner : interceptors) {
+                inner.beforePrepare(sh, connection, transactionTimeout);
+            }
+            return;
+        }
+
+        BoundSql boundSql = mpSh.boundSql();
+        String key = buildCacheKey(ms, boundSql.getSql());
+        RewrittenSql rewritten = key != null ? cache.getIfPresent(key) : null;
+        if (rewritten == null) {
+            for (InnerInterceptor inner : interceptors) {
+                inner.beforePrepare(sh, connection, transactionTimeout);
+            }
+            rewritten = RewrittenSql.parse(boundSql.getSql(), boundSql.getParameterMappings().size());
+            if (key != null) {
+                cache.put(key, rewritten);
+            }
+        }
+        apply(ms, boundSql, rewritten);
+    }
+
+    @Override
+    public void beforeGetBoundSql(StatementHandler sh) {
+        for (InnerInterceptor inner : interceptors) {
+            inner.beforeGetBoundSql(sh);
+        }
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        for (InnerInterceptor inner : interceptors) {
+            inner.setProperties(properties);
+        }
+    }
+
+    /**
+     * 构建缓存的 key
+     *
+     * 使用 SQL 的长度 + 128 位哈希代替 SQL 本身，避免 key 占用过多内存
+     *
+     * @return key；不缓存时，返回 null
+     */
+    private String buildCacheKey(MappedStatement ms, String sql) {
+        // INSERT 多为批量插入，SQL 随行数变化，和过长的 SQL 一样几乎不会重复，所以不缓存
+        if (ms.getSqlCommandType() == SqlCommandType.INSERT || sql.length() > CACHE_SQL_MAXIMUM_LENGTH) {
+            return null;
+        }
+        long[] hash = MurmurHash.hash128(sql);
+        StringBuilder key = new StringBuilder(ms.getId()).append('\n').append(sql.length())
+                .append(':').append(Long.toHexString(hash[0])).append(Long.toHexString(hash[1]));
+        for (SqlRewriteHandler handler : handlers) {
+            String shape = handler.getShape(ms.getId());
+            if (shape == null) {
+                return null;
+            }
+            key.append('\n').append(shape);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 将改写结果设置到 BoundSql 中，并按顺序插入参数占位对应的参数
+     */
+    private void apply(MappedStatement ms, BoundSql boundSql, RewrittenSql rewritten) {
+        PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+        mpBs.sql(rewritten.getSql());
+        if (rewritten.getParameters() == null) {
+            return;
+        }
+        Iterator<ParameterMapping> originals = boundSql.getParameterMappings().iterator();
+        List<ParameterMapping> mappings = new ArrayList<>(rewritten.getParameters().size());
+        for (String name : rewritten.getParameters()) {
+            // 情况一，原有的参数
+            if (name == null) {
+                mappings.add(originals.next());
+                continue;
+            }
+            // 情况二，改写时生成的参数，通过 additionalParameter 绑定
+            Object value = getParameter(ms.getId(), name);
+            String property = PARAMETER_PREFIX + name;
+            boundSql.setAdditionalParameter(property, value);
+            mappings.add(new ParameterMapping.Builder(ms.getConfiguration(), property, value.getClass()).build());
+        }
+        mpBs.parameterMappings(mappings);
+    }
+
+    private Object getParameter(String mappedStatementId, String name) {
+        for (SqlRewriteHandler handler : handlers) {
+            Object value = handler.getParameter(mappedStatementId, name);
+            if (value != null) {
+                return value;
+            }
+        }
+        throw new IllegalStateException(StrUtil.format("Mapper({}) 的 SQL 改写参数({}) 不存在", mappedStatementId, name));
+    }
+
+    /**
+     * 改写后的 SQL
+     */
+    @Getter
+    @AllArgsConstructor
+    static class RewrittenSql {
+
+        /**
+         * SQL，参数占位已经替换为 ?
+         */
+        private final String sql;
+        /**
+         * 每个 ? 对应的参数：null 表示原有的参数，按顺序对应；非 null 表示改写时生成的参数名
+         *
+         * 为 null 时，表示没有生成参数，沿用原有的参数
+         */
+        private final List<String> parameters;
+
+        /**
+         * 解析改写后的 SQL，将参数占位替换为 ?
+         *
+         * @param sql 改写后的 SQL
+         * @param originalCount 原有的参数数量
+         * @return 改写后的 SQL
+         */
+        static RewrittenSql parse(String sql, int originalCount) {
+            StringBuilder result = new StringBuilder(sql.length());
+            List<String> parameters = new ArrayList<>();
+            boolean generated = false;
+            char quote = 0;
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                // 跳过字符串、带引号的标识符中的内容
+                if (quote != 0) {
+                    result.append(c);
+                    if (c == '\\' && quote == '\'' && i + 1 < sql.length()) {
+                        result.append(sql.charAt(++i));
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                    continue;
+                }
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                } else if (c == '?') {
+                    parameters.add(null);
+                } else if (c == ':' && sql.startsWith(PARAMETER_PREFIX, i + 1)) {
+                    int start = i + 1 + PARAMETER_PREFIX.length();
+                    int end = start;
+                    while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+                        end++;
+                    }
+                    parameters.add(sql.substring(start, end));
+                    result.append('?');
+                    generated = true;
+                    i = end - 1;
+                    continue;
+                }
+                result.append(c);
+            }
+            if (!generated) {
+                return new RewrittenSql(sql, null);
+            }
+            long count = parameters.stream().filter(Objects::isNull).count();
+            if (count != originalCount) {
+                throw new IllegalStateException(StrUtil.format("SQL({}) 改写后的参数数量({}) 与原有的参数数量({}) 不一致",
+                        sql, count, originalCount));
+            }
+            return new RewrittenSql(result.toString(), parameters);
+        }
+
+    }
+
+}
@@ -1,18 +1,32 @@
 package cn.iocoder.yudao.framework.mybatis.core.mapper;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.lang.Assert;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.SortablePageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.InsertBatchValues;
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.SelectSequenceValues;
+import cn.iocoder.yudao.framework.mybatis.core.injector.methods.UpsertBatchValues;
 import cn.iocoder.yudao.framework.mybatis.core.util.JdbcUtils;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.KeySequence;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.github.yulichang.base.MPJBaseMapper;
@@ -20,8 +34,8 @@ import com.github.yulichang.interfaces.MPJBaseJoin;
 import com.github.yulichang.wrapper.MPJLambdaWrapper;
 import org.apache.ibatis.annotations.Param;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * 在 MyBatis Plus 的 BaseMapper 的基础上拓展，提供更多的能力
@@ -169,6 +183,231 @@ public interface BaseMapperX<T> extends MPJBaseMapper<T> {
         return Db.saveBatch(entities, size);
     }
 
+    /**
+     * 批量插入，使用多行 VALUES 的 INSERT 语句，适合大量数据插入
+     *
+     * 相比 {@link #insertBatch(Collection)} 逐行执行的 JDBC Batch，每 {@link InsertBatchValues#DEFAULT_BATCH_SIZE} 条只执行一条 SQL：
+     * 1. 自增主键按实体顺序回填；{@link KeySequence} 主键通过一次查询预分配
+     * 2. 为 null 的字段不写入，使用数据库默认值；多租户字段为 null 时，由多租户插件拼接当前租户
+     * 3. 不支持多行 VALUES、或者无法回填自增主键的数据库，退化为 {@link #insertBatch(Collection, int)}
+     *
+     * @param entities 实体们
+     * @return 插入条数
+     */
+    default int insertBatchValues(Collection<T> entities) {
+        return insertBatchValues(entities, InsertBatchValues.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 批量插入，使用多行 VALUES 的 INSERT 语句，适合大量数据插入
+     *
+     * @param entities 实体们
+     * @param size     每条 SQL 插入的行数，同时受 {@link InsertBatchValues#MAX_BATCH_SIZE}、{@link InsertBatchValues#MAX_PARAMETERS} 限制
+     * @return 插入条数
+     * @see #insertBatchValues(Collection)
+     */
+    default int insertBatchValues(Collection<T> entities, int size) {
+        if (CollUtil.isEmpty(entities)) {
+            return 0;
+        }
+        TableInfo tableInfo = getBatchTableInfo(entities);
+        DbType dbType = JdbcUtils.getDbType();
+        boolean autoKey = tableInfo.havePK() && tableInfo.getIdType() == IdType.AUTO;
+        boolean sequenceKey = tableInfo.getIdType() == IdType.INPUT && tableInfo.getKeySequence() != null;
+        if (!JdbcUtils.isMultiValuesInsertSupported(dbType)
+                || (autoKey && !JdbcUtils.isMultiValuesGeneratedKeysSupported(dbType))
+                || (sequenceKey && getSequenceDialect(dbType) == null)) {
+            insertBatch(entities, size);
+            return entities.size();
+        }
+        if (sequenceKey) {
+            fillSequenceKeys(tableInfo, entities, getSequenceDialect(dbType));
+        }
+
+        int rows = 0;
+        for (Map.Entry<Set<String>, List<T>> group : groupByNonNullColumns(tableInfo, entities).entrySet()) {
+            for (List<T> part : CollUtil.split(group.getValue(), getBatchValuesSize(tableInfo, size))) {
+                rows += insertValues(part, group.getKey());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 批量插入或更新：没有主键的实体直接插入；有主键的实体，主键已存在则更新，否则插入
+     *
+     * 1. MySQL、PostgreSQL：使用原生的 ON DUPLICATE KEY UPDATE、ON CONFLICT DO UPDATE，每批只执行一条 SQL
+     * 2. 其它数据库、以及多租户的表：每批一次查询已存在的主键，再分别批量更新、批量插入
+     *
+     * 多租户的表不使用原生 upsert：主键冲突时数据库不会校验租户，会覆盖其它租户的记录，并被多租户插件改为当前租户。
+     * 而查询、更新都会拼接当前租户，其它租户的主键视为不存在，插入时因主键冲突而失败，不会覆盖其它租户的记录
+     *
+     * 更新时与 updateById 一致，跳过为 null 的字段；插入时才填充的字段（例如创建人、创建时间）不会被更新
+     *
+     * @param entities 实体们
+     * @return 影响行数，不同数据库的计算方式不同（例如 MySQL 更新一行记为 2）
+     */
+    default int upsertBatch(Collection<T> entities) {
+        return upsertBatch(entities, InsertBatchValues.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 批量插入或更新
+     *
+     * @param entities 实体们
+     * @param size     每条 SQL 写入的行数
+     * @return 影响行数
+     * @see #upsertBatch(Collection)
+     */
+    default int upsertBatch(Collection<T> entities, int size) {
+        if (CollUtil.isEmpty(entities)) {
+            return 0;
+        }
+        TableInfo tableInfo = getBatchTableInfo(entities);
+        Assert.isTrue(tableInfo.havePK(), "实体({}) 没有主键，无法批量插入或更新", tableInfo.getEntityType());
+        // 1. 没有主键的实体，直接插入
+        Map<Boolean, List<T>> keyedPartitions = entities.stream().collect(Collectors.partitioningBy(
+                entity -> tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty()) != null));
+        int rows = insertBatchValues(keyedPartitions.get(false), size);
+        List<T> keyedEntities = keyedPartitions.get(true);
+        if (keyedEntities.isEmpty()) {
+            return rows;
+        }
+
+        // 2.1 支持原生 upsert 的数据库，且不是多租户的表
+        DbType dbType = JdbcUtils.getDbType();
+        String dialect = getUpsertDialect(dbType);
+        if (dialect != null && !MyBatisUtils.isTenantTable(tableInfo.getTableName())) {
+            for (Map.Entry<Set<String>, List<T>> group : groupByNonNullColumns(tableInfo, keyedEntities).entrySet()) {
+                for (List<T> part : CollUtil.split(group.getValue(), getBatchValuesSize(tableInfo, size))) {
+                    rows += upsertValues(part, group.getKey(), dialect);
+                }
+            }
+            return rows;
+        }
+        // 2.2 其它情况，查询已存在的主键（拼接当前租户），分别批量更新、批量插入
+        for (List<T> part : CollUtil.split(keyedEntities, getBatchValuesSize(tableInfo, size))) {
+            Set<Object> existsIds = CollectionUtils.convertSet(selectList(new QueryWrapper<T>()
+                            .select(tableInfo.getKeyColumn())
+                            .in(tableInfo.getKeyColumn(), CollectionUtils.convertList(part,
+                                    entity -> tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty())))),
+                    entity -> tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty()));
+            Map<Boolean, List<T>> existsPartitions = part.stream().collect(Collectors.partitioningBy(
+                    entity -> existsIds.contains(tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty()))));
+            if (!existsPartitions.get(true).isEmpty()) {
+                updateBatch(existsPartitions.get(true), size);
+                rows += existsPartitions.get(true).size();
+            }
+            rows += insertBatchValues(existsPartitions.get(false), size);
+        }
+        return rows;
+    }
+
+    /**
+     * 多行 VALUES 插入，由 {@link InsertBatchValues} 注入，请使用 {@link #insertBatchValues(Collection)}
+     *
+     * @param entities 实体们，需已完成插入填充
+     * @param columns  写入的字段（属性名）集合
+     * @return 插入条数
+     */
+    int insertValues(@Param(InsertBatchValues.LIST) List<T> entities, @Param(InsertBatchValues.COLUMNS) Set<String> columns);
+
+    /**
+     * 多行 VALUES 插入或更新，由 {@link UpsertBatchValues} 注入，请使用 {@link #upsertBatch(Collection)}
+     *
+     * @param entities 实体们，需已有主键、已完成插入填充
+     * @param columns  写入的字段（属性名）集合
+     * @param dialect  数据库方言
+     * @return 影响行数
+     */
+    int upsertValues(@Param(InsertBatchValues.LIST) List<T> entities, @Param(InsertBatchValues.COLUMNS) Set<String> columns,
+                     @Param(UpsertBatchValues.DIALECT) String dialect);
+
+    /**
+     * 一次获取多个序列值，由 {@link SelectSequenceValues} 注入，仅 {@link KeySequence} 主键的实体可用
+     *
+     * @param dialect 数据库方言
+     * @param size    数量
+     * @return 序列值数组
+     */
+    List<Long> selectSequenceValues(@Param(SelectSequenceValues.DIALECT) String dialect, @Param(SelectSequenceValues.SIZE) int size);
+
+    private TableInfo getBatchTableInfo(Collection<T> entities) {
+        Class<?> entityClass = entities.iterator().next().getClass();
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        Assert.notNull(tableInfo, "实体({}) 找不到对应的 TableInfo", entityClass);
+        return tableInfo;
+    }
+
+    /**
+     * 预分配序列主键，一次查询获取所有缺失的主键
+     */
+    private void fillSequenceKeys(TableInfo tableInfo, Collection<T> entities, String dialect) {
+        List<T> missingKeyEntities = CollectionUtils.filterList(entities,
+                entity -> tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty()) == null);
+        if (missingKeyEntities.isEmpty()) {
+            return;
+        }
+        List<Long> keys = selectSequenceValues(dialect, missingKeyEntities.size());
+        for (int i = 0; i < missingKeyEntities.size(); i++) {
+            tableInfo.setPropertyValue(missingKeyEntities.get(i), tableInfo.getKeyProperty(),
+                    Convert.convert(tableInfo.getKeyType(), keys.get(i)));
+        }
+    }
+
+    /**
+     * 完成插入填充后，按非 null 的字段分组，每组生成相同的列
+     *
+     * 插入填充原本在 SQL 生成之后才执行，这里提前执行，保证创建时间等填充字段被写入
+     */
+    private Map<Set<String>, List<T>> groupByNonNullColumns(TableInfo tableInfo, Collection<T> entities) {
+        MetaObjectHandler metaObjectHandler = tableInfo.isWithInsertFill()
+                ? GlobalConfigUtils.getMetaObjectHandler(tableInfo.getConfiguration()).orElse(null) : null;
+        Map<Set<String>, List<T>> groups = new LinkedHashMap<>();
+        for (T entity : entities) {
+            if (metaObjectHandler != null) {
+                metaObjectHandler.insertFill(tableInfo.getConfiguration().newMetaObject(entity));
+            }
+            Set<String> columns = new HashSet<>();
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                if (tableInfo.getPropertyValue(entity, field.getProperty()) != null) {
+                    columns.add(field.getProperty());
+                }
+            }
+            groups.computeIfAbsent(columns, key -> new ArrayList<>()).add(entity);
+        }
+        return groups;
+    }
+
+    private int getBatchValuesSize(TableInfo tableInfo, int size) {
+        int parametersPerRow = tableInfo.getFieldList().size() + 1;
+        return Math.max(1, Math.min(Math.min(size, InsertBatchValues.MAX_BATCH_SIZE),
+                InsertBatchValues.MAX_PARAMETERS / parametersPerRow));
+    }
+
+    private static String getUpsertDialect(DbType dbType) {
+        if (ObjectUtils.equalsAny(dbType, DbType.MYSQL, DbType.MARIADB)) {
+            return UpsertBatchValues.DIALECT_MYSQL;
+        }
+        if (ObjectUtils.equalsAny(dbType, DbType.POSTGRE_SQL, DbType.KINGBASE_ES)) {
+            return UpsertBatchValues.DIALECT_POSTGRESQL;
+        }
+        return null;
+    }
+
+    private static String getSequenceDialect(DbType dbType) {
+        if (ObjectUtils.equalsAny(dbType, DbType.POSTGRE_SQL, DbType.KINGBASE_ES)) {
+            return SelectSequenceValues.DIALECT_POSTGRESQL;
+        }
+        if (dbType == DbType.H2) {
+            return SelectSequenceValues.DIALECT_H2;
+        }
+        if (ObjectUtils.equalsAny(dbType, DbType.ORACLE, DbType.ORACLE_12C, DbType.DM)) {
+            return SelectSequenceValues.DIALECT_ORACLE;
+        }
+        return null;
+    }
+
     default int updateBatch(T update) {
         return update(update, new QueryWrapper<>());
     }
@@ -0,0 +1,376 @@
+package cn.iocoder.yudao.framework.mybatis.core.util;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.util.ReUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
+import cn.iocoder.yudao.framework.mybatis.core.enums.DbTypeEnum;
+import com.baomidou.mybatisplus.annotation.DbType;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.*;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据保留（过期数据清理）工具类，适用于日志等按照时间顺序追加写入的大表
+ *
+ * 1. 按照 create_time 范围分区的表，直接删除整个过期的分区：
+ *    MySQL 支持 RANGE COLUMNS(create_time)、RANGE(TO_DAYS(create_time))、RANGE(UNIX_TIMESTAMP(create_time))，
+ *    PostgreSQL 支持 PARTITION BY RANGE (create_time)
+ * 2. 剩余的过期数据，按照主键顺序分批扫描，再按照主键删除，每条 SQL 只锁定少量的行。
+ *    批次大小根据删除耗时自适应，每批之间按照耗时的比例休眠，给业务 SQL 留出余量
+ *
+ * 要求表的主键为数值类型的 id，且包含 create_time 字段。
+ * 注意，直接通过 JDBC 执行，不经过多租户、逻辑删除等 MyBatis 插件，会物理删除所有租户的数据
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class DataRetentionUtils {
+
+    /**
+     * MySQL 中 TO_DAYS('1970-01-01') 的值
+     */
+    private static final long MYSQL_EPOCH_DAYS = 719528L;
+
+    /**
+     * 删除过期的数据
+     *
+     * @param tableName  表名
+     * @param expireTime 过期时间，create_time 早于该时间的数据会被删除
+     * @param options    删除的选项
+     * @return 删除的结果
+     */
+    public static RetentionResult deleteExpired(String tableName, LocalDateTime expireTime, RetentionOptions options) {
+        RetentionResult result = new RetentionResult().setTableName(tableName);
+        long startTime = System.nanoTime();
+        try (Connection conn = JdbcUtils.getDataSource().getConnection()) {
+            // 1. 删除过期的分区
+            if (options.getPartitionEnable()) {
+                dropExpiredPartitions(conn, tableName, expireTime, result);
+            }
+            // 2. 分批删除剩余的过期数据
+            deleteExpiredRows(conn, tableName, expireTime, options, result, startTime);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(StrUtil.format("删除表({}) 的过期数据失败", tableName), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("[deleteExpired][表({}) 删除过期数据被中断]", tableName);
+        }
+        result.setDuration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        log.info("[deleteExpired][表({}) 删除分区({}) 删除 {} 条，耗时 {} ms，每秒 {} 条{}]", tableName,
+                result.getDroppedPartitions(), result.getDeletedRows(), result.getDuration(),
+                result.getRowsPerSecond(), result.getTimeout() ? "，超过最长执行时间，剩余的下次继续" : "");
+        return result;
+    }
+
+    // ========== 分区 ==========
+
+    private static void dropExpiredPartitions(Connection conn, String tableName, LocalDateTime expireTime,
+                                              RetentionResult result) {
+        try {
+            DbType dbType = DbTypeEnum.find(conn.getMetaData().getDatabaseProductName());
+            if (ObjectUtils.equalsAny(dbType, DbType.MYSQL, DbType.MARIADB)) {
+                List<String> partitions = getExpiredMySQLPartitions(conn, tableName, expireTime);
+                if (!partitions.isEmpty()) {
+                    execute(conn, "ALTER TABLE " + tableName + " DROP PARTITION "
+                            + StrUtil.join(", ", partitions.stream().map(name -> "`" + name + "`").toList()));
+                    result.getDroppedPartitions().addAll(partitions);
+                }
+            } else if (dbType == DbType.POSTGRE_SQL) {
+                for (String partition : getExpiredPostgreSQLPartitions(conn, tableName, expireTime)) {
+                    // PostgreSQL 11 起，分区即子表，可以直接删除
+                    execute(conn, "DROP TABLE " + partition);
+                    result.getDroppedPartitions().add(partition);
+                }
+            }
+        } catch (SQLException ex) {
+            // 例如说，没有查询元数据、删除分区的权限，降级为按照主键删除
+            log.warn("[dropExpiredPartitions][表({}) 删除过期分区失败，改为按照主键删除]", tableName, ex);
+        }
+    }
+
+    private static List<String> getExpiredMySQLPartitions(Connection conn, String tableName,
+                                                          LocalDateTime expireTime) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        // 存在子分区时，PARTITION_NAME 会重复，此时不处理
+        String sql = "SELECT PARTITION_NAME, PARTITION_METHOD, PARTITION_EXPRESSION, PARTITION_DESCRIPTION"
+                + " FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?"
+                + " AND PARTITION_NAME IS NOT NULL AND SUBPARTITION_NAME IS NULL ORDER BY PARTITION_ORDINAL_POSITION";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LocalDateTime upperBound = parseMySQLPartitionUpperBound(rs.getString(2), rs.getString(3), rs.getString(4));
+                    // 分区中的数据都早于上界，上界不晚于过期时间时，整个分区都已过期
+                    if (upperBound != null && !upperBound.isAfter(expireTime)) {
+                        partitions.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 解析 MySQL 分区的上界，即 VALUES LESS THAN 的值
+     *
+     * @return 上界；不是按照 create_time 范围分区、或者为 MAXVALUE 时，返回 null
+     */
+    private static LocalDateTime parseMySQLPartitionUpperBound(String method, String expression, String description) {
+        if (StrUtil.isEmpty(description) || "MAXVALUE".equalsIgnoreCase(description)) {
+            return null;
+        }
+        String key = StrUtil.cleanBlank(StrUtil.removeAll(StrUtil.nullToEmpty(expression), '`')).toLowerCase();
+        if ("RANGE COLUMNS".equalsIgnoreCase(method) && "create_time".equals(key)) {
+            return LocalDateTimeUtil.of(DateUtil.parse(StrUtil.unWrap(description, '\'')));
+        }
+        if ("RANGE".equalsIgnoreCase(method) && "to_days(create_time)".equals(key)) {
+            return LocalDate.ofEpochDay(Long.parseLong(description) - MYSQL_EPOCH_DAYS).atStartOfDay();
+        }
+        if ("RANGE".equalsIgnoreCase(method) && "unix_timestamp(create_time)".equals(key)) {
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(description)), ZoneId.systemDefault());
+        }
+        return null;
+    }
+
+    private static List<String> getExpiredPostgreSQLPartitions(Connection conn, String tableName,
+                                                               LocalDateTime expireTime) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        // 1. 校验按照 create_time 范围分区；未分区时，pg_get_partkeydef 返回 null
+        try (PreparedStatement ps = conn.prepareStatement("SELECT pg_get_partkeydef(?::regclass)")) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || !"range(create_time)".equalsIgnoreCase(StrUtil.cleanBlank(rs.getString(1)))) {
+                    return partitions;
+                }
+            }
+        }
+        // 2. 获得上界不晚于过期时间的分区。分区名使用 regclass 转换，按需带上 schema 和引号
+        String sql = "SELECT c.oid::regclass::text, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // 例如说：FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')
+                    String upperBound = ReUtil.get("TO \\('([^']+)'\\)", rs.getString(2), 1);
+                    if (upperBound != null && !LocalDateTimeUtil.of(DateUtil.parse(StrUtil.subPre(upperBound, 19)))
+                            .isAfter(expireTime)) {
+                        partitions.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    // ========== 按照主键删除 ==========
+
+    private static void deleteExpiredRows(Connection conn, String tableName, LocalDateTime expireTime,
+                                          RetentionOptions options, RetentionResult result, long startTime)
+            throws SQLException, InterruptedException {
+        DbTypeEnum dbType = DbTypeEnum.MAP_BY_NAME.get(conn.getMetaData().getDatabaseProductName());
+        String selectSql = buildSelectSql(dbType != null ? dbType.getMpDbType() : null, tableName);
+        boolean limitFirst = dbType != null && isSQLServer(dbType.getMpDbType());
+        long deadline = startTime + options.getTimeout().toNanos();
+        long targetMillis = options.getBatchTargetTime().toMillis();
+        int batchSize = options.getBatchSize();
+        long lastId = 0L;
+        while (true) {
+            // 1. 按照主键顺序扫描下一批
+            int limit = batchSize;
+            int scanCount = 0;
+            boolean reachedUnexpired = false;
+            List<Long> expiredIds = new ArrayList<>(limit);
+            try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+                if (dbType == null) {
+                    // 未知的数据库，无法在 SQL 中限制条数，只能由驱动截断
+                    ps.setMaxRows(limit);
+                    ps.setLong(1, lastId);
+                } else if (limitFirst) {
+                    ps.setInt(1, limit);
+                    ps.setLong(2, lastId);
+                } else {
+                    ps.setLong(1, lastId);
+                    ps.setInt(2, limit);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        scanCount++;
+                        lastId = rs.getLong(1);
+                        LocalDateTime createTime = rs.getObject(2, LocalDateTime.class);
+                        if (createTime == null) {
+                            continue;
+                        }
+                        if (createTime.isBefore(expireTime)) {
+                            expiredIds.add(lastId);
+                        } else {
+                            reachedUnexpired = true;
+                        }
+                    }
+                }
+            }
+
+            // 2. 按照主键删除，并根据耗时调整批次大小
+            if (!expiredIds.isEmpty()) {
+                long batchStartTime = System.nanoTime();
+                result.setDeletedRows(result.getDeletedRows() + deleteByIds(conn, tableName, expiredIds));
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStartTime);
+                if (elapsedMillis * 2 < targetMillis) {
+                    batchSize = Math.min(batchSize * 2, options.getMaxBatchSize());
+                } else if (elapsedMillis > targetMillis) {
+                    batchSize = Math.max(batchSize / 2, options.getMinBatchSize());
+                }
+                // 限流：按照删除耗时的比例休眠
+                Thread.sleep((long) (elapsedMillis * options.getThrottleRatio()));
+            }
+
+            // 3. 扫描到表尾，或者扫描到未过期的数据（按照时间顺序写入，之后的数据也未过期）时，结束
+            if (scanCount < limit || reachedUnexpired) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                result.setTimeout(true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 构建按照主键扫描下一批的 SQL，在 SQL 中限制条数，使数据库按照主键索引只读取一批，而不是由驱动截断结果集
+     *
+     * SQL Server 使用 TOP，条数为第 1 个参数；其它数据库的条数为最后 1 个参数
+     */
+    private static String buildSelectSql(DbType dbType, String tableName) {
+        String sql = "SELECT id, create_time FROM " + tableName + " WHERE id > ? ORDER BY id";
+        if (dbType == null) {
+            return sql;
+        }
+        if (isSQLServer(dbType)) {
+            return "SELECT TOP (?) id, create_time FROM " + tableName + " WHERE id > ? ORDER BY id";
+        }
+        if (dbType == DbType.ORACLE) {
+            // 兼容 Oracle 12c 之前不支持 FETCH FIRST 的版本
+            return "SELECT id, create_time FROM (" + sql + ") WHERE ROWNUM <= ?";
+        }
+        // MySQL、PostgreSQL、H2、达梦、人大金仓等
+        return sql + " LIMIT ?";
+    }
+
+    private static boolean isSQLServer(DbType dbType) {
+        return ObjectUtils.equalsAny(dbType, DbType.SQL_SERVER, DbType.SQL_SERVER2005);
+    }
+
+    private static int deleteByIds(Connection conn, String tableName, List<Long> ids) throws SQLException {
+        String sql = "DELETE FROM " + tableName + " WHERE id IN (" + StrUtil.repeatAndJoin("?", ids.size(), ", ") + ")";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 1, ids.get(i));
+            }
+            int rows = ps.executeUpdate();
+            commitIfNecessary(conn);
+            return rows;
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(sql);
+            commitIfNecessary(conn);
+        }
+    }
+
+    /**
+     * 连接池关闭了自动提交时，每批单独提交，避免长事务
+     */
+    private static void commitIfNecessary(Connection conn) throws SQLException {
+        if (!conn.getAutoCommit()) {
+            conn.commit();
+        }
+    }
+
+    /**
+     * 删除的选项
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class RetentionOptions {
+
+        /**
+         * 是否删除过期的分区
+         */
+        private Boolean partitionEnable = true;
+        /**
+         * 初始的批次大小
+         */
+        private Integer batchSize = 1000;
+        /**
+         * 最小的批次大小
+         */
+        private Integer minBatchSize = 100;
+        /**
+         * 最大的批次大小。注意，SQL Server 单条 SQL 最多 2100 个参数
+         */
+        private Integer maxBatchSize = 2000;
+        /**
+         * 每批删除的目标耗时。低于一半时批次翻倍，超过时批次减半
+         */
+        private Duration batchTargetTime = Duration.ofMillis(200);
+        /**
+         * 每批之间休眠的时间，与删除耗时的比例。例如说，1 表示休眠与删除相同的时间，数据库负载不超过一半
+         */
+        private Double throttleRatio = 1D;
+        /**
+         * 最长执行时间，超过时结束，剩余的数据由下次继续删除，避免持续到业务高峰
+         */
+        private Duration timeout = Duration.ofHours(1);
+
+    }
+
+    /**
+     * 删除的结果
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class RetentionResult {
+
+        /**
+         * 表名
+         */
+        private String tableName;
+        /**
+         * 删除的分区
+         */
+        private List<String> droppedPartitions = new ArrayList<>();
+        /**
+         * 按照主键删除的条数，不包括删除分区中的数据
+         */
+        private Integer deletedRows = 0;
+        /**
+         * 是否超过最长执行时间
+         */
+        private Boolean timeout = false;
+        /**
+         * 执行耗时，单位：毫秒
+         */
+        private Long duration;
+
+        /**
+         * 获得每秒删除的条数
+         *
+         * @return 每秒删除的条数
+         */
+        public long getRowsPerSecond() {
+            return duration == null || duration == 0 ? deletedRows : deletedRows * 1000L / duration;
+        }
+
+    }
+
+}
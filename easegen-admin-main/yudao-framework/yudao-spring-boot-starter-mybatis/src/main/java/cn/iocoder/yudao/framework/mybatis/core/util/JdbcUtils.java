@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.mybatis.core.util;
 
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
 import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
 import cn.iocoder.yudao.framework.common.util.spring.SpringUtils;
 import cn.iocoder.yudao.framework.mybatis.core.enums.DbTypeEnum;
@@ -11,6 +12,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Set;
 
 /**
  * JDBC 工具类
@@ -19,6 +21,20 @@ import java.sql.SQLException;
  */
 public class JdbcUtils {
 
+    /**
+     * 支持多行 VALUES 插入（INSERT ... VALUES (...), (...)）的数据库
+     */
+    private static final Set<DbType> MULTI_VALUES_DB_TYPES = SetUtils.asSet(DbType.MYSQL, DbType.MARIADB, DbType.H2,
+            DbType.POSTGRE_SQL, DbType.KINGBASE_ES, DbType.SQL_SERVER, DbType.DM);
+
+    /**
+     * 多行 VALUES 插入后，能按顺序返回所有自增主键的数据库
+     *
+     * SQL Server、达梦只返回最后一行的自增主键
+     */
+    private static final Set<DbType> MULTI_VALUES_GENERATED_KEYS_DB_TYPES = SetUtils.asSet(DbType.MYSQL, DbType.MARIADB, DbType.H2,
+            DbType.POSTGRE_SQL, DbType.KINGBASE_ES);
+
     /**
      * 判断连接是否正确
      *
@@ -51,20 +67,27 @@ public class JdbcUtils {
      * @return DB 类型
      */
     public static DbType getDbType() {
-        DataSource dataSource;
-        try {
-            DynamicRoutingDataSource dynamicRoutingDataSource = SpringUtils.getBean(DynamicRoutingDataSource.class);
-            dataSource = dynamicRoutingDataSource.determineDataSource();
-        } catch (NoSuchBeanDefinitionException e) {
-            dataSource = SpringUtils.getBean(DataSource.class);
-        }
-        try (Connection conn = dataSource.getConnection()) {
+        try (Connection conn = getDataSource().getConnection()) {
             return DbTypeEnum.find(conn.getMetaData().getDatabaseProductName());
         } catch (SQLException e) {
             throw new IllegalArgumentException(e.getMessage());
         }
     }
 
+    /**
+     * 获得当前的数据源。使用多数据源时，为当前上下文路由到的数据源
+     *
+     * @return 数据源
+     */
+    public static DataSource getDataSource() {
+        try {
+            DynamicRoutingDataSource dynamicRoutingDataSource = SpringUtils.getBean(DynamicRoutingDataSource.class);
+            return dynamicRoutingDataSource.determineDataSource();
+        } catch (NoSuchBeanDefinitionException e) {
+            return SpringUtils.getBean(DataSource.class);
+        }
+    }
+
     /**
      * 判断 JDBC 连接是否为 SQLServer 数据库
      *
@@ -86,4 +109,24 @@ public class JdbcUtils {
         return ObjectUtils.equalsAny(dbType, DbType.SQL_SERVER, DbType.SQL_SERVER2005);
     }
 
+    /**
+     * 判断数据库是否支持多行 VALUES 插入
+     *
+     * @param dbType DB 类型
+     * @return 是否支持
+     */
+    public static boolean isMultiValuesInsertSupported(DbType dbType) {
+        return MULTI_VALUES_DB_TYPES.contains(dbType);
+    }
+
+    /**
+     * 判断数据库在多行 VALUES 插入后，是否能按顺序返回所有自增主键
+     *
+     * @param dbType DB 类型
+     * @return 是否支持
+     */
+    public static boolean isMultiValuesGeneratedKeysSupported(DbType dbType) {
+        return MULTI_VALUES_GENERATED_KEYS_DB_TYPES.contains(dbType);
+    }
+
 }
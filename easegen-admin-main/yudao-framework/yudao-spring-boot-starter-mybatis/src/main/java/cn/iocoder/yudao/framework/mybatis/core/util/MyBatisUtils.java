@@ -4,12 +4,14 @@ import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
+import cn.iocoder.yudao.framework.common.util.spring.SpringUtils;
 import cn.iocoder.yudao.framework.mybatis.core.enums.DbTypeEnum;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.schema.Column;
@@ -57,6 +59,18 @@ public class MyBatisUtils {
         interceptor.setInterceptors(inners);
     }
 
+    /**
+     * 判断表在当前上下文中，是否会被多租户插件拼接租户条件
+     *
+     * @param tableName 表名
+     * @return 是否为多租户的表；未启用多租户插件、或者忽略多租户时为 false
+     */
+    public static boolean isTenantTable(String tableName) {
+        TenantLineInnerInterceptor interceptor = SpringUtils.getBeanFactory()
+                .getBeanProvider(TenantLineInnerInterceptor.class).getIfAvailable();
+        return interceptor != null && !interceptor.getTenantLineHandler().ignoreTable(tableName);
+    }
+
     /**
      * 获得 Table 对应的表名
      * <p>
@@ -0,0 +1,105 @@
+package cn.iocoder.yudao.framework.test.core.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * 单元测试，性能对比工具类
+ *
+ * 项目未引入 JMH，这里统一「预热 + 多轮测量 + 取中位数」的流程，供手动执行的性能对比使用：
+ * 1. 预热轮次不计入结果，让 JIT 编译、连接池、缓存等达到稳定状态
+ * 2. 每一轮中，各候选按轮换的顺序交替执行，避免 GC、JIT 等偏向某一个候选
+ * 3. 每一轮执行前调用 {@link TaskFactory#prepare()} 准备数据，准备的耗时不计入结果
+ * 4. 结果通过日志输出，并作为返回值，方便调用方断言
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class BenchmarkUtils {
+
+    /**
+     * 被测量的操作
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        void run() throws Exception;
+
+    }
+
+    /**
+     * 每一轮执行前，准备被测量的操作，耗时不计入结果
+     */
+    @FunctionalInterface
+    public interface TaskFactory {
+
+        Task prepare() throws Exception;
+
+    }
+
+    /**
+     * 单个候选的测量结果
+     *
+     * @param name 候选名
+     * @param medianNanos 每次操作耗时的中位数（纳秒）
+     * @param minNanos 每次操作耗时的最小值（纳秒）
+     * @param maxNanos 每次操作耗时的最大值（纳秒）
+     */
+    public record Result(String name, long medianNanos, long minNanos, long maxNanos) {
+    }
+
+    /**
+     * 对比多个候选的耗时
+     *
+     * @param title 标题，用于日志
+     * @param warmupIterations 预热轮数
+     * @param measurementIterations 测量轮数
+     * @param operationsPerIteration 每一轮中，每个候选执行的次数
+     * @param candidates 候选名 => 操作的工厂，按顺序输出
+     * @return 候选名 => 测量结果
+     */
+    public static Map<String, Result> compare(String title, int warmupIterations, int measurementIterations,
+                                              int operationsPerIteration, Map<String, TaskFactory> candidates) throws Exception {
+        List<String> names = new ArrayList<>(candidates.keySet());
+        Map<String, long[]> samples = new HashMap<>();
+        names.forEach(name -> samples.put(name, new long[measurementIterations]));
+        for (int iteration = 0; iteration < warmupIterations + measurementIterations; iteration++) {
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get((iteration + i) % names.size());
+                long nanosPerOperation = measure(candidates.get(name), operationsPerIteration);
+                if (iteration >= warmupIterations) {
+                    samples.get(name)[iteration - warmupIterations] = nanosPerOperation;
+                }
+            }
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String name : names) {
+            long[] values = samples.get(name);
+            Arrays.sort(values);
+            results.put(name, new Result(name, values[values.length / 2], values[0], values[values.length - 1]));
+        }
+        log(title, warmupIterations, measurementIterations, operationsPerIteration, results);
+        return results;
+    }
+
+    private static long measure(TaskFactory factory, int operations) throws Exception {
+        Task task = factory.prepare();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / operations;
+    }
+
+    private static void log(String title, int warmupIterations, int measurementIterations, int operationsPerIteration,
+                            Map<String, Result> results) {
+        long baseline = results.values().iterator().next().medianNanos();
+        results.values().forEach(result -> log.info("[compare][{}] {}：中位数 {} ns/op，最小 {} ns/op，最大 {} ns/op，相对 {}%（预热 {} 轮，测量 {} 轮，每轮 {} 次）",
+                title, result.name(), result.medianNanos(), result.minNanos(), result.maxNanos(),
+                baseline > 0 ? result.medianNanos() * 100 / baseline : 0,
+                warmupIterations, measurementIterations, operationsPerIteration));
+    }
+
+}
@@ -41,4 +41,9 @@ public interface ErrorCodeConstants {
     ErrorCode COURSE_MEDIA_NOT_EXISTS = new ErrorCode(1-0010-000-015, "课程媒体不存在");
     ErrorCode COURSES_TEXT_NOT_EXISTS = new ErrorCode(1-0010-000-016, "课程文本信息不存在");
     ErrorCode TEMPLATE_NOT_EXISTS = new ErrorCode(1-0010-000-017, "模板不存在");
+    ErrorCode COURSE_SCENES_LOAD_TIMEOUT = new ErrorCode(1-0010-000-020, "课程场景加载超时，请稍后重试");
+    ErrorCode AIPPT_STREAM_CONCURRENCY_LIMIT = new ErrorCode(1-0010-000-021, "进行中的 AI 生成 PPT 不能超过 {} 个，请等待之前的生成完成");
+    ErrorCode AIPPT_STREAM_BUSY = new ErrorCode(1-0010-000-022, "AI 生成 PPT 的请求过多，请稍后重试");
+    ErrorCode DOC_PARSE_JOB_NOT_EXISTS = new ErrorCode(1-0010-000-023, "文档解析任务不存在或已过期");
+    ErrorCode DOC_PARSE_BUSY = new ErrorCode(1-0010-000-024, "文档解析的请求过多，请稍后重试");
 }
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.digitalcourse.enums.courseppts;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PPT 解析的状态枚举
+ *
+ * @author 芋道源码
+ */
+@Getter
+@AllArgsConstructor
+public enum PptAnalysisStatusEnum {
+
+    RUNNING(0, "解析中"),
+    SUCCESS(1, "解析成功"),
+    FAILURE(2, "解析失败"),
+    CANCELLED(3, "已取消");
+
+    /**
+     * 状态
+     */
+    private final Integer status;
+    /**
+     * 名字
+     */
+    private final String name;
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.digitalcourse.enums.docparse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文档解析任务的状态枚举
+ *
+ * @author 芋道源码
+ */
+@Getter
+@AllArgsConstructor
+public enum DocParseJobStatusEnum {
+
+    RUNNING(0, "解析中"),
+    SUCCESS(1, "解析成功"),
+    FAILURE(2, "解析失败");
+
+    /**
+     * 状态
+     */
+    private final Integer status;
+    /**
+     * 名字
+     */
+    private final String name;
+
+}
@@ -6,24 +6,32 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.excel.core.util.ExcelUtils;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppAiPptGenerateReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsPageReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsRespVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsSaveReqVO;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppPptAnalysisRespVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.CoursePptsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptAnalysisStatusDO;
+import cn.iocoder.yudao.module.digitalcourse.service.aippt.AiPptService;
 import cn.iocoder.yudao.module.digitalcourse.service.courseppts.CoursePptsService;
 import cn.iocoder.yudao.module.digitalcourse.util.DocmeePptApi;
+import cn.iocoder.yudao.module.digitalcourse.util.PPTUtil;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import jakarta.annotation.security.PermitAll;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.File;
 import java.io.IOException;
@@ -32,7 +40,10 @@ import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.BAD_REQUEST;
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.INTERNAL_SERVER_ERROR;
+import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.UNAUTHORIZED;
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.getLoginUserId;
 
 @Tag(name = "用户 APP - 存储课程的PPT信息，包括文件名、文件大小、类型等")
 @RestController
@@ -49,6 +60,9 @@ public class AppCoursePptsController {
     @Resource
     private ConfigApi configApi;
 
+    @Resource
+    private AiPptService aiPptService;
+
     // API Key
     private static final String AIPPT_KEY = "aippt.key";
 
@@ -106,6 +120,14 @@ public class AppCoursePptsController {
        return coursePptsService.getSchedule(id);
     }
 
+    @GetMapping("/get-analysis-status")
+    @Operation(summary = "获得 PPT 解析状态", description = "解析进度通过 WebSocket 推送，断线重连后使用该接口恢复")
+    @Parameter(name = "id", description = "编号", required = true, example = "1024")
+    public CommonResult<AppPptAnalysisRespVO> getAnalysisStatus(@RequestParam("id") Long id) {
+        PptAnalysisStatusDO status = coursePptsService.getAnalysisStatus(id);
+        return success(status != null ? PPTUtil.buildAnalysisResp(status) : null);
+    }
+
     @PostMapping("/merge")
     @Operation(summary = "合并ppt")
     public ResponseEntity<Object> mergePPTs(@RequestParam("files") MultipartFile[] files) {
@@ -191,6 +213,17 @@ public class AppCoursePptsController {
         }
     }
 
+    @PostMapping(value = "/directGeneratePptStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "流式生成PPT", description = "Docmee 的事件到达后立即转发；断开连接时中止生成")
+    @PermitAll  // 解决 SSE 最终响应的时候，会被 Access Denied 拦截的问题
+    public SseEmitter directGeneratePptStream(@Valid AppAiPptGenerateReqVO reqVO) {
+        Long userId = getLoginUserId();
+        if (userId == null) {
+            throw exception(UNAUTHORIZED);
+        }
+        return aiPptService.directGeneratePptxStream(userId, reqVO);
+    }
+
     @PostMapping("/downloadPpt")
     @Operation(summary = "下载生成的PPT文件")
     public CommonResult<String> downloadPpt(@RequestParam("apiToken") String apiToken,
@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Schema(description = "用户 APP - AI 流式生成 PPT Request VO")
+@Data
+public class AppAiPptGenerateReqVO {
+
+    @Schema(description = "Docmee 的 API Token", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "API Token 不能为空")
+    private String apiToken;
+
+    @Schema(description = "模板编号，为空时随机", example = "1024")
+    private String templateId;
+
+    @Schema(description = "主题", requiredMode = Schema.RequiredMode.REQUIRED, example = "人工智能简介")
+    @NotEmpty(message = "主题不能为空")
+    private String subject;
+
+    @Schema(description = "解析文件得到的数据 URL")
+    private String dataUrl;
+
+    @Schema(description = "提示词")
+    private String prompt;
+
+    @Schema(description = "是否返回 PPT 的结构数据", requiredMode = Schema.RequiredMode.REQUIRED, example = "false")
+    @NotNull(message = "是否返回 PPT 的结构数据不能为空")
+    private Boolean pptxProperty;
+
+}
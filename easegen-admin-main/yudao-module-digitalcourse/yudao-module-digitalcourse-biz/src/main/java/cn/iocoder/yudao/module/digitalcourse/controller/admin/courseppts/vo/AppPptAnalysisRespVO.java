@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Schema(description = "用户 APP - PPT 解析状态 Response VO")
+@Data
+public class AppPptAnalysisRespVO {
+
+    @Schema(description = "PPT 编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    private Long pptId;
+
+    @Schema(description = "状态，0 解析中，1 解析成功，2 解析失败，3 已取消", requiredMode = Schema.RequiredMode.REQUIRED, example = "0")
+    private Integer status;
+
+    @Schema(description = "总页数，转换为 PDF 之前为 0", requiredMode = Schema.RequiredMode.REQUIRED, example = "20")
+    private Integer pageCount;
+
+    @Schema(description = "已渲染并保存素材的页数", requiredMode = Schema.RequiredMode.REQUIRED, example = "10")
+    private Integer savedCount;
+
+    @Schema(description = "进度，0 ~ 1", requiredMode = Schema.RequiredMode.REQUIRED, example = "0.5")
+    private Double progress;
+
+    @Schema(description = "本次完成的页码，从 0 开始；仅页面完成的推送有值", example = "9")
+    private Integer pageIndex;
+
+    @Schema(description = "本次完成页面的图片地址；仅页面完成的推送有值", example = "https://www.iocoder.cn/1.jpg")
+    private String pictureUrl;
+
+    @Schema(description = "失败原因", example = "生成的PDF文件无效")
+    private String errorMsg;
+
+}
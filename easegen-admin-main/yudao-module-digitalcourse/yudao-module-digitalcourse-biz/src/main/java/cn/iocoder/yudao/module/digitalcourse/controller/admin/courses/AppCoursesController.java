@@ -1,9 +1,15 @@
 package cn.iocoder.yudao.module.digitalcourse.controller.admin.courses;
 
+import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo.*;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse.DocParseJobDO;
+import cn.iocoder.yudao.module.digitalcourse.enums.docparse.DocParseJobStatusEnum;
+import cn.iocoder.yudao.module.digitalcourse.framework.docparse.config.DocParseProperties;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.HttpResult;
+import cn.iocoder.yudao.module.digitalcourse.service.docparse.DocParseService;
 import cn.iocoder.yudao.module.digitalcourse.util.GenQuestionUtil;
-import cn.iocoder.yudao.module.digitalcourse.util.Pdf2MdUtil;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
@@ -11,17 +17,12 @@ import jakarta.annotation.Resource;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.StringEntity;
-import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.validation.annotation.Validated;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +31,7 @@ import io.swagger.v3.oas.annotations.Operation;
 
 import java.net.URLEncoder;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.*;
 import java.io.IOException;
 
@@ -40,8 +42,12 @@ import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.BAD_REQUEST;
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.UNAUTHORIZED;
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.error;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.getLoginUserId;
+import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.getLoginUserType;
+import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.DOC_PARSE_JOB_NOT_EXISTS;
 
 import cn.iocoder.yudao.framework.excel.core.util.ExcelUtils;
 
@@ -54,6 +60,7 @@ import com.alibaba.fastjson.JSON;
 @RestController
 @RequestMapping("/digitalcourse/courses")
 @Validated
+@Slf4j
 public class AppCoursesController {
 
     private static final String EASEGEN_CORE_URL = "easegen.core.url";
@@ -62,6 +69,11 @@ public class AppCoursesController {
 
     static final String USER_APIKEY_KEY = "system:user:apikey:";
 
+    /**
+     * 同步解析文档时，在任务超时的基础上额外等待的时间
+     */
+    private static final Duration DOC_PARSE_WAIT_MARGIN = Duration.ofSeconds(10);
+
     @Resource
     private CoursesService coursesService;
 
@@ -72,11 +84,16 @@ public class AppCoursesController {
     private GenQuestionUtil genQuestionUtil;
 
     @Resource
-    private Pdf2MdUtil pdf2MdUtil;
+    private DocParseService docParseService;
+    @Resource
+    private DocParseProperties docParseProperties;
 
     @Resource
     private StringRedisTemplate redisCache;
 
+    @Resource
+    private DigitalCourseHttpClient digitalCourseHttpClient;
+
 
     @PostMapping("/create")
     @Operation(summary = "创建存储课程的基本信息，包括课程名称、时长、状态等")
@@ -129,28 +146,15 @@ public class AppCoursesController {
     public CommonResult<String> genQuestion(@RequestBody Map<String, Object> requestParams) {
         String apiUrl = configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/generate_questions";
         String apiKey = configApi.getConfigValueByKey(EASEGEN_CORE_KEY);
-        // 创建HTTP客户端
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            // 创建POST请求
-            HttpPost httpPost = new HttpPost(apiUrl);
-            httpPost.setHeader("Content-Type", "application/json");
-            httpPost.setHeader("X-API-Key", apiKey);
-            httpPost.setEntity(new StringEntity(JSON.toJSONString(requestParams), ContentType.APPLICATION_JSON));
-            // 执行请求
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getCode();
-                String responseString = EntityUtils.toString(response.getEntity());
-                if (statusCode == 200) {
-                    return CommonResult.success(responseString);
-                } else {
-                    return error(statusCode, responseString);
-                }
-            } catch (ParseException e) {
-                e.printStackTrace();
-                return error(500, "Internal Server Error: " + e.getMessage());
+        try {
+            HttpResult result = digitalCourseHttpClient.postJson(apiUrl, MapUtil.of("X-API-Key", apiKey),
+                    JSON.toJSONString(requestParams));
+            if (result.isOk()) {
+                return CommonResult.success(result.getBody());
             }
+            return error(result.getStatus(), result.getBody());
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("[genQuestion][请求 easegen core 失败]", e);
             return error(500, "Internal Server Error: " + e.getMessage());
         }
     }
@@ -180,17 +184,50 @@ public class AppCoursesController {
     }
 
     @PostMapping("/docparse")
-    public CommonResult<String> docparse(@RequestBody Map<String, Object> requestParams) {
-        String type = (String) requestParams.get("type");
-        String fileUrl = (String) requestParams.get("fileUrl");
+    @Operation(summary = "解析文档", description = "异步等待解析完成，不占用请求线程；推荐使用 /docparse/create 创建任务")
+    public DeferredResult<CommonResult<String>> docparse(@RequestBody Map<String, Object> requestParams) {
+        AppDocParseReqVO reqVO = new AppDocParseReqVO();
+        reqVO.setFileUrl((String) requestParams.get("fileUrl"));
+        reqVO.setType((String) requestParams.get("type"));
+        // 在任务超时的基础上，多等待一会，保证任务超时的结果能返回
+        DeferredResult<CommonResult<String>> result = new DeferredResult<>(
+                docParseProperties.getTimeout().plus(DOC_PARSE_WAIT_MARGIN).toMillis(),
+                error(500, "Internal Server Error: 解析超时"));
+        // 保持原有的返回格式：失败时返回 500 的 CommonResult，而不是抛出异常
+        if (StrUtil.isBlank(reqVO.getFileUrl())) {
+            result.setResult(error(500, "Internal Server Error: fileUrl不能为空"));
+            return result;
+        }
         try {
-            String responseString = pdf2MdUtil.recognizeMarkdown(fileUrl, type);
-            return CommonResult.success(responseString);
+            docParseService.parseDoc(getLoginUserId(), getLoginUserType(), reqVO).thenAccept(job -> {
+                if (DocParseJobStatusEnum.SUCCESS.getStatus().equals(job.getStatus())) {
+                    result.setResult(CommonResult.success(job.getContent()));
+                } else {
+                    result.setResult(error(500, "Internal Server Error: " + job.getErrorMsg()));
+                }
+            });
         } catch (Exception e) {
-            e.printStackTrace();
-            return error(500, "Internal Server Error: " + e.getMessage());
+            log.error("[docparse][文件({}) 解析失败]", reqVO.getFileUrl(), e);
+            result.setResult(error(500, "Internal Server Error: " + e.getMessage()));
         }
+        return result;
+    }
 
+    @PostMapping("/docparse/create")
+    @Operation(summary = "创建文档解析任务", description = "立即返回任务编号，解析完成后通过 WebSocket 推送，也可以按任务编号查询")
+    public CommonResult<String> createDocParseJob(@Valid @RequestBody AppDocParseReqVO reqVO) {
+        return success(docParseService.createDocParseJob(getLoginUserId(), getLoginUserType(), reqVO).getId());
+    }
+
+    @GetMapping("/docparse/get")
+    @Operation(summary = "获得文档解析任务")
+    @Parameter(name = "id", description = "任务编号", required = true)
+    public CommonResult<AppDocParseJobRespVO> getDocParseJob(@RequestParam("id") String id) {
+        DocParseJobDO job = docParseService.getDocParseJob(getLoginUserId(), id);
+        if (job == null) {
+            throw exception(DOC_PARSE_JOB_NOT_EXISTS);
+        }
+        return success(BeanUtils.toBean(job, AppDocParseJobRespVO.class));
     }
 
 
@@ -215,6 +252,28 @@ public class AppCoursesController {
     }
 
 
+    @PostMapping("/getCourseTextBatch")
+    @Operation(summary = "批量获得课程的下一个段落与上课进度，供看板一次性展示多个课程")
+    public CommonResult<Map<String, CourseTextRespVO>> getCourseTextBatch(@Valid @RequestBody AppCourseTextBatchReqVO reqVO,
+                                                                          @RequestHeader(value = "easegen-api-key", required = false) String apiKey) {
+        if (StrUtil.isBlank(apiKey)) {
+            return error(BAD_REQUEST.getCode(), "缺少 easegen-api-key 请求头或请求头为空");
+        }
+        // 通过apiKey从缓存中获取用户信息
+        String userid = redisCache.opsForValue().get(USER_APIKEY_KEY + apiKey);
+        if (userid == null) {
+            return error(BAD_REQUEST.getCode(), "未找到用户信息，请确认apikey是否正确");
+        }
+        return success(coursesService.getCourseTextMap(reqVO.getCourseIds(), userid));
+    }
+
+    @GetMapping("/getCourseProgressBatch")
+    @Operation(summary = "批量获得自己课程的上课进度")
+    @Parameter(name = "course_ids", description = "课程编号数组", required = true, example = "1024,2048")
+    public CommonResult<Map<String, String>> getCourseProgressBatch(@RequestParam("course_ids") @Size(max = 200, message = "单次最多查询 200 个课程") List<String> courseIds) {
+        return success(coursesService.getCourseProgressMap(courseIds, getLoginUserId()));
+    }
+
     @GetMapping("/getCourseProgress")
     @Operation(summary = "获得上课进度")
     @Parameter(name = "course_id", description = "课程编号", required = true, example = "1024")
@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "用户 APP - 批量获得课程段落与上课进度 Request VO")
+@Data
+public class AppCourseTextBatchReqVO {
+
+    @Schema(description = "课程编号数组", requiredMode = Schema.RequiredMode.REQUIRED, example = "[1024, 2048]")
+    @NotEmpty(message = "课程编号不能为空")
+    @Size(max = 200, message = "单次最多查询 200 个课程")
+    private List<String> courseIds;
+
+}
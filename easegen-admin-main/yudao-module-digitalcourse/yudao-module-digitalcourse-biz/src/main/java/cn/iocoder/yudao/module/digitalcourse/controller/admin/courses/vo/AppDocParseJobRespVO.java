@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "用户 APP - 文档解析任务 Response VO")
+@Data
+public class AppDocParseJobRespVO {
+
+    @Schema(description = "任务编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "5b1e0c0d9a6d4e0f8e3c0f6a2b7c9d1e")
+    private String id;
+
+    @Schema(description = "状态，0 解析中，1 解析成功，2 解析失败", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    private Integer status;
+
+    @Schema(description = "解析结果", example = "# 第一章")
+    private String content;
+
+    @Schema(description = "失败原因", example = "解析超时")
+    private String errorMsg;
+
+    @Schema(description = "创建时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime createTime;
+
+}
@@ -0,0 +1,18 @@
+package cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Schema(description = "用户 APP - 文档解析 Request VO")
+@Data
+public class AppDocParseReqVO {
+
+    @Schema(description = "文件地址，支持 pdf、图片、docx、txt", requiredMode = Schema.RequiredMode.REQUIRED, example = "https://www.iocoder.cn/1.pdf")
+    @NotEmpty(message = "文件地址不能为空")
+    private String fileUrl;
+
+    @Schema(description = "解析类型，markdown 或 text", example = "markdown")
+    private String type;
+
+}
@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts;
+
+import cn.iocoder.yudao.module.digitalcourse.enums.courseppts.PptAnalysisStatusEnum;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * PPT 解析状态 DO
+ *
+ * 只存储在 Redis 中，不对应数据库表；用于断线重连后查询进度，进度变化时通过 WebSocket 推送
+ *
+ * @author 芋道源码
+ */
+@Data
+@Accessors(chain = true)
+public class PptAnalysisStatusDO {
+
+    /**
+     * PPT 编号
+     */
+    private Long pptId;
+    /**
+     * 用户编号
+     */
+    private Long userId;
+    /**
+     * 用户类型
+     */
+    private Integer userType;
+    /**
+     * 状态
+     *
+     * 枚举 {@link PptAnalysisStatusEnum}
+     */
+    private Integer status;
+    /**
+     * 总页数，转换为 PDF 之前为 0
+     */
+    private Integer pageCount;
+    /**
+     * 已渲染并保存素材的页数
+     */
+    private Integer savedCount;
+    /**
+     * 失败原因
+     */
+    private String errorMsg;
+
+}
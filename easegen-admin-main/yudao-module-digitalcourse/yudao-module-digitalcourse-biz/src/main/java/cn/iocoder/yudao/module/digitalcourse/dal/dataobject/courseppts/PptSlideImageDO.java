@@ -0,0 +1,26 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * PPT 页面图片 DO
+ *
+ * 只存储在 Redis 中，不对应数据库表
+ *
+ * @author 芋道源码
+ */
+@Data
+@Accessors(chain = true)
+public class PptSlideImageDO {
+
+    /**
+     * 原尺寸图片的地址
+     */
+    private String imagePath;
+    /**
+     * 缩略图的地址，未生成缩略图时为空
+     */
+    private String thumbnailPath;
+
+}
@@ -0,0 +1,63 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse;
+
+import cn.iocoder.yudao.module.digitalcourse.enums.docparse.DocParseJobStatusEnum;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文档解析任务 DO
+ *
+ * 只存储在 Redis 中，不对应数据库表
+ *
+ * @author 芋道源码
+ */
+@Data
+@Accessors(chain = true)
+public class DocParseJobDO {
+
+    /**
+     * 任务编号
+     */
+    private String id;
+    /**
+     * 用户编号
+     */
+    private Long userId;
+    /**
+     * 用户类型
+     */
+    private Integer userType;
+    /**
+     * 文件地址
+     */
+    private String fileUrl;
+    /**
+     * 解析类型，markdown 或 text
+     */
+    private String type;
+    /**
+     * doc2x 的任务编号，本地解析时为空
+     */
+    private String taskUuid;
+    /**
+     * 状态
+     *
+     * 枚举 {@link DocParseJobStatusEnum}
+     */
+    private Integer status;
+    /**
+     * 解析结果
+     */
+    private String content;
+    /**
+     * 失败原因
+     */
+    private String errorMsg;
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+}
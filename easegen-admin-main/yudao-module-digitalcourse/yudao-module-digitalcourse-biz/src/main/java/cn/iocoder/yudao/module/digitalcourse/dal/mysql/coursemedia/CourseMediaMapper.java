@@ -3,14 +3,16 @@ package cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursemedia;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursemedia.vo.CourseMediaPageReqVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursemedia.CourseMediaDO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
-import java.util.List;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * 课程媒体 Mapper
@@ -37,6 +39,48 @@ public interface CourseMediaMapper extends BaseMapperX<CourseMediaDO> {
     }
 
 
+    /**
+     * 按照 id 游标，分批查询指定状态的记录
+     *
+     * @param status 状态
+     * @param lastId 上一批的最大 id，为空时从头开始
+     * @param size   每批数量
+     * @param buckets 分桶数组，即 id 对 bucketCount 取模的结果，为空时不过滤
+     * @param bucketCount 分桶数
+     * @return 记录列表
+     */
+    default List<CourseMediaDO> selectStatusListByIdGt(Integer status, Long lastId, Integer size,
+                                                       Collection<Integer> buckets, int bucketCount) {
+        QueryWrapperX<CourseMediaDO> query = new QueryWrapperX<CourseMediaDO>() // 由于要使用 limitN 语句，所以只能用 QueryWrapperX
+                .eq("status", status)
+                .gtIfPresent("id", lastId);
+        if (buckets != null) {
+            query.in("MOD(id, " + bucketCount + ")", buckets);
+        }
+        return selectList(query.limitN(size).orderByAsc("id"));
+    }
+
+    /**
+     * 批量更新合成结果，只更新非空的字段
+     *
+     * 按照非空字段分组，每组使用一条 CASE WHEN 语句更新多行，而不是每行一条 UPDATE
+     *
+     * @param updateObjs 更新对象数组
+     */
+    default void updateMegerResultList(Collection<CourseMediaDO> updateObjs) {
+        // XML 中的 SQL 不经过 MyBatis Plus 的自动填充，手动设置更新时间
+        LocalDateTime now = LocalDateTime.now();
+        updateObjs.stream().peek(updateObj -> updateObj.setUpdateTime(now))
+                .collect(Collectors.groupingBy(updateObj -> Arrays.asList(updateObj.getStatus() != null,
+                        updateObj.getProgress() != null, updateObj.getErrorReason() != null,
+                        updateObj.getFinishTime() != null, updateObj.getPreviewUrl() != null,
+                        updateObj.getDuration() != null, updateObj.getSubtitlesUrl() != null,
+                        updateObj.getThumbnail() != null), LinkedHashMap::new, Collectors.toList()))
+                .values().forEach(this::updateMegerResultListByCase);
+    }
+
+    int updateMegerResultListByCase(@Param("list") List<CourseMediaDO> list);
+
     IPage<CourseMediaDO> selectPageMedia(IPage page , @Param("reqVO") CourseMediaPageReqVO reqVO);
     CourseMediaDO selectByIdAndStatusOne(@Param("id") Long id,@Param("status") List<Integer> status);
     List<CourseMediaDO> selectByIdAndStatusList(@Param("id") Long id,@Param("status") List<Integer> status);
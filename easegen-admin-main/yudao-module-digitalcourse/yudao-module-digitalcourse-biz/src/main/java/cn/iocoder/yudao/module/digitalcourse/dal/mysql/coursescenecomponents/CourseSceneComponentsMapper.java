@@ -7,6 +7,7 @@ import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursescenecompone
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenecomponents.CourseSceneComponentsDO;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -39,4 +40,6 @@ public interface CourseSceneComponentsMapper extends BaseMapperX<CourseSceneComp
     }
 
     int physicalDelete(Set<Long> ids);
+
+    int physicalDeleteByIds(Collection<Long> ids);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.util.function.Consumer;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.voices.VoicesDO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -41,4 +42,20 @@ public interface VoicesMapper extends BaseMapperX<VoicesDO> {
 
     Integer auditing(@Param("creator") Long creator);
 
+    /**
+     * 查询指定状态的记录
+     *
+     * @param status 状态
+     * @param buckets 分桶数组，即 id 对 bucketCount 取模的结果，为空时不过滤
+     * @param bucketCount 分桶数
+     * @return 记录列表
+     */
+    default List<VoicesDO> selectListByStatus(Integer status, Collection<Integer> buckets, int bucketCount) {
+        QueryWrapperX<VoicesDO> query = new QueryWrapperX<VoicesDO>().eq("status", status);
+        if (buckets != null) {
+            query.in("MOD(id, " + bucketCount + ")", buckets);
+        }
+        return selectList(query);
+    }
+
 }
\ No newline at end of file
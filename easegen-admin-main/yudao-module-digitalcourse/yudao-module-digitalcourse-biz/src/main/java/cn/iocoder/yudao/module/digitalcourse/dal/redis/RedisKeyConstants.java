@@ -16,4 +16,76 @@ public interface RedisKeyConstants {
      */
     String DIGITALCOURSE_AIPPT_LIMIT = "digitalcourse:aippt:limit:";
 
+    /**
+     * AI 生成 PPT 进行中的流式请求数，按用户计数，用于限制每个用户的并发
+     *
+     * KEY 格式：digitalcourse:aippt:limit:stream:{userId} // 与 DIGITALCOURSE_AIPPT_LIMIT 共用前缀
+     * VALUE 数据格式：String 进行中的流式请求数
+     * 过期时间：流式请求的超时时间，避免节点宕机后计数无法释放
+     */
+    String DIGITALCOURSE_AIPPT_STREAM_CONCURRENCY = DIGITALCOURSE_AIPPT_LIMIT + "stream:%d";
+
+    /**
+     * 声音试听结果的缓存，相同声音、文本与 TTS 参数只合成、上传一次
+     *
+     * KEY 格式：digitalcourse:voice_audition:{hash} // hash 为声音编码与 TTS 参数的摘要
+     * VALUE 数据格式：String 试听音频的文件地址
+     * 过期时间：1 天
+     */
+    String DIGITALCOURSE_VOICE_AUDITION = "digitalcourse:voice_audition:%s";
+
+    /**
+     * 文档解析任务，用于按任务编号查询解析结果
+     *
+     * KEY 格式：digitalcourse:doc_parse_job:{jobId}
+     * VALUE 数据格式：String 任务的 JSON，见 DocParseJobDO
+     * 过期时间：1 天
+     */
+    String DIGITALCOURSE_DOC_PARSE_JOB = "digitalcourse:doc_parse_job:%s";
+
+    /**
+     * 进行中的文档解析任务，用于节点宕机、重启后接管其它节点的任务
+     *
+     * KEY 格式：digitalcourse:doc_parse_job_running
+     * VALUE 数据格式：ZSET，member 为任务编号，score 为租约的到期时间（毫秒）；负责的节点每次轮询续约
+     * 过期时间：不固定，任务结束时移除
+     */
+    String DIGITALCOURSE_DOC_PARSE_JOB_RUNNING = "digitalcourse:doc_parse_job_running";
+
+    /**
+     * PPT 页面图片的缓存，同一租户下内容相同的页面只渲染、上传一次
+     *
+     * KEY 格式：digitalcourse:ppt_slide_image:{tenantId}:{digest} // digest 为页面及其引用的版式、母版、图片等内容的摘要
+     * VALUE 数据格式：String 页面图片的 JSON，见 PptSlideImageDO
+     * 过期时间：7 天
+     */
+    String DIGITALCOURSE_PPT_SLIDE_IMAGE = "digitalcourse:ppt_slide_image:%d:%s";
+
+    /**
+     * PPT 解析的状态，用于断线重连后查询进度
+     *
+     * KEY 格式：digitalcourse:ppt_analysis:{pptId}
+     * VALUE 数据格式：String 状态的 JSON，见 PptAnalysisStatusDO
+     * 过期时间：1 天
+     */
+    String DIGITALCOURSE_PPT_ANALYSIS = "digitalcourse:ppt_analysis:%d";
+
+    /**
+     * 状态回刷的分桶租约
+     *
+     * KEY 格式：digitalcourse:status_refresh:lease:{bucket}
+     * VALUE 数据格式：String 占用该分桶的节点编号
+     * 过期时间：租约的过期时间，由占用的节点定期续期
+     */
+    String DIGITALCOURSE_STATUS_REFRESH_LEASE = "digitalcourse:status_refresh:lease:%d";
+
+    /**
+     * 参与状态回刷的节点
+     *
+     * KEY 格式：digitalcourse:status_refresh:nodes
+     * VALUE 数据格式：ZSET member 为节点编号，score 为最后一次心跳的时间戳
+     * 过期时间：不过期，心跳超时的节点在登记心跳时清理
+     */
+    String DIGITALCOURSE_STATUS_REFRESH_NODES = "digitalcourse:status_refresh:nodes";
+
 }
@@ -0,0 +1,63 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.aippt;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_AIPPT_STREAM_CONCURRENCY;
+
+/**
+ * AI 生成 PPT 流式请求并发数的 RedisDAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class AiPptStreamRedisDAO {
+
+    /**
+     * 计数加一，超过上限时回退并返回 0；每次占用都会刷新过期时间
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "if count > tonumber(ARGV[1]) then redis.call('DECR', KEYS[1]) return 0 end " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "return count", Long.class);
+    /**
+     * 计数减一，减到 0 时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('DECR', KEYS[1]) " +
+            "if count <= 0 then redis.call('DEL', KEYS[1]) end " +
+            "return count", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 占用一个并发数
+     *
+     * @param userId 用户编号
+     * @param maxConcurrency 并发上限
+     * @param timeout 过期时间，需不小于流式请求的超时时间
+     * @return 是否占用成功
+     */
+    public boolean tryAcquire(Long userId, int maxConcurrency, Duration timeout) {
+        Long count = stringRedisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(formatKey(userId)),
+                String.valueOf(maxConcurrency), String.valueOf(timeout.toMillis()));
+        return count != null && count > 0;
+    }
+
+    public void release(Long userId) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(formatKey(userId)));
+    }
+
+    private static String formatKey(Long userId) {
+        return String.format(DIGITALCOURSE_AIPPT_STREAM_CONCURRENCY, userId);
+    }
+
+}
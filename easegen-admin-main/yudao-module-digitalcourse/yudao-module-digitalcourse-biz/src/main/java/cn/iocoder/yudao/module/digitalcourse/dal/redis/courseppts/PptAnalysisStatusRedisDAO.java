@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.courseppts;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptAnalysisStatusDO;
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_PPT_ANALYSIS;
+
+/**
+ * PPT 解析状态的 RedisDAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class PptAnalysisStatusRedisDAO {
+
+    /**
+     * 解析状态的过期时间
+     */
+    private static final Duration TIMEOUT = Duration.ofDays(1);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public PptAnalysisStatusDO get(Long pptId) {
+        String value = stringRedisTemplate.opsForValue().get(formatKey(pptId));
+        return JsonUtils.parseObject(value, PptAnalysisStatusDO.class);
+    }
+
+    public void set(PptAnalysisStatusDO status) {
+        stringRedisTemplate.opsForValue().set(formatKey(status.getPptId()), JsonUtils.toJsonString(status), TIMEOUT);
+    }
+
+    private static String formatKey(Long pptId) {
+        return String.format(DIGITALCOURSE_PPT_ANALYSIS, pptId);
+    }
+
+}
@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.courseppts;
+
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptSlideImageDO;
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_PPT_SLIDE_IMAGE;
+
+/**
+ * PPT 页面图片的 RedisDAO
+ *
+ * 按当前租户隔离，内容相同的页面也不会跨租户复用图片
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class PptSlideImageRedisDAO {
+
+    /**
+     * 页面图片的过期时间
+     */
+    private static final Duration TIMEOUT = Duration.ofDays(7);
+    /**
+     * 忽略租户时使用的租户编号
+     */
+    private static final Long DEFAULT_TENANT_ID = 0L;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 批量获得页面图片
+     *
+     * @param digests 页面摘要数组
+     * @return 命中缓存的页面图片，key 为页面摘要
+     */
+    public Map<String, PptSlideImageDO> getMap(Collection<String> digests) {
+        Map<String, PptSlideImageDO> result = new HashMap<>();
+        if (digests.isEmpty()) {
+            return result;
+        }
+        List<String> digestList = List.copyOf(digests);
+        Long tenantId = getTenantId();
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(convertList(digestList, digest -> formatKey(tenantId, digest)));
+        if (values == null) {
+            return result;
+        }
+        for (int i = 0; i < digestList.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(digestList.get(i), JsonUtils.parseObject(values.get(i), PptSlideImageDO.class));
+            }
+        }
+        return result;
+    }
+
+    public void set(String digest, PptSlideImageDO image) {
+        stringRedisTemplate.opsForValue().set(formatKey(getTenantId(), digest), JsonUtils.toJsonString(image), TIMEOUT);
+    }
+
+    private static Long getTenantId() {
+        return ObjUtil.defaultIfNull(TenantContextHolder.getTenantId(), DEFAULT_TENANT_ID);
+    }
+
+    private static String formatKey(Long tenantId, String digest) {
+        return String.format(DIGITALCOURSE_PPT_SLIDE_IMAGE, tenantId, digest);
+    }
+
+}
@@ -0,0 +1,104 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.docparse;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse.DocParseJobDO;
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_DOC_PARSE_JOB;
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_DOC_PARSE_JOB_RUNNING;
+
+/**
+ * 文档解析任务的 RedisDAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class DocParseJobRedisDAO {
+
+    /**
+     * 任务的过期时间
+     */
+    private static final Duration TIMEOUT = Duration.ofDays(1);
+
+    /**
+     * 租约已到期时，更新为新的到期时间，返回 1；否则返回 0，说明仍有节点负责，或者任务已结束
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+            "if not score or tonumber(score) > tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1]) " +
+            "return 1", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public DocParseJobDO get(String id) {
+        String value = stringRedisTemplate.opsForValue().get(formatKey(id));
+        return JsonUtils.parseObject(value, DocParseJobDO.class);
+    }
+
+    public void set(DocParseJobDO job) {
+        stringRedisTemplate.opsForValue().set(formatKey(job.getId()), JsonUtils.toJsonString(job), TIMEOUT);
+    }
+
+    /**
+     * 续约进行中的任务，不存在时添加
+     *
+     * @param ids 任务编号
+     * @param expireTime 租约的到期时间（毫秒）
+     */
+    public void renewRunning(Collection<String> ids, long expireTime) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = ids.stream()
+                .map(id -> ZSetOperations.TypedTuple.of(id, (double) expireTime))
+                .collect(Collectors.toSet());
+        stringRedisTemplate.opsForZSet().add(DIGITALCOURSE_DOC_PARSE_JOB_RUNNING, tuples);
+    }
+
+    public void removeRunning(String id) {
+        stringRedisTemplate.opsForZSet().remove(DIGITALCOURSE_DOC_PARSE_JOB_RUNNING, id);
+    }
+
+    /**
+     * 获得租约已到期的任务编号，即负责的节点已宕机、重启
+     *
+     * @param now 当前时间（毫秒）
+     * @param count 最多返回的数量
+     * @return 任务编号
+     */
+    public List<String> getExpiredRunning(long now, int count) {
+        Set<String> ids = stringRedisTemplate.opsForZSet().rangeByScore(DIGITALCOURSE_DOC_PARSE_JOB_RUNNING,
+                0, now, 0, count);
+        return ids != null ? new ArrayList<>(ids) : Collections.emptyList();
+    }
+
+    /**
+     * 接管租约已到期的任务，多个节点同时接管时只有一个成功
+     *
+     * @param id 任务编号
+     * @param now 当前时间（毫秒）
+     * @param expireTime 新租约的到期时间（毫秒）
+     * @return 是否接管成功
+     */
+    public boolean claimRunning(String id, long now, long expireTime) {
+        Long result = stringRedisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(DIGITALCOURSE_DOC_PARSE_JOB_RUNNING),
+                id, String.valueOf(now), String.valueOf(expireTime));
+        return result != null && result > 0;
+    }
+
+    private static String formatKey(String id) {
+        return String.format(DIGITALCOURSE_DOC_PARSE_JOB, id);
+    }
+
+}
@@ -0,0 +1,95 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.statusrefresh;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_STATUS_REFRESH_LEASE;
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_STATUS_REFRESH_NODES;
+
+/**
+ * 状态回刷分桶租约的 RedisDAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class StatusRefreshLeaseRedisDAO {
+
+    /**
+     * 登记节点心跳，清理过期的节点，并返回存活的节点数
+     */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3]) " +
+            "return redis.call('ZCARD', KEYS[1])", Long.class);
+    /**
+     * 租约仍属于当前节点时续期
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    /**
+     * 租约仍属于当前节点时释放
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 登记节点心跳
+     *
+     * @param nodeId 节点编号
+     * @param timeout 心跳的过期时间，超过该时间未登记的节点视为下线
+     * @return 存活的节点数，包括当前节点
+     */
+    public int heartbeat(String nodeId, Duration timeout) {
+        long now = System.currentTimeMillis();
+        Long count = stringRedisTemplate.execute(HEARTBEAT_SCRIPT, Collections.singletonList(DIGITALCOURSE_STATUS_REFRESH_NODES),
+                nodeId, String.valueOf(now), String.valueOf(now - timeout.toMillis()));
+        return count != null ? count.intValue() : 1;
+    }
+
+    public void removeNode(String nodeId) {
+        stringRedisTemplate.opsForZSet().remove(DIGITALCOURSE_STATUS_REFRESH_NODES, nodeId);
+    }
+
+    /**
+     * 占用分桶
+     *
+     * @param bucket 分桶
+     * @param nodeId 节点编号
+     * @param timeout 租约的过期时间
+     * @return 是否占用成功；已被其它节点占用时返回 false
+     */
+    public boolean tryAcquire(int bucket, String nodeId, Duration timeout) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(formatKey(bucket), nodeId, timeout));
+    }
+
+    /**
+     * 续期分桶
+     *
+     * @return 是否续期成功；租约已过期、或者已被其它节点占用时返回 false
+     */
+    public boolean renew(int bucket, String nodeId, Duration timeout) {
+        Long result = stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(formatKey(bucket)),
+                nodeId, String.valueOf(timeout.toMillis()));
+        return result != null && result > 0;
+    }
+
+    public void release(int bucket, String nodeId) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(formatKey(bucket)), nodeId);
+    }
+
+    private static String formatKey(int bucket) {
+        return String.format(DIGITALCOURSE_STATUS_REFRESH_LEASE, bucket);
+    }
+
+}
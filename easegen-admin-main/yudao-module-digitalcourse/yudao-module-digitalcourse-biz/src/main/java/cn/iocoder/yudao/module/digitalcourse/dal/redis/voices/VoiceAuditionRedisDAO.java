@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.digitalcourse.dal.redis.voices;
+
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+import static cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants.DIGITALCOURSE_VOICE_AUDITION;
+
+/**
+ * 声音试听结果的 RedisDAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class VoiceAuditionRedisDAO {
+
+    /**
+     * 试听结果的过期时间
+     */
+    private static final Duration TIMEOUT = Duration.ofDays(1);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public String get(String hash) {
+        return stringRedisTemplate.opsForValue().get(formatKey(hash));
+    }
+
+    public void set(String hash, String url) {
+        stringRedisTemplate.opsForValue().set(formatKey(hash), url, TIMEOUT);
+    }
+
+    private static String formatKey(String hash) {
+        return String.format(DIGITALCOURSE_VOICE_AUDITION, hash);
+    }
+
+}
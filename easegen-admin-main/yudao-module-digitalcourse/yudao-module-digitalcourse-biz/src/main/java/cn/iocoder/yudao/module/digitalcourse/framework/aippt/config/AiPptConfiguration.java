@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.aippt.config;
+
+import com.alibaba.ttl.TtlRunnable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * AI 生成 PPT 的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AiPptProperties.class)
+public class AiPptConfiguration {
+
+    public static final String AIPPT_STREAM_EXECUTOR = "AIPPT_STREAM_EXECUTOR";
+
+    @Bean(AIPPT_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor aiPptStreamExecutor(AiPptProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getStreamPoolSize()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getStreamPoolSize()); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setAllowCoreThreadTimeOut(true); // 空闲时回收核心线程
+        executor.setQueueCapacity(0); // 不排队，线程用满时直接拒绝，避免前端长时间等待
+        executor.setThreadNamePrefix("aippt-stream-"); // 配置线程池的前缀
+        // 接入 TransmittableThreadLocal，保证租户等上下文的传递
+        executor.setTaskDecorator(TtlRunnable::get);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.aippt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * AI 生成 PPT 的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.aippt")
+@Validated
+@Data
+public class AiPptProperties {
+
+    /**
+     * 每个用户同时进行的流式生成数
+     */
+    @NotNull(message = "用户并发数不能为空")
+    private Integer userMaxConcurrency = 2;
+    /**
+     * 转发线程数，即全局同时进行的流式生成数
+     */
+    @NotNull(message = "转发线程数不能为空")
+    private Integer streamPoolSize = 32;
+    /**
+     * 流式生成的超时时间，超时后断开前端与 Docmee 的连接
+     */
+    @NotNull(message = "流式生成超时时间不能为空")
+    private Duration streamTimeout = Duration.ofMinutes(10);
+    /**
+     * 读取 Docmee 事件的超时时间，即两个事件之间的最大间隔
+     */
+    @NotNull(message = "读取超时时间不能为空")
+    private Duration readTimeout = Duration.ofSeconds(60);
+
+}
@@ -0,0 +1,7 @@
+/**
+ * AI 生成 PPT 的封装
+ *
+ * 1. 独立的有界线程池，将 Docmee 的 SSE 事件逐条转发给前端，不在内存中累积
+ * 2. 按用户限制进行中的流式请求数
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.aippt;
@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.course.config;
+
+import com.alibaba.ttl.TtlRunnable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 课程加载的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CourseLoadProperties.class)
+public class CourseLoadConfiguration {
+
+    public static final String COURSE_LOAD_EXECUTOR = "COURSE_LOAD_EXECUTOR";
+
+    @Bean(COURSE_LOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor courseLoadExecutor(CourseLoadProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getCorePoolSize()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getMaxPoolSize()); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setQueueCapacity(properties.getQueueCapacity()); // 设置队列大小
+        executor.setThreadNamePrefix("course-load-"); // 配置线程池的前缀
+        // 接入 TransmittableThreadLocal，保证租户、登录用户、数据权限等上下文的传递
+        executor.setTaskDecorator(TtlRunnable::get);
+        // 队列满时由调用线程执行，退化为串行查询，而不是拒绝
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+}
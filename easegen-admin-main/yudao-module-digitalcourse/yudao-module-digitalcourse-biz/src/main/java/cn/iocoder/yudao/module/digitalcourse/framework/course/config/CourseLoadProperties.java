@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 课程加载的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.course-load")
+@Validated
+@Data
+public class CourseLoadProperties {
+
+    /**
+     * 并行查询线程池的核心线程数
+     */
+    @NotNull(message = "核心线程数不能为空")
+    private Integer corePoolSize = 8;
+    /**
+     * 并行查询线程池的最大线程数
+     */
+    @NotNull(message = "最大线程数不能为空")
+    private Integer maxPoolSize = 16;
+    /**
+     * 等待执行的查询数上限，超过时由调用线程直接执行
+     */
+    @NotNull(message = "队列大小不能为空")
+    private Integer queueCapacity = 200;
+    /**
+     * 等待所有查询完成的超时时间
+     */
+    @NotNull(message = "加载超时时间不能为空")
+    private Duration timeout = Duration.ofSeconds(10);
+
+}
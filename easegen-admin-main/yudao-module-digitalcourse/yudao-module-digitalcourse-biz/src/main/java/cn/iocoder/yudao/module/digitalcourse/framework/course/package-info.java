@@ -0,0 +1,6 @@
+/**
+ * 课程加载的封装
+ *
+ * 1. 独立的有界线程池，并行查询课程场景的背景、组件、声音、文本、音频，并传递租户、登录用户等上下文
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.course;
@@ -0,0 +1,54 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.docparse.config;
+
+import com.alibaba.ttl.TtlRunnable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 文档解析的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DocParseProperties.class)
+public class DocParseConfiguration {
+
+    public static final String DOC_PARSE_EXECUTOR = "DOC_PARSE_EXECUTOR";
+    public static final String DOC_PARSE_POLL_EXECUTOR = "DOC_PARSE_POLL_EXECUTOR";
+
+    @Bean(DOC_PARSE_EXECUTOR)
+    public ThreadPoolTaskExecutor docParseExecutor(DocParseProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getPoolSize()); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setAllowCoreThreadTimeOut(true); // 空闲时回收核心线程
+        executor.setQueueCapacity(properties.getQueueCapacity()); // 设置队列大小
+        executor.setThreadNamePrefix("doc-parse-"); // 配置线程池的前缀
+        // 接入 TransmittableThreadLocal，保证租户等上下文的传递
+        executor.setTaskDecorator(TtlRunnable::get);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(DOC_PARSE_POLL_EXECUTOR)
+    public ThreadPoolTaskExecutor docParsePollExecutor(DocParseProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPollPoolSize()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getPollPoolSize()); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setAllowCoreThreadTimeOut(true); // 空闲时回收核心线程
+        // 同一任务同时只有一次查询在执行，队列长度不超过进行中的任务数，所以不限制大小
+        executor.setThreadNamePrefix("doc-parse-poll-"); // 配置线程池的前缀
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.docparse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 文档解析的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.doc-parse")
+@Validated
+@Data
+public class DocParseProperties {
+
+    /**
+     * 提交线程数，用于下载、转换文件并提交 doc2x
+     */
+    @NotNull(message = "提交线程数不能为空")
+    private Integer poolSize = 4;
+    /**
+     * 等待提交的任务数上限，超过时拒绝
+     */
+    @NotNull(message = "提交队列大小不能为空")
+    private Integer queueCapacity = 100;
+    /**
+     * 轮询线程数，用于查询 doc2x 任务状态，各任务的查询并行执行
+     */
+    @NotNull(message = "轮询线程数不能为空")
+    private Integer pollPoolSize = 8;
+    /**
+     * 轮询 doc2x 任务状态的间隔
+     */
+    @NotNull(message = "轮询间隔不能为空")
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /**
+     * 单个任务的超时时间，超时后标记为解析失败
+     */
+    @NotNull(message = "解析超时时间不能为空")
+    private Duration timeout = Duration.ofMinutes(1);
+    /**
+     * 进行中任务的租约时长，负责的节点每次轮询续约；节点宕机、重启导致租约到期后，由其它节点（或重启后的本节点）接管
+     *
+     * 需要明显大于轮询间隔
+     */
+    @NotNull(message = "任务租约时长不能为空")
+    private Duration leaseTimeout = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,8 @@
+/**
+ * 文档解析（doc2x）的封装
+ *
+ * 1. 提交后立即返回任务编号，下载、转换、提交 doc2x 在独立的有界线程池中执行
+ * 2. 一个调度线程批量轮询所有进行中的 doc2x 任务，不占用请求线程
+ * 3. 解析结果通过 WebSocket 推送给用户，也可以按任务编号查询
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.docparse;
@@ -0,0 +1,22 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.easegen.config;
+
+import cn.iocoder.yudao.module.digitalcourse.framework.easegen.core.EasegenCoreSubmitter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * easegen core 调用的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(EasegenCoreProperties.class)
+public class EasegenCoreConfiguration {
+
+    @Bean
+    public EasegenCoreSubmitter easegenCoreSubmitter(EasegenCoreProperties properties) {
+        return new EasegenCoreSubmitter(properties);
+    }
+
+}
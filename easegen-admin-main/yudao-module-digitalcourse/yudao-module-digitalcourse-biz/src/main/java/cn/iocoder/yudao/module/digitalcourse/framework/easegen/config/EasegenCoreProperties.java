@@ -0,0 +1,69 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.easegen.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * easegen core 调用的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.easegen-core")
+@Validated
+@Data
+public class EasegenCoreProperties {
+
+    /**
+     * 提交线程池的核心线程数
+     */
+    @NotNull(message = "核心线程数不能为空")
+    private Integer corePoolSize = 4;
+    /**
+     * 提交线程池的最大线程数
+     */
+    @NotNull(message = "最大线程数不能为空")
+    private Integer maxPoolSize = 8;
+    /**
+     * 提交队列的大小，队列满时拒绝提交
+     */
+    @NotNull(message = "队列大小不能为空")
+    private Integer queueCapacity = 200;
+
+    /**
+     * 每个接口同时执行的最大请求数
+     */
+    @NotNull(message = "接口并发数不能为空")
+    private Integer endpointConcurrency = 4;
+
+    /**
+     * 最大尝试次数（包含首次）
+     */
+    @NotNull(message = "最大尝试次数不能为空")
+    private Integer maxAttempts = 3;
+    /**
+     * 首次重试的等待时间，之后按指数增长，并叠加随机抖动
+     */
+    @NotNull(message = "重试等待时间不能为空")
+    private Duration retryInitialDelay = Duration.ofSeconds(2);
+    /**
+     * 重试等待时间的上限
+     */
+    @NotNull(message = "重试等待时间上限不能为空")
+    private Duration retryMaxDelay = Duration.ofSeconds(30);
+
+    /**
+     * 连续失败多少次后熔断
+     */
+    @NotNull(message = "熔断阈值不能为空")
+    private Integer circuitBreakerFailureThreshold = 5;
+    /**
+     * 熔断持续时间，到期后放行请求试探
+     */
+    @NotNull(message = "熔断持续时间不能为空")
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+
+}
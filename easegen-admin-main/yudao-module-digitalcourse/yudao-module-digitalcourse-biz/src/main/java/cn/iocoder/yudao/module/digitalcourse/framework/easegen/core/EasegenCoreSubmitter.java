@@ -0,0 +1,270 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.easegen.core;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.RandomUtil;
+import cn.iocoder.yudao.module.digitalcourse.framework.easegen.config.EasegenCoreProperties;
+import com.alibaba.ttl.TtlRunnable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * easegen core 的请求提交器
+ *
+ * 提交的请求在独立的有界线程池中执行，首次提交时队列满直接拒绝，避免突发的提交占满 @Async 公共线程池；
+ * 已接受的请求（重试、等待并发、等待熔断结束）重新入队时队列满，则稍后再试，不会被丢弃。
+ * 失败后通过调度线程按「指数退避 + 随机抖动」延迟重试，等待期间不占用执行线程；
+ * 同时按接口限制并发数，并在连续失败后熔断一段时间：熔断期间新的提交直接拒绝，避免全部积压在调度线程中；
+ * 已接受的请求在熔断结束后执行，不消耗尝试次数。
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class EasegenCoreSubmitter implements MeterBinder, DisposableBean {
+
+    /**
+     * 接口并发已满时，重新尝试的间隔（毫秒）
+     */
+    private static final long CONCURRENCY_WAIT_MILLIS = 200;
+
+    private final EasegenCoreProperties properties;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 接口 => 接口状态
+     */
+    private final Map<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public EasegenCoreSubmitter(EasegenCoreProperties properties) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getCorePoolSize(), properties.getMaxPoolSize(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                ThreadFactoryBuilder.create().setNamePrefix("easegen-core-").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("easegen-core-retry-").setDaemon(true).build());
+    }
+
+    /**
+     * 提交请求
+     *
+     * 请求抛出异常即视为失败，会按配置重试；超过最大尝试次数、或者首次提交时队列已满、接口熔断中被拒绝时，回调 onFailure
+     *
+     * @param endpoint  接口标识，用于并发限制与熔断，例如 /api/mergemedia
+     * @param task      请求逻辑
+     * @param onFailure 最终失败的回调，参数为最后一次的异常
+     */
+    public void submit(String endpoint, EasegenCoreTask task, Consumer<Exception> onFailure) {
+        Submission submission = new Submission(endpoints.computeIfAbsent(endpoint, EndpointState::new), task, onFailure);
+        // 熔断中，直接拒绝。否则这些请求都会在调度线程中等待熔断结束，有界队列失去背压的作用
+        if (submission.endpoint.getOpenRemainingMillis() > 0) {
+            rejectedCount.incrementAndGet();
+            log.warn("[submit][接口({}) 熔断中，拒绝请求]", endpoint);
+            fail(submission, new RejectedExecutionException("接口(" + endpoint + ") 熔断中"));
+            return;
+        }
+        dispatch(submission, true);
+    }
+
+    /**
+     * 放入线程池执行
+     *
+     * @param submission 提交
+     * @param first 是否首次提交。首次提交时队列已满，直接拒绝，对调用方形成背压；
+     *              否则为已接受的请求，稍后再试
+     */
+    private void dispatch(Submission submission, boolean first) {
+        try {
+            // 接入 TransmittableThreadLocal，保证租户等上下文的传递
+            executor.execute(TtlRunnable.get(() -> execute(submission)));
+        } catch (RejectedExecutionException ex) {
+            if (!first && !executor.isShutdown()) {
+                schedule(submission, CONCURRENCY_WAIT_MILLIS);
+                return;
+            }
+            rejectedCount.incrementAndGet();
+            log.warn("[dispatch][接口({}) 提交队列已满，拒绝请求]", submission.endpoint.name);
+            fail(submission, ex);
+        }
+    }
+
+    private void execute(Submission submission) {
+        EndpointState endpoint = submission.endpoint;
+        // 熔断中，熔断结束后再试。接口并未被调用，所以不消耗尝试次数；加上随机抖动，避免熔断结束时同时到达
+        long openRemainingMillis = endpoint.getOpenRemainingMillis();
+        if (openRemainingMillis > 0) {
+            schedule(submission, openRemainingMillis + RandomUtil.randomLong(CONCURRENCY_WAIT_MILLIS + 1));
+            return;
+        }
+        // 并发已满，稍后再试，不消耗尝试次数
+        if (!endpoint.permits.tryAcquire()) {
+            schedule(submission, CONCURRENCY_WAIT_MILLIS);
+            return;
+        }
+
+        inFlightCount.incrementAndGet();
+        try {
+            submission.task.execute();
+            endpoint.onSuccess();
+        } catch (Exception ex) {
+            endpoint.onFailure();
+            retryOrFail(submission, ex);
+        } finally {
+            inFlightCount.decrementAndGet();
+            endpoint.permits.release();
+        }
+    }
+
+    private void retryOrFail(Submission submission, Exception ex) {
+        int attempts = ++submission.attempts;
+        if (attempts >= properties.getMaxAttempts()) {
+            fail(submission, ex);
+            return;
+        }
+        retryCount.incrementAndGet();
+        long delay = calculateRetryDelay(attempts);
+        log.warn("[retryOrFail][接口({}) 第 {} 次请求失败，{} ms 后重试]", submission.endpoint.name, attempts, delay, ex);
+        schedule(submission, delay);
+    }
+
+    private void schedule(Submission submission, long delayMillis) {
+        try {
+            scheduler.schedule(TtlRunnable.get(() -> dispatch(submission, false)), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) { // 关闭中
+            fail(submission, ex);
+        }
+    }
+
+    private void fail(Submission submission, Exception ex) {
+        failureCount.incrementAndGet();
+        try {
+            submission.onFailure.accept(ex);
+        } catch (Exception callbackEx) {
+            log.error("[fail][接口({}) 失败回调执行异常]", submission.endpoint.name, callbackEx);
+        }
+    }
+
+    /**
+     * 计算第 attempts 次失败后的等待时间：指数退避，并在 [delay / 2, delay] 之间随机抖动，避免重试同时到达
+     */
+    private long calculateRetryDelay(int attempts) {
+        long initial = properties.getRetryInitialDelay().toMillis();
+        long max = properties.getRetryMaxDelay().toMillis();
+        long delay = Math.min(max, initial << Math.min(attempts - 1, 20));
+        return delay / 2 + RandomUtil.randomLong(delay / 2 + 1);
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("easegen.core.submit.queue.size", this, EasegenCoreSubmitter::getQueueSize)
+                .description("等待执行的 easegen core 请求数").register(registry);
+        Gauge.builder("easegen.core.submit.in.flight", this, EasegenCoreSubmitter::getInFlightCount)
+                .description("执行中的 easegen core 请求数").register(registry);
+        FunctionCounter.builder("easegen.core.submit.retries", retryCount, AtomicLong::get)
+                .description("easegen core 请求的重试次数").register(registry);
+        FunctionCounter.builder("easegen.core.submit.rejected", rejectedCount, AtomicLong::get)
+                .description("因队列已满、接口熔断被拒绝的 easegen core 请求数").register(registry);
+        FunctionCounter.builder("easegen.core.submit.failures", failureCount, AtomicLong::get)
+                .description("最终失败的 easegen core 请求数").register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * easegen core 请求逻辑，抛出异常即视为失败
+     */
+    @FunctionalInterface
+    public interface EasegenCoreTask {
+
+        void execute() throws Exception;
+
+    }
+
+    /**
+     * 一次提交，记录已尝试次数
+     */
+    private static class Submission {
+
+        private final EndpointState endpoint;
+        private final EasegenCoreTask task;
+        private final Consumer<Exception> onFailure;
+        private volatile int attempts;
+
+        private Submission(EndpointState endpoint, EasegenCoreTask task, Consumer<Exception> onFailure) {
+            this.endpoint = endpoint;
+            this.task = task;
+            this.onFailure = onFailure;
+        }
+
+    }
+
+    /**
+     * 接口状态：并发许可 + 熔断状态
+     *
+     * 连续失败达到阈值后熔断；熔断到期后放行请求，成功则恢复，失败则再次熔断
+     */
+    private class EndpointState {
+
+        private final String name;
+        private final Semaphore permits;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long openUntil;
+
+        private EndpointState(String name) {
+            this.name = name;
+            this.permits = new Semaphore(properties.getEndpointConcurrency());
+        }
+
+        /**
+         * @return 熔断的剩余时间（毫秒），未熔断时小于等于 0
+         */
+        private long getOpenRemainingMillis() {
+            return openUntil - System.currentTimeMillis();
+        }
+
+        private void onSuccess() {
+            consecutiveFailures.set(0);
+        }
+
+        private void onFailure() {
+            if (consecutiveFailures.incrementAndGet() >= properties.getCircuitBreakerFailureThreshold()) {
+                openUntil = System.currentTimeMillis() + properties.getCircuitBreakerOpenDuration().toMillis();
+                log.warn("[onFailure][接口({}) 连续失败 {} 次，熔断至 {}]", name, consecutiveFailures.get(), openUntil);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * 调用 easegen core 的封装
+ *
+ * 1. 独立的有界线程池，避免占用 @Async 的公共线程池
+ * 2. 非阻塞的指数退避重试、按接口的并发限制与熔断
+ * 3. HTTP 请求走 {@link cn.iocoder.yudao.module.digitalcourse.framework.http} 的共享连接池
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.easegen;
@@ -0,0 +1,114 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.config;
+
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.HttpClientMetrics;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.IdempotentHttpRequestRetryStrategy;
+import cn.iocoder.yudao.module.digitalcourse.util.HttpUtils;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URISyntaxException;
+
+/**
+ * 对外 HTTP 调用的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DigitalCourseHttpProperties.class)
+public class DigitalCourseHttpConfiguration {
+
+    /**
+     * 连接池的监控名称
+     */
+    private static final String POOL_NAME = "digitalcourse";
+    /**
+     * {@link HttpUtils} 连接池的监控名称，Docmee、doc2x 等调用使用
+     */
+    private static final String HTTP_UTILS_POOL_NAME = "http-utils";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager digitalCourseHttpConnectionManager(DigitalCourseHttpProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerHost())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                // 连接空闲超过 2 秒，复用前先校验，避免使用已被上游关闭的连接
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+        // 按上游设置最大连接数
+        properties.getHostMaxConnections().forEach((host, maxConnections) ->
+                connectionManager.setMaxPerRoute(buildRoute(host), maxConnections));
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public DigitalCourseHttpClient digitalCourseHttpClient(DigitalCourseHttpProperties properties,
+                                                           PoolingHttpClientConnectionManager digitalCourseHttpConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(digitalCourseHttpConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setRetryStrategy(new IdempotentHttpRequestRetryStrategy(properties.getMaxRetries(),
+                        TimeValue.of(properties.getRetryInterval())))
+                .addExecInterceptorFirst("metrics", new HttpClientMetrics.MetricsExecChainHandler())
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .evictExpiredConnections()
+                .build();
+        return new DigitalCourseHttpClient(httpClient, requestConfig);
+    }
+
+    @Bean
+    public MeterBinder digitalCourseHttpPoolMetrics(PoolingHttpClientConnectionManager digitalCourseHttpConnectionManager) {
+        return registry -> HttpClientMetrics.bindPool(registry, POOL_NAME,
+                () -> digitalCourseHttpConnectionManager.getTotalStats().getLeased(),
+                () -> digitalCourseHttpConnectionManager.getTotalStats().getPending(),
+                () -> digitalCourseHttpConnectionManager.getTotalStats().getAvailable(),
+                () -> digitalCourseHttpConnectionManager.getTotalStats().getMax());
+    }
+
+    @Bean
+    public MeterBinder httpUtilsPoolMetrics() {
+        return registry -> HttpClientMetrics.bindPool(registry, HTTP_UTILS_POOL_NAME,
+                () -> HttpUtils.getPoolStats().getLeased(),
+                () -> HttpUtils.getPoolStats().getPending(),
+                () -> HttpUtils.getPoolStats().getAvailable(),
+                () -> HttpUtils.getPoolStats().getMax());
+    }
+
+    /**
+     * 构建上游的路由，与 HttpClient 内部一致：补全默认端口，https 为安全连接
+     */
+    private static HttpRoute buildRoute(String host) {
+        HttpHost httpHost;
+        try {
+            httpHost = HttpHost.create(host);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("非法的上游地址：" + host, ex);
+        }
+        boolean secure = URIScheme.HTTPS.same(httpHost.getSchemeName());
+        int port = httpHost.getPort() > 0 ? httpHost.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(httpHost.getSchemeName(), httpHost.getHostName(), port), null, secure);
+    }
+
+}
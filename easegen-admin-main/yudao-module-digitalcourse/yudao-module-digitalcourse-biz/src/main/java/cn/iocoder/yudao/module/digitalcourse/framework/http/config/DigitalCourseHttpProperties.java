@@ -0,0 +1,75 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 对外 HTTP 调用的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.http")
+@Validated
+@Data
+public class DigitalCourseHttpProperties {
+
+    /**
+     * 连接池的最大连接数
+     */
+    @NotNull(message = "最大连接数不能为空")
+    private Integer maxConnections = 200;
+    /**
+     * 每个上游的默认最大连接数
+     */
+    @NotNull(message = "每个上游的最大连接数不能为空")
+    private Integer maxConnectionsPerHost = 50;
+    /**
+     * 指定上游的最大连接数，key 为上游地址，例如 https://easegen.docmee.cn
+     */
+    private Map<String, Integer> hostMaxConnections = new LinkedHashMap<>();
+
+    /**
+     * 建立连接的超时时间
+     */
+    @NotNull(message = "连接超时时间不能为空")
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    /**
+     * 等待响应的超时时间
+     */
+    @NotNull(message = "响应超时时间不能为空")
+    private Duration responseTimeout = Duration.ofSeconds(60);
+    /**
+     * 从连接池获取连接的超时时间，连接池用满时等待
+     */
+    @NotNull(message = "获取连接超时时间不能为空")
+    private Duration connectionRequestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 上游未返回 Keep-Alive 时，连接的保持时间
+     */
+    @NotNull(message = "连接保持时间不能为空")
+    private Duration keepAlive = Duration.ofMinutes(1);
+    /**
+     * 空闲多久的连接被回收
+     */
+    @NotNull(message = "空闲连接回收时间不能为空")
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    /**
+     * 最大重试次数，只重试幂等请求（GET 等）的网络异常，以及 429、503 响应；POST 等提交不重试，避免上游重复受理
+     */
+    @NotNull(message = "最大重试次数不能为空")
+    private Integer maxRetries = 1;
+    /**
+     * 重试的等待时间，上游返回 Retry-After 时以其为准
+     */
+    @NotNull(message = "重试等待时间不能为空")
+    private Duration retryInterval = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,134 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.core;
+
+import cn.hutool.core.map.MapUtil;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 对外 HTTP 调用的客户端，所有请求共用 {@link CloseableHttpClient} 的连接池
+ *
+ * @author 芋道源码
+ */
+public class DigitalCourseHttpClient implements Closeable {
+
+    private final CloseableHttpClient httpClient;
+    /**
+     * 默认的请求配置，单个请求调整超时时间时以它为基础
+     */
+    private final RequestConfig defaultRequestConfig;
+
+    public DigitalCourseHttpClient(CloseableHttpClient httpClient, RequestConfig defaultRequestConfig) {
+        this.httpClient = httpClient;
+        this.defaultRequestConfig = defaultRequestConfig;
+    }
+
+    /**
+     * 发送 JSON 格式的 POST 请求
+     *
+     * @param url 地址
+     * @param headers 请求头
+     * @param body JSON 内容
+     * @return 响应
+     */
+    public HttpResult postJson(String url, Map<String, String> headers, String body) throws IOException {
+        HttpPost request = new HttpPost(url);
+        MapUtil.emptyIfNull(headers).forEach(request::setHeader);
+        request.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return executeForResult(request, null);
+    }
+
+    /**
+     * 发送 GET 请求
+     *
+     * @param url 地址
+     * @param headers 请求头
+     * @param params 查询参数
+     * @return 响应
+     */
+    public HttpResult get(String url, Map<String, String> headers, Map<String, ?> params) throws IOException {
+        return get(url, headers, params, null);
+    }
+
+    /**
+     * 发送 GET 请求
+     *
+     * @param url 地址
+     * @param headers 请求头
+     * @param params 查询参数
+     * @param responseTimeout 等待响应的超时时间，为空时使用默认值
+     * @return 响应
+     */
+    public HttpResult get(String url, Map<String, String> headers, Map<String, ?> params, Duration responseTimeout)
+            throws IOException {
+        URIBuilder uriBuilder;
+        try {
+            uriBuilder = new URIBuilder(url);
+            MapUtil.emptyIfNull(params).forEach((key, value) -> uriBuilder.addParameter(key, String.valueOf(value)));
+            HttpGet request = new HttpGet(uriBuilder.build());
+            MapUtil.emptyIfNull(headers).forEach(request::setHeader);
+            return executeForResult(request, responseTimeout);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("非法的地址：" + url, ex);
+        }
+    }
+
+    /**
+     * 下载文件，边读边写，不在内存中缓存
+     *
+     * @param url 地址
+     * @param destFile 目标文件
+     */
+    public void download(String url, File destFile) throws IOException {
+        httpClient.execute(new HttpGet(url), response -> {
+            if (response.getCode() != 200) {
+                EntityUtils.consume(response.getEntity());
+                throw new IOException("下载文件失败，httpStatus=" + response.getCode() + "，url=" + url);
+            }
+            try (OutputStream outputStream = Files.newOutputStream(destFile.toPath())) {
+                response.getEntity().writeTo(outputStream);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 执行请求，由 handler 处理响应，例如流式读取
+     */
+    public <T> T execute(ClassicHttpRequest request, HttpClientResponseHandler<? extends T> handler) throws IOException {
+        return httpClient.execute(request, handler);
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private HttpResult executeForResult(HttpUriRequestBase request, Duration responseTimeout) throws IOException {
+        if (responseTimeout != null) {
+            request.setConfig(RequestConfig.copy(defaultRequestConfig).setResponseTimeout(Timeout.of(responseTimeout)).build());
+        }
+        return httpClient.execute(request, response -> new HttpResult(response.getCode(),
+                response.getEntity() != null ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8) : null));
+    }
+
+}
@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.core;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * 对外 HTTP 调用的监控指标
+ *
+ * 1. digitalcourse.http.client.requests：按上游、请求方法、状态码统计的耗时（收到响应头为止，含重试），outcome 用于计算错误率
+ * 2. digitalcourse.http.client.pool.*：连接池的使用情况，pending 大于 0 表示连接池已用满
+ *
+ * @author 芋道源码
+ */
+public class HttpClientMetrics {
+
+    public static final String REQUESTS_METER_NAME = "digitalcourse.http.client.requests";
+
+    private static final String POOL_METER_PREFIX = "digitalcourse.http.client.pool.";
+
+    private HttpClientMetrics() {
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param upstream 上游域名
+     * @param method 请求方法
+     * @param status 状态码，网络异常时为空
+     * @param durationNanos 耗时（纳秒）
+     */
+    public static void record(String upstream, String method, Integer status, long durationNanos) {
+        Timer.builder(REQUESTS_METER_NAME)
+                .description("对外 HTTP 请求的耗时")
+                .tag("upstream", upstream != null ? upstream : "unknown")
+                .tag("method", method)
+                .tag("status", status != null ? String.valueOf(status) : "IO_ERROR")
+                .tag("outcome", getOutcome(status))
+                .register(Metrics.globalRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String getOutcome(Integer status) {
+        if (status == null) {
+            return "IO_ERROR";
+        }
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+
+    /**
+     * 注册连接池的监控指标
+     *
+     * @param registry 指标注册表
+     * @param pool 连接池名称
+     * @param leased 使用中的连接数
+     * @param pending 等待连接的请求数
+     * @param available 空闲的连接数
+     * @param max 最大连接数
+     */
+    public static void bindPool(MeterRegistry registry, String pool, IntSupplier leased, IntSupplier pending,
+                                IntSupplier available, IntSupplier max) {
+        Gauge.builder(POOL_METER_PREFIX + "leased", leased::getAsInt).tag("pool", pool)
+                .description("使用中的连接数").register(registry);
+        Gauge.builder(POOL_METER_PREFIX + "pending", pending::getAsInt).tag("pool", pool)
+                .description("等待连接的请求数").register(registry);
+        Gauge.builder(POOL_METER_PREFIX + "available", available::getAsInt).tag("pool", pool)
+                .description("空闲的连接数").register(registry);
+        Gauge.builder(POOL_METER_PREFIX + "max", max::getAsInt).tag("pool", pool)
+                .description("最大连接数").register(registry);
+    }
+
+    /**
+     * 记录请求耗时的拦截器，放在执行链的最外层，耗时包含重试
+     */
+    public static class MetricsExecChainHandler implements ExecChainHandler {
+
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            long startTime = System.nanoTime();
+            Integer status = null;
+            try {
+                ClassicHttpResponse response = chain.proceed(request, scope);
+                status = response.getCode();
+                return response;
+            } finally {
+                record(scope.route.getTargetHost().getHostName(), request.getMethod(), status,
+                        System.nanoTime() - startTime);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * HTTP 响应，包含状态码与响应内容
+ *
+ * @author 芋道源码
+ */
+@Data
+@AllArgsConstructor
+public class HttpResult {
+
+    /**
+     * 状态码
+     */
+    private int status;
+    /**
+     * 响应内容
+     */
+    private String body;
+
+    public boolean isOk() {
+        return status == 200;
+    }
+
+}
@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.core;
+
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * 只重试幂等请求的重试策略
+ *
+ * {@link DefaultHttpRequestRetryStrategy} 对网络异常只重试幂等请求，但对 429、503 响应不区分请求方法，
+ * 训练、合成等 POST 提交被重试时，上游可能已经受理，导致任务重复。这里对响应的重试同样只放行幂等请求
+ *
+ * @author 芋道源码
+ */
+public class IdempotentHttpRequestRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+    public IdempotentHttpRequestRetryStrategy(int maxRetries, TimeValue defaultRetryInterval) {
+        super(maxRetries, defaultRetryInterval);
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+        // 无法确定请求方法时，不重试
+        HttpRequest request = HttpCoreContext.adapt(context).getRequest();
+        if (request == null || !handleAsIdempotent(request)) {
+            return false;
+        }
+        return super.retryRequest(response, execCount, context);
+    }
+
+}
@@ -0,0 +1,8 @@
+/**
+ * 对外 HTTP 调用的封装，easegen core、doc2x、Docmee 等上游共用
+ *
+ * 1. 共享的连接池，按上游域名限制连接数，复用长连接
+ * 2. 统一的超时与重试配置
+ * 3. 按上游统计请求耗时、错误率，以及连接池的使用情况
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.http;
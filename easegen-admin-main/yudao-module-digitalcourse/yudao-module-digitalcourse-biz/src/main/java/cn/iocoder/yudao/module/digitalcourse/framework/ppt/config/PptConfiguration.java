@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.config;
+
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.OfficeConverterPool;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptMerger;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptRenderExecutor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * PPT 解析的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PptProperties.class)
+public class PptConfiguration {
+
+    @Bean
+    public PptRenderExecutor pptRenderExecutor(PptProperties properties) {
+        Integer poolSize = properties.getRender().getPoolSize();
+        return new PptRenderExecutor(poolSize != null ? poolSize : Runtime.getRuntime().availableProcessors(),
+                properties.getRender().getQueueCapacity());
+    }
+
+    @Bean
+    public OfficeConverterPool officeConverterPool(PptProperties properties) {
+        return new OfficeConverterPool(properties.getConverter());
+    }
+
+    @Bean
+    public PptMerger pptMerger(PptProperties properties) {
+        return new PptMerger(properties.getMerge());
+    }
+
+}
@@ -0,0 +1,170 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * PPT 解析的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.ppt")
+@Validated
+@Data
+public class PptProperties {
+
+    /**
+     * 页面渲染
+     */
+    @Valid
+    @NotNull(message = "页面渲染配置不能为空")
+    private Render render = new Render();
+
+    /**
+     * PPT 转 PDF 的 LibreOffice 进程池
+     */
+    @Valid
+    @NotNull(message = "Office 转换配置不能为空")
+    private Converter converter = new Converter();
+
+    /**
+     * PPT 合并
+     */
+    @Valid
+    @NotNull(message = "PPT 合并配置不能为空")
+    private Merge merge = new Merge();
+
+    /**
+     * PPT 直接转图片（不经过 PDF）
+     */
+    @Valid
+    @NotNull(message = "PPT 转图片配置不能为空")
+    private SlideImage slideImage = new SlideImage();
+
+    @Data
+    public static class Render {
+
+        /**
+         * 渲染线程数，为空时使用 CPU 核数
+         */
+        private Integer poolSize;
+        /**
+         * 等待渲染的任务数上限，超过时拒绝解析
+         */
+        @NotNull(message = "队列大小不能为空")
+        private Integer queueCapacity = 1000;
+        /**
+         * 每个渲染任务处理的页数；每个任务会单独加载一次 PDF，页数越大加载开销越小，但调度粒度越粗
+         */
+        @NotNull(message = "每个任务的页数不能为空")
+        private Integer pagesPerTask = 8;
+        /**
+         * 渲染的 DPI
+         */
+        @NotNull(message = "渲染 DPI 不能为空")
+        private Integer dpi = 150;
+        /**
+         * 等待下一页完成的超时时间
+         */
+        @NotNull(message = "页面超时时间不能为空")
+        private Duration pageTimeout = Duration.ofMinutes(5);
+
+    }
+
+    @Data
+    public static class Converter {
+
+        /**
+         * 是否启用常驻进程池；关闭、或者未找到 LibreOffice 时，每次转换启动一个新进程
+         */
+        @NotNull(message = "是否启用不能为空")
+        private Boolean enabled = true;
+        /**
+         * LibreOffice 安装目录，为空时自动探测
+         */
+        private String officeHome;
+        /**
+         * 常驻进程数，每个进程使用独立的端口与用户配置目录
+         */
+        @NotNull(message = "进程数不能为空")
+        private Integer poolSize = 2;
+        /**
+         * 第一个进程的端口，其余进程依次递增
+         */
+        @NotNull(message = "起始端口不能为空")
+        private Integer basePort = 2002;
+        /**
+         * 进程的工作目录，用于存放各进程的用户配置目录，为空时使用系统临时目录
+         */
+        private String workingDir;
+        /**
+         * 等待转换的任务数上限（不含执行中的），超过时拒绝转换
+         */
+        @NotNull(message = "队列大小不能为空")
+        private Integer queueCapacity = 20;
+        /**
+         * 等待空闲进程的超时时间
+         */
+        @NotNull(message = "排队超时时间不能为空")
+        private Duration taskQueueTimeout = Duration.ofMinutes(2);
+        /**
+         * 单次转换的超时时间，超时后视为进程卡死，重启该进程
+         */
+        @NotNull(message = "转换超时时间不能为空")
+        private Duration taskExecutionTimeout = Duration.ofMinutes(3);
+        /**
+         * 进程启动、重启的超时时间
+         */
+        @NotNull(message = "进程超时时间不能为空")
+        private Duration processTimeout = Duration.ofMinutes(2);
+        /**
+         * 每个进程最多执行的转换次数，达到后重启，避免长期运行的内存泄漏
+         */
+        @NotNull(message = "进程最大转换次数不能为空")
+        private Integer maxTasksPerProcess = 200;
+
+    }
+
+    @Data
+    public static class Merge {
+
+        /**
+         * 同时进行的合并数；合并需要将 PPT 的 XML 解析到内存中，限制并发避免大文件同时合并导致 OOM
+         */
+        @NotNull(message = "合并并发数不能为空")
+        private Integer maxConcurrency = 2;
+        /**
+         * 等待其它合并完成的超时时间，超时后拒绝合并
+         */
+        @NotNull(message = "合并排队超时时间不能为空")
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    }
+
+    @Data
+    public static class SlideImage {
+
+        /**
+         * 缩略图的宽度（像素），为 0 时不生成缩略图
+         */
+        @NotNull(message = "缩略图宽度不能为空")
+        private Integer thumbnailWidth = 320;
+        /**
+         * 每个渲染任务处理的页数；每个任务会单独加载一次 PPT
+         */
+        @NotNull(message = "每个任务的页数不能为空")
+        private Integer slidesPerTask = 4;
+        /**
+         * 等待所有页面渲染完成的超时时间
+         */
+        @NotNull(message = "渲染超时时间不能为空")
+        private Duration timeout = Duration.ofMinutes(5);
+
+    }
+
+}
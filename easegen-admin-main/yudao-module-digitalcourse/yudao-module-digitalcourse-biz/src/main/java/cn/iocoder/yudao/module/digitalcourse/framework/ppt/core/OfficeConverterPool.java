@@ -0,0 +1,176 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * 常驻的 LibreOffice 转换进程池，基于 JODConverter 实现
+ *
+ * 1. 首次转换时才拉起 poolSize 个 headless 进程，不做转换的节点不占用进程、也不拖慢应用启动；
+ *    每个进程监听独立的端口、使用独立的用户配置目录，互不争抢
+ * 2. 转换超时视为进程卡死，由 JODConverter 杀掉并重启该进程；进程崩溃时同样自动重启
+ * 3. 每个进程执行 maxTasksPerProcess 次后主动重启，避免长期运行的内存泄漏
+ * 4. 等待中的任务数有上限，超过时直接拒绝，避免请求无限堆积
+ *
+ * 未启用、或者未找到 LibreOffice 时，{@link #isAvailable()} 返回 false，由调用方退回到命令行转换
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class OfficeConverterPool implements DisposableBean, MeterBinder {
+
+    private final PptProperties.Converter properties;
+
+    /**
+     * 是否已经尝试过启动。启动失败时不再重试，避免每次转换都等待启动超时
+     */
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    private volatile LocalOfficeManager officeManager;
+    private LocalConverter converter;
+    /**
+     * 执行中 + 等待中的任务许可
+     */
+    private Semaphore permits;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public OfficeConverterPool(PptProperties.Converter properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 启动进程池，只执行一次
+     */
+    private synchronized void start() {
+        if (started || closed) {
+            return;
+        }
+        try {
+            doStart();
+        } finally {
+            // 启动完成后才标记，并发的首次调用等待启动完成，而不是退回命令行转换
+            started = true;
+        }
+    }
+
+    private void doStart() {
+        if (Boolean.FALSE.equals(properties.getEnabled())) {
+            log.info("[start][Office 转换进程池未启用，使用命令行转换]");
+            return;
+        }
+        File officeHome = StrUtil.isNotEmpty(properties.getOfficeHome()) ? new File(properties.getOfficeHome())
+                : LocalOfficeUtils.getDefaultOfficeHome();
+        if (officeHome == null || !officeHome.isDirectory()) {
+            log.warn("[start][未找到 LibreOffice 安装目录({})，使用命令行转换]", properties.getOfficeHome());
+            return;
+        }
+
+        LocalOfficeManager.Builder builder = LocalOfficeManager.builder()
+                .officeHome(officeHome)
+                .portNumbers(IntStream.range(0, properties.getPoolSize()).map(i -> properties.getBasePort() + i).toArray())
+                .processTimeout(properties.getProcessTimeout().toMillis())
+                .taskQueueTimeout(properties.getTaskQueueTimeout().toMillis())
+                .taskExecutionTimeout(properties.getTaskExecutionTimeout().toMillis())
+                .maxTasksPerProcess(properties.getMaxTasksPerProcess())
+                .disableOpengl(true);
+        if (StrUtil.isNotEmpty(properties.getWorkingDir())) {
+            builder.workingDir(properties.getWorkingDir());
+        }
+        LocalOfficeManager manager = builder.build();
+        try {
+            manager.start();
+        } catch (OfficeException ex) {
+            log.error("[start][Office 转换进程池启动失败，使用命令行转换]", ex);
+            OfficeUtils.stopQuietly(manager);
+            return;
+        }
+        this.converter = LocalConverter.make(manager);
+        this.permits = new Semaphore(properties.getPoolSize() + properties.getQueueCapacity());
+        this.officeManager = manager;
+        log.info("[start][Office 转换进程池启动完成，进程数({}) 起始端口({})]",
+                properties.getPoolSize(), properties.getBasePort());
+    }
+
+    /**
+     * 首次调用时启动进程池
+     *
+     * @return 进程池是否可用
+     */
+    public boolean isAvailable() {
+        if (!started) {
+            start();
+        }
+        return officeManager != null && officeManager.isRunning();
+    }
+
+    /**
+     * 转换文件，目标格式由目标文件的扩展名决定
+     *
+     * @param source 源文件
+     * @param target 目标文件
+     * @throws RejectedExecutionException 等待的任务数已满
+     * @throws IOException 转换失败
+     */
+    public void convert(File source, File target) throws IOException {
+        if (!permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("Office 转换队列已满");
+        }
+        inFlightCount.incrementAndGet();
+        try {
+            converter.convert(source).to(target).execute();
+        } catch (OfficeException ex) {
+            failureCount.incrementAndGet();
+            throw new IOException("Office 转换失败: " + ex.getMessage(), ex);
+        } finally {
+            inFlightCount.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("office.converter.in.flight", this, OfficeConverterPool::getInFlightCount)
+                .description("执行中、等待中的 Office 转换任务数").register(registry);
+        FunctionCounter.builder("office.converter.rejected", rejectedCount, AtomicLong::get)
+                .description("因队列已满被拒绝的 Office 转换任务数").register(registry);
+        FunctionCounter.builder("office.converter.failures", failureCount, AtomicLong::get)
+                .description("失败的 Office 转换任务数").register(registry);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closed = true;
+        if (officeManager != null) {
+            OfficeUtils.stopQuietly(officeManager);
+        }
+    }
+
+}
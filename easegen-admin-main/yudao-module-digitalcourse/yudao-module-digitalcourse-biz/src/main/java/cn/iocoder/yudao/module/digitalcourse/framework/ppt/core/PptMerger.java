@@ -0,0 +1,204 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xslf.usermodel.SlideLayout;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFSlideLayout;
+import org.apache.poi.xslf.usermodel.XSLFSlideMaster;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PPT 合并器
+ *
+ * 1. 从文件打开 PPT，按需读取压缩包中的图片等部件，不将整个文件读入内存；源文件逐个打开、合并后立即关闭
+ * 2. 目标文件的版式按「母版 + 版式」内容的摘要建立索引，每页查找为 O(1)，相同模板的版式直接复用
+ * 3. 合并结果直接写入文件，不经过内存中的字节数组
+ * 4. 限制同时进行的合并数，排队超时后拒绝
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class PptMerger implements MeterBinder {
+
+    private final PptProperties.Merge properties;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public PptMerger(PptProperties.Merge properties) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrency());
+    }
+
+    /**
+     * 合并 PPT，以第 1 个文件为基础，依次追加其余文件的幻灯片
+     *
+     * @param sources 源文件，至少 2 个
+     * @param target 目标文件
+     * @throws RejectedExecutionException 等待其它合并完成超时
+     * @throws IOException 读取、写入失败
+     */
+    public void merge(List<File> sources, File target) throws IOException {
+        acquire();
+        inFlightCount.incrementAndGet();
+        try {
+            doMerge(sources, target);
+        } finally {
+            inFlightCount.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("等待 PPT 合并被中断", ex);
+        }
+        if (!acquired) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("PPT 合并的请求过多");
+        }
+    }
+
+    private void doMerge(List<File> sources, File target) throws IOException {
+        // 以可写方式打开基础文件，但不保存回原文件：结束时 revert 丢弃修改
+        OPCPackage destPackage = openPackage(sources.get(0), PackageAccess.READ_WRITE);
+        try {
+            XMLSlideShow dest = new XMLSlideShow(destPackage);
+            LayoutIndex layoutIndex = new LayoutIndex(dest);
+            for (int i = 1; i < sources.size(); i++) {
+                try (XMLSlideShow src = new XMLSlideShow(openPackage(sources.get(i), PackageAccess.READ))) {
+                    appendSlides(dest, src, layoutIndex);
+                }
+            }
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target.toPath()))) {
+                dest.write(out);
+            }
+        } finally {
+            destPackage.revert();
+        }
+    }
+
+    private static void appendSlides(XMLSlideShow dest, XMLSlideShow src, LayoutIndex layoutIndex) {
+        // 同一个源文件中，很多页使用相同的版式、母版，只计算一次；只在当前源文件内缓存，避免持有已关闭的源文件
+        Map<XSLFSlideLayout, XSLFSlideLayout> resolvedLayouts = new IdentityHashMap<>();
+        Map<XSLFSlideMaster, String> masterDigests = new IdentityHashMap<>();
+        for (XSLFSlide srcSlide : src.getSlides()) {
+            XSLFSlideLayout destLayout = resolvedLayouts.computeIfAbsent(srcSlide.getSlideLayout(),
+                    srcLayout -> layoutIndex.resolve(srcLayout, masterDigests));
+            dest.createSlide(destLayout).importContent(srcSlide);
+        }
+    }
+
+    private static OPCPackage openPackage(File file, PackageAccess access) throws IOException {
+        try {
+            return OPCPackage.open(file, access);
+        } catch (InvalidFormatException ex) {
+            throw new IOException("无法识别的 PPT 文件：" + file.getName(), ex);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ppt.merge.in.flight", this, PptMerger::getInFlightCount)
+                .description("进行中的 PPT 合并数").register(registry);
+        FunctionCounter.builder("ppt.merge.rejected", rejectedCount, AtomicLong::get)
+                .description("因排队超时被拒绝的 PPT 合并数").register(registry);
+    }
+
+    /**
+     * 目标文件的版式索引
+     */
+    static class LayoutIndex {
+
+        /**
+         * 母版与版式内容的摘要 => 目标版式
+         */
+        private final Map<String, XSLFSlideLayout> layouts = new HashMap<>();
+        /**
+         * 版式类型 => 目标版式，摘要未命中时按类型匹配
+         */
+        private final Map<SlideLayout, XSLFSlideLayout> layoutsByType = new HashMap<>();
+        /**
+         * 默认版式，类型也未命中时使用
+         */
+        private final XSLFSlideLayout defaultLayout;
+
+        LayoutIndex(XMLSlideShow dest) {
+            Map<XSLFSlideMaster, String> masterDigests = new IdentityHashMap<>();
+            XSLFSlideLayout first = null;
+            for (XSLFSlideMaster master : dest.getSlideMasters()) {
+                for (XSLFSlideLayout layout : master.getSlideLayouts()) {
+                    layouts.putIfAbsent(digest(layout, masterDigests), layout);
+                    layoutsByType.putIfAbsent(layout.getType(), layout);
+                    if (first == null) {
+                        first = layout;
+                    }
+                }
+            }
+            this.defaultLayout = first;
+        }
+
+        /**
+         * 获得源版式对应的目标版式
+         *
+         * POI 不支持跨文件复制母版，所以没有相同的版式时，使用同类型的版式；幻灯片自身的背景、形状由 importContent 复制
+         *
+         * @param srcLayout 源版式
+         * @param masterDigests 源文件的母版摘要缓存
+         */
+        XSLFSlideLayout resolve(XSLFSlideLayout srcLayout, Map<XSLFSlideMaster, String> masterDigests) {
+            XSLFSlideLayout layout = layouts.get(digest(srcLayout, masterDigests));
+            if (layout != null) {
+                return layout;
+            }
+            layout = layoutsByType.get(srcLayout.getType());
+            if (layout != null) {
+                return layout;
+            }
+            log.debug("[resolve][版式({}) 在目标文件中不存在，使用默认版式]", srcLayout.getName());
+            return defaultLayout;
+        }
+
+        private static String digest(XSLFSlideLayout layout, Map<XSLFSlideMaster, String> masterDigests) {
+            String masterDigest = masterDigests.computeIfAbsent(layout.getSlideMaster(),
+                    master -> DigestUtil.sha256Hex(master.getXmlObject().xmlText()));
+            return masterDigest + ":" + DigestUtil.sha256Hex(layout.getXmlObject().xmlText());
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import com.alibaba.ttl.TtlRunnable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PPT 页面渲染的共享线程池
+ *
+ * 任务按租户分别排队，工作线程在租户之间轮询取任务，避免一个租户上传的大文件占满所有渲染线程。
+ * 任务总数有上限，超过时拒绝提交。
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class PptRenderExecutor implements Executor, MeterBinder, DisposableBean {
+
+    /**
+     * 未设置租户时使用的队列编号
+     */
+    private static final Long DEFAULT_TENANT_ID = 0L;
+
+    private final int queueCapacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    /**
+     * 租户编号 => 等待执行的任务
+     */
+    private final Map<Long, Deque<Runnable>> queues = new HashMap<>();
+    /**
+     * 有任务的租户，按轮询顺序排列
+     */
+    private final Deque<Long> tenantIds = new ArrayDeque<>();
+    private int queueSize;
+    private volatile boolean shutdown;
+
+    private final List<Thread> workers;
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    public PptRenderExecutor(int poolSize, int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        ThreadFactory threadFactory = ThreadFactoryBuilder.create().setNamePrefix("ppt-render-").setDaemon(true).build();
+        this.workers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            Thread worker = threadFactory.newThread(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * 提交任务，按当前租户排队
+     *
+     * @param task 任务
+     * @throws RejectedExecutionException 等待的任务数已满，或者已关闭
+     */
+    @Override
+    public void execute(Runnable task) {
+        Long tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            tenantId = DEFAULT_TENANT_ID;
+        }
+        // 接入 TransmittableThreadLocal，保证租户等上下文的传递
+        Runnable ttlTask = TtlRunnable.get(task);
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("PPT 渲染线程池已关闭");
+            }
+            if (queueSize >= queueCapacity) {
+                throw new RejectedExecutionException("PPT 渲染队列已满(" + queueCapacity + ")");
+            }
+            Deque<Runnable> queue = queues.computeIfAbsent(tenantId, key -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                tenantIds.addLast(tenantId);
+            }
+            queue.addLast(ttlTask);
+            queueSize++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 轮询取出下一个租户的任务；取出后该租户排到末尾
+     */
+    private Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queueSize == 0) {
+                notEmpty.await();
+            }
+            Long tenantId = tenantIds.pollFirst();
+            Deque<Runnable> queue = queues.get(tenantId);
+            Runnable task = queue.pollFirst();
+            if (queue.isEmpty()) {
+                queues.remove(tenantId);
+            } else {
+                tenantIds.addLast(tenantId);
+            }
+            queueSize--;
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker() {
+        while (!shutdown) {
+            Runnable task;
+            try {
+                task = take();
+            } catch (InterruptedException ex) {
+                // 取消任务产生的中断不应结束工作线程，只有关闭时才退出
+                if (shutdown) {
+                    return;
+                }
+                continue;
+            }
+            activeCount.incrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                log.error("[runWorker][PPT 渲染任务执行异常]", ex);
+            } finally {
+                activeCount.decrementAndGet();
+                // 清理任务中可能残留的中断标记，避免影响下一个任务
+                Thread.interrupted();
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return queueSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ppt.render.queue.size", this, PptRenderExecutor::getQueueSize)
+                .description("等待执行的 PPT 渲染任务数").register(registry);
+        Gauge.builder("ppt.render.active", this, PptRenderExecutor::getActiveCount)
+                .description("执行中的 PPT 渲染任务数").register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        shutdown = true;
+        workers.forEach(Thread::interrupt);
+    }
+
+}
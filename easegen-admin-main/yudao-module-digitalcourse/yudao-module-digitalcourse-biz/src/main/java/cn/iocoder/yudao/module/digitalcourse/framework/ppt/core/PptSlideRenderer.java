@@ -0,0 +1,222 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import org.apache.poi.common.usermodel.fonts.FontInfo;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.*;
+import org.apache.poi.sl.draw.DrawFontManager;
+import org.apache.poi.sl.draw.DrawFontManagerDefault;
+import org.apache.poi.sl.draw.Drawable;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFRelation;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.List;
+
+/**
+ * PPT 页面渲染为图片的工具类
+ *
+ * 每一页按内容计算摘要：页面本身，以及它引用的版式、母版、主题、图片等，不包括备注。
+ * 摘要相同的页面渲染结果相同，调用方可以据此复用之前上传的图片，只渲染变化的页面。
+ *
+ * @author 芋道源码
+ */
+public class PptSlideRenderer {
+
+    /**
+     * 渲染方式的版本，调整渲染逻辑（例如字体映射）后需要递增，使之前的摘要失效
+     */
+    private static final String RENDER_VERSION = "1";
+
+    /**
+     * 不影响页面渲染结果的关联，计算摘要时跳过
+     */
+    private static final Set<String> IGNORED_RELATIONS = Set.of(
+            XSLFRelation.NOTES.getRelation(), XSLFRelation.COMMENTS.getRelation());
+
+    /**
+     * 有些字体乱码识别不了，采用字体映射功能，将其映射为宋体
+     *
+     * 构建时会加载系统的字体列表，开销较大，所以所有页面共用一个实例
+     */
+    private static final DrawFontManager FONT_HANDLER = new DrawFontManagerDefault() {
+
+        @Override
+        public FontInfo getMappedFont(Graphics2D graphics, FontInfo fontInfo) {
+            try {
+                // 把所有字体都映射成 宋体
+                fontInfo.setTypeface("宋体");
+            } catch (Exception e) {
+                // 有一些字体是只读属性，会抛异常，忽略掉
+            }
+            return super.getMappedFont(graphics, fontInfo);
+        }
+
+    };
+
+    private PptSlideRenderer() {
+    }
+
+    /**
+     * 以只读方式打开 PPT，使用完后需要调用 {@link OPCPackage#revert()} 关闭
+     *
+     * @param file PPT 文件
+     * @return PPT 文件包
+     */
+    public static OPCPackage openPackage(File file) throws IOException {
+        try {
+            return OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException ex) {
+            throw new IOException("无法识别的 PPT 文件：" + file.getName(), ex);
+        }
+    }
+
+    /**
+     * 计算每一页的内容摘要
+     *
+     * @param ppt PPT
+     * @param options 影响渲染结果的其它参数，例如缩略图尺寸，会一并计入摘要
+     * @return 每一页的摘要，顺序与页面一致
+     */
+    public static List<String> digestSlides(XMLSlideShow ppt, String options) throws IOException {
+        Dimension pageSize = ppt.getPageSize();
+        String prefix = RENDER_VERSION + ":" + pageSize.width + "x" + pageSize.height + ":" + options;
+        // 同一个 PPT 中，版式、母版、图片被多页共用，内容摘要只计算一次
+        Map<String, String> partDigests = new HashMap<>();
+        List<String> digests = new ArrayList<>(ppt.getSlides().size());
+        for (XSLFSlide slide : ppt.getSlides()) {
+            digests.add(digestSlide(slide.getPackagePart(), prefix, partDigests));
+        }
+        return digests;
+    }
+
+    private static String digestSlide(PackagePart slidePart, String prefix, Map<String, String> partDigests) throws IOException {
+        try {
+            // 1. 收集页面直接、间接引用的所有部件
+            Map<String, PackagePart> parts = new LinkedHashMap<>();
+            Deque<PackagePart> pending = new ArrayDeque<>();
+            pending.add(slidePart);
+            while (!pending.isEmpty()) {
+                PackagePart part = pending.poll();
+                if (parts.putIfAbsent(part.getPartName().getName(), part) != null) {
+                    continue;
+                }
+                for (PackageRelationship relationship : getRelationships(part)) {
+                    PackagePart target = getTarget(part, relationship);
+                    if (target != null) {
+                        pending.add(target);
+                    }
+                }
+            }
+
+            // 2. 每个部件描述为：内容摘要 + 各关联的编号、类型与目标的内容摘要。
+            // 不使用部件名称，例如调整页面顺序、或者重新编号图片后，页面本身的摘要不变
+            List<String> lines = new ArrayList<>(parts.size());
+            for (PackagePart part : parts.values()) {
+                StringBuilder line = new StringBuilder(digestPart(part, partDigests));
+                for (PackageRelationship relationship : getRelationships(part)) {
+                    PackagePart target = getTarget(part, relationship);
+                    line.append(' ').append(relationship.getId()).append(':').append(relationship.getRelationshipType())
+                            .append('=').append(target != null ? digestPart(target, partDigests) : relationship.getTargetURI());
+                }
+                lines.add(line.toString());
+            }
+            // 页面本身放在首位，其余按内容排序，保证与遍历顺序无关
+            String slideLine = lines.remove(0);
+            Collections.sort(lines);
+            return DigestUtil.sha256Hex(prefix + "\n" + slideLine + "\n" + String.join("\n", lines));
+        } catch (InvalidFormatException ex) {
+            throw new IOException("读取 PPT 页面失败：" + slidePart.getPartName().getName(), ex);
+        }
+    }
+
+    /**
+     * 获得影响渲染结果的关联，按编号排序
+     */
+    private static List<PackageRelationship> getRelationships(PackagePart part) throws InvalidFormatException {
+        List<PackageRelationship> relationships = new ArrayList<>();
+        for (PackageRelationship relationship : part.getRelationships()) {
+            if (!IGNORED_RELATIONS.contains(relationship.getRelationshipType())) {
+                relationships.add(relationship);
+            }
+        }
+        relationships.sort(Comparator.comparing(PackageRelationship::getId));
+        return relationships;
+    }
+
+    /**
+     * 获得关联的部件，外部链接返回 null
+     */
+    private static PackagePart getTarget(PackagePart part, PackageRelationship relationship) throws InvalidFormatException {
+        if (relationship.getTargetMode() != TargetMode.INTERNAL) {
+            return null;
+        }
+        return part.getRelatedPart(relationship);
+    }
+
+    private static String digestPart(PackagePart part, Map<String, String> partDigests) throws IOException {
+        String name = part.getPartName().getName();
+        String digest = partDigests.get(name);
+        if (digest == null) {
+            try (InputStream in = part.getInputStream()) {
+                digest = DigestUtil.sha256Hex(in);
+            }
+            partDigests.put(name, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * 按页面尺寸渲染
+     *
+     * @param slide 页面
+     * @param pageSize 页面尺寸
+     * @return 图片
+     */
+    public static BufferedImage render(XSLFSlide slide, Dimension pageSize) {
+        BufferedImage image = new BufferedImage(pageSize.width, pageSize.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(Drawable.FONT_HANDLER, FONT_HANDLER);
+            slide.draw(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * 等比缩放到指定宽度
+     *
+     * @param image 原图
+     * @param width 宽度
+     * @return 缩放后的图片
+     */
+    public static BufferedImage scaleToWidth(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            // 缩小倍数较大时，双线性插值会有明显锯齿，使用区域平均
+            graphics.drawImage(image.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING), 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    public static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+}
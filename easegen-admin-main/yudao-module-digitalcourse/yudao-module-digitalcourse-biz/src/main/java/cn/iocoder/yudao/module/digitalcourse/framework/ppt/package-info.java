@@ -0,0 +1,9 @@
+/**
+ * PPT 解析的封装
+ *
+ * 1. 共享的页面渲染线程池，按租户轮询调度，避免单个大文件占满线程
+ * 2. 常驻的 LibreOffice 进程池，PPT 转 PDF 无需每次冷启动
+ * 3. 限制并发、基于文件的 PPT 合并，避免大文件合并时整体读入内存
+ * 4. 按页面内容摘要渲染 PPT 图片，未变化的页面复用之前上传的图片
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt;
@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh.config;
+
+import com.alibaba.ttl.TtlRunnable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 合成、训练状态回刷的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(StatusRefreshProperties.class)
+public class StatusRefreshConfiguration {
+
+    public static final String STATUS_REFRESH_EXECUTOR = "STATUS_REFRESH_EXECUTOR";
+
+    /**
+     * 回刷的类型数：视频合成、数字人训练、声音训练
+     */
+    private static final int REFRESHER_COUNT = 3;
+
+    @Bean(STATUS_REFRESH_EXECUTOR)
+    public ThreadPoolTaskExecutor statusRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(REFRESHER_COUNT); // 设置核心线程数，每类回刷一个线程
+        executor.setMaxPoolSize(REFRESHER_COUNT); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setQueueCapacity(REFRESHER_COUNT); // 设置队列大小
+        executor.setThreadNamePrefix("status-refresh-"); // 配置线程池的前缀
+        // 接入 TransmittableThreadLocal，保证租户等上下文的传递
+        executor.setTaskDecorator(TtlRunnable::get);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+}
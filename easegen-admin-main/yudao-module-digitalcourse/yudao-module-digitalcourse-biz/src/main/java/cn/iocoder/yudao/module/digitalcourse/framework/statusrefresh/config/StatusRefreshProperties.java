@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 合成、训练状态回刷的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.digitalcourse.status-refresh")
+@Validated
+@Data
+public class StatusRefreshProperties {
+
+    /**
+     * 是否按分桶在各节点上回刷；关闭时由 CourseMediaMegerJob 在单个节点上回刷全部记录
+     */
+    @NotNull(message = "是否启用不能为空")
+    private Boolean enabled = true;
+    /**
+     * 分桶数，所有节点需保持一致；应明显大于节点数，使分桶能够均分
+     */
+    @NotNull(message = "分桶数不能为空")
+    private Integer bucketCount = 64;
+    /**
+     * 回刷的间隔，从上一轮结束开始计算
+     */
+    @NotNull(message = "回刷间隔不能为空")
+    private Duration interval = Duration.ofSeconds(10);
+    /**
+     * 分桶租约的过期时间，每 1/3 过期时间续期一次；节点宕机后，其分桶在过期后由其它节点接管
+     */
+    @NotNull(message = "租约过期时间不能为空")
+    private Duration leaseTimeout = Duration.ofSeconds(30);
+
+}
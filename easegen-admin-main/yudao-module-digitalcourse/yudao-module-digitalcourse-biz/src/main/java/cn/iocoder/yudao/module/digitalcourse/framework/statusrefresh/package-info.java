@@ -0,0 +1,8 @@
+/**
+ * 合成、训练状态回刷的分片
+ *
+ * 1. 记录按 id 取模划分为固定数量的分桶，每个节点通过 Redis 租约占用一部分分桶，只回刷自己分桶中的记录
+ * 2. 节点通过心跳登记，按存活节点数均分分桶；节点宕机后，其分桶在租约过期后由其它节点接管
+ * 3. 视频合成、数字人训练、声音训练三类回刷在独立的线程池中并发执行
+ */
+package cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh;
@@ -2,30 +2,31 @@ package cn.iocoder.yudao.module.digitalcourse.job;
 
 import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
 import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
-import cn.iocoder.yudao.module.digitalcourse.service.coursemedia.CourseMediaServiceUtil;
-import cn.iocoder.yudao.module.digitalcourse.service.digitalhumans.DigitalHumansServiceUtil;
-import cn.iocoder.yudao.module.digitalcourse.service.voices.VoicesServiceUtil;
+import cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh.config.StatusRefreshProperties;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Component;
 
+/**
+ * 视频合成、数字人训练、声音训练状态的回刷 Job
+ *
+ * 启用分片回刷时，由 {@link CourseMediaStatusRefresher} 在各节点上按分桶回刷，该 Job 不再执行
+ */
 @Component
 public class CourseMediaMegerJob implements JobHandler {
 
     @Resource
-    private CourseMediaServiceUtil courseMediaServiceUtil;
+    private StatusRefreshProperties statusRefreshProperties;
     @Resource
-    private DigitalHumansServiceUtil digitalHumansServiceUtil;
-    @Resource
-    private VoicesServiceUtil voicesServiceUtil;
+    private CourseMediaStatusRefresher courseMediaStatusRefresher;
+
     @Override
-    @TenantJob
+    @TenantJob(parallelism = 1) // 回刷的线程池同一时间只接受一轮回刷，多个租户并行会被拒绝
     public String execute(String param) throws Exception {
-        //合成视频回刷状态
-        courseMediaServiceUtil.queryRemoteMegerResult();
-        //训练数字人模型回刷状态
-        digitalHumansServiceUtil.queryRemoteTrainResult();
-        //训练声音模型回刷状态
-        voicesServiceUtil.queryRemoteTrainResult();
+        if (statusRefreshProperties.getEnabled()) {
+            return "已启用分片回刷，跳过";
+        }
+        //合成视频、训练数字人模型、训练声音模型回刷状态，三类并发执行
+        courseMediaStatusRefresher.refresh(null, 0);
         return "";
     }
 }
@@ -0,0 +1,164 @@
+package cn.iocoder.yudao.module.digitalcourse.job;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.statusrefresh.StatusRefreshLeaseRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh.config.StatusRefreshConfiguration;
+import cn.iocoder.yudao.module.digitalcourse.framework.statusrefresh.config.StatusRefreshProperties;
+import cn.iocoder.yudao.module.digitalcourse.service.coursemedia.CourseMediaServiceUtil;
+import cn.iocoder.yudao.module.digitalcourse.service.digitalhumans.DigitalHumansServiceUtil;
+import cn.iocoder.yudao.module.digitalcourse.service.voices.VoicesServiceUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 视频合成、数字人训练、声音训练状态的分片回刷
+ *
+ * 每个节点按存活节点数均分分桶，通过 Redis 租约占用，只回刷自己分桶中的记录；三类回刷并发执行。
+ * 节点增加时，已有节点释放超出份额的分桶；节点宕机时，其分桶在租约过期后由其它节点接管。
+ * 交接期间同一分桶可能被两个节点各回刷一次，回刷本身是幂等的。
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class CourseMediaStatusRefresher {
+
+    @Resource
+    private StatusRefreshProperties statusRefreshProperties;
+    @Resource
+    private StatusRefreshLeaseRedisDAO statusRefreshLeaseRedisDAO;
+    @Resource(name = StatusRefreshConfiguration.STATUS_REFRESH_EXECUTOR)
+    private ThreadPoolTaskExecutor statusRefreshExecutor;
+
+    @Resource
+    private CourseMediaServiceUtil courseMediaServiceUtil;
+    @Resource
+    private DigitalHumansServiceUtil digitalHumansServiceUtil;
+    @Resource
+    private VoicesServiceUtil voicesServiceUtil;
+
+    /**
+     * 节点编号，进程名 + 随机数，重启后视为新节点
+     */
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + IdUtil.fastSimpleUUID();
+    /**
+     * 本节点占用的分桶
+     */
+    private final Set<Integer> ownedBuckets = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (!statusRefreshProperties.getEnabled()) {
+            return;
+        }
+        // 续期与回刷使用不同的线程，避免回刷耗时较长时租约过期
+        scheduler = Executors.newScheduledThreadPool(2,
+                ThreadFactoryBuilder.create().setNamePrefix("status-refresh-schedule-").setDaemon(true).build());
+        long renewInterval = statusRefreshProperties.getLeaseTimeout().toMillis() / 3;
+        scheduler.scheduleAtFixedRate(this::maintainLeases, 0, renewInterval, TimeUnit.MILLISECONDS);
+        long interval = statusRefreshProperties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshOwnedBuckets, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        // 主动释放，其它节点无需等待租约过期即可接管
+        try {
+            ownedBuckets.forEach(bucket -> statusRefreshLeaseRedisDAO.release(bucket, nodeId));
+            statusRefreshLeaseRedisDAO.removeNode(nodeId);
+        } catch (Exception ex) {
+            log.warn("[destroy][节点({}) 释放分桶失败，等待租约过期]", nodeId, ex);
+        }
+        ownedBuckets.clear();
+    }
+
+    /**
+     * 登记心跳、续期已占用的分桶，并按存活节点数调整占用的分桶
+     */
+    private void maintainLeases() {
+        try {
+            Duration leaseTimeout = statusRefreshProperties.getLeaseTimeout();
+            int bucketCount = statusRefreshProperties.getBucketCount();
+            int nodeCount = Math.max(1, statusRefreshLeaseRedisDAO.heartbeat(nodeId, leaseTimeout));
+            int share = (bucketCount + nodeCount - 1) / nodeCount;
+
+            // 1. 续期，续期失败的分桶已被其它节点接管
+            ownedBuckets.removeIf(bucket -> !statusRefreshLeaseRedisDAO.renew(bucket, nodeId, leaseTimeout));
+
+            // 2. 有新节点加入时，释放超出份额的分桶
+            Iterator<Integer> iterator = ownedBuckets.iterator();
+            while (ownedBuckets.size() > share && iterator.hasNext()) {
+                int bucket = iterator.next();
+                iterator.remove();
+                statusRefreshLeaseRedisDAO.release(bucket, nodeId);
+            }
+
+            // 3. 占用空闲的分桶，从随机位置开始，避免节点同时启动时争抢相同的分桶
+            int start = ThreadLocalRandom.current().nextInt(bucketCount);
+            for (int i = 0; i < bucketCount && ownedBuckets.size() < share; i++) {
+                int bucket = (start + i) % bucketCount;
+                if (!ownedBuckets.contains(bucket) && statusRefreshLeaseRedisDAO.tryAcquire(bucket, nodeId, leaseTimeout)) {
+                    ownedBuckets.add(bucket);
+                }
+            }
+        } catch (Exception ex) {
+            log.error("[maintainLeases][节点({}) 维护分桶租约失败]", nodeId, ex);
+        }
+    }
+
+    private void refreshOwnedBuckets() {
+        List<Integer> buckets = new ArrayList<>(ownedBuckets);
+        if (buckets.isEmpty()) {
+            return;
+        }
+        refresh(buckets, statusRefreshProperties.getBucketCount());
+    }
+
+    /**
+     * 并发执行三类回刷，等待全部完成
+     *
+     * @param buckets 分桶数组，为空时回刷全部记录
+     * @param bucketCount 分桶数
+     */
+    public void refresh(Collection<Integer> buckets, int bucketCount) {
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        try {
+            futures.put("合成视频", statusRefreshExecutor.submit(
+                    () -> courseMediaServiceUtil.queryRemoteMegerResult(buckets, bucketCount)));
+            futures.put("训练数字人模型", statusRefreshExecutor.submit(
+                    () -> digitalHumansServiceUtil.queryRemoteTrainResult(buckets, bucketCount)));
+            futures.put("训练声音模型", statusRefreshExecutor.submit(
+                    () -> voicesServiceUtil.queryRemoteTrainResult(buckets, bucketCount)));
+        } catch (RejectedExecutionException ex) {
+            // 上一轮（例如 CourseMediaMegerJob 触发的）仍在执行，等待已提交的完成即可
+            log.warn("[refresh][回刷仍在执行，跳过本轮剩余的回刷]");
+        }
+        futures.forEach((name, future) -> {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            } catch (ExecutionException ex) {
+                log.error("[refresh][{}回刷状态失败]", name, ex.getCause());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.module.digitalcourse.service.aippt;
+
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppAiPptGenerateReqVO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * AI 生成 PPT Service 接口
+ *
+ * @author 芋道源码
+ */
+public interface AiPptService {
+
+    /**
+     * 流式生成 PPT，Docmee 的事件到达后立即转发给前端
+     *
+     * 前端断开、或者超时后，中止对 Docmee 的请求
+     *
+     * @param userId 用户编号，用于限制并发
+     * @param reqVO 生成信息
+     * @return SSE 连接
+     */
+    SseEmitter directGeneratePptxStream(Long userId, AppAiPptGenerateReqVO reqVO);
+
+}
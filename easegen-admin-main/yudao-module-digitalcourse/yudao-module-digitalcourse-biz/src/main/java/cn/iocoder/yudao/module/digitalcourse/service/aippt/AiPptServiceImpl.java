@@ -0,0 +1,160 @@
+package cn.iocoder.yudao.module.digitalcourse.service.aippt;
+
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppAiPptGenerateReqVO;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.aippt.AiPptStreamRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.framework.aippt.config.AiPptConfiguration;
+import cn.iocoder.yudao.module.digitalcourse.framework.aippt.config.AiPptProperties;
+import cn.iocoder.yudao.module.digitalcourse.util.DocmeePptApi;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.AIPPT_STREAM_BUSY;
+import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.AIPPT_STREAM_CONCURRENCY_LIMIT;
+
+/**
+ * AI 生成 PPT Service 实现类
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Service
+public class AiPptServiceImpl implements AiPptService {
+
+    /**
+     * Docmee 的失败状态，转发失败时使用相同的格式通知前端
+     */
+    private static final int STATUS_ERROR = -1;
+
+    @Resource
+    private AiPptProperties aiPptProperties;
+    @Resource(name = AiPptConfiguration.AIPPT_STREAM_EXECUTOR)
+    private Executor aiPptStreamExecutor;
+
+    @Resource
+    private AiPptStreamRedisDAO aiPptStreamRedisDAO;
+
+    @Override
+    public SseEmitter directGeneratePptxStream(Long userId, AppAiPptGenerateReqVO reqVO) {
+        // 1. 占用用户的并发数
+        Duration timeout = aiPptProperties.getStreamTimeout();
+        if (!aiPptStreamRedisDAO.tryAcquire(userId, aiPptProperties.getUserMaxConcurrency(), timeout)) {
+            throw exception(AIPPT_STREAM_CONCURRENCY_LIMIT, aiPptProperties.getUserMaxConcurrency());
+        }
+
+        // 2. 前端断开、超时、完成时，中止 Docmee 的请求并释放并发数
+        AiPptStream stream = new AiPptStream(userId, new SseEmitter(timeout.toMillis()));
+        stream.emitter.onCompletion(stream::close);
+        stream.emitter.onTimeout(() -> {
+            stream.close();
+            stream.emitter.complete();
+        });
+        stream.emitter.onError(ex -> stream.close());
+
+        // 3. 提交转发任务
+        try {
+            aiPptStreamExecutor.execute(() -> relay(stream, reqVO));
+        } catch (RejectedExecutionException ex) {
+            stream.close();
+            throw exception(AIPPT_STREAM_BUSY);
+        }
+        return stream.emitter;
+    }
+
+    /**
+     * 读取 Docmee 的事件，逐条转发给前端
+     */
+    private void relay(AiPptStream stream, AppAiPptGenerateReqVO reqVO) {
+        try {
+            DocmeePptApi.directGeneratePptxStream(reqVO.getApiToken(), reqVO.getTemplateId(), reqVO.getSubject(),
+                    reqVO.getDataUrl(), reqVO.getPrompt(), reqVO.getPptxProperty(),
+                    (int) aiPptProperties.getReadTimeout().toMillis(), data -> {
+                        if (stream.closed.get()) {
+                            throw new CancellationException();
+                        }
+                        try {
+                            stream.emitter.send(SseEmitter.event().data(data));
+                        } catch (IOException ex) {
+                            // 前端已断开（包括 AsyncRequestNotUsableException），属于正常情况：中止 Docmee 的请求，停止转发
+                            log.debug("[relay][userId({}) 前端已断开，停止转发]", stream.userId, ex);
+                            stream.close();
+                            throw new CancellationException();
+                        }
+                    }, stream::setUpstream);
+            stream.emitter.complete();
+        } catch (Exception ex) {
+            // 前端断开、超时导致的中止，无需处理
+            if (stream.closed.get()) {
+                log.debug("[relay][userId({}) 流式生成 PPT 已中止]", stream.userId, ex);
+                return;
+            }
+            log.error("[relay][userId({}) subject({}) 流式生成 PPT 失败]", stream.userId, reqVO.getSubject(), ex);
+            try {
+                stream.emitter.send(SseEmitter.event().data(JsonUtils.toJsonString(MapUtil.builder()
+                        .put("status", STATUS_ERROR).put("error", ExceptionUtil.getRootCauseMessage(ex)).build())));
+                stream.emitter.complete();
+            } catch (Exception sendEx) {
+                stream.emitter.completeWithError(sendEx);
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * 一次流式生成：前端的 SSE 连接，以及对 Docmee 的请求
+     */
+    private class AiPptStream {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile HttpRequestBase upstream;
+
+        private AiPptStream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void setUpstream(HttpRequestBase upstream) {
+            this.upstream = upstream;
+            // 请求发出前已关闭的，直接中止
+            if (closed.get()) {
+                upstream.abort();
+            }
+        }
+
+        /**
+         * 中止 Docmee 的请求并释放并发数，只执行一次
+         */
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            HttpRequestBase request = upstream;
+            if (request != null) {
+                request.abort();
+            }
+            try {
+                aiPptStreamRedisDAO.release(userId);
+            } catch (Exception ex) {
+                log.error("[close][userId({}) 释放流式生成 PPT 的并发数失败]", userId, ex);
+            }
+        }
+
+    }
+
+}
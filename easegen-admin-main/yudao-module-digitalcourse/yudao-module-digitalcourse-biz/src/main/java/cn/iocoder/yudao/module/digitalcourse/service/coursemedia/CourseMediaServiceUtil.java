@@ -1,16 +1,17 @@
 package cn.iocoder.yudao.module.digitalcourse.service.coursemedia;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
-import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursemedia.vo.CourseMediaMegerVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursemedia.CourseMediaDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursemedia.CourseMediaMapper;
+import cn.iocoder.yudao.module.digitalcourse.framework.easegen.core.EasegenCoreSubmitter;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.HttpResult;
 import cn.iocoder.yudao.module.digitalcourse.util.SrtToVttUtil;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
@@ -20,10 +21,13 @@ import org.springframework.validation.annotation.Validated;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -36,6 +40,13 @@ public class CourseMediaServiceUtil {
 
     static final String EASEGEN_CORE_KEY = "easegen.core.key";
 
+    private static final String MERGE_MEDIA_PATH = "/api/mergemedia";
+
+    /**
+     * 回刷合成结果时，每批处理的记录数
+     */
+    private static final int QUERY_MEGER_RESULT_BATCH_SIZE = 200;
+
     @Resource
     private CourseMediaMapper courseMediaMapper;
 
@@ -45,10 +56,17 @@ public class CourseMediaServiceUtil {
     @Resource
     private SrtToVttUtil srtToVttUtil;
 
+    @Resource
+    private EasegenCoreSubmitter easegenCoreSubmitter;
+
+    @Resource
+    private DigitalCourseHttpClient digitalCourseHttpClient;
+
     /**
      * 远程合并视频
+     *
+     * 异步执行：查询记录后，提交到 easegen core 的独立线程池执行，失败时非阻塞重试，最终失败时标记为合成失败
      * @param updateReqVO
-     * @return
      */
     @Async
     public void remoteMegerMedia(CourseMediaMegerVO updateReqVO) {
@@ -58,71 +76,32 @@ public class CourseMediaServiceUtil {
             return;
         }
 
-        int maxRetries = 3; // 最大重试次数
-        int retryCount = 0;  // 当前重试次数
-        boolean success = false;
-
-        while (retryCount < maxRetries && !success) {
-            try {
-                // 发送POST请求
-                HttpResponse execute = HttpRequest.post(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/mergemedia")
-                        .header("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY))
-                        .body(JSON.toJSONString(updateReqVO))
-                        .execute();
-                String body = execute.body();
-
-                // 检查响应状态码是否成功
-                if (execute.getStatus() != 200) {
-                    retryCount++;
-                    if (retryCount >= maxRetries) {
-                        // 超过重试次数，更新状态和错误信息
-                        courseMediaDO.setStatus(3); // 3 表示合成失败
-                        courseMediaDO.setErrorReason(truncateErrorMsg("HTTP 请求报错: " + execute.getStatus()));
-                        courseMediaMapper.updateById(courseMediaDO);
-                        return;
-                    }
-                    continue; // 重新尝试
-                }
-
-                // 解析响应，检查是否有错误信息
-                JSONObject responseJson = JSON.parseObject(body);
-                if (!responseJson.getBoolean("success")) {
-                    // 处理业务逻辑错误，更新状态和错误信息
-                    String errorDetail = responseJson.getString("detail");
-                    retryCount++;
-                    if (retryCount >= maxRetries) {
-                        courseMediaDO.setStatus(3); // 3 表示合成失败
-                        courseMediaDO.setErrorReason(truncateErrorMsg("API 接口异常: " + errorDetail));
-                        courseMediaMapper.updateById(courseMediaDO);
-                        return;
-                    }
-                    continue; // 重新尝试
-                }
-
-                // 如果成功，更新状态为1（成功）
-                courseMediaDO.setStatus(1); // 1 表示合成成功
-                courseMediaMapper.updateById(courseMediaDO);
-                success = true;
-
-            } catch (Exception e) {
-                retryCount++;
-                if (retryCount >= maxRetries) {
-                    // 捕获异常，记录错误原因并更新状态
-                    courseMediaDO.setStatus(3); // 3 表示合成失败
-                    courseMediaDO.setErrorReason(truncateErrorMsg("视频合成任务失败，请联系管理员，错误信息: " + e.getMessage()));
-                    courseMediaMapper.updateById(courseMediaDO);
-                    return;
-                }
-
-                try {
-                    // 重试前等待一段时间，避免频繁请求
-                    TimeUnit.SECONDS.sleep(2);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt(); // 处理中断异常
-                    break;
-                }
+        easegenCoreSubmitter.submit(MERGE_MEDIA_PATH, () -> {
+            // 发送POST请求
+            HttpResult execute = digitalCourseHttpClient.postJson(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + MERGE_MEDIA_PATH,
+                    MapUtil.of("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY)),
+                    JSON.toJSONString(updateReqVO));
+            // 检查响应状态码是否成功
+            if (execute.getStatus() != 200) {
+                throw new IllegalStateException("HTTP 请求报错: " + execute.getStatus());
             }
-        }
+            // 解析响应，检查是否有错误信息
+            JSONObject responseJson = JSON.parseObject(execute.getBody());
+            if (!responseJson.getBoolean("success")) {
+                throw new IllegalStateException("API 接口异常: " + responseJson.getString("detail"));
+            }
+
+            // 如果成功，更新状态为1（合成中）
+            courseMediaDO.setStatus(1);
+            courseMediaMapper.updateById(courseMediaDO);
+        }, ex -> {
+            // 超过重试次数，更新状态和错误信息
+            String errorMsg = ex instanceof IllegalStateException ? ex.getMessage()
+                    : "视频合成任务失败，请联系管理员，错误信息: " + ex.getMessage();
+            courseMediaDO.setStatus(3); // 3 表示合成失败
+            courseMediaDO.setErrorReason(truncateErrorMsg(errorMsg));
+            courseMediaMapper.updateById(courseMediaDO);
+        });
     }
 
     public Boolean reMegerMedia(CourseMediaDO courseMediaDO) {
@@ -140,11 +119,10 @@ public class CourseMediaServiceUtil {
         while (retryCount < maxRetries && !success) {
             try {
                 // 发送POST请求
-                HttpResponse execute = HttpRequest.post(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/reMergemedia")
-                        .header("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY))
-                        .body(JSON.toJSONString(reqJson))
-                        .execute();
-                String body = execute.body();
+                HttpResult execute = digitalCourseHttpClient.postJson(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/reMergemedia",
+                        MapUtil.of("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY)),
+                        JSON.toJSONString(reqJson));
+                String body = execute.getBody();
 
                 // 检查响应状态码是否成功
                 if (execute.getStatus() != 200) {
@@ -212,103 +190,154 @@ public class CourseMediaServiceUtil {
 
     /**
      * 远程查询合并结果（定时任务）
+     *
+     * 按照 id 游标分批处理合成中的记录，每批只发起一次远程查询；
+     * 状态、进度均未变化的记录直接跳过，变化的记录批量更新，字幕转换异步执行，不阻塞回刷
      */
-
     @Async
     public void queryRemoteMegerResult() {
-        try {
-            List<CourseMediaDO> courseMediaDOS = courseMediaMapper.selectList(new QueryWrapperX<CourseMediaDO>().lambda().eq(CourseMediaDO::getStatus, 1));
+        queryRemoteMegerResult(null, 0);
+    }
 
-            // 检查 courseMediaDOS 是否为空
-            if (courseMediaDOS == null || courseMediaDOS.isEmpty()) {
-                return; // 如果为空，直接返回
+    /**
+     * 远程查询指定分桶中记录的合并结果
+     *
+     * @param buckets 分桶数组，为空时查询全部
+     * @param bucketCount 分桶数
+     */
+    public void queryRemoteMegerResult(Collection<Integer> buckets, int bucketCount) {
+        Long lastId = null;
+        while (true) {
+            List<CourseMediaDO> courseMediaDOS = courseMediaMapper.selectStatusListByIdGt(1, lastId, QUERY_MEGER_RESULT_BATCH_SIZE,
+                    buckets, bucketCount);
+            if (CollUtil.isEmpty(courseMediaDOS)) {
+                return;
+            }
+            try {
+                refreshMegerResult(courseMediaDOS);
+            } catch (Exception ex) {
+                // 单批失败不影响后续批次
+                log.error("[queryRemoteMegerResult][lastId({}) 回刷合成结果失败]", lastId, ex);
+            }
+            if (courseMediaDOS.size() < QUERY_MEGER_RESULT_BATCH_SIZE) {
+                return;
             }
+            lastId = courseMediaDOS.get(courseMediaDOS.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 回刷一批合成中记录的状态
+     *
+     * @param courseMediaDOS 合成中的记录
+     */
+    private void refreshMegerResult(List<CourseMediaDO> courseMediaDOS) throws IOException {
+        // 收集所有的ID
+        String courseMediaIds = courseMediaDOS.stream()
+                .map(e -> String.valueOf(e.getId()))
+                .collect(Collectors.joining(","));
+
+        // 批量调用远程接口
+        String result = digitalCourseHttpClient.get(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/mergemedia/result",
+                MapUtil.of("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY)),
+                MapUtil.of("courseMediaIds", courseMediaIds),
+                Duration.ofSeconds(5)) // 设置超时时间
+                .getBody();
+
+        // 检查远程接口返回的结果是否有效
+        if (StrUtil.isEmpty(result)) {
+            log.error("[refreshMegerResult][远程接口返回为空]");
+            return;
+        }
+        if (!JSON.isValidArray(result)) {
+            log.error("[refreshMegerResult][远程接口返回的不是 JSON 数组：{}]", result);
+            return;
+        }
+        Map<String, JSONObject> resultMap = new HashMap<>();
+        for (Object obj : JSON.parseArray(result)) {
+            if (obj instanceof JSONObject) {
+                JSONObject jsonObject = (JSONObject) obj;
+                resultMap.put(jsonObject.getString("courseMediaId"), jsonObject);
+            }
+        }
 
-            // 收集所有的ID
-            String courseMediaIds = courseMediaDOS.stream()
-                    .map(e -> String.valueOf(e.getId()))
-                    .collect(Collectors.joining(","));
-
-            // 批量调用远程接口
-            String result = HttpRequest.get(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/mergemedia/result")
-                    .header("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY))
-                    .form("courseMediaIds", courseMediaIds)
-                    .timeout(5000)  // 设置超时时间
-                    .execute()
-                    .body();
-
-            // 检查远程接口返回的结果是否有效
-            if (result == null || result.isEmpty()) {
-                System.err.println("Remote API returned empty or null response.");
+        // 计算变化的记录
+        List<CourseMediaDO> updateList = new ArrayList<>();
+        List<CourseMediaDO> finishedList = new ArrayList<>();
+        courseMediaDOS.forEach(e -> {
+            CourseMediaDO updateObj = buildMegerResultUpdateObj(e, resultMap.get(String.valueOf(e.getId())));
+            if (updateObj == null) {
                 return;
             }
-            //打印结果
-            log.info("Remote API returned: " + result);
-            if (JSON.isValidArray(result)) {
-                JSONArray jsonArray = JSON.parseArray(result);
-                Map<String, JSONObject> resultMap = jsonArray.stream()
-                        .filter(obj -> JSON.isValidObject(JSON.toJSONString(obj)))
-                        .map(obj -> JSON.parseObject(JSON.toJSONString(obj)))
-                        .collect(Collectors.toMap(jsonObject -> jsonObject.getString("courseMediaId"), jsonObject -> jsonObject));
-
-                courseMediaDOS.forEach(e -> {
-                    JSONObject jsonObject = resultMap.get(String.valueOf(e.getId()));
-                    if (jsonObject != null) {
-                        BigInteger status = jsonObject.getBigInteger("status");
-                        if (status != null) {
-                            // 合并状态，0：草稿，1：合成中，2：合成成功，3：合成失败
-                            // 状态为合成中，更新进度
-                            if (status.intValue() == 1) { // 合成中
-                                Float completionPercentage = jsonObject.getFloat("completion_percentage");
-                                e.setProgress(completionPercentage); // 更新进度
-                                e.setErrorReason(""); // 清空错误信息
-                                courseMediaMapper.updateById(e);
-                                log.info("合成中，已更新进度：" + completionPercentage + "%，课程ID: " + e.getId());
-                            } else if (status.intValue() == 2) {
-                                e.setStatus(status.intValue());
-                                e.setFinishTime(jsonObject.getString("finish_time")); // 远程返回的完成时间
-                                e.setPreviewUrl(jsonObject.getString("merge_video"));
-                                e.setDuration(jsonObject.getLong("duration"));
-                                e.setProgress(jsonObject.getFloat("completion_percentage")); // 合成进度
-                                e.setSubtitlesUrl(jsonObject.getString("subtitles_url"));
-                                e.setThumbnail(jsonObject.getString("thumbnail"));
-                                try {
-                                    String vtturl = srtToVttUtil.convertAndUploadSrtToVtt(jsonObject.getString("subtitles_url"));
-                                    e.setSubtitlesVttUrl(vtturl);
-                                } catch (IOException ex) {
-                                    log.info("Failed to convert and upload SRT to VTT: " + ex.getMessage());
-                                    throw new RuntimeException(ex);
-                                }
-                                e.setErrorReason(""); // 清空错误信息
-                                courseMediaMapper.updateById(e);
-                            } else if (status.intValue() == 3) {
-                                e.setStatus(status.intValue());
-                                String failureReasons = jsonObject.getString("failure_reasons");
-                                if (StrUtil.isNotEmpty(failureReasons) && failureReasons.length() > 1000) {
-                                    failureReasons = failureReasons.substring(0, 1000); // 截取字符串，确保不超过1000字符
-                                }
-                                e.setErrorReason(failureReasons); // 获取失败原因
-                                e.setProgress(jsonObject.getFloat("completion_percentage")); // 合成进度
-                                courseMediaMapper.updateById(e);
-                            }
-                        } else {
-                            log.error("Status is null for courseMediaId: " + e.getId());
-                        }
-                    } else {
-                        //如果没有匹配的记录，也修改为生成失败
-                        e.setStatus(3);
-                        e.setErrorReason("服务端没有查询到视频合成记录，请重新合成");
-                        courseMediaMapper.updateById(e);
-                        log.error("No matching result found for courseMediaId: " + e.getId());
-                    }
-                });
-            } else {
-                log.error("Invalid JSON array received from the remote API.");
+            updateList.add(updateObj);
+            if (Objects.equals(updateObj.getStatus(), 2) && StrUtil.isNotEmpty(updateObj.getSubtitlesUrl())) {
+                finishedList.add(updateObj);
             }
-        } catch (Exception ex) {
-            // 捕获所有异常，防止程序崩溃
-            log.error("An error occurred while querying remote merge result: " + ex.getMessage());
-            ex.printStackTrace();
+        });
+        if (updateList.isEmpty()) {
+            return;
+        }
+        courseMediaMapper.updateMegerResultList(updateList);
+        log.info("[refreshMegerResult][合成中 {} 条，更新 {} 条]", courseMediaDOS.size(), updateList.size());
+
+        // 合成成功的记录，异步转换字幕
+        finishedList.forEach(e -> srtToVttUtil.convertAndUploadSrtToVttAsync(e.getSubtitlesUrl())
+                .whenComplete((vttUrl, ex) -> {
+                    if (ex != null) {
+                        log.error("[refreshMegerResult][课程媒体({}) 字幕转换失败]", e.getId(), ex);
+                        return;
+                    }
+                    courseMediaMapper.updateById(new CourseMediaDO().setId(e.getId()).setSubtitlesVttUrl(vttUrl));
+                }));
+    }
+
+    /**
+     * 根据远程结果，构建需要更新的字段
+     *
+     * @param courseMediaDO 合成中的记录
+     * @param jsonObject    远程结果
+     * @return 更新对象，只包含变化的字段；无变化时返回 null
+     */
+    private CourseMediaDO buildMegerResultUpdateObj(CourseMediaDO courseMediaDO, JSONObject jsonObject) {
+        CourseMediaDO updateObj = new CourseMediaDO().setId(courseMediaDO.getId());
+        // 如果没有匹配的记录，也修改为生成失败
+        if (jsonObject == null) {
+            log.error("No matching result found for courseMediaId: " + courseMediaDO.getId());
+            return updateObj.setStatus(3).setErrorReason("服务端没有查询到视频合成记录，请重新合成");
+        }
+        BigInteger status = jsonObject.getBigInteger("status");
+        if (status == null) {
+            log.error("Status is null for courseMediaId: " + courseMediaDO.getId());
+            return null;
+        }
+        // 合并状态，0：草稿，1：合成中，2：合成成功，3：合成失败
+        Float completionPercentage = jsonObject.getFloat("completion_percentage");
+        switch (status.intValue()) {
+            case 1: // 合成中，仅在进度变化时更新
+                if (Objects.equals(completionPercentage, courseMediaDO.getProgress())
+                        && StrUtil.isEmpty(courseMediaDO.getErrorReason())) {
+                    return null;
+                }
+                return updateObj.setProgress(completionPercentage).setErrorReason(""); // 清空错误信息
+            case 2:
+                return updateObj.setStatus(2)
+                        .setFinishTime(jsonObject.getString("finish_time")) // 远程返回的完成时间
+                        .setPreviewUrl(jsonObject.getString("merge_video"))
+                        .setDuration(jsonObject.getLong("duration"))
+                        .setProgress(completionPercentage) // 合成进度
+                        .setSubtitlesUrl(jsonObject.getString("subtitles_url"))
+                        .setThumbnail(jsonObject.getString("thumbnail"))
+                        .setErrorReason(""); // 清空错误信息
+            case 3:
+                String failureReasons = jsonObject.getString("failure_reasons");
+                if (StrUtil.isNotEmpty(failureReasons) && failureReasons.length() > 1000) {
+                    failureReasons = failureReasons.substring(0, 1000); // 截取字符串，确保不超过1000字符
+                }
+                return updateObj.setStatus(3)
+                        .setErrorReason(failureReasons) // 获取失败原因
+                        .setProgress(completionPercentage); // 合成进度
+            default:
+                return null;
         }
     }
 }
@@ -6,6 +6,7 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsPageReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsSaveReqVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.CoursePptsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptAnalysisStatusDO;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -58,6 +59,14 @@ public interface CoursePptsService {
 
     CommonResult getSchedule(Long id);
 
+    /**
+     * 获得 PPT 解析状态，只读取 Redis，用于 WebSocket 断线重连后恢复进度
+     *
+     * @param id PPT 编号
+     * @return 解析状态；不存在（未解析，或者已过期）时返回 null
+     */
+    PptAnalysisStatusDO getAnalysisStatus(Long id);
+
     ResponseEntity<Object> mergePPTs(MultipartFile[] files);
 
     ResponseEntity<Map<String, Object>> convertPptToImages(MultipartFile file);
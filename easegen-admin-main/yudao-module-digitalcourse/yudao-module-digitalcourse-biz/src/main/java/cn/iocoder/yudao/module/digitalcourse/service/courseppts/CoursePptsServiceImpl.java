@@ -5,19 +5,25 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsPageReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppCoursePptsSaveReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.pptmaterials.vo.AppPptMaterialsSaveReqVO;
+import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptAnalysisStatusDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptSlideImageDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.courseppts.PptAnalysisStatusRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.courseppts.PptSlideImageRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.enums.courseppts.PptAnalysisStatusEnum;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptMerger;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptRenderExecutor;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptSlideRenderer;
 import cn.iocoder.yudao.module.digitalcourse.service.pptmaterials.PptMaterialsService;
 import cn.iocoder.yudao.module.digitalcourse.util.PPTUtil;
 import cn.iocoder.yudao.module.infra.api.file.FileApi;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.poi.common.usermodel.fonts.FontInfo;
-import org.apache.poi.sl.draw.DrawFontManagerDefault;
-import org.apache.poi.sl.draw.Drawable;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.sl.usermodel.Placeholder;
 import org.apache.poi.xslf.usermodel.*;
 import org.springframework.context.ApplicationContext;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -31,17 +37,17 @@ import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.courseppts.CoursePptsMapper;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.*;
@@ -56,9 +62,6 @@ import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.*;
 @Slf4j
 public class CoursePptsServiceImpl implements CoursePptsService {
 
-    private static final String ANALYSIS_PPT_KEY = "analysis_ppt:";
-    private static final String ANALYSIS_PPT_COUNT_KEY = "analysis_ppt_count:";
-
     @Resource
     private CoursePptsMapper coursePptsMapper;
 
@@ -67,11 +70,19 @@ public class CoursePptsServiceImpl implements CoursePptsService {
 
     @Resource
     private PPTUtil pptUtil;
+    @Resource
+    private PptMerger pptMerger;
+    @Resource
+    private PptRenderExecutor pptRenderExecutor;
+    @Resource
+    private PptProperties pptProperties;
+    @Resource
+    private PptSlideImageRedisDAO pptSlideImageRedisDAO;
 
     @Resource
     private FileApi fileApi;
     @Resource
-    private StringRedisTemplate redisCache;
+    private PptAnalysisStatusRedisDAO pptAnalysisStatusRedisDAO;
     @Resource
     private PptMaterialsService pptMaterialsService;
 
@@ -81,7 +92,8 @@ public class CoursePptsServiceImpl implements CoursePptsService {
         CoursePptsDO coursePpts = BeanUtils.toBean(createReqVO, CoursePptsDO.class);
         coursePpts.setStatus(2);
         coursePptsMapper.insert(coursePpts);
-        pptUtil.analysisPpt(coursePpts.getUrl(), coursePpts.getId());
+        pptUtil.analysisPpt(coursePpts.getUrl(), coursePpts.getId(),
+                WebFrameworkUtils.getLoginUserId(), WebFrameworkUtils.getLoginUserType());
         // 返回
         return coursePpts.getId();
     }
@@ -121,42 +133,32 @@ public class CoursePptsServiceImpl implements CoursePptsService {
 
     @Override
     public CommonResult getSchedule(Long id) {
-        String value = redisCache.opsForValue().get(ANALYSIS_PPT_KEY + id);
-        String count = redisCache.opsForValue().get(ANALYSIS_PPT_COUNT_KEY + id);
-        log.info("PPT解析进度查询 - ID: {}, 进度: {}，总数：{}", id, value, count);
-        
-        if (StringUtils.isBlank(value)) {
-            CoursePptsDO coursePptsDO = coursePptsMapper.selectById(id);
-            List<AppPptMaterialsSaveReqVO> appPptMaterialsSaveReqVOS = pptMaterialsService.selectListByPptId(id);
-            log.info("PPT解析完成 - ID: {}, 解析数量: {}，总数：{}", id, appPptMaterialsSaveReqVOS.size(), coursePptsDO.getPageSize());
-            if (appPptMaterialsSaveReqVOS.isEmpty()) {
-                log.warn("PPT解析结果为空 - ID: {}", id);
-                return CommonResult.success(null);
-            }
-            if(appPptMaterialsSaveReqVOS.size() != coursePptsDO.getPageSize()) {
-                //如果页数比较多，插入数据库可能要一定时间，所以这里先返回一个9999，前端再根据这个值判断是否需要继续请求
-                return CommonResult.success("0.9999");
+        // 解析进度通过 WebSocket 推送；这里只读取 Redis 中的状态，兼容轮询，不再查询数据库比对素材数
+        PptAnalysisStatusDO status = pptAnalysisStatusRedisDAO.get(id);
+        if (status != null) {
+            if (PptAnalysisStatusEnum.RUNNING.getStatus().equals(status.getStatus())) {
+                return CommonResult.success(String.valueOf(PPTUtil.buildAnalysisResp(status).getProgress()));
             }
-            return CommonResult.success(appPptMaterialsSaveReqVOS);
-        }
-        
-        if (Double.valueOf(value) == 1) {
-            redisCache.delete(ANALYSIS_PPT_KEY + id);
-            redisCache.delete(ANALYSIS_PPT_COUNT_KEY + id);
-            if(StringUtils.isBlank(count)) {
-                return CommonResult.success("0.9999");
+            if (PptAnalysisStatusEnum.FAILURE.getStatus().equals(status.getStatus())) {
+                return CommonResult.success("-1");
             }
-            List<AppPptMaterialsSaveReqVO> appPptMaterialsSaveReqVOS = pptMaterialsService.selectListByPptId(id);
-            log.info("PPT解析完成并清除缓存 - ID: {}, 解析数量: {}", id, appPptMaterialsSaveReqVOS.size());
-            if(StringUtils.isNotBlank(count) && appPptMaterialsSaveReqVOS.size() != Integer.valueOf(count)) {
-                //如果页数比较多，插入数据库可能要一定时间，所以这里先返回一个9999，前端再根据这个值判断是否需要继续请求
-                return CommonResult.success("0.9999");
+            if (PptAnalysisStatusEnum.CANCELLED.getStatus().equals(status.getStatus())) {
+                return CommonResult.success(null);
             }
-            return CommonResult.success(appPptMaterialsSaveReqVOS);
         }
-        
-        log.info("PPT解析进行中 - ID: {}, 进度: {}", id, value);
-        return CommonResult.success(value);
+
+        // 解析成功（素材在推送成功之前已全部保存），或者状态已过期：返回素材
+        List<AppPptMaterialsSaveReqVO> appPptMaterialsSaveReqVOS = pptMaterialsService.selectListByPptId(id);
+        if (appPptMaterialsSaveReqVOS.isEmpty()) {
+            log.warn("PPT解析结果为空 - ID: {}", id);
+            return CommonResult.success(null);
+        }
+        return CommonResult.success(appPptMaterialsSaveReqVOS);
+    }
+
+    @Override
+    public PptAnalysisStatusDO getAnalysisStatus(Long id) {
+        return pptAnalysisStatusRedisDAO.get(id);
     }
 
     @Override
@@ -165,50 +167,34 @@ public class CoursePptsServiceImpl implements CoursePptsService {
             return ResponseEntity.badRequest().body("At least two PPT files are required.".getBytes());
         }
 
+        // 1. 上传的文件落盘，合并时按需读取，不整体读入内存
+        List<File> sources = new ArrayList<>(files.length);
+        File target = null;
         try {
-            // 1. 使用第1个PPT作为基础文件（不建议创建空对象，然后从第1个开始合并操作）
-            XMLSlideShow ppt = new XMLSlideShow(files[0].getInputStream());
-            // 2. 从第2个文件开始遍历，合并
-            for (int i = 1; i < files.length; i++) {
-                XMLSlideShow src = new XMLSlideShow(files[i].getInputStream());
-                // 遍历每张幻灯片
-                for (XSLFSlide srcSlide : src.getSlides()) {
-                    XSLFSlideMaster master = srcSlide.getSlideMaster();
-
-                    // 检查目标文件是否已包含相同的母版
-                    XSLFSlideMaster destMaster = null;
-                    for (XSLFSlideMaster destMasterCandidate : ppt.getSlideMasters()) {
-                        if (master.equals(destMasterCandidate)) {
-                            destMaster = destMasterCandidate;
-                            break;
-                        }
-                    }
-
-                    // 如果目标文件中没有对应的母版，则复制源文件中的母版
-                    if (destMaster == null) {
-                        destMaster = master;
-                        ppt.getSlideMasters().add(destMaster);
-                    }
-
-                    // 获取母版的第一个布局，默认使用第一个布局
-                    XSLFSlideLayout destLayout = destMaster.getSlideLayouts()[0];
-                    XSLFBackground bg = destLayout.getBackground();
-                    // 合并
-                    XSLFSlide destSlide = ppt.createSlide(destLayout);
-                    destSlide.importContent(srcSlide);
-                }
+            for (MultipartFile file : files) {
+                File source = File.createTempFile("ppt_merge_", ".pptx");
+                sources.add(source);
+                file.transferTo(source);
             }
+            target = File.createTempFile("ppt_merged_", ".pptx");
 
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                ppt.write(out);
-                String path = fileApi.createFile("PPT黑板模板合并.pptx", null, out.toByteArray());
-                // 关闭资源
-                out.close();
-                return ResponseEntity.ok().body(path);
-            }
+            // 2. 以第1个PPT作为基础文件合并，结果写入临时文件
+            pptMerger.merge(sources, target);
+
+            // 3. 上传
+            String path = fileApi.createFile("PPT黑板模板合并.pptx", null, Files.readAllBytes(target.toPath()));
+            return ResponseEntity.ok().body(path);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(("Too many PPT merges in progress, please try again later.").getBytes());
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(("Error merging PPT files: " + e.getMessage()).getBytes());
+        } finally {
+            sources.forEach(File::delete);
+            if (target != null) {
+                target.delete();
+            }
         }
     }
 
@@ -220,84 +206,160 @@ public class CoursePptsServiceImpl implements CoursePptsService {
             return ResponseEntity.badRequest().body(map);
         }
 
+        File pptFile = null;
         try {
             // Save the uploaded file
-            File pptFile = File.createTempFile("ppt_", ".pptx");
+            pptFile = File.createTempFile("ppt_", ".pptx");
             file.transferTo(pptFile);
 
             // Convert PPT to images and extract notes
             Map<String, Object> result = convertPptToImagesAndNotes(pptFile);
-
-            // Delete the temporary file
-            pptFile.delete();
-
             return ResponseEntity.ok(result);
+        } catch (RejectedExecutionException e) {
+            map.put("error", "Too many PPT renders in progress, please try again later.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(map);
         } catch (IOException e) {
             map.put("error", e.getMessage());
             return ResponseEntity.status(500).body(map);
+        } finally {
+            // Delete the temporary file
+            if (pptFile != null) {
+                pptFile.delete();
+            }
         }
     }
 
     @Override
     public Boolean cancelAnalysis(Long id) {
-        return redisCache.delete(ANALYSIS_PPT_KEY + id);
+        PptAnalysisStatusDO status = pptAnalysisStatusRedisDAO.get(id);
+        boolean analyzing = status != null && PptAnalysisStatusEnum.RUNNING.getStatus().equals(status.getStatus());
+        // 停止渲染，而不仅仅是删除进度
+        pptUtil.cancelAnalysis(id);
+        return analyzing;
     }
 
     private Map<String, Object> convertPptToImagesAndNotes(File pptFile) throws IOException {
+        PptProperties.SlideImage config = pptProperties.getSlideImage();
+        // 1. 计算每一页的内容摘要，并提取备注
+        List<String> digests;
+        List<String> remarks = new ArrayList<>();
+        OPCPackage pkg = PptSlideRenderer.openPackage(pptFile);
+        try {
+            XMLSlideShow ppt = new XMLSlideShow(pkg);
+            digests = PptSlideRenderer.digestSlides(ppt, "thumbnail=" + config.getThumbnailWidth());
+            ppt.getSlides().forEach(slide -> remarks.add(getRemark(slide)));
+        } finally {
+            pkg.revert();
+        }
+
+        // 2. 内容未变化的页面，复用之前上传的图片；只渲染变化的页面，内容相同的页面只渲染一次
+        Map<String, PptSlideImageDO> images = new ConcurrentHashMap<>(pptSlideImageRedisDAO.getMap(digests));
+        Map<String, Integer> changedSlides = new LinkedHashMap<>();
+        for (int i = 0; i < digests.size(); i++) {
+            if (!images.containsKey(digests.get(i))) {
+                changedSlides.putIfAbsent(digests.get(i), i);
+            }
+        }
+        log.info("[convertPptToImagesAndNotes][共 {} 页，复用 {} 页，渲染 {} 页]", digests.size(),
+                digests.size() - changedSlides.size(), changedSlides.size());
+        if (!changedSlides.isEmpty()) {
+            renderSlides(pptFile, new ArrayList<>(changedSlides.values()), digests, images, config);
+        }
+
+        // 3. 按页面顺序返回
+        List<Map<String, String>> slidesData = new ArrayList<>(digests.size());
+        for (int i = 0; i < digests.size(); i++) {
+            PptSlideImageDO image = images.get(digests.get(i));
+            Map<String, String> slideData = new HashMap<>();
+            slideData.put("imagePath", image.getImagePath());
+            if (image.getThumbnailPath() != null) {
+                slideData.put("thumbnailPath", image.getThumbnailPath());
+            }
+            slideData.put("remark", remarks.get(i));
+            slidesData.add(slideData);
+        }
         Map<String, Object> result = new HashMap<>();
-        List<Map<String, String>> slidesData = new ArrayList<>();
-
-        try (FileInputStream fis = new FileInputStream(pptFile);
-             XMLSlideShow ppt = new XMLSlideShow(fis)) {
-
-            Dimension pgsize = ppt.getPageSize();
-            for (XSLFSlide slide : ppt.getSlides()) {
-                BufferedImage img = new BufferedImage(pgsize.width, pgsize.height, BufferedImage.TYPE_INT_RGB);
-                Graphics2D graphics = img.createGraphics();
-
-                // 有些字体乱码识别不了，采用字体映射功能，将其映射为宋体
-                graphics.setRenderingHint(Drawable.FONT_HANDLER, new DrawFontManagerDefault() {
-                    public FontInfo getMappedFont(Graphics2D graphics, FontInfo fontInfo) {
-                        try {
-                            //把所有字体都映射成 宋体
-                            fontInfo.setTypeface("宋体");
-                        } catch (Exception e) {
-                            //有一些字体是只读属性，会抛异常，忽略掉
-                        }
-                        return super.getMappedFont(graphics, fontInfo);
-                    }
-                });
+        result.put("slides", slidesData);
+        return result;
+    }
 
-                slide.draw(graphics);
-
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                ImageIO.write(img, "png", out);
-                String path = fileApi.createFile(out.toByteArray());
-
-                // 获取ppt的备注信息
-                XSLFNotes notes = slide.getNotes();
-                String remark = "";
-                if (notes != null) {
-                    for (XSLFShape shape : notes) {
-                        if (shape instanceof XSLFTextShape && Placeholder.BODY == ((XSLFTextShape) shape).getTextType()) {
-                            XSLFTextShape txShape = (XSLFTextShape) shape;
-                            remark = txShape.getText();
-                            break;
-                        }
-                    }
-                }
+    /**
+     * 分批提交到 PPT 渲染线程池并行渲染；XMLSlideShow 不是线程安全的，每个任务单独加载一次 PPT
+     */
+    private void renderSlides(File pptFile, List<Integer> slideIndexes, List<String> digests,
+                              Map<String, PptSlideImageDO> images, PptProperties.SlideImage config) throws IOException {
+        List<FutureTask<Void>> futures = new ArrayList<>();
+        try {
+            for (int start = 0; start < slideIndexes.size(); start += config.getSlidesPerTask()) {
+                List<Integer> indexes = slideIndexes.subList(start, Math.min(start + config.getSlidesPerTask(), slideIndexes.size()));
+                FutureTask<Void> future = new FutureTask<>(() -> {
+                    renderSlides(pptFile, indexes, digests, images, config.getThumbnailWidth());
+                    return null;
+                });
+                futures.add(future);
+                pptRenderExecutor.execute(future);
+            }
 
-                // Store image path and notes
-                Map<String, String> slideData = new HashMap<>();
-                slideData.put("imagePath", path);
-                slideData.put("remark", remark);
+            long deadline = System.nanoTime() + config.getTimeout().toNanos();
+            for (FutureTask<Void> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("渲染 PPT 页面失败", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("渲染 PPT 页面超时", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("渲染 PPT 页面被中断", e);
+        } finally {
+            // 失败时，停止剩余的渲染任务
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
 
-                slidesData.add(slideData);
+    private void renderSlides(File pptFile, List<Integer> slideIndexes, List<String> digests,
+                              Map<String, PptSlideImageDO> images, int thumbnailWidth) throws IOException {
+        OPCPackage pkg = PptSlideRenderer.openPackage(pptFile);
+        try {
+            XMLSlideShow ppt = new XMLSlideShow(pkg);
+            Dimension pageSize = ppt.getPageSize();
+            for (Integer index : slideIndexes) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                BufferedImage fullImage = PptSlideRenderer.render(ppt.getSlides().get(index), pageSize);
+                PptSlideImageDO image = new PptSlideImageDO()
+                        .setImagePath(fileApi.createFile(PptSlideRenderer.toPng(fullImage)));
+                if (thumbnailWidth > 0) {
+                    image.setThumbnailPath(fileApi.createFile(PptSlideRenderer.toPng(
+                            PptSlideRenderer.scaleToWidth(fullImage, thumbnailWidth))));
+                }
+                // 每页渲染完立即缓存，整体失败后重试时，已完成的页面也无需重新渲染
+                pptSlideImageRedisDAO.set(digests.get(index), image);
+                images.put(digests.get(index), image);
             }
+        } finally {
+            pkg.revert();
         }
+    }
 
-        result.put("slides", slidesData);
-        return result;
+    /**
+     * 获取ppt的备注信息
+     */
+    private static String getRemark(XSLFSlide slide) {
+        XSLFNotes notes = slide.getNotes();
+        if (notes == null) {
+            return "";
+        }
+        for (XSLFShape shape : notes) {
+            if (shape instanceof XSLFTextShape && Placeholder.BODY == ((XSLFTextShape) shape).getTextType()) {
+                return ((XSLFTextShape) shape).getText();
+            }
+        }
+        return "";
     }
 
-}
\ No newline at end of file
+}
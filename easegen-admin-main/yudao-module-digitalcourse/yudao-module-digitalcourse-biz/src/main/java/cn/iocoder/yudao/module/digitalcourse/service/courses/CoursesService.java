@@ -5,6 +5,9 @@ import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courses.CoursesDO;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import jakarta.validation.Valid;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 存储课程的基本信息，包括课程名称、时长、状态等 Service 接口
  *
@@ -56,4 +59,32 @@ public interface CoursesService {
 
     String getCourseProgress(String courseId);
 
+    /**
+     * 批量获得课程的上课进度，一次 MGET 读取
+     *
+     * @param courseIds 课程编号数组
+     * @return 课程编号 => 上课进度，无进度时为空字符串
+     */
+    Map<String, String> getCourseProgressMap(Collection<String> courseIds);
+
+    /**
+     * 批量获得用户自己课程的上课进度，不属于该用户的课程不返回
+     *
+     * @param courseIds 课程编号数组
+     * @param userId 用户编号
+     * @return 课程编号 => 上课进度，无进度时为空字符串
+     */
+    Map<String, String> getCourseProgressMap(Collection<String> courseIds, Long userId);
+
+    /**
+     * 批量获得课程的下一个段落，并记录上课进度
+     *
+     * 与不传 no 的 {@link #getCourseText(String, String, Integer)} 语义一致，但进度、段落的读取与进度的写入均批量完成
+     *
+     * @param courseIds 课程编号数组
+     * @param userid 用户id
+     * @return 课程编号 => 课程段落，不存在、不属于该用户或没有文本的课程不返回
+     */
+    Map<String, CourseTextRespVO> getCourseTextMap(Collection<String> courseIds, String userid);
+
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.digitalcourse.service.courses;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.util.IdUtil;
 import cn.iocoder.yudao.framework.common.exception.ErrorCode;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo.*;
@@ -13,10 +15,14 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -28,6 +34,7 @@ import cn.iocoder.yudao.module.digitalcourse.dal.mysql.courses.CoursesMapper;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -45,9 +52,35 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.USER_NOT_E
 public class CoursesServiceImpl implements CoursesService {
 
     private static final String COURSE_SCENE_TEXT_KEY = "COURSE_SCENE_TEXT_KEY:";
-    private static final String COURSE_SEGMENT_TEXT_KEY = "COURSE_SEGMENT_TEXT_KEY:";
+    /**
+     * 课程段落索引，Hash 结构：{@link #SEGMENT_INDEX_TOTAL} 为段落总数，{@link #SEGMENT_INDEX_VERSION} 为格式版本，
+     * 其余 field 为段落序号，value 为「背景图地址 + 换行 + 段落文本」
+     */
+    private static final String COURSE_SEGMENT_INDEX_KEY = "COURSE_SEGMENT_INDEX_KEY:";
+    private static final String SEGMENT_INDEX_TOTAL = "total";
+    private static final String SEGMENT_INDEX_VERSION = "version";
+    /**
+     * 段落索引的格式版本。拆分规则、value 格式变化时修改，读取到的版本不一致时重建索引
+     */
+    private static final String SEGMENT_INDEX_FORMAT_VERSION = "1";
+    /**
+     * 构建段落索引时，临时 key 的过期时间（秒），避免 rename 之前异常时残留
+     */
+    private static final long SEGMENT_INDEX_TEMP_TIMEOUT_SECONDS = 60;
+    /**
+     * 段落拆分的标点符号
+     */
+    private static final Pattern SEGMENT_SPLIT_PATTERN = Pattern.compile("[，。！？；：,.!?;:\\n\\r]+\\s*");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private static final String COURSE_PROGRESS_KEY = "COURSE_PROCESS_KEY:";
+    private static final long COURSE_PROGRESS_TIMEOUT_HOURS = 1;
+
+    /**
+     * 每次保存课程写入的行数，用于观察保存的写放大
+     */
+    private static final String COURSE_SAVE_ROWS_METRIC = "digitalcourse.course.save.rows";
 
     @Resource
     private CoursesMapper coursesMapper;
@@ -81,21 +114,12 @@ public class CoursesServiceImpl implements CoursesService {
     public void updateCourses(AppCoursesUpdateReqVO updateReqVO) {
         // 校验存在
         validateCoursesExists(updateReqVO.getId());
-        // TODO 后面考虑做一个更新标志，使用hash等方式进行比对，如果本次数据与上次保存数据一致，则不执行更新操作，防止浪费数据库资源
         // 更新
         CoursesDO updateObj = BeanUtils.toBean(updateReqVO, CoursesDO.class);
 
-        // 构造 COURSE_SCENE_TEXT_KEY 和 COURSE_SEGMENT_TEXT_KEY 所需要的缓存数据
+        // 构造 COURSE_SCENE_TEXT_KEY 和 COURSE_SEGMENT_INDEX_KEY 所需要的缓存数据
         String sceneRedisKey = COURSE_SCENE_TEXT_KEY + updateObj.getId();
-        String segmentRedisKey = COURSE_SEGMENT_TEXT_KEY + updateObj.getId();
-        System.out.println(System.currentTimeMillis()+"-------  删除历史数据开始");
-        // 先删除历史数据
-        courseScenesService.batchRemoveCouseScenes(updateReqVO.getId());
-        System.out.println(System.currentTimeMillis()+"-------  删除历史数据结束");
-        System.out.println(System.currentTimeMillis()+"-------  组装scenes数据开始");
-        // 重新insert
         List<AppCourseScenesSaveReqVO> scenes = updateReqVO.getScenes();
-        ObjectMapper objectMapper = new ObjectMapper();
         Map<String, Map<String, String>> scenesMap = new HashMap<>();
         scenes.stream().forEach(e -> {
             e.setCourseId(updateObj.getId());
@@ -107,13 +131,10 @@ public class CoursesServiceImpl implements CoursesService {
             sceneData.put("background", e.getBackground().getSrc());
             scenesMap.put(String.valueOf(e.getOrderNo()), sceneData);
         });
-        System.out.println(System.currentTimeMillis()+"-------  组装scenes数据结束");
-        System.out.println(System.currentTimeMillis()+ "-------  redis开始");
         // 将所有场景数据存放到一个key中
         try {
             redisCache.delete(sceneRedisKey);
-            redisCache.delete(segmentRedisKey);
-            String serializedScenes = objectMapper.writeValueAsString(scenesMap);
+            String serializedScenes = OBJECT_MAPPER.writeValueAsString(scenesMap);
             log.info("序列化场景数据为：" + serializedScenes);
             redisCache.opsForValue().set(sceneRedisKey, serializedScenes);
         }  catch (JsonProcessingException e) {
@@ -121,11 +142,15 @@ public class CoursesServiceImpl implements CoursesService {
             //不抛异常，不影响更新动作
 //            throw new RuntimeException(e);
         }
-        System.out.println(System.currentTimeMillis()+ "-------  redis结束");
+        // 预先拆分段落，构建段落索引，避免 getCourseText 每次请求都重新拆分整个课程
+        buildSegmentIndex(String.valueOf(updateObj.getId()), toSortedScenes(scenesMap));
 
 
-        courseScenesService.batchCreateCourseScenes(scenes);
+        // 对比内容指纹，只写入发生变化的场景数据
+        int rows = courseScenesService.saveCourseScenes(updateObj.getId(), scenes);
         coursesMapper.updateById(updateObj);
+        Metrics.summary(COURSE_SAVE_ROWS_METRIC).record(rows + 1);
+        log.debug("[updateCourses][课程({}) 保存写入 {} 行]", updateObj.getId(), rows + 1);
     }
 
     @Override
@@ -134,6 +159,8 @@ public class CoursesServiceImpl implements CoursesService {
         validateCoursesExists(id);
         // 删除
         coursesMapper.deleteById(id);
+        // 删除场景缓存、段落索引
+        redisCache.delete(Arrays.asList(COURSE_SCENE_TEXT_KEY + id, COURSE_SEGMENT_INDEX_KEY + id));
     }
 
     private void validateCoursesExists(Long id) {
@@ -160,20 +187,7 @@ public class CoursesServiceImpl implements CoursesService {
             pageReqVO.setCreator(String.valueOf(WebFrameworkUtils.getLoginUserId()));
         }
         PageResult<CoursesDO> pageResult = coursesMapper.selectPage(pageReqVO);
-
-        // 将 CoursesDO 转换为 AppCoursesRespVO，并设置进度信息
-        List<AppCoursesRespVO> respVOList = pageResult.getList().stream().map(course -> {
-            AppCoursesRespVO respVO = new AppCoursesRespVO();
-            // 复制课程的基本信息
-            BeanUtils.copyProperties(course, respVO);
-            // 获取并设置课程进度
-            String progress = getCourseProgress(String.valueOf(course.getId()));
-            respVO.setProgress(progress);
-            return respVO;
-        }).collect(Collectors.toList());
-
-        // 构建返回的分页结果
-        return new PageResult<>(respVOList, pageResult.getTotal());
+        return buildCoursesRespPage(pageResult);
     }
 
     @Override
@@ -184,15 +198,21 @@ public class CoursesServiceImpl implements CoursesService {
         
         // 使用带有查询条件的分页查询
         PageResult<CoursesDO> pageResult = coursesMapper.selectPage(pageReqVO, queryWrapper);
+        return buildCoursesRespPage(pageResult);
+    }
+
+    private PageResult<AppCoursesRespVO> buildCoursesRespPage(PageResult<CoursesDO> pageResult) {
+        // 一次 MGET 批量获取本页课程的进度
+        Map<String, String> progressMap = getCourseProgressMap(
+                CollectionUtils.convertList(pageResult.getList(), course -> String.valueOf(course.getId())));
 
         // 将 CoursesDO 转换为 AppCoursesRespVO，并设置进度信息
         List<AppCoursesRespVO> respVOList = pageResult.getList().stream().map(course -> {
             AppCoursesRespVO respVO = new AppCoursesRespVO();
             // 复制课程的基本信息
             BeanUtils.copyProperties(course, respVO);
-            // 获取并设置课程进度
-            String progress = getCourseProgress(String.valueOf(course.getId()));
-            respVO.setProgress(progress);
+            // 设置课程进度
+            respVO.setProgress(progressMap.get(String.valueOf(course.getId())));
             return respVO;
         }).collect(Collectors.toList());
 
@@ -220,33 +240,168 @@ public class CoursesServiceImpl implements CoursesService {
         }
         //如果no为空，查询进度缓存数据，如果没有进度，说明没有播放，则置为1，如果已经播放了，则置为进度+1
         if(no == null) {
-            String progress = getCourseProgress(courseId);
-            if(StringUtils.isBlank(progress)) {
-                no = 1;
+            no = getNextNo(getCourseProgress(courseId));
+        }
+        // 从段落索引中直接获取第 no 段，无需反序列化、拆分整个课程
+        no = Math.max(no, 1);
+        Segment requestedSegment = getIndexedSegment(courseId, no);
+
+        //记录上课进度
+        if(requestedSegment.getNo() != requestedSegment.getTotalNo()) {
+            redisCache.opsForValue().set(COURSE_PROGRESS_KEY + courseId , formatProgress(requestedSegment), COURSE_PROGRESS_TIMEOUT_HOURS, TimeUnit.HOURS);
+        } else {
+            //播放完成，则删掉redis中缓存
+            redisCache.delete(COURSE_PROGRESS_KEY + courseId);
+        }
+        return buildCourseTextResp(requestedSegment);
+    }
+
+    @Override
+    public Map<String, CourseTextRespVO> getCourseTextMap(Collection<String> courseIds, String userid) {
+        AdminUserRespDTO adminUserRespDTO = adminUserApi.getUser(Long.valueOf(userid));
+        if (adminUserRespDTO == null) {
+            throw exception(USER_NOT_EXISTS);
+        }
+        // 1. 一次查询过滤出属于该用户的课程，保持请求的顺序
+        List<String> ids = filterOwnedCourseIds(courseIds, adminUserRespDTO.getId());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // 2. 一次 MGET 获取进度，计算每个课程要播放的段落序号
+        Map<String, String> progressMap = getCourseProgressMap(ids);
+        List<Integer> nos = CollectionUtils.convertList(ids, courseId -> getNextNo(progressMap.get(courseId)));
+
+        // 3. 管道批量 HMGET 段落索引；索引缺失、版本不一致或超过段落总数的少数课程，再逐个获取，没有文本的课程跳过
+        List<Object> indexValues = redisCache.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < ids.size(); i++) {
+                connection.hashCommands().hMGet(serialize(COURSE_SEGMENT_INDEX_KEY + ids.get(i)),
+                        serialize(SEGMENT_INDEX_TOTAL), serialize(SEGMENT_INDEX_VERSION), serialize(String.valueOf(nos.get(i))));
+            }
+            return null;
+        });
+        List<String> textIds = new ArrayList<>(ids.size());
+        List<Segment> segments = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>) indexValues.get(i);
+            Segment segment;
+            if (values != null && values.get(0) != null && SEGMENT_INDEX_FORMAT_VERSION.equals(values.get(1))
+                    && values.get(2) != null) {
+                segment = parseSegmentValue(nos.get(i), Integer.parseInt(values.get(0)), values.get(2));
             } else {
-                no = Integer.parseInt(progress.split("/")[0]) + 1;
+                try {
+                    segment = getIndexedSegment(ids.get(i), nos.get(i));
+                } catch (ServiceException ex) {
+                    log.warn("[getCourseTextMap][课程({}) 获取段落失败，跳过：{}]", ids.get(i), ex.getMessage());
+                    continue;
+                }
             }
+            textIds.add(ids.get(i));
+            segments.add(segment);
+        }
+        if (textIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // 4. 管道批量记录上课进度；播放完成的课程删掉进度
+        redisCache.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < textIds.size(); i++) {
+                Segment segment = segments.get(i);
+                byte[] key = serialize(COURSE_PROGRESS_KEY + textIds.get(i));
+                if (segment.getNo() != segment.getTotalNo()) {
+                    connection.stringCommands().set(key, serialize(formatProgress(segment)),
+                            Expiration.from(COURSE_PROGRESS_TIMEOUT_HOURS, TimeUnit.HOURS), RedisStringCommands.SetOption.upsert());
+                } else {
+                    connection.keyCommands().del(key);
+                }
+            }
+            return null;
+        });
+
+        Map<String, CourseTextRespVO> result = new LinkedHashMap<>(textIds.size());
+        for (int i = 0; i < textIds.size(); i++) {
+            result.put(textIds.get(i), buildCourseTextResp(segments.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * 一次查询过滤出属于该用户的课程，去重并保持请求的顺序
+     *
+     * @param courseIds 课程编号数组
+     * @param userId 用户编号
+     * @return 属于该用户的课程编号数组
+     */
+    private List<String> filterOwnedCourseIds(Collection<String> courseIds, Long userId) {
+        List<String> numericIds = courseIds.stream().distinct().filter(StringUtils::isNumeric).collect(Collectors.toList());
+        if (numericIds.isEmpty()) {
+            return Collections.emptyList();
         }
-//        long step1StartTime = System.currentTimeMillis();
-//        String redisKey = COURSE_SEGMENT_TEXT_KEY + courseId + ":" + no;
+        Set<Long> ownedIds = CollectionUtils.convertSet(coursesMapper.selectList(new LambdaQueryWrapper<CoursesDO>()
+                .select(CoursesDO::getId)
+                .in(CoursesDO::getId, numericIds)
+                .eq(CoursesDO::getCreator, userId)), CoursesDO::getId);
+        return CollectionUtils.filterList(numericIds, courseId -> ownedIds.contains(Long.valueOf(courseId)));
+    }
 
-        // 步骤 1：尝试从缓存中获取数据
-//        String cachedData = redisCache.opsForValue().get(redisKey);
+    /**
+     * 根据上课进度计算下一个段落序号：没有进度说明没有播放，则为 1；已经播放了，则为进度 + 1
+     */
+    private static int getNextNo(String progress) {
+        if (StringUtils.isBlank(progress)) {
+            return 1;
+        }
+        return Integer.parseInt(progress.split("/")[0]) + 1;
+    }
+
+    private static String formatProgress(Segment segment) {
+        return segment.getNo() + "/" + segment.getTotalNo();
+    }
+
+    private static CourseTextRespVO buildCourseTextResp(Segment segment) {
+        return new CourseTextRespVO(
+                "",
+                segment.getText(),
+                System.currentTimeMillis(),
+                segment.getImageUrl(),
+                segment.getNo(),
+                segment.getTotalNo(),
+                formatProgress(segment)
+        );
+    }
 
-//        long step1EndTime = System.currentTimeMillis();
-//        log.info("步骤 1 耗时: " + (step1EndTime - step1StartTime)/1000.0 + " 秒");
+    private byte[] serialize(String value) {
+        return redisCache.getStringSerializer().serialize(value);
+    }
 
-//        if (cachedData != null) {
-//            // 反序列化并返回缓存数据
-//            return parseCachedData(cachedData);
-//        }
+    /**
+     * 从段落索引中获取第 no 段；no 超过段落总数时，返回最后一段
+     *
+     * 段落索引不存在（例如历史课程、缓存被清理）或格式版本不一致时，从场景缓存重新构建
+     *
+     * @param courseId 课程ID
+     * @param no 段落序号，从 1 开始
+     * @return 段落
+     */
+    private Segment getIndexedSegment(String courseId, int no) {
+        String redisKey = COURSE_SEGMENT_INDEX_KEY + courseId;
+        List<Object> values = redisCache.opsForHash().multiGet(redisKey,
+                Arrays.asList(SEGMENT_INDEX_TOTAL, SEGMENT_INDEX_VERSION, String.valueOf(no)));
+        if (values.get(0) != null && SEGMENT_INDEX_FORMAT_VERSION.equals(values.get(1))) {
+            int total = Integer.parseInt((String) values.get(0));
+            Object value = values.get(2);
+            if (value == null) { // 超过段落总数，取最后一段
+                no = total;
+                value = redisCache.opsForHash().get(redisKey, String.valueOf(no));
+            }
+            if (value != null) {
+                return parseSegmentValue(no, total, (String) value);
+            }
+        }
 
-        long step2StartTime = System.currentTimeMillis();
-        // 步骤 2：如果缓存中没有数据，则从源获取数据
+        // 索引不存在或版本不一致，从场景缓存重新构建
         List<Scene> scenes = fetchScenesByCourseId(courseId);
-        long step2EndTime = System.currentTimeMillis();
-        log.info("步骤 2 耗时: " + (step2EndTime - step2StartTime)/1000.0 + " 秒");
-        //如果cachedData 为空，则返回课程不存在
         if (CollectionUtil.isEmpty(scenes)) {
             refreshCourseCache(courseId);
             scenes = fetchScenesByCourseId(courseId);
@@ -254,44 +409,53 @@ public class CoursesServiceImpl implements CoursesService {
                 throw exception(COURSES_TEXT_NOT_EXISTS);
             }
         }
+        List<Segment> segments = buildSegmentIndex(courseId, scenes);
+        if (segments.isEmpty()) {
+            throw exception(COURSES_TEXT_NOT_EXISTS);
+        }
+        return segments.get(Math.min(no - 1, segments.size() - 1));
+    }
 
-        long step3StartTime = System.currentTimeMillis();
-        // 步骤 3：拆分文本并处理场景
+    /**
+     * 拆分场景文本，并将段落索引写入 Redis
+     *
+     * 先写入临时 key，再 rename 覆盖正式 key，保证读取方不会读到新旧混合的索引。
+     * 临时 key 设置较短的过期时间，rename 时会一并带到正式 key 上，所以 rename 之后再 persist
+     *
+     * @param courseId 课程ID
+     * @param scenes 按顺序排列的场景列表
+     * @return 分段列表
+     */
+    private List<Segment> buildSegmentIndex(String courseId, List<Scene> scenes) {
         List<Segment> segments = splitScenesIntoSegments(scenes);
-        long step3EndTime = System.currentTimeMillis();
-        log.info("步骤 3 耗时: " + (step3EndTime - step3StartTime)/1000.0 + " 秒");
-
-        // 步骤 4：返回请求的段落
-        long step4StartTime = System.currentTimeMillis();
-        //现在速度已经很快了，不需要再缓存了
-//        cacheSegments(courseId, segments);
-        long step4EndTime = System.currentTimeMillis();
-        log.info("步骤 4 耗时: " + (step4EndTime - step4StartTime)/1000.0 + " 秒");
-
-        // 步骤 5：返回请求的段落
-        long step5StartTime = System.currentTimeMillis();
-        Segment requestedSegment = segments.get(Math.min(no - 1, segments.size() - 1));
-        long step5EndTime = System.currentTimeMillis();
-        log.info("步骤 5 耗时: " + (step5EndTime - step5StartTime)/1000.0 + " 秒");
-
-        //记录上课进度
-        if(requestedSegment.getNo() != segments.size()) {
-            redisCache.opsForValue().set(COURSE_PROGRESS_KEY + courseId , String.valueOf(requestedSegment.getNo() +"/"+segments.size()), 1, TimeUnit.HOURS);
-        } else {
-            //播放完成，则删掉redis中缓存
-            redisCache.delete(COURSE_PROGRESS_KEY + courseId);
+        String redisKey = COURSE_SEGMENT_INDEX_KEY + courseId;
+        if (segments.isEmpty()) {
+            redisCache.delete(redisKey);
+            return segments;
         }
+        Map<byte[], byte[]> index = new HashMap<>(segments.size() + 2);
+        index.put(serialize(SEGMENT_INDEX_TOTAL), serialize(String.valueOf(segments.size())));
+        index.put(serialize(SEGMENT_INDEX_VERSION), serialize(SEGMENT_INDEX_FORMAT_VERSION));
+        segments.forEach(segment -> index.put(serialize(String.valueOf(segment.getNo())),
+                serialize(StringUtils.defaultString(segment.getImageUrl()) + "\n" + segment.getText())));
+        byte[] key = serialize(redisKey);
+        byte[] tempKey = serialize(redisKey + ":" + IdUtil.fastSimpleUUID());
+        redisCache.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMSet(tempKey, index);
+            connection.keyCommands().expire(tempKey, SEGMENT_INDEX_TEMP_TIMEOUT_SECONDS);
+            connection.keyCommands().rename(tempKey, key);
+            connection.keyCommands().persist(key);
+            return null;
+        });
+        return segments;
+    }
 
-
-        return new CourseTextRespVO(
-                "",
-                requestedSegment.getText(),
-                System.currentTimeMillis(),
-                requestedSegment.getImageUrl(),
-                requestedSegment.getNo(),
-                segments.size(),
-                (requestedSegment.getNo() +"/"+segments.size())
-        );
+    /**
+     * 解析段落索引中的 value；拆分后的文本不包含换行符，所以第一个换行符之前为背景图地址
+     */
+    private Segment parseSegmentValue(int no, int total, String value) {
+        int separator = value.indexOf('\n');
+        return new Segment(no, value.substring(separator + 1), value.substring(0, separator), total);
     }
 
     private void refreshCourseCache(String courseId) {
@@ -316,22 +480,39 @@ public class CoursesServiceImpl implements CoursesService {
         String sceneRedisKey = COURSE_SCENE_TEXT_KEY + courseId;
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             redisCache.delete(sceneRedisKey);
-            String serializedScenes = objectMapper.writeValueAsString(scenesMap);
+            String serializedScenes = OBJECT_MAPPER.writeValueAsString(scenesMap);
             log.info("刷新缓存，序列化场景数据为：{}", serializedScenes);
             redisCache.opsForValue().set(sceneRedisKey, serializedScenes);
         } catch (JsonProcessingException e) {
             log.error("刷新缓存时序列化场景数据发生错误，courseId: {}", courseId, e);
         }
+        buildSegmentIndex(courseId, toSortedScenes(scenesMap));
     }
 
     @Override
     public String getCourseProgress(String courseId) {
-        if(redisCache.opsForValue().get(COURSE_PROGRESS_KEY + courseId)==null) {
-            return "";
+        return StringUtils.defaultString(redisCache.opsForValue().get(COURSE_PROGRESS_KEY + courseId));
+    }
+
+    @Override
+    public Map<String, String> getCourseProgressMap(Collection<String> courseIds, Long userId) {
+        return getCourseProgressMap(filterOwnedCourseIds(courseIds, userId));
+    }
+
+    @Override
+    public Map<String, String> getCourseProgressMap(Collection<String> courseIds) {
+        if (CollectionUtil.isEmpty(courseIds)) {
+            return Collections.emptyMap();
+        }
+        List<String> ids = new ArrayList<>(courseIds);
+        List<String> values = redisCache.opsForValue().multiGet(
+                CollectionUtils.convertList(ids, courseId -> COURSE_PROGRESS_KEY + courseId));
+        Map<String, String> progressMap = new HashMap<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            progressMap.put(ids.get(i), values != null ? StringUtils.defaultString(values.get(i)) : "");
         }
-        return redisCache.opsForValue().get(COURSE_PROGRESS_KEY + courseId);
+        return progressMap;
     }
 
     /**
@@ -343,21 +524,31 @@ public class CoursesServiceImpl implements CoursesService {
     private List<Scene> fetchScenesByCourseId(String courseId) {
         String redisKey = COURSE_SCENE_TEXT_KEY + courseId;
         String cachedData = redisCache.opsForValue().get(redisKey);
-        List<Scene> scenes = new ArrayList<>();
         if (cachedData != null) {
             try {
-                ObjectMapper objectMapper = new ObjectMapper();
-                Map<String, Map<String, String>> scenesMap = objectMapper.readValue(cachedData, new TypeReference<Map<String, Map<String, String>>>() {});
-                scenesMap.entrySet().stream()
-                        .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e1.getKey()), Integer.parseInt(e2.getKey())))
-                        .forEachOrdered(entry -> {
-                            Map<String, String> sceneData = entry.getValue();
-                            scenes.add(new Scene(sceneData.get("text"), sceneData.get("background")));
-                        });
+                Map<String, Map<String, String>> scenesMap = OBJECT_MAPPER.readValue(cachedData, new TypeReference<Map<String, Map<String, String>>>() {});
+                return toSortedScenes(scenesMap);
             } catch (JsonProcessingException e) {
                 log.error("反序列化场景数据时发生错误", e);
             }
         }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 将场景缓存数据按场景序号排序，转换为场景列表
+     *
+     * @param scenesMap 场景序号 => 场景数据
+     * @return 场景列表
+     */
+    private List<Scene> toSortedScenes(Map<String, Map<String, String>> scenesMap) {
+        List<Scene> scenes = new ArrayList<>(scenesMap.size());
+        scenesMap.entrySet().stream()
+                .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e1.getKey()), Integer.parseInt(e2.getKey())))
+                .forEachOrdered(entry -> {
+                    Map<String, String> sceneData = entry.getValue();
+                    scenes.add(new Scene(sceneData.get("text"), sceneData.get("background")));
+                });
         return scenes;
     }
 
@@ -374,7 +565,10 @@ public class CoursesServiceImpl implements CoursesService {
         // 步骤 1：初始化文本总数变量
         for (Scene scene : scenes) {
             // 步骤 2：遍历场景数据
-            String[] splitTexts = scene.getText().split("[，。！？；：,.!?;:\\n\\r]+\\s*");
+            if (scene.getText() == null) {
+                continue;
+            }
+            String[] splitTexts = SEGMENT_SPLIT_PATTERN.split(scene.getText());
 
 
             // 步骤 3：使用标点符号对场景的文本进行拆分
@@ -385,52 +579,11 @@ public class CoursesServiceImpl implements CoursesService {
                 }
             }
         }
-        return segments;
-    }
-
-    /**
-     * 将段落数据缓存到Redis中以便后续查询。
-     *
-     * @param courseId 课程ID
-     * @param segments 分段列表
-     */
-    private void cacheSegments(String courseId, List<Segment> segments) {
+        // 步骤 5：回填段落总数
         for (Segment segment : segments) {
-            String redisKey = COURSE_SEGMENT_TEXT_KEY + courseId + ":" + segment.getNo();
-            String serializedData = serializeSegment(segment,segments.size());
-            redisCache.opsForValue().set(redisKey, serializedData, 1, TimeUnit.DAYS);
+            segment.totalNo = segments.size();
         }
-    }
-
-    /**
-     * 将段落对象序列化为存储数据字符串。
-     *
-     * @param segment 分段对象
-     * @return 序列化后的字符串
-     */
-    private String serializeSegment(Segment segment, int totalNo) {
-        // Simulate serialization logic
-        return String.format("%s|%s|%d|%d", segment.getText(), segment.getImageUrl(), segment.getNo(), totalNo);
-    }
-
-    /**
-     * 将缓存的数据转换为CourseTextResponse对象。
-     *
-     * @param cachedData 缓存数据
-     * @return CourseTextResponse对象
-     */
-    private CourseTextRespVO parseCachedData(String cachedData) {
-        // Simulate deserialization logic
-        String[] parts = cachedData.split("\\|");
-        return new CourseTextRespVO(
-                "",
-                parts[0],
-                System.currentTimeMillis(),
-                parts[1],
-                Integer.parseInt(parts[2]),
-                Integer.parseInt(parts[3]), // Example value
-                (parts[2] +"/"+parts[3])
-        );
+        return segments;
     }
 
     class Scene {
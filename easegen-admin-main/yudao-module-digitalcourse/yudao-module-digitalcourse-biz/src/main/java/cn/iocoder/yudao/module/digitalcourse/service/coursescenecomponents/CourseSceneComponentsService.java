@@ -7,6 +7,7 @@ import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenecomponent
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import jakarta.validation.Valid;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -41,6 +42,13 @@ public interface CourseSceneComponentsService {
      */
     void deleteCourseSceneComponents(Long id);
     void deleteBySceneId(Set<Long> id);
+
+    /**
+     * 根据组件编号批量物理删除
+     *
+     * @param ids 组件编号集合
+     */
+    void deleteByIds(Collection<Long> ids);
     List<AppCourseSceneComponentsSaveReqVO> selectComponentByScenesCourseIds(Set<Long> scenesCourseIds);
     /**
      * 获得存储每个场景中的组件信息，包括PPT、数字人等
@@ -13,6 +13,7 @@ import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenecomponents.CourseSceneComponentsMapper;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -68,6 +69,14 @@ public class CourseSceneComponentsServiceImpl implements CourseSceneComponentsSe
         courseSceneComponentsMapper.physicalDelete(id);
     }
 
+    @Override
+    public void deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        courseSceneComponentsMapper.physicalDeleteByIds(ids);
+    }
+
     @Override
     public List<AppCourseSceneComponentsSaveReqVO> selectComponentByScenesCourseIds(Set<Long> scenesCourseIds) {
         List<CourseSceneComponentsDO> courseSceneComponentsDOS = courseSceneComponentsMapper.selectList(new QueryWrapper<CourseSceneComponentsDO>().lambda().in(CourseSceneComponentsDO::getSceneId, scenesCourseIds));
@@ -32,6 +32,17 @@ public interface CourseScenesService {
      */
     void batchRemoveCouseScenes(@Valid Long id);
 
+    /**
+     * 保存课程的全部场景
+     *
+     * 与已有场景逐一对比内容指纹，只新增、更新、删除发生变化的场景及其背景、组件、声音、文本、音频
+     *
+     * @param courseId 课程编号
+     * @param scenes 场景列表
+     * @return 写入（新增、更新、删除）的行数
+     */
+    Integer saveCourseScenes(Long courseId, List<AppCourseScenesSaveReqVO> scenes);
+
     List<AppCourseScenesSaveReqVO> selectScenesInfo(Long couseId);
     /**
      * 更新存储课程的场景信息，包括背景、组件、声音等
@@ -1,7 +1,12 @@
 package cn.iocoder.yudao.module.digitalcourse.service.coursescenes;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Converter;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.backgrounds.vo.BackgroundsSaveReqVO;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursesceneaudios.vo.AppCourseSceneAudiosSaveReqVO;
@@ -14,6 +19,17 @@ import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursescenevoices.
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.voices.vo.VoicesSaveReqVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.backgrounds.BackgroundsDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursesceneaudios.CourseSceneAudiosDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenebackgrounds.CourseSceneBackgroundsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenecomponents.CourseSceneComponentsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenetexts.CourseSceneTextsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenevoices.CourseSceneVoicesDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursesceneaudios.CourseSceneAudiosMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenebackgrounds.CourseSceneBackgroundsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenecomponents.CourseSceneComponentsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenetexts.CourseSceneTextsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenevoices.CourseSceneVoicesMapper;
+import cn.iocoder.yudao.module.digitalcourse.framework.course.config.CourseLoadConfiguration;
+import cn.iocoder.yudao.module.digitalcourse.framework.course.config.CourseLoadProperties;
 import cn.iocoder.yudao.module.digitalcourse.service.backgrounds.BackgroundsService;
 import cn.iocoder.yudao.module.digitalcourse.service.coursesceneaudios.CourseSceneAudiosService;
 import cn.iocoder.yudao.module.digitalcourse.service.coursescenebackgrounds.CourseSceneBackgroundsService;
@@ -21,11 +37,14 @@ import cn.iocoder.yudao.module.digitalcourse.service.coursescenecomponents.Cours
 import cn.iocoder.yudao.module.digitalcourse.service.coursescenetexts.CourseSceneTextsService;
 import cn.iocoder.yudao.module.digitalcourse.service.coursescenevoices.CourseSceneVoicesService;
 import cn.iocoder.yudao.module.digitalcourse.service.voices.VoicesService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenes.CourseScenesDO;
@@ -34,11 +53,14 @@ import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenes.CourseScenesMapper;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.*;
@@ -48,10 +70,17 @@ import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.*;
  *
  * @author 芋道源码
  */
+@Slf4j
 @Service
 @Validated
 public class CourseScenesServiceImpl implements CourseScenesService {
 
+    /**
+     * 计算内容指纹时忽略的字段
+     */
+    private static final Set<String> FINGERPRINT_IGNORE_FIELDS = SetUtils.asSet("id", "sceneId", "courseId", "orderNo",
+            "background", "components", "voice", "textDriver", "audioDriver");
+
     @Resource
     private CourseScenesMapper courseScenesMapper;
 
@@ -67,6 +96,22 @@ public class CourseScenesServiceImpl implements CourseScenesService {
     @Resource
     private CourseSceneAudiosService audiosService;
 
+    @Resource
+    private CourseSceneBackgroundsMapper backgroundsMapper;
+    @Resource
+    private CourseSceneComponentsMapper componentsMapper;
+    @Resource
+    private CourseSceneVoicesMapper voicesMapper;
+    @Resource
+    private CourseSceneTextsMapper textsMapper;
+    @Resource
+    private CourseSceneAudiosMapper audiosMapper;
+
+    @Resource(name = CourseLoadConfiguration.COURSE_LOAD_EXECUTOR)
+    private Executor courseLoadExecutor;
+    @Resource
+    private CourseLoadProperties courseLoadProperties;
+
     @Override
     @Transactional
     public Long createCourseScenes(AppCourseScenesSaveReqVO createReqVO) {
@@ -174,6 +219,12 @@ public class CourseScenesServiceImpl implements CourseScenesService {
         List<CourseScenesDO> courseScenesDOS = courseScenesMapper.selectList(new QueryWrapperX<CourseScenesDO>().lambda().eq(CourseScenesDO::getCourseId, id));
         Set<Long> scenesIds = courseScenesDOS.stream().map(e -> e.getId()).collect(Collectors.toSet());
         if (scenesIds.isEmpty()) return;
+        removeScenes(scenesIds);
+        System.out.println(System.currentTimeMillis()+"      删除结束");
+
+    }
+
+    private void removeScenes(Set<Long> scenesIds) {
         audiosService.deleteBySceneId(scenesIds);
         textsService.deleteBySceneId(scenesIds);
         voicesService.deleteBySceneId(scenesIds);
@@ -181,39 +232,291 @@ public class CourseScenesServiceImpl implements CourseScenesService {
         backgroundsService.deleteBySceneId(scenesIds);
 
         courseScenesMapper.physicalDelete(scenesIds);
-        System.out.println(System.currentTimeMillis()+"      删除结束");
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Integer saveCourseScenes(Long courseId, List<AppCourseScenesSaveReqVO> scenes) {
+        List<AppCourseScenesSaveReqVO> dbScenes = CollUtil.emptyIfNull(selectScenesInfo(courseId));
+        Map<Long, AppCourseScenesSaveReqVO> dbSceneMap = CollectionUtils.convertMap(dbScenes, AppCourseScenesSaveReqVO::getId);
+        scenes.forEach(CourseScenesServiceImpl::prepareChildren);
 
+        // 1.1 按场景编号匹配已有场景
+        Map<AppCourseScenesSaveReqVO, AppCourseScenesSaveReqVO> matchedScenes = new IdentityHashMap<>();
+        List<AppCourseScenesSaveReqVO> unmatchedScenes = new ArrayList<>();
+        scenes.forEach(scene -> {
+            AppCourseScenesSaveReqVO dbScene = scene.getId() != null ? dbSceneMap.remove(scene.getId()) : null;
+            if (dbScene != null) {
+                matchedScenes.put(scene, dbScene);
+            } else {
+                unmatchedScenes.add(scene);
+            }
+        });
+        // 1.2 编号匹配不上的（例如前端持有的是旧编号），再按内容指纹匹配，内容完全一致的场景无需重建
+        Map<String, Deque<AppCourseScenesSaveReqVO>> dbSceneFingerprints = new HashMap<>();
+        dbSceneMap.values().forEach(dbScene -> dbSceneFingerprints.computeIfAbsent(sceneFingerprint(dbScene),
+                key -> new ArrayDeque<>()).add(dbScene));
+        List<AppCourseScenesSaveReqVO> createScenes = new ArrayList<>();
+        unmatchedScenes.forEach(scene -> {
+            Deque<AppCourseScenesSaveReqVO> candidates = dbSceneFingerprints.get(sceneFingerprint(scene));
+            AppCourseScenesSaveReqVO dbScene = candidates != null ? candidates.poll() : null;
+            if (dbScene != null) {
+                dbSceneMap.remove(dbScene.getId());
+                matchedScenes.put(scene, dbScene);
+            } else {
+                scene.setId(null);
+                createScenes.add(scene);
+            }
+        });
+
+        int rows = 0;
+        // 2. 删除不再存在的场景
+        if (!dbSceneMap.isEmpty()) {
+            removeScenes(dbSceneMap.keySet());
+            rows += dbSceneMap.values().stream().mapToInt(CourseScenesServiceImpl::countRows).sum();
+        }
+        // 3. 更新已有场景中发生变化的部分
+        for (Map.Entry<AppCourseScenesSaveReqVO, AppCourseScenesSaveReqVO> entry : matchedScenes.entrySet()) {
+            rows += updateChangedScene(entry.getKey(), entry.getValue());
+        }
+        // 4. 新增场景
+        if (!createScenes.isEmpty()) {
+            batchCreateCourseScenes(createScenes);
+            rows += createScenes.stream().mapToInt(CourseScenesServiceImpl::countRows).sum();
+        }
+        return rows;
+    }
+
+    /**
+     * 对比已有场景，只写入发生变化的场景、背景、声音、文本、音频和组件
+     *
+     * @param scene 提交的场景
+     * @param dbScene 数据库中的场景
+     * @return 写入的行数
+     */
+    private int updateChangedScene(AppCourseScenesSaveReqVO scene, AppCourseScenesSaveReqVO dbScene) {
+        scene.setId(dbScene.getId());
+        prepareChildren(scene);
+        int rows = 0;
+        if (!Objects.equals(scene.getOrderNo(), dbScene.getOrderNo())
+                || !fingerprint(scene).equals(fingerprint(dbScene))) {
+            courseScenesMapper.updateById(BeanUtils.toBean(scene, CourseScenesDO.class));
+            rows++;
+        }
+        // 子数据刚从数据库读出，直接通过 Mapper 更新、物理删除，无需逐条校验存在；与 removeScenes 一致
+        Set<Long> sceneIds = Collections.singleton(scene.getId());
+        rows += saveChangedChild(scene.getBackground(), dbScene.getBackground(), AppCourseSceneBackgroundsSaveReqVO::getId,
+                AppCourseSceneBackgroundsSaveReqVO::setId, backgroundsService::createCourseSceneBackgrounds,
+                child -> backgroundsMapper.updateById(BeanUtils.toBean(child, CourseSceneBackgroundsDO.class)),
+                () -> backgroundsMapper.physicalDelete(sceneIds));
+        rows += saveChangedChild(scene.getVoice(), dbScene.getVoice(), AppCourseSceneVoicesSaveReqVO::getId,
+                AppCourseSceneVoicesSaveReqVO::setId, voicesService::createCourseSceneVoices,
+                child -> voicesMapper.updateById(BeanUtils.toBean(child, CourseSceneVoicesDO.class)),
+                () -> voicesMapper.physicalDelete(sceneIds));
+        rows += saveChangedChild(scene.getTextDriver(), dbScene.getTextDriver(), AppCourseSceneTextsSaveReqVO::getId,
+                AppCourseSceneTextsSaveReqVO::setId, textsService::createCourseSceneTexts,
+                child -> textsMapper.updateById(BeanUtils.toBean(child, CourseSceneTextsDO.class)),
+                () -> textsMapper.physicalDelete(sceneIds));
+        rows += saveChangedChild(scene.getAudioDriver(), dbScene.getAudioDriver(), AppCourseSceneAudiosSaveReqVO::getId,
+                AppCourseSceneAudiosSaveReqVO::setId, audiosService::createCourseSceneAudios,
+                child -> audiosMapper.updateById(BeanUtils.toBean(child, CourseSceneAudiosDO.class)),
+                () -> audiosMapper.physicalDelete(sceneIds));
+        rows += saveChangedComponents(CollUtil.emptyIfNull(scene.getComponents()), CollUtil.emptyIfNull(dbScene.getComponents()));
+        return rows;
+    }
+
+    /**
+     * 对比单个子数据：新增、更新，或者删除已被移除的。每个场景至多一条，删除时按照场景编号删除
+     */
+    private static <T> int saveChangedChild(T child, T dbChild, Function<T, Long> idGetter, BiConsumer<T, Long> idSetter,
+                                            Consumer<T> creator, Consumer<T> updater, Runnable deleter) {
+        if (child == null) {
+            if (dbChild == null) {
+                return 0;
+            }
+            deleter.run();
+            return 1;
+        }
+        if (dbChild != null && fingerprint(child).equals(fingerprint(dbChild))) {
+            return 0;
+        }
+        if (dbChild == null) {
+            idSetter.accept(child, null);
+            creator.accept(child);
+        } else {
+            idSetter.accept(child, idGetter.apply(dbChild));
+            updater.accept(child);
+        }
+        return 1;
     }
 
+    /**
+     * 组件按内容指纹匹配：内容一致的保留，其余的优先复用旧记录更新，多出的新增或删除
+     */
+    private int saveChangedComponents(List<AppCourseSceneComponentsSaveReqVO> components,
+                                      List<AppCourseSceneComponentsSaveReqVO> dbComponents) {
+        Map<String, Deque<Long>> dbComponentIds = new HashMap<>();
+        dbComponents.forEach(dbComponent -> dbComponentIds.computeIfAbsent(fingerprint(dbComponent),
+                key -> new ArrayDeque<>()).add(dbComponent.getId()));
+        List<AppCourseSceneComponentsSaveReqVO> changedComponents = new ArrayList<>();
+        components.forEach(component -> {
+            Deque<Long> ids = dbComponentIds.get(fingerprint(component));
+            Long id = ids != null ? ids.poll() : null;
+            if (id != null) {
+                component.setId(id);
+            } else {
+                changedComponents.add(component);
+            }
+        });
+        List<Long> staleIds = dbComponentIds.values().stream().flatMap(Collection::stream).collect(Collectors.toList());
+
+        List<AppCourseSceneComponentsSaveReqVO> createComponents = new ArrayList<>();
+        changedComponents.forEach(component -> {
+            if (staleIds.isEmpty()) {
+                component.setId(null);
+                createComponents.add(component);
+            } else {
+                component.setId(staleIds.remove(staleIds.size() - 1));
+                componentsMapper.updateById(BeanUtils.toBean(component, CourseSceneComponentsDO.class));
+            }
+        });
+        if (!createComponents.isEmpty()) {
+            componentsService.batchCreateCourseSceneComponents(createComponents);
+        }
+        componentsService.deleteByIds(staleIds);
+        return changedComponents.size() + staleIds.size();
+    }
+
+    /**
+     * 设置子数据的场景编号与默认状态，与 {@link #batchCreateCourseScenes(List)} 保持一致
+     */
+    private static void prepareChildren(AppCourseScenesSaveReqVO scene) {
+        Long sceneId = scene.getId();
+        if (scene.getBackground() != null) {
+            scene.getBackground().setSceneId(sceneId);
+            if (scene.getBackground().getStatus() == null) scene.getBackground().setStatus(0);
+        }
+        CollUtil.emptyIfNull(scene.getComponents()).forEach(component -> {
+            component.setSceneId(sceneId);
+            if (component.getStatus() == null) component.setStatus(0);
+        });
+        if (scene.getVoice() != null) {
+            scene.getVoice().setSceneId(sceneId);
+            if (scene.getVoice().getStatus() == null) scene.getVoice().setStatus(0);
+        }
+        if (scene.getTextDriver() != null) {
+            scene.getTextDriver().setSceneId(sceneId);
+            if (scene.getTextDriver().getStatus() == null) scene.getTextDriver().setStatus(0);
+        }
+        if (scene.getAudioDriver() != null) {
+            scene.getAudioDriver().setSceneId(sceneId);
+            if (scene.getAudioDriver().getStatus() == null) scene.getAudioDriver().setStatus(0);
+        }
+    }
+
+    /**
+     * 计算单条记录的内容指纹，忽略编号、关联编号、顺序号以及子数据
+     */
+    private static String fingerprint(Object obj) {
+        Map<String, Object> fields = JsonUtils.parseObject(JsonUtils.toJsonString(obj),
+                new TypeReference<LinkedHashMap<String, Object>>() {});
+        FINGERPRINT_IGNORE_FIELDS.forEach(fields::remove);
+        return DigestUtil.md5Hex(JsonUtils.toJsonString(fields));
+    }
+
+    /**
+     * 计算场景整体（含子数据）的内容指纹，组件与顺序无关
+     */
+    private static String sceneFingerprint(AppCourseScenesSaveReqVO scene) {
+        StringBuilder builder = new StringBuilder(fingerprint(scene));
+        Stream.of(scene.getBackground(), scene.getVoice(), scene.getTextDriver(), scene.getAudioDriver())
+                .forEach(child -> builder.append(',').append(child != null ? fingerprint(child) : ""));
+        CollUtil.emptyIfNull(scene.getComponents()).stream().map(CourseScenesServiceImpl::fingerprint).sorted()
+                .forEach(componentFingerprint -> builder.append(',').append(componentFingerprint));
+        return builder.toString();
+    }
+
+    /**
+     * 统计场景（含子数据）对应的行数
+     */
+    private static int countRows(AppCourseScenesSaveReqVO scene) {
+        return 1 + (int) Stream.of(scene.getBackground(), scene.getVoice(), scene.getTextDriver(), scene.getAudioDriver())
+                .filter(Objects::nonNull).count() + CollUtil.size(scene.getComponents());
+    }
+
+    /**
+     * 查询课程的场景，以及场景的音频、文本、声音、组件、背景
+     *
+     * 子数据的五个查询并行执行，耗时约等于最慢的单个查询；处于事务中时（例如 {@link #saveCourseScenes(Long, List)}），
+     * 为了使用同一个连接、读到一致的数据，改为串行执行
+     */
     @Override
     public List<AppCourseScenesSaveReqVO> selectScenesInfo(Long courseId) {
         List<CourseScenesDO> courseScenesDOS = courseScenesMapper.selectList(new QueryWrapperX<CourseScenesDO>().lambda().eq(CourseScenesDO::getCourseId, courseId));
-        List<AppCourseScenesSaveReqVO> bean = BeanUtils.toBean(courseScenesDOS, AppCourseScenesSaveReqVO.class);
-
-        Set<Long> scenesIds = courseScenesDOS.stream().map(e -> e.getId()).collect(Collectors.toSet());
+        Set<Long> scenesIds = CollectionUtils.convertSet(courseScenesDOS, CourseScenesDO::getId);
         if (scenesIds.isEmpty()) return null;
-        List<AppCourseSceneAudiosSaveReqVO> courseSceneAudiosSaveReqVOS = audiosService.selectAudioByScenesCourseIds(scenesIds);
-        List<AppCourseSceneTextsSaveReqVO> appCourseSceneTextsSaveReqVOS = textsService.selectTextByScenesCourseIds(scenesIds);
-        List<AppCourseSceneVoicesSaveReqVO> appCourseSceneVoicesSaveReqVOS = voicesService.selectVoiceByScenesCourseIds(scenesIds);
-        List<AppCourseSceneComponentsSaveReqVO> appCourseSceneComponentsSaveReqVOS = componentsService.selectComponentByScenesCourseIds(scenesIds);
-        List<AppCourseSceneBackgroundsSaveReqVO> appCourseSceneBackgroundsSaveReqVOS = backgroundsService.selectBackgroudByScenesCourseIds(scenesIds);
 
-        bean.stream().forEach(e->{
+        // 1. 并行查询子数据
+        boolean parallel = !TransactionSynchronizationManager.isActualTransactionActive();
+        CompletableFuture<List<AppCourseSceneAudiosSaveReqVO>> audiosFuture = loadAsync(
+                () -> audiosService.selectAudioByScenesCourseIds(scenesIds), parallel);
+        CompletableFuture<List<AppCourseSceneTextsSaveReqVO>> textsFuture = loadAsync(
+                () -> textsService.selectTextByScenesCourseIds(scenesIds), parallel);
+        CompletableFuture<List<AppCourseSceneVoicesSaveReqVO>> voicesFuture = loadAsync(
+                () -> voicesService.selectVoiceByScenesCourseIds(scenesIds), parallel);
+        CompletableFuture<List<AppCourseSceneComponentsSaveReqVO>> componentsFuture = loadAsync(
+                () -> componentsService.selectComponentByScenesCourseIds(scenesIds), parallel);
+        CompletableFuture<List<AppCourseSceneBackgroundsSaveReqVO>> backgroundsFuture = loadAsync(
+                () -> backgroundsService.selectBackgroudByScenesCourseIds(scenesIds), parallel);
+        awaitAll(courseId, audiosFuture, textsFuture, voicesFuture, componentsFuture, backgroundsFuture);
+
+        // 2. 按场景编号拼接，同一场景有多条时取第一条
+        Map<Long, AppCourseSceneAudiosSaveReqVO> audioMap = CollectionUtils.convertMap(audiosFuture.join(), AppCourseSceneAudiosSaveReqVO::getSceneId);
+        Map<Long, AppCourseSceneTextsSaveReqVO> textMap = CollectionUtils.convertMap(textsFuture.join(), AppCourseSceneTextsSaveReqVO::getSceneId);
+        Map<Long, AppCourseSceneVoicesSaveReqVO> voiceMap = CollectionUtils.convertMap(voicesFuture.join(), AppCourseSceneVoicesSaveReqVO::getSceneId);
+        Map<Long, List<AppCourseSceneComponentsSaveReqVO>> componentsMap = CollectionUtils.convertMultiMap(componentsFuture.join(), AppCourseSceneComponentsSaveReqVO::getSceneId);
+        Map<Long, AppCourseSceneBackgroundsSaveReqVO> backgroundMap = CollectionUtils.convertMap(backgroundsFuture.join(), AppCourseSceneBackgroundsSaveReqVO::getSceneId);
+        List<AppCourseScenesSaveReqVO> bean = BeanUtils.toBean(courseScenesDOS, AppCourseScenesSaveReqVO.class);
+        bean.forEach(e -> {
             Long id = e.getId();
-            List<AppCourseSceneAudiosSaveReqVO> audioList = courseSceneAudiosSaveReqVOS.stream().filter(item -> item.getSceneId().longValue() == id.longValue()).toList();
-            if (!audioList.isEmpty()) e.setAudioDriver(audioList.stream().findFirst().get());
-            List<AppCourseSceneTextsSaveReqVO> textList = appCourseSceneTextsSaveReqVOS.stream().filter(item -> item.getSceneId().longValue() == id.longValue()).toList();
-            if (!textList.isEmpty()) e.setTextDriver(textList.stream().findFirst().get());
-            List<AppCourseSceneVoicesSaveReqVO> voiceList = appCourseSceneVoicesSaveReqVOS.stream().filter(item -> item.getSceneId().longValue() == id.longValue()).toList();
-            if (!voiceList.isEmpty()) e.setVoice(voiceList.stream().findFirst().get());
-            List<AppCourseSceneComponentsSaveReqVO> componentsList = appCourseSceneComponentsSaveReqVOS.stream().filter(item -> item.getSceneId().longValue() == id.longValue()).toList();
-            e.setComponents(componentsList);
-            List<AppCourseSceneBackgroundsSaveReqVO> backgroudList = appCourseSceneBackgroundsSaveReqVOS.stream().filter(item -> item.getSceneId().longValue() == id.longValue()).toList();
-            if (!backgroudList.isEmpty()) e.setBackground(backgroudList.stream().findFirst().get());
+            e.setAudioDriver(audioMap.get(id));
+            e.setTextDriver(textMap.get(id));
+            e.setVoice(voiceMap.get(id));
+            e.setComponents(componentsMap.getOrDefault(id, Collections.emptyList()));
+            e.setBackground(backgroundMap.get(id));
         });
         return bean;
     }
 
+    private <T> CompletableFuture<List<T>> loadAsync(Supplier<List<T>> loader, boolean parallel) {
+        if (!parallel) {
+            return CompletableFuture.completedFuture(loader.get());
+        }
+        return CompletableFuture.supplyAsync(loader, courseLoadExecutor);
+    }
+
+    /**
+     * 等待所有查询完成；任一查询失败时抛出其异常
+     */
+    private void awaitAll(Long courseId, CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).get(courseLoadProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            Arrays.stream(futures).forEach(future -> future.cancel(true));
+            log.error("[awaitAll][courseId({}) 加载场景超时({})]", courseId, courseLoadProperties.getTimeout());
+            throw exception(COURSE_SCENES_LOAD_TIMEOUT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            Arrays.stream(futures).forEach(future -> future.cancel(true));
+            throw new IllegalStateException(ex);
+        }
+    }
+
     @Override
     public void updateCourseScenes(AppCourseScenesSaveReqVO updateReqVO) {
         // 校验存在
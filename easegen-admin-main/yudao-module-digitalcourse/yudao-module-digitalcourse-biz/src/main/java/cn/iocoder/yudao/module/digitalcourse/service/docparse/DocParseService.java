@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.digitalcourse.service.docparse;
+
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo.AppDocParseReqVO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse.DocParseJobDO;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 文档解析 Service 接口
+ *
+ * @author 芋道源码
+ */
+public interface DocParseService {
+
+    /**
+     * 创建文档解析任务，立即返回，不等待解析完成
+     *
+     * 解析完成后，通过 WebSocket 推送给用户
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @param reqVO 解析信息
+     * @return 任务
+     */
+    DocParseJobDO createDocParseJob(Long userId, Integer userType, AppDocParseReqVO reqVO);
+
+    /**
+     * 创建文档解析任务，返回解析完成的 Future，用于异步响应
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @param reqVO 解析信息
+     * @return 解析完成（成功或失败）的任务
+     */
+    CompletableFuture<DocParseJobDO> parseDoc(Long userId, Integer userType, AppDocParseReqVO reqVO);
+
+    /**
+     * 获得文档解析任务
+     *
+     * @param userId 用户编号
+     * @param id 任务编号
+     * @return 任务
+     */
+    DocParseJobDO getDocParseJob(Long userId, String id);
+
+}
@@ -0,0 +1,324 @@
+package cn.iocoder.yudao.module.digitalcourse.service.docparse;
+
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.core.util.IdUtil;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo.AppDocParseJobRespVO;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courses.vo.AppDocParseReqVO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse.DocParseJobDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.docparse.DocParseJobRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.enums.docparse.DocParseJobStatusEnum;
+import cn.iocoder.yudao.module.digitalcourse.framework.docparse.config.DocParseConfiguration;
+import cn.iocoder.yudao.module.digitalcourse.framework.docparse.config.DocParseProperties;
+import cn.iocoder.yudao.module.digitalcourse.util.Pdf2MdUtil;
+import cn.iocoder.yudao.module.infra.api.websocket.WebSocketSenderApi;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.DOC_PARSE_BUSY;
+
+/**
+ * 文档解析 Service 实现类
+ *
+ * 任务的执行分为两个阶段：
+ * 1. 提交：在 {@link DocParseConfiguration#DOC_PARSE_EXECUTOR} 线程池中下载、转换文件并提交 doc2x；txt 等本地解析的文件直接完成
+ * 2. 轮询：一个调度线程每隔 pollInterval 读取一次 doc2x 配置，将本节点所有进行中的 doc2x 任务交给
+ *    {@link DocParseConfiguration#DOC_PARSE_POLL_EXECUTOR} 线程池并行查询，同一任务同时只有一次查询
+ *
+ * 任务状态存储在 Redis 中，任意节点都可以按任务编号查询；轮询只在负责任务的节点进行。
+ * 负责的节点每次轮询为任务续约，节点宕机、重启导致租约到期后，由其它节点（或重启后的本节点）接管：
+ * 已超时的任务直接结束，已提交 doc2x 的继续轮询，未提交的重新提交
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Service
+public class DocParseServiceImpl implements DocParseService {
+
+    /**
+     * WebSocket 消息类型：文档解析完成
+     */
+    public static final String MESSAGE_TYPE_DOC_PARSE = "digitalcourse-doc-parse";
+
+    @Resource
+    private DocParseProperties docParseProperties;
+    @Resource(name = DocParseConfiguration.DOC_PARSE_EXECUTOR)
+    private Executor docParseExecutor;
+    @Resource(name = DocParseConfiguration.DOC_PARSE_POLL_EXECUTOR)
+    private Executor docParsePollExecutor;
+
+    @Resource
+    private DocParseJobRedisDAO docParseJobRedisDAO;
+
+    @Resource
+    private Pdf2MdUtil pdf2MdUtil;
+    @Resource
+    private WebSocketSenderApi webSocketSenderApi;
+
+    /**
+     * 每次接管的任务数上限
+     */
+    private static final int CLAIM_BATCH_SIZE = 100;
+
+    /**
+     * 任务编号 => 本节点上进行中的任务
+     */
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("doc-parse-scheduler-").setDaemon(true).build());
+        long interval = docParseProperties.getPollInterval().toMillis();
+        // 启动时立即执行一次，接管租约已到期的任务
+        scheduler.scheduleWithFixedDelay(this::pollRunningJobs, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public DocParseJobDO createDocParseJob(Long userId, Integer userType, AppDocParseReqVO reqVO) {
+        return submit(userId, userType, reqVO).job;
+    }
+
+    @Override
+    public CompletableFuture<DocParseJobDO> parseDoc(Long userId, Integer userType, AppDocParseReqVO reqVO) {
+        return submit(userId, userType, reqVO).future;
+    }
+
+    @Override
+    public DocParseJobDO getDocParseJob(Long userId, String id) {
+        DocParseJobDO job = docParseJobRedisDAO.get(id);
+        // 只能查询自己的任务
+        if (job == null || !Objects.equals(job.getUserId(), userId)) {
+            return null;
+        }
+        return job;
+    }
+
+    private RunningJob submit(Long userId, Integer userType, AppDocParseReqVO reqVO) {
+        // 1. 保存任务
+        DocParseJobDO job = new DocParseJobDO().setId(IdUtil.fastSimpleUUID())
+                .setUserId(userId).setUserType(userType)
+                .setFileUrl(reqVO.getFileUrl().trim()).setType(reqVO.getType())
+                .setStatus(DocParseJobStatusEnum.RUNNING.getStatus()).setCreateTime(LocalDateTime.now());
+        docParseJobRedisDAO.set(job);
+        docParseJobRedisDAO.renewRunning(Collections.singleton(job.getId()), buildLeaseExpireTime());
+
+        // 2. 提交到线程池
+        RunningJob runningJob = new RunningJob(job, System.nanoTime() + docParseProperties.getTimeout().toNanos());
+        runningJobs.put(job.getId(), runningJob);
+        try {
+            docParseExecutor.execute(() -> prepare(runningJob));
+        } catch (RejectedExecutionException ex) {
+            runningJobs.remove(job.getId());
+            docParseJobRedisDAO.removeRunning(job.getId());
+            docParseJobRedisDAO.set(job.setStatus(DocParseJobStatusEnum.FAILURE.getStatus())
+                    .setErrorMsg("文档解析的请求过多，请稍后重试"));
+            throw exception(DOC_PARSE_BUSY);
+        }
+        return runningJob;
+    }
+
+    /**
+     * 接管租约已到期的任务
+     */
+    private void claimExpiredJobs() {
+        long now = System.currentTimeMillis();
+        for (String id : docParseJobRedisDAO.getExpiredRunning(now, CLAIM_BATCH_SIZE)) {
+            if (runningJobs.containsKey(id) || !docParseJobRedisDAO.claimRunning(id, now, buildLeaseExpireTime())) {
+                continue;
+            }
+            DocParseJobDO job = docParseJobRedisDAO.get(id);
+            // 任务已结束、或已过期
+            if (job == null || !DocParseJobStatusEnum.RUNNING.getStatus().equals(job.getStatus())) {
+                docParseJobRedisDAO.removeRunning(id);
+                continue;
+            }
+            log.info("[claimExpiredJobs][接管任务({}) 文件({})]", id, job.getFileUrl());
+            // 截止时间按创建时间计算，已超时的在轮询时直接结束
+            long remainingNanos = Duration.between(LocalDateTime.now(),
+                    job.getCreateTime().plus(docParseProperties.getTimeout())).toNanos();
+            RunningJob runningJob = new RunningJob(job, System.nanoTime() + remainingNanos);
+            runningJob.taskUuid = job.getTaskUuid();
+            runningJobs.put(id, runningJob);
+            // 未提交 doc2x 的，重新提交
+            if (runningJob.taskUuid == null && remainingNanos > 0) {
+                try {
+                    docParseExecutor.execute(() -> prepare(runningJob));
+                } catch (RejectedExecutionException ex) {
+                    failure(runningJob, ex);
+                }
+            }
+        }
+    }
+
+    private long buildLeaseExpireTime() {
+        return System.currentTimeMillis() + docParseProperties.getLeaseTimeout().toMillis();
+    }
+
+    /**
+     * 本地解析，或者提交 doc2x 识别任务，之后交给调度线程轮询
+     */
+    private void prepare(RunningJob runningJob) {
+        DocParseJobDO job = runningJob.job;
+        try {
+            String content = pdf2MdUtil.parseLocally(job.getFileUrl(), job.getType());
+            if (content != null) {
+                success(runningJob, content);
+                return;
+            }
+            String taskUuid = pdf2MdUtil.submitRecognitionTask(job.getFileUrl(), pdf2MdUtil.getDoc2xConfig());
+            // 提交期间已经超时结束的任务，不再轮询
+            if (!runningJobs.containsKey(job.getId())) {
+                return;
+            }
+            docParseJobRedisDAO.set(job.setTaskUuid(taskUuid));
+            runningJob.taskUuid = taskUuid;
+        } catch (Exception ex) {
+            failure(runningJob, ex);
+        }
+    }
+
+    /**
+     * 批量轮询进行中的任务
+     */
+    private void pollRunningJobs() {
+        try {
+            // 1. 为本节点的任务续约，并接管其它节点遗留的任务
+            try {
+                docParseJobRedisDAO.renewRunning(runningJobs.keySet(), buildLeaseExpireTime());
+                claimExpiredJobs();
+            } catch (Exception ex) {
+                log.error("[pollRunningJobs][续约、接管文档解析任务异常]", ex);
+            }
+            if (runningJobs.isEmpty()) {
+                return;
+            }
+            // 2. 结束超时的任务
+            long now = System.nanoTime();
+            List<RunningJob> jobs = runningJobs.values().stream().filter(job -> {
+                if (now - job.deadline > 0) {
+                    failure(job, new TimeoutException("解析超时，超过 " + docParseProperties.getTimeout().getSeconds() + " 秒"));
+                    return false;
+                }
+                // 上一次的查询仍在执行的，本次跳过
+                return job.taskUuid != null && !job.polling.get();
+            }).collect(Collectors.toList());
+            if (jobs.isEmpty()) {
+                return;
+            }
+
+            // 3. 并行查询 doc2x 的任务状态，同一批次共用配置
+            Pdf2MdUtil.Doc2xConfig config = pdf2MdUtil.getDoc2xConfig();
+            for (RunningJob job : jobs) {
+                if (!job.polling.compareAndSet(false, true)) {
+                    continue;
+                }
+                try {
+                    docParsePollExecutor.execute(() -> poll(job, config));
+                } catch (RejectedExecutionException ex) { // 关闭中
+                    job.polling.set(false);
+                }
+            }
+        } catch (Throwable ex) {
+            // 捕获所有异常，避免调度线程终止
+            log.error("[pollRunningJobs][轮询文档解析任务异常]", ex);
+        }
+    }
+
+    private void poll(RunningJob job, Pdf2MdUtil.Doc2xConfig config) {
+        try {
+            String content = pdf2MdUtil.queryRecognitionTask(job.taskUuid, job.job.getType(), config);
+            if (content != null) {
+                success(job, content);
+            }
+        } catch (Exception ex) {
+            failure(job, ex);
+        } finally {
+            job.polling.set(false);
+        }
+    }
+
+    private void success(RunningJob runningJob, String content) {
+        finish(runningJob, job -> job.setStatus(DocParseJobStatusEnum.SUCCESS.getStatus()).setContent(content));
+    }
+
+    private void failure(RunningJob runningJob, Exception ex) {
+        log.error("[failure][任务({}) 文件({}) 解析失败]", runningJob.job.getId(), runningJob.job.getFileUrl(), ex);
+        finish(runningJob, job -> job.setStatus(DocParseJobStatusEnum.FAILURE.getStatus())
+                .setErrorMsg(ExceptionUtil.getRootCauseMessage(ex)));
+    }
+
+    private void finish(RunningJob runningJob, Consumer<DocParseJobDO> updater) {
+        // 已经结束的任务，例如提交完成时恰好超时
+        DocParseJobDO job = runningJob.job;
+        if (!runningJobs.remove(job.getId(), runningJob)) {
+            return;
+        }
+        updater.accept(job);
+        try {
+            docParseJobRedisDAO.set(job);
+            docParseJobRedisDAO.removeRunning(job.getId());
+        } catch (Exception ex) {
+            log.error("[finish][任务({}) 保存结果失败]", job.getId(), ex);
+        }
+        runningJob.future.complete(job);
+        // 推送给用户
+        try {
+            webSocketSenderApi.sendObject(job.getUserType(), job.getUserId(), MESSAGE_TYPE_DOC_PARSE,
+                    BeanUtils.toBean(job, AppDocParseJobRespVO.class));
+        } catch (Exception ex) {
+            log.error("[finish][任务({}) 推送结果失败]", job.getId(), ex);
+        }
+    }
+
+    /**
+     * 本节点上进行中的任务
+     */
+    private static class RunningJob {
+
+        private final DocParseJobDO job;
+        /**
+         * 截止时间，基于 {@link System#nanoTime()}
+         */
+        private final long deadline;
+        private final CompletableFuture<DocParseJobDO> future = new CompletableFuture<>();
+        /**
+         * doc2x 的任务编号，提交成功后设置，调度线程据此轮询
+         */
+        private volatile String taskUuid;
+        /**
+         * 是否有查询正在执行，避免同一任务的查询重叠
+         */
+        private final AtomicBoolean polling = new AtomicBoolean();
+
+        private RunningJob(DocParseJobDO job, long deadline) {
+            this.job = job;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
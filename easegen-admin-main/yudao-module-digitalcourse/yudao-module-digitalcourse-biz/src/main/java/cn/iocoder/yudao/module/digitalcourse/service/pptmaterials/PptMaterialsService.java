@@ -60,4 +60,11 @@ public interface PptMaterialsService {
 
     List<AppPptMaterialsSaveReqVO> selectListByPptId(Long pptId);
 
+    /**
+     * 删除 PPT 的全部素材，用于解析取消时清理已插入的页面
+     *
+     * @param pptId PPT 编号
+     */
+    void deleteListByPptId(Long pptId);
+
 }
\ No newline at end of file
@@ -79,9 +79,14 @@ public class PptMaterialsServiceImpl implements PptMaterialsService {
 
     @Override
     public List<AppPptMaterialsSaveReqVO> selectListByPptId(Long pptId) {
-        List<PptMaterialsDO> pptMaterialsDOS = pptMaterialsMapper.selectList(new QueryWrapper<PptMaterialsDO>().eq("ppt_id", pptId));
+        List<PptMaterialsDO> pptMaterialsDOS = pptMaterialsMapper.selectList(new QueryWrapper<PptMaterialsDO>().eq("ppt_id", pptId).orderByAsc("index_no"));
         List<AppPptMaterialsSaveReqVO> bean = BeanUtils.toBean(pptMaterialsDOS, AppPptMaterialsSaveReqVO.class);
         return bean;
     }
 
+    @Override
+    public void deleteListByPptId(Long pptId) {
+        pptMaterialsMapper.delete(PptMaterialsDO::getPptId, pptId);
+    }
+
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package cn.iocoder.yudao.module.digitalcourse.service.voices;
 
 import cn.hutool.core.lang.UUID;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
@@ -13,25 +15,33 @@ import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.voices.AuditionDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.voices.TTSDTO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.voices.VoicesDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.voices.VoicesMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.voices.VoiceAuditionRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import cn.iocoder.yudao.module.infra.api.file.FileApi;
 import com.alibaba.fastjson.JSON;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Resource;
-import org.apache.commons.codec.binary.Base64;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.VOICES_NOT_EXISTS;
@@ -43,11 +53,26 @@ import static cn.iocoder.yudao.module.digitalcourse.enums.ErrorCodeConstants.VOI
  */
 @Service
 @Validated
+@Slf4j
 public class VoicesServiceImpl implements VoicesService {
 
     private static final String EASEGEN_CORE_URL = "easegen.core.url";
     static final String EASEGEN_CORE_KEY = "easegen.core.key";
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 试听结果的本地缓存：按最近最少使用淘汰，过期时间短于 Redis 缓存
+     */
+    private final Cache<String, String> auditionLocalCache = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+    /**
+     * 合成中的试听请求，相同的并发请求共享同一个结果
+     */
+    private final ConcurrentMap<String, CompletableFuture<String>> auditionInFlight = new ConcurrentHashMap<>();
+
     @Resource
     private VoicesMapper voicesMapper;
 
@@ -60,6 +85,12 @@ public class VoicesServiceImpl implements VoicesService {
     @Resource
     private VoicesServiceUtil voicesServiceUtil;
 
+    @Resource
+    private VoiceAuditionRedisDAO auditionRedisDAO;
+
+    @Resource
+    private DigitalCourseHttpClient digitalCourseHttpClient;
+
 
     @Override
     public Long createVoices(VoicesSaveReqVO createReqVO) {
@@ -162,44 +193,91 @@ public class VoicesServiceImpl implements VoicesService {
             throw exception(VOICES_NOT_EXISTS);
         }
 
-        String apiUrl = configApi.getConfigValueByKey(EASEGEN_CORE_URL)+"/api/tts";
-        String apiKey = configApi.getConfigValueByKey(EASEGEN_CORE_KEY);
-        // 创建HTTP客户端
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            // 创建POST请求
-            HttpPost httpPost = new HttpPost(apiUrl);
-            httpPost.setHeader("Content-Type", "application/json");
-            httpPost.setHeader("X-API-Key", apiKey);
-            httpPost.setEntity(new StringEntity(JSON.toJSONString(ttsdto), ContentType.APPLICATION_JSON));
-            // 执行请求
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                int statusCode = response.getCode();
-                String responseString = EntityUtils.toString(response.getEntity());
-                if (statusCode == 200) {
-                    // 解析JSON响应
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    JsonNode jsonResponse = objectMapper.readTree(responseString);
-                    String audioBase64 = jsonResponse.get("audio").asText();
-                    // 解码Base64音频字符串
-                    byte[] audioBytes = Base64.decodeBase64(audioBase64);
-                    // 保存音频文件
-                    // 指定文件路径（你可以根据实际情况设置）
-                    String fileName = StrUtil.uuid() + ".wav";
-                    String filePath = "temp/wav/" + fileName;
-                    return fileApi.createFile(fileName, filePath, audioBytes);
-//                    try (FileOutputStream fos = new FileOutputStream("output.wav")) {
-//                        fos.write(audioBytes);
-//                        String path = fileApi.createFile("output.wav", null, audioBytes);
-//                        return path;
-//                    }
-                } else {
-                    System.out.println("Error: " + responseString);
+        // 1. 相同声音、文本与 TTS 参数的合成结果一致，先查本地缓存，再查 Redis
+        String hash = buildAuditionHash(ttsdto);
+        String url = auditionLocalCache.getIfPresent(hash);
+        if (url != null) {
+            return url;
+        }
+        // 2. 相同的并发请求合并为一次合成，其余请求等待其结果
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = auditionInFlight.putIfAbsent(hash, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+            }
+        }
+        try {
+            url = auditionRedisDAO.get(hash);
+            if (url == null) {
+                url = requestAudition(ttsdto);
+                if (url != null) {
+                    auditionRedisDAO.set(hash, url);
+                }
+            }
+            if (url != null) {
+                auditionLocalCache.put(hash, url);
+            }
+            future.complete(url);
+            return url;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            auditionInFlight.remove(hash, future);
+        }
+    }
+
+    /**
+     * 计算试听的缓存 key：声音编码与所有影响合成结果的 TTS 参数的摘要；请求编号、用户编号不影响结果，不参与计算
+     */
+    private static String buildAuditionHash(TTSDTO ttsdto) {
+        return DigestUtil.sha256Hex(JsonUtils.toJsonString(Arrays.asList(ttsdto.getModel_code(), ttsdto.getVoice_type(),
+                ttsdto.getSentence(), ttsdto.getPitch(), ttsdto.getSpeed(), ttsdto.getVolume())));
+    }
+
+    /**
+     * 调用 easegen core 合成试听音频，并上传到文件服务
+     *
+     * @return 试听音频的文件地址；合成失败时返回 null
+     */
+    private String requestAudition(TTSDTO ttsdto) {
+        HttpPost httpPost = new HttpPost(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/tts");
+        httpPost.setHeader("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY));
+        httpPost.setEntity(new StringEntity(JSON.toJSONString(ttsdto), ContentType.APPLICATION_JSON));
+        try {
+            byte[] audioBytes = digitalCourseHttpClient.execute(httpPost, response -> {
+                if (response.getCode() != 200) {
+                    log.error("[requestAudition][声音({}) 合成失败，状态码({}) 响应({})]", ttsdto.getModel_code(),
+                            response.getCode(), EntityUtils.toString(response.getEntity()));
+                    return null;
+                }
+                // 流式解析响应，直接解码 audio 字段的 Base64，避免先拷贝出整个响应字符串
+                try (InputStream content = response.getEntity().getContent();
+                     JsonParser parser = OBJECT_MAPPER.createParser(content)) {
+                    while (parser.nextToken() != null) {
+                        if (parser.currentToken() == JsonToken.FIELD_NAME && "audio".equals(parser.currentName())) {
+                            parser.nextToken();
+                            return parser.getBinaryValue();
+                        }
+                    }
                 }
+                log.error("[requestAudition][声音({}) 合成响应缺少 audio]", ttsdto.getModel_code());
+                return null;
+            });
+            if (audioBytes == null) {
+                return null;
             }
-        } catch (IOException | ParseException e) {
-            e.printStackTrace();
+            // 保存音频文件
+            String fileName = StrUtil.uuid() + ".wav";
+            String filePath = "temp/wav/" + fileName;
+            return fileApi.createFile(fileName, filePath, audioBytes);
+        } catch (IOException e) {
+            log.error("[requestAudition][声音({}) 合成异常]", ttsdto.getModel_code(), e);
+            return null;
         }
-        return null;
     }
 
 }
\ No newline at end of file
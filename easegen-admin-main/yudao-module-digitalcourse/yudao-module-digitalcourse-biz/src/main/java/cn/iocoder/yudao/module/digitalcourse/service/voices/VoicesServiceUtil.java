@@ -1,15 +1,16 @@
 package cn.iocoder.yudao.module.digitalcourse.service.voices;
 
-import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
+import cn.hutool.core.map.MapUtil;
 import cn.iocoder.yudao.module.digitalcourse.controller.admin.voices.vo.VoicesTrailVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.voices.VoicesDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.voices.VoicesMapper;
+import cn.iocoder.yudao.module.digitalcourse.framework.easegen.core.EasegenCoreSubmitter;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.HttpResult;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
@@ -19,11 +20,12 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,6 +37,8 @@ public class VoicesServiceUtil {
 
     private static final String EASEGEN_CORE_KEY = "easegen.core.key";
 
+    private static final String CLONE_VOICE_PATH = "/api/clone_voice";
+
     private static final int ERROR_STATUS = 5;
     private static final int COMPLETE_STATUS = 0;
     private static final int TARIN_STATUS = 3;
@@ -43,87 +47,65 @@ public class VoicesServiceUtil {
     @Resource
     private ConfigApi configApi;
     @Resource
+    private EasegenCoreSubmitter easegenCoreSubmitter;
+    @Resource
+    private DigitalCourseHttpClient digitalCourseHttpClient;
+    @Resource
     private VoicesMapper voicesMapper;
 
+    /**
+     * 远程训练模型
+     *
+     * 提交到 easegen core 的独立线程池执行，失败时非阻塞重试，最终失败时标记为训练失败
+     */
     public void remoteTrain(VoicesTrailVO trailVO){
-        int maxRetries = 3; // 最大重试次数
-        int retryCount = 0;  // 当前重试次数
-        boolean success = false;
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
-
-        while (retryCount < maxRetries && !success) {
-            try {
-                // 发送POST请求
-                HttpResponse execute = HttpRequest.post(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/clone_voice")
-                        .header("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY))
-                        .body(mapper.writeValueAsString(trailVO))
-                        .execute();
-                String body = execute.body();
-
-                // 检查响应状态码是否成功
-                if (execute.getStatus() != 200) {
-                    retryCount++;
-                    if (retryCount >= maxRetries) {
-                        // 超过重试次数，训练失败
-                        voicesMapper.update(new UpdateWrapper<VoicesDO>().lambda().eq(VoicesDO::getCode, trailVO.getCode()).set(VoicesDO::getStatus, ERROR_STATUS));
-                        log.error("训练失败：->>>>>>>>>", execute.getStatus());
-                        return;
-                    }
-                    continue; // 重新尝试
-                }
-
-                // 解析响应，检查是否有错误信息
-                JSONObject responseJson = JSON.parseObject(body);
-                if (!responseJson.getBoolean("success")) {
-                    // 处理业务逻辑错误，更新状态和错误信息
-                    String errorDetail = responseJson.getString("detail");
-                    retryCount++;
-                    if (retryCount >= maxRetries) {
-                        voicesMapper.update(new UpdateWrapper<VoicesDO>().lambda().eq(VoicesDO::getCode, trailVO.getCode()).set(VoicesDO::getStatus, ERROR_STATUS));
-                        log.error("训练失败：->>>>>>>>>", errorDetail);
-                        return;
-                    }
-                    continue; // 重新尝试
-                }
-                success = true;
-            }catch (Exception e){
-                retryCount++;
-                if (retryCount >= maxRetries) {
-                    // 捕获异常，记录错误原因并更新状态
-                    voicesMapper.update(new UpdateWrapper<VoicesDO>().lambda().eq(VoicesDO::getCode, trailVO.getCode()).set(VoicesDO::getStatus, ERROR_STATUS));
-                    log.error("训练失败：->>>>>>>>>", e.getMessage());
-                    return;
-                }
-
-                try {
-                    // 重试前等待一段时间，避免频繁请求
-                    TimeUnit.SECONDS.sleep(2);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt(); // 处理中断异常
-                    break;
-                }
+        easegenCoreSubmitter.submit(CLONE_VOICE_PATH, () -> {
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+            // 发送POST请求
+            HttpResult execute = digitalCourseHttpClient.postJson(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + CLONE_VOICE_PATH,
+                    MapUtil.of("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY)),
+                    mapper.writeValueAsString(trailVO));
+            // 检查响应状态码是否成功
+            if (execute.getStatus() != 200) {
+                throw new IllegalStateException("HTTP 请求报错: " + execute.getStatus());
             }
-        }
+            // 解析响应，检查是否有错误信息
+            JSONObject responseJson = JSON.parseObject(execute.getBody());
+            if (!responseJson.getBoolean("success")) {
+                throw new IllegalStateException("API 接口异常: " + responseJson.getString("detail"));
+            }
+        }, ex -> {
+            // 超过重试次数，训练失败
+            voicesMapper.update(new UpdateWrapper<VoicesDO>().lambda().eq(VoicesDO::getCode, trailVO.getCode()).set(VoicesDO::getStatus, ERROR_STATUS));
+            log.error("[remoteTrain][code({}) 训练失败]", trailVO.getCode(), ex);
+        });
     }
 
-
-
     @Async
     public void queryRemoteTrainResult(){
+        queryRemoteTrainResult(null, 0);
+    }
+
+    /**
+     * 远程查询指定分桶中记录的训练结果
+     *
+     * @param buckets 分桶数组，为空时查询全部
+     * @param bucketCount 分桶数
+     */
+    public void queryRemoteTrainResult(Collection<Integer> buckets, int bucketCount) {
         try {
-            List<String> codes = voicesMapper.selectList(new QueryWrapper<VoicesDO>().lambda().eq(VoicesDO::getStatus, TARIN_STATUS))
+            List<String> codes = voicesMapper.selectListByStatus(TARIN_STATUS, buckets, bucketCount)
                     .stream().map(e -> e.getCode()).collect(Collectors.toList());
 
             if (codes == null || codes.isEmpty()) return;
 
             // 批量调用远程接口
-            String result = HttpRequest.get(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/clone_voice/result")
-                    .header("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY))
-                    .form("codes", String.join(",", codes))
-                    .timeout(5000)  // 设置超时时间
-                    .execute()
-                    .body();
+            String result = digitalCourseHttpClient.get(configApi.getConfigValueByKey(EASEGEN_CORE_URL) + "/api/clone_voice/result",
+                    MapUtil.of("X-API-Key", configApi.getConfigValueByKey(EASEGEN_CORE_KEY)),
+                    MapUtil.of("codes", String.join(",", codes)),
+                    Duration.ofSeconds(5)) // 设置超时时间
+                    .getBody();
 
             // 检查远程接口返回的结果是否有效
             if (result == null || result.isEmpty()) {
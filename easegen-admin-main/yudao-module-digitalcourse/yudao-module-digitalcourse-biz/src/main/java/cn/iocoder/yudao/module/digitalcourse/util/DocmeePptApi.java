@@ -4,6 +4,7 @@ import cn.iocoder.yudao.module.digitalcourse.dal.redis.RedisKeyConstants;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import jakarta.annotation.Resource;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -13,6 +14,7 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Api
@@ -276,4 +278,42 @@ public class DocmeePptApi {
         }
     }
 
+    /**
+     * 流式生成 PPT，Docmee 的事件逐条交给 dataConsumer，不在内存中累积
+     *
+     * @param dataConsumer 事件回调，参数为事件的 JSON
+     * @param requestConsumer 请求回调，可用于中止请求
+     * @param readTimeout 两个事件之间的最大间隔（毫秒）
+     */
+    public static void directGeneratePptxStream(String apiToken, String templateId, String subject, String dataUrl, String prompt,
+                                                boolean pptxProperty, int readTimeout, Consumer<String> dataConsumer,
+                                                Consumer<HttpRequestBase> requestConsumer) {
+        String url = BASE_URL + "/api/ppt/directGeneratePptx";
+        JSONObject body = new JSONObject();
+        body.put("stream", true);
+        body.put("templateId", templateId);
+        body.put("subject", subject);
+        body.put("dataUrl", dataUrl);
+        body.put("prompt", prompt);
+        body.put("pptxProperty", pptxProperty);
+        HttpUtils.HttpRequest httpRequest = HttpUtils.HttpRequest.postJson(url);
+        httpRequest.setBody(body.toJSONString());
+        httpRequest.addHeaders("token", apiToken);
+        httpRequest.setMaxSocketTimeout(readTimeout);
+        httpRequest.setRequestBaseConsumer(requestConsumer);
+        HttpUtils.HttpResponse response = HttpUtils.requestWithEventStream(httpRequest, data -> {
+            if (data != null && !data.isEmpty()) {
+                dataConsumer.accept(data);
+            }
+        });
+        if (response.getStatus() != 200) {
+            throw new RuntimeException("生成PPT失败，httpStatus=" + response.getStatus());
+        }
+        String contentType = response.getHeaders().getOrDefault("Content-Type", response.getHeaders().get("content-type"));
+        if (contentType != null && contentType.contains("application/json")) {
+            JSONObject result = response.getResponseToJson();
+            throw new RuntimeException("生成PPT失败：" + result.getString("message"));
+        }
+    }
+
 }
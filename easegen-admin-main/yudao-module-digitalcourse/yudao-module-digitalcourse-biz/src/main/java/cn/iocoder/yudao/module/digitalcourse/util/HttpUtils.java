@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.digitalcourse.util;
 
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.HttpClientMetrics;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import org.apache.commons.io.IOUtils;
@@ -24,8 +25,10 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.X509TrustManager;
@@ -72,14 +75,34 @@ public class HttpUtils {
     public static final String CONTENT_TYPE_JSON = "application/json";
     public static final String CONTENT_TYPE_FORM_DATA = "application/x-www-form-urlencoded";
     private static final PoolingHttpClientConnectionManager CONNECTION_MANAGER;
+    /**
+     * 共享的 HttpClient，超时等配置按请求设置
+     */
+    private static final CloseableHttpClient HTTP_CLIENT;
     private static final int MAX_CONNECT_TIMEOUT = 8000;
     private static final int MAX_SOCKET_TIMEOUT = 90000;
+    /**
+     * eventStream 中非 data 行（例如错误时返回的 JSON）保留的最大长度，data 行逐条交给回调，不在内存中累积
+     */
+    private static final int MAX_EVENT_STREAM_BODY_LENGTH = 64 * 1024;
 
     static {
         CONNECTION_MANAGER = new PoolingHttpClientConnectionManager(getDefaultRegistry());
         CONNECTION_MANAGER.setMaxTotal(500);
         CONNECTION_MANAGER.setDefaultMaxPerRoute(50);
         CONNECTION_MANAGER.setValidateAfterInactivity(2000);
+        HTTP_CLIENT = HttpClients.custom()
+                .setConnectionManager(CONNECTION_MANAGER)
+                .evictIdleConnections(60, TimeUnit.SECONDS)
+                .evictExpiredConnections()
+                .build();
+    }
+
+    /**
+     * 获得连接池的使用情况，用于监控
+     */
+    public static PoolStats getPoolStats() {
+        return CONNECTION_MANAGER.getTotalStats();
     }
 
     public static HttpResponse get(String url) {
@@ -162,29 +185,12 @@ public class HttpUtils {
             if (request.getMaxSocketTimeout() == null) {
                 request.setMaxSocketTimeout(30_000);
             }
-            request.setResponseHandler(entity -> {
-                StringBuilder sb = new StringBuilder();
-                try {
-                    try (InputStream is = entity.getContent()) {
-                        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                            String line;
-                            while ((line = bufferedReader.readLine()) != null) {
-                                if (status.get() == 2) {
-                                    throw new TimeoutException();
-                                }
-                                status.set(1);
-                                sb.append(line).append("\n");
-                                if (line.startsWith("data:")) {
-                                    dataConsumer.accept(line.substring(line.startsWith("data: ") ? 6 : 5));
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException("eventStream 请求异常", e);
+            request.setResponseHandler(entity -> readEventStream(entity, dataConsumer, () -> {
+                if (status.get() == 2) {
+                    throw new TimeoutException();
                 }
-                return sb.toString();
-            });
+                status.set(1);
+            }));
             return request(request);
         });
         if (futureConsumer != null) {
@@ -209,26 +215,42 @@ public class HttpUtils {
         if (request.getMaxSocketTimeout() == null) {
             request.setMaxSocketTimeout(30_000);
         }
-        request.setResponseHandler(entity -> {
-            StringBuilder sb = new StringBuilder();
-            try {
-                try (InputStream is = entity.getContent()) {
-                    try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                        String line;
-                        while ((line = bufferedReader.readLine()) != null) {
+        request.setResponseHandler(entity -> readEventStream(entity, dataConsumer, null));
+        return request(request);
+    }
+
+    /**
+     * 逐行读取 eventStream，data 行交给回调；返回非 data 行的内容，超过 {@link #MAX_EVENT_STREAM_BODY_LENGTH} 的部分丢弃
+     */
+    private static String readEventStream(HttpEntity entity, Consumer<String> dataConsumer, LineListener lineListener) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            try (InputStream is = entity.getContent()) {
+                try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (lineListener != null) {
+                            lineListener.onLine();
+                        }
+                        if (line.startsWith("data:")) {
+                            dataConsumer.accept(line.substring(line.startsWith("data: ") ? 6 : 5));
+                        } else if (sb.length() < MAX_EVENT_STREAM_BODY_LENGTH) {
                             sb.append(line).append("\n");
-                            if (line.startsWith("data:")) {
-                                dataConsumer.accept(line.substring(line.startsWith("data: ") ? 6 : 5));
-                            }
                         }
                     }
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("eventStream 请求异常", e);
             }
-            return sb.toString();
-        });
-        return request(request);
+        } catch (Exception e) {
+            throw new RuntimeException("eventStream 请求异常", e);
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface LineListener {
+
+        void onLine() throws Exception;
+
     }
 
     public static int getUrlHttpStatus(String _url) {
@@ -314,6 +336,10 @@ public class HttpUtils {
 
     private static HttpResponse request(HttpRequest request, int retryCount) {
         HttpRequestBase requestBase = toRequest(request);
+        if (request.requestBaseConsumer != null) {
+            // 交给调用方，例如用于中止请求
+            request.requestBaseConsumer.accept(requestBase);
+        }
         Map<String, String> headers = request.getHeaders();
         ContentType contentType = null;
         if (headers != null && !headers.isEmpty()) {
@@ -337,7 +363,16 @@ public class HttpUtils {
             HttpClient client = getHttpClient(request, requestBase);
             org.apache.http.HttpResponse response;
             long startTime = System.currentTimeMillis();
-            response = client.execute(requestBase);
+            long startNanos = System.nanoTime();
+            try {
+                response = client.execute(requestBase);
+                HttpClientMetrics.record(requestBase.getURI().getHost(), requestBase.getMethod(),
+                        response.getStatusLine().getStatusCode(), System.nanoTime() - startNanos);
+            } catch (Exception e) {
+                HttpClientMetrics.record(requestBase.getURI().getHost(), requestBase.getMethod(), null,
+                        System.nanoTime() - startNanos);
+                throw e;
+            }
             HttpResponse httpResponse = new HttpResponse();
             httpResponse.setReqTime(System.currentTimeMillis() - startTime);
             httpResponse.setStatus(response.getStatusLine().getStatusCode());
@@ -447,7 +482,7 @@ public class HttpUtils {
             req.getRequestConfigConsumer().accept(customReqConf);
         }
         request.setConfig(customReqConf.build());
-        return HttpClients.custom().setConnectionManager(CONNECTION_MANAGER).build();
+        return HTTP_CLIENT;
     }
 
     private static Registry<ConnectionSocketFactory> getDefaultRegistry() {
@@ -515,6 +550,7 @@ public class HttpUtils {
         private Integer maxSocketTimeout;
         private Consumer<RequestConfig.Builder> requestConfigConsumer;
         private Function<HttpEntity, Object> responseHandler;
+        private Consumer<HttpRequestBase> requestBaseConsumer;
 
         public static HttpRequest build(String url, String method) {
             HttpRequest request = new HttpRequest();
@@ -620,6 +656,15 @@ public class HttpUtils {
             this.responseHandler = responseHandler;
             return this;
         }
+
+        public Consumer<HttpRequestBase> getRequestBaseConsumer() {
+            return requestBaseConsumer;
+        }
+
+        public HttpRequest setRequestBaseConsumer(Consumer<HttpRequestBase> requestBaseConsumer) {
+            this.requestBaseConsumer = requestBaseConsumer;
+            return this;
+        }
     }
 
     public static class HttpResponse implements Serializable {
@@ -2,14 +2,22 @@ package cn.iocoder.yudao.module.digitalcourse.util;
 
 
 
-import cn.hutool.json.JSONObject;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.courseppts.vo.AppPptAnalysisRespVO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.CoursePptsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courseppts.PptAnalysisStatusDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.pptmaterials.PptMaterialsDO;
 import cn.iocoder.yudao.module.digitalcourse.dal.mysql.courseppts.CoursePptsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.courseppts.PptAnalysisStatusRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.enums.courseppts.PptAnalysisStatusEnum;
+import cn.iocoder.yudao.module.digitalcourse.framework.http.core.DigitalCourseHttpClient;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.OfficeConverterPool;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.core.PptRenderExecutor;
 import cn.iocoder.yudao.module.digitalcourse.service.pptmaterials.PptMaterialsService;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import cn.iocoder.yudao.module.infra.api.file.FileApi;
+import cn.iocoder.yudao.module.infra.api.websocket.WebSocketSenderApi;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -24,7 +32,6 @@ import org.springframework.stereotype.Component;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.*;
-import java.net.URL;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.*;
@@ -40,9 +47,13 @@ import java.util.concurrent.*;
 public class PPTUtil {
 
 
+    /**
+     * PPT 解析进度的 WebSocket 消息类型
+     */
+    public static final String MESSAGE_TYPE_PPT_ANALYSIS = "digitalcourse-ppt-analysis";
+
     private static final String EASEGEN_CORE_PPT_ANALYSIS_URL = "easegen.core.ppt.analysis.url";
-    private static final String ANALYSIS_PPT_COUNT_KEY = "analysis_ppt_count:";
-    private static final String ANALYSIS_PPT_KEY = "analysis_ppt:";
+    private static final String ANALYSIS_PPT_CANCEL_KEY = "analysis_ppt_cancel:";
      @Resource
     private FileApi fileApi;
     @Resource
@@ -53,6 +64,23 @@ public class PPTUtil {
     private CoursePptsMapper coursePptsMapper;
     @Resource
     private StringRedisTemplate redisCache;
+    @Resource
+    private PptRenderExecutor pptRenderExecutor;
+    @Resource
+    private PptProperties pptProperties;
+    @Resource
+    private OfficeConverterPool officeConverterPool;
+    @Resource
+    private DigitalCourseHttpClient digitalCourseHttpClient;
+    @Resource
+    private PptAnalysisStatusRedisDAO pptAnalysisStatusRedisDAO;
+    @Resource
+    private WebSocketSenderApi webSocketSenderApi;
+
+    /**
+     * PPT 编号 => 本节点上解析中的任务
+     */
+    private final Map<Long, AnalysisTask> analysisTasks = new ConcurrentHashMap<>();
 
 
 
@@ -60,62 +88,76 @@ public class PPTUtil {
             return String.valueOf(System.currentTimeMillis());
     }
 
+    /**
+     * 异步解析 PPT，进度通过 WebSocket 推送给用户，并记录到 Redis 中供断线重连后查询
+     *
+     * @param file 文件地址
+     * @param pptId PPT 编号
+     * @param userId 用户编号，为空时不推送
+     * @param userType 用户类型
+     */
     @Async
-    public void analysisPpt(String file,Long pptId){
-        Boolean b = false;
+    public void analysisPpt(String file, Long pptId, Long userId, Integer userType) {
+        PptAnalysisStatusDO status = new PptAnalysisStatusDO().setPptId(pptId).setUserId(userId).setUserType(userType)
+                .setStatus(PptAnalysisStatusEnum.RUNNING.getStatus()).setPageCount(0).setSavedCount(0);
         try {
             log.info("[analysisPpt][开始] pptId:{}, file:{}", pptId, file);
-            ArrayList<JSONObject> data = analysisPptLocal(file, pptId);
-            log.info("[analysisPpt][解析完成] pptId:{}, 页数:{}", pptId, data.size());
-            List<PptMaterialsDO> list = new ArrayList<>();
-            log.info("解析ppt数据："+data);
-
-            CoursePptsDO coursePptsDO = coursePptsMapper.selectById(pptId);
-            coursePptsDO.setPageSize(data.size());
-            coursePptsMapper.updateById(coursePptsDO);
-
-            for (int i = 0; i < data.size(); i++) {
-                PptMaterialsDO pptMaterialsDO = new PptMaterialsDO();
-                JSONObject obj = BeanUtils.toBean(data.get(i), JSONObject.class);
-                String picFile = obj.getStr("file");
-                try {
-//                    byte[] bytes = Files.readAllBytes(Path.of(picFile));
-//                    String picPath = savePicture(bytes, getTimeStamp());
-                    pptMaterialsDO.setPptId(pptId);
-                    pptMaterialsDO.setName(picFile);
-                    pptMaterialsDO.setPictureUrl(picFile);
-                    pptMaterialsDO.setOriginalUrl(picFile);
-                    pptMaterialsDO.setIndexNo(i);
-                    pptMaterialsDO.setBackgroundType(1);
-                    pptMaterialsDO.setPptRemark(String.valueOf(obj.get("text")));
-                    list.add(pptMaterialsDO);
-                }catch (Exception exception){
-                    exception.printStackTrace();
-                }
-            }
-
-            b = pptMaterialsService.batchInsert(list);
-            log.info("[analysisPpt][保存完成] pptId:{}, 结果:{}", pptId, b);
+            redisCache.delete(ANALYSIS_PPT_CANCEL_KEY + pptId);
+            publishStatus(status, null);
+            // 页面渲染完成一页即保存一页，这里只需等待全部完成
+            int pageSize = analysisPptLocal(file, status);
+            log.info("[analysisPpt][解析完成] pptId:{}, 页数:{}", pptId, pageSize);
+            status.setStatus(PptAnalysisStatusEnum.SUCCESS.getStatus());
+        }catch (CancellationException e){
+            log.info("[analysisPpt][解析已取消] pptId:{}", pptId);
+            pptMaterialsService.deleteListByPptId(pptId);
+            status.setStatus(PptAnalysisStatusEnum.CANCELLED.getStatus());
         }catch (Exception e){
+            status.setStatus(PptAnalysisStatusEnum.FAILURE.getStatus()).setErrorMsg(e.getMessage());
             throw new RuntimeException(e);
         }finally {
             CoursePptsDO coursePptsDO = new CoursePptsDO();
-            coursePptsDO.setStatus(b ? 0 : 1);
+            coursePptsDO.setStatus(PptAnalysisStatusEnum.SUCCESS.getStatus().equals(status.getStatus()) ? 0 : 1);
             coursePptsDO.setId(pptId);
             coursePptsMapper.updateById(coursePptsDO);
+            // 数据库更新后再推送结束，用户收到后查询到的即为最终结果
+            publishStatus(status, null);
+        }
+    }
+
+    /**
+     * 取消解析：停止等待中、执行中的页面渲染
+     *
+     * 取消标记写入 Redis，其它节点上的解析在下一页完成时检查到后停止
+     *
+     * @param pptId PPT 编号
+     */
+    public void cancelAnalysis(Long pptId) {
+        redisCache.opsForValue().set(ANALYSIS_PPT_CANCEL_KEY + pptId, "1", 1, TimeUnit.DAYS);
+        // 先标记为已取消：解析所在节点宕机时，也不会一直停留在解析中；解析结束时会再次推送
+        PptAnalysisStatusDO status = pptAnalysisStatusRedisDAO.get(pptId);
+        if (status != null && PptAnalysisStatusEnum.RUNNING.getStatus().equals(status.getStatus())) {
+            publishStatus(status.setStatus(PptAnalysisStatusEnum.CANCELLED.getStatus()), null);
+        }
+        AnalysisTask task = analysisTasks.get(pptId);
+        if (task != null) {
+            task.cancel();
         }
     }
 
-    public ArrayList<JSONObject> analysisPptLocal(String fileUrl, Long pptId) {
-        ArrayList<JSONObject> picList = new ArrayList<>();
-        ExecutorService executorService = null;
+    /**
+     * 解析 PPT / PDF：逐页渲染为图片并保存素材
+     *
+     * @param fileUrl 文件地址
+     * @param status 解析状态，每保存一页更新并推送
+     * @return 页数
+     */
+    public int analysisPptLocal(String fileUrl, PptAnalysisStatusDO status) {
+        Long pptId = status.getPptId();
         File downloadedFile = null;
         File pdfFile = null;
 
         try {
-            // 更新进度为开始
-            redisCache.opsForValue().set(ANALYSIS_PPT_KEY + pptId, "0", 1, TimeUnit.DAYS);
-            
             // 下载文件
             log.info("[analysisPptLocal][开始下载] pptId:{}, url:{}", pptId, fileUrl);
             downloadedFile = downloadFile(fileUrl);
@@ -124,16 +166,17 @@ public class PPTUtil {
             String fileExtension = getFileExtension(fileUrl).toLowerCase();
 
 
-            XMLSlideShow ppt = null;
+            List<String> notes = Collections.emptyList();
             if ("pdf".equals(fileExtension)) {
                 log.info("[analysisPptLocal][文件为PDF，直接处理] pptId:{}", pptId);
                 pdfFile = downloadedFile;
             } else if ("ppt".equals(fileExtension) || "pptx".equals(fileExtension)) {
                 log.info("[analysisPptLocal][文件为PPT，开始转换] pptId:{}", pptId);
                 pdfFile = convertPptToPdf(downloadedFile);
-                // 重新打开文件输入流来创建 XMLSlideShow
-                try (FileInputStream fileInputStream = new FileInputStream(downloadedFile)) {
-                    ppt = new XMLSlideShow(fileInputStream);
+                // 重新打开文件输入流来创建 XMLSlideShow，预先读取全部备注（XMLSlideShow 不是线程安全的，不能在渲染线程中读取）
+                try (FileInputStream fileInputStream = new FileInputStream(downloadedFile);
+                     XMLSlideShow ppt = new XMLSlideShow(fileInputStream)) {
+                    notes = getPptNotes(ppt);
                 }
             } else {
                 throw new IllegalArgumentException("不支持的文件格式：" + fileExtension);
@@ -142,20 +185,18 @@ public class PPTUtil {
 
             if (!isValidPdf(pdfFile)) {
                 log.error("[analysisPptLocal][PDF无效] pptId:{}", pptId);
-                redisCache.opsForValue().set(ANALYSIS_PPT_KEY + pptId, "-1", 1, TimeUnit.DAYS);
                 throw new RuntimeException("生成的PDF文件无效");
             }
             // 处理PDF文件
-            executorService = Executors.newFixedThreadPool(1);
-            picList = processPdfFile(pdfFile, pptId, executorService,ppt);
-            return picList;
+            return processPdfFile(pdfFile, status, notes);
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            redisCache.opsForValue().set(ANALYSIS_PPT_KEY + pptId, "-1", 1, TimeUnit.DAYS);
             log.error("[analysisPptLocal][异常] pptId:{}, 错误:{}", pptId, e.getMessage(), e);
             throw new RuntimeException("文件解析失败: " + e.getMessage(), e);
         } finally {
             // 清理资源
-            cleanupResources(executorService, downloadedFile, pdfFile);
+            cleanupResources(downloadedFile, pdfFile);
         }
     }
 
@@ -169,25 +210,24 @@ public class PPTUtil {
 
     private File downloadFile(String fileUrl) throws IOException {
         log.info("[downloadFile][开始] url:{}", fileUrl);
-        URL url = new URL(fileUrl);
         String tempFileName = UUID.randomUUID().toString();
         String extension = getFileExtension(fileUrl);
         File downloadedFile = File.createTempFile("downloaded_file_" + tempFileName, "." + extension);
 
-        try (InputStream inputStream = url.openStream();
-             FileOutputStream outputStream = new FileOutputStream(downloadedFile)) {
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-            }
-        }
+        digitalCourseHttpClient.download(fileUrl, downloadedFile);
         log.info("[downloadFile][完成] url:{}, file:{}", fileUrl, downloadedFile.getAbsolutePath());
         return downloadedFile;
     }
 
     private File convertPptToPdf(File pptFile) throws IOException, InterruptedException {
         log.info("[convertPptToPdf][开始] pptFile:{}", pptFile.getName());
+        // 优先使用常驻的 LibreOffice 进程池，避免每次冷启动
+        if (officeConverterPool.isAvailable()) {
+            File pdfFile = File.createTempFile("ppt_to_pdf_" + UUID.randomUUID(), ".pdf");
+            officeConverterPool.convert(pptFile, pdfFile);
+            log.info("[convertPptToPdf][转换成功] pptFile:{}", pptFile.getName());
+            return pdfFile;
+        }
         String tempFileName = UUID.randomUUID().toString();
         File pdfFile = File.createTempFile("ppt_to_pdf_"+tempFileName, ".pdf");
         String command;
@@ -226,54 +266,125 @@ public class PPTUtil {
         }
     }
 
-    private ArrayList<JSONObject> processPdfFile(File pdfFile, Long pptId, ExecutorService executorService,XMLSlideShow ppt) throws IOException {
-        ArrayList<JSONObject> picList = new ArrayList<>();
-        PDDocument document = PDDocument.load(pdfFile);
+    /**
+     * 将 PDF 按页拆分为多个渲染任务，提交到共享的渲染线程池并行执行；每完成一页即保存素材并更新进度
+     */
+    private int processPdfFile(File pdfFile, PptAnalysisStatusDO status, List<String> notes) throws IOException, InterruptedException {
+        Long pptId = status.getPptId();
+        int pageCount;
+        try (PDDocument document = PDDocument.load(pdfFile)) {
+            pageCount = document.getNumberOfPages();
+        }
+        log.info("[processPdfFile][开始处理] pptId:{}, 总页数:{}", pptId, pageCount);
+        CoursePptsDO coursePptsDO = new CoursePptsDO();
+        coursePptsDO.setId(pptId);
+        coursePptsDO.setPageSize(pageCount);
+        coursePptsMapper.updateById(coursePptsDO);
+        publishStatus(status.setPageCount(pageCount), null);
+
+        PptProperties.Render render = pptProperties.getRender();
+        AnalysisTask task = new AnalysisTask();
+        analysisTasks.put(pptId, task);
         try {
-            int pageCount = document.getNumberOfPages();
-            log.info("[processPdfFile][开始处理] pptId:{}, 总页数:{}", pptId, pageCount);
-            redisCache.opsForValue().set(ANALYSIS_PPT_COUNT_KEY + pptId, String.valueOf(pageCount), 1, TimeUnit.DAYS);
-
-            List<Future<JSONObject>> futures = new ArrayList<>();
-            for (int i = 0; i < pageCount; i++) {
-                PDDocument splitDoc = new PDDocument();
-                splitDoc.addPage(document.getPage(i));
-                int pageIndex = i;
-                Future<JSONObject> future = executorService.submit(() ->
-                        processPdfPage(splitDoc, pageIndex, pptId, pageCount, ppt));
-                futures.add(future);
+            for (int start = 0; start < pageCount; start += render.getPagesPerTask()) {
+                int from = start;
+                int to = Math.min(start + render.getPagesPerTask(), pageCount);
+                FutureTask<Void> future = new FutureTask<>(() -> renderPages(pdfFile, from, to, pptId, notes, task), null);
+                task.futures.add(future);
+                pptRenderExecutor.execute(future);
             }
 
-            for (int i = 0; i < futures.size(); i++) {
-                try {
-                    JSONObject result = futures.get(i).get(5, TimeUnit.MINUTES);
-                    picList.add(result);
-                    log.info("[processPdfFile][处理进度] pptId:{}, 当前页:{}/{}", pptId, i + 1, pageCount);
-                } catch (Exception e) {
-                    log.error("[processPdfFile][处理失败] pptId:{}, 页码:{}", pptId, i, e);
-                    throw new IOException("处理PDF页面失败", e);
+            for (int completed = 0; completed < pageCount; ) {
+                PageResult result = task.results.poll(render.getPageTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    throw new IOException("处理PDF页面超时");
                 }
+                if (result == PageResult.CANCELLED || Boolean.TRUE.equals(redisCache.hasKey(ANALYSIS_PPT_CANCEL_KEY + pptId))) {
+                    throw new CancellationException("PPT 解析已取消");
+                }
+                if (result.error != null) {
+                    log.error("[processPdfFile][处理失败] pptId:{}, 页码:{}", pptId, result.pageIndex, result.error);
+                    throw new IOException("处理PDF页面失败", result.error);
+                }
+                savePptMaterial(pptId, result);
+                completed++;
+                // 更新进度：页面的渲染与素材保存在同一步完成，一次推送
+                publishStatus(status.setSavedCount(completed), result);
+                log.info("[processPdfFile][处理进度] pptId:{}, 当前页:{}/{}", pptId, completed, pageCount);
             }
+            return pageCount;
         } finally {
-            document.close();
+            // 失败或取消时，停止剩余的渲染任务
+            task.futures.forEach(future -> future.cancel(true));
+            analysisTasks.remove(pptId);
         }
-        return picList;
     }
 
-    private void cleanupResources(ExecutorService executorService, File... files) {
-        // 关闭线程池
-        if (executorService != null) {
-            try {
-                executorService.shutdown();
-                if (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
-                    executorService.shutdownNow();
+    /**
+     * 记录解析状态，并推送给用户；推送失败不影响解析
+     *
+     * @param status 解析状态
+     * @param page 本次完成的页面，可以为空
+     */
+    private void publishStatus(PptAnalysisStatusDO status, PageResult page) {
+        try {
+            pptAnalysisStatusRedisDAO.set(status);
+        } catch (Exception ex) {
+            log.error("[publishStatus][pptId({}) 记录解析状态失败]", status.getPptId(), ex);
+        }
+        if (status.getUserId() == null) {
+            return;
+        }
+        try {
+            AppPptAnalysisRespVO message = buildAnalysisResp(status);
+            if (page != null) {
+                message.setPageIndex(page.pageIndex);
+                message.setPictureUrl(page.file);
+            }
+            webSocketSenderApi.sendObject(status.getUserType(), status.getUserId(), MESSAGE_TYPE_PPT_ANALYSIS, message);
+        } catch (Exception ex) {
+            log.error("[publishStatus][pptId({}) 推送解析状态失败]", status.getPptId(), ex);
+        }
+    }
+
+    public static AppPptAnalysisRespVO buildAnalysisResp(PptAnalysisStatusDO status) {
+        return BeanUtils.toBean(status, AppPptAnalysisRespVO.class, resp -> resp.setProgress(
+                status.getPageCount() > 0 ? (double) status.getSavedCount() / status.getPageCount() : 0D));
+    }
+
+    private void savePptMaterial(Long pptId, PageResult result) {
+        PptMaterialsDO pptMaterialsDO = new PptMaterialsDO();
+        pptMaterialsDO.setPptId(pptId);
+        pptMaterialsDO.setName(result.file);
+        pptMaterialsDO.setPictureUrl(result.file);
+        pptMaterialsDO.setOriginalUrl(result.file);
+        pptMaterialsDO.setIndexNo(result.pageIndex);
+        pptMaterialsDO.setBackgroundType(1);
+        pptMaterialsDO.setPptRemark(result.text);
+        pptMaterialsService.batchInsert(Collections.singletonList(pptMaterialsDO));
+    }
+
+    /**
+     * 渲染 [from, to) 范围内的页面。每个任务单独加载 PDF，因为 PDDocument 不是线程安全的
+     */
+    private void renderPages(File pdfFile, int from, int to, Long pptId, List<String> notes, AnalysisTask task) {
+        int pageIndex = from;
+        try (PDDocument document = PDDocument.load(pdfFile)) {
+            PDFRenderer pdfRenderer = new PDFRenderer(document);
+            for (; pageIndex < to; pageIndex++) {
+                if (task.cancelled || Thread.currentThread().isInterrupted()) {
+                    return;
                 }
-            } catch (InterruptedException ie) {
-                executorService.shutdownNow();
-                Thread.currentThread().interrupt();
+                task.results.add(processPdfPage(document, pdfRenderer, pageIndex, pptId, notes));
+            }
+        } catch (Exception e) {
+            if (!task.cancelled) {
+                task.results.add(new PageResult(pageIndex, null, null, e));
             }
         }
+    }
 
+    private void cleanupResources(File... files) {
         // 删除临时文件
         for (File file : files) {
             if (file != null && file.exists()) {
@@ -285,6 +396,14 @@ public class PPTUtil {
         }
     }
 
+    private List<String> getPptNotes(XMLSlideShow ppt) {
+        List<String> notes = new ArrayList<>(ppt.getSlides().size());
+        for (int i = 0; i < ppt.getSlides().size(); i++) {
+            notes.add(getPptNotes(i, ppt));
+        }
+        return notes;
+    }
+
     private String getPptNotes(int pageIndex, XMLSlideShow ppt) {
         String text = "";
         try {
@@ -356,80 +475,96 @@ public class PPTUtil {
         return null; // 如果出错，返回null表示无法找到对应slide
     }
 
-    private String extractTextFromPdfPage(PDDocument document, int startIndex) {
-        PDDocument tempdoc = new PDDocument();
+    private String extractTextFromPdfPage(PDDocument document, int pageIndex) {
         try {
-            tempdoc.addPage(document.getPage(0));
             PDFTextStripper pdfStripper = new PDFTextStripper();
-            pdfStripper.setStartPage(1);
+            pdfStripper.setStartPage(pageIndex + 1);
+            pdfStripper.setEndPage(pageIndex + 1);
             pdfStripper.setSortByPosition(true); // 尝试启用按位置排序，避免字体问题导致的解析错误
-            return pdfStripper.getText(tempdoc).trim();
+            return pdfStripper.getText(document).trim();
         } catch (ArrayIndexOutOfBoundsException e) {
-            log.error("提取PDF页面时发生数组越界错误，页面范围: " + startIndex , e);
+            log.error("提取PDF页面时发生数组越界错误，页面范围: " + pageIndex , e);
             return "";
         } catch (IOException e) {
-            log.error("无法提取PDF页面的文字，页面范围: " + startIndex , e);
+            log.error("无法提取PDF页面的文字，页面范围: " + pageIndex , e);
             return "";
         } catch (Exception e) {
-            log.error("提取PDF页面时发生未知错误，页面范围: " + startIndex , e);
+            log.error("提取PDF页面时发生未知错误，页面范围: " + pageIndex , e);
             return "";
-        } finally {
-            try {
-                if (tempdoc != null) {
-                    tempdoc.close();
-                }
-            } catch (IOException e) {
-                log.error("关闭PDF文档时发生错误", e);
-            }
         }
     }
 
 
-    private JSONObject processPdfPage(PDDocument document, int pageIndex, Long pptId, int count, XMLSlideShow ppt) throws IOException {
-        String text = "";
-        // 如果ppt为空，则不获取ppt备注
-        if(null == ppt){
+    private PageResult processPdfPage(PDDocument document, PDFRenderer pdfRenderer, int pageIndex, Long pptId,
+                                      List<String> notes) throws IOException {
+        // 优先使用PPT备注，备注不存在（或者是PDF文件）时，提取PDF页面的文字
+        String text = pageIndex < notes.size() ? notes.get(pageIndex) : "";
+        if (text.isEmpty()) {
             text = extractTextFromPdfPage(document, pageIndex);
-        }else{
-            // 尝试获取PPT备注
-            String notesText = getPptNotes(pageIndex, ppt);
-            if (!notesText.isEmpty()) {
-                text = notesText;
-            } else {
-                // 如果备注不存在，提取PDF页面的文字
-                text = extractTextFromPdfPage(document, pageIndex);
-            }
         }
 
         try {
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            BufferedImage bufferedImage = pdfRenderer.renderImageWithDPI(0, 150);
+            BufferedImage bufferedImage = pdfRenderer.renderImageWithDPI(pageIndex, pptProperties.getRender().getDpi());
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             ImageIO.write(bufferedImage, "jpg", outputStream);
             byte[] imageBytes = outputStream.toByteArray();
 
             // 保存图片到文件系统或云存储
             String s3FilePath = savePicture(imageBytes, pageIndex + "-" + pptId + ".jpg");
-
-            // 保存文件和备注内容到 JSON
-            JSONObject entries = new JSONObject();
-            entries.put("file", s3FilePath);
-            entries.put("text", text);
-
-            // 更新进度
-            redisCache.opsForValue().set(ANALYSIS_PPT_KEY + pptId, String.valueOf((double) (pageIndex + 1) / count));
-
-            return entries;
+            return new PageResult(pageIndex, s3FilePath, text, null);
         } catch (IOException e) {
             log.error("渲染PDF页面失败，页面索引: " + pageIndex, e);
             throw e;
         }
     }
+
     private String savePicture(final byte[] data, final String fileName) throws IOException {
         String file = fileApi.createFile(data);
         return file;
     }
 
+    /**
+     * 一次解析中的渲染任务，用于取消
+     */
+    private static class AnalysisTask {
+
+        /**
+         * 已完成的页面，由渲染线程放入、解析线程按完成顺序取出
+         */
+        private final BlockingQueue<PageResult> results = new LinkedBlockingQueue<>();
+        private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled;
+
+        private void cancel() {
+            cancelled = true;
+            futures.forEach(future -> future.cancel(true));
+            // 唤醒等待中的解析线程
+            results.add(PageResult.CANCELLED);
+        }
+
+    }
+
+    /**
+     * 单页的渲染结果
+     */
+    private static class PageResult {
+
+        private static final PageResult CANCELLED = new PageResult(-1, null, null, null);
+
+        private final int pageIndex;
+        private final String file;
+        private final String text;
+        private final Exception error;
+
+        private PageResult(int pageIndex, String file, String text, Exception error) {
+            this.pageIndex = pageIndex;
+            this.file = file;
+            this.text = text;
+            this.error = error;
+        }
+
+    }
+
 
 
 
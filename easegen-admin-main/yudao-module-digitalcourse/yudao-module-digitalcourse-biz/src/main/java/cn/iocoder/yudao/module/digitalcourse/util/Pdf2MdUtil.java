@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.commonmark.node.Node;
@@ -39,41 +41,60 @@ public class Pdf2MdUtil {
     @Resource
     private ConfigApi configApi;
 
-    public String recognizeMarkdown(String fileUrl, String type) throws IOException, InterruptedException {
-        if (fileUrl == null || fileUrl.trim().isEmpty()) {
-            throw new IllegalArgumentException("fileUrl不能为空");
-        }
-        fileUrl = fileUrl.trim();
-        
+    /**
+     * 不需要 doc2x 的本地解析：txt 文件、以文本方式解析的 docx 文件
+     *
+     * @param fileUrl 文件地址
+     * @param type 解析类型，markdown 或 text
+     * @return 解析结果；需要提交 doc2x 识别时返回 null
+     */
+    public String parseLocally(String fileUrl, String type) throws IOException {
         if (fileUrl.endsWith(".txt")) {
             // Handle txt files directly
             return new String(Files.readAllBytes(Paths.get(new URL(fileUrl).getPath())));
-        } else if (fileUrl.endsWith(".docx")) {
-            if ("text".equalsIgnoreCase(type)) {
-                // Extract text directly from Word document
-                return extractTextFromWord(fileUrl);
-            } else {
-                // Convert Word document to PDF
-                fileUrl = convertWordToPdf(fileUrl);
-            }
         }
-
-        // Step 1: Submit recognition task
-        String uuid = submitRecognitionTask(fileUrl);
-        if (uuid == null) {
-            throw new IOException("提交识别任务失败。");
+        if (fileUrl.endsWith(".docx") && "text".equalsIgnoreCase(type)) {
+            // Extract text directly from Word document
+            return extractTextFromWord(fileUrl);
         }
+        return null;
+    }
 
-        // Step 2: Poll task status until it's completed
-        String content = pollTaskStatus(uuid, type);
-        if (content == null) {
-            throw new IOException("获取识别内容失败。");
+    /**
+     * 读取 doc2x 的配置，一次轮询中的所有任务共用，避免每次请求都查询配置
+     */
+    public Doc2xConfig getDoc2xConfig() throws IOException {
+        String baseUrl = configApi.getConfigValueByKey(BASE_URL);
+        if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            throw new IOException("doc2x.url 配置未设置或为空");
+        }
+        String apiKey = configApi.getConfigValueByKey(API_KEY);
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new IOException("doc2x.key 配置未设置或为空");
         }
+        return new Doc2xConfig(baseUrl.trim(), apiKey.trim());
+    }
 
-        return content;
+    /**
+     * 提交 doc2x 识别任务，docx 文件先转换为 PDF
+     *
+     * @param fileUrl 文件地址
+     * @param config doc2x 配置
+     * @return doc2x 任务编号
+     */
+    public String submitRecognitionTask(String fileUrl, Doc2xConfig config) throws IOException {
+        if (fileUrl.endsWith(".docx")) {
+            // Convert Word document to PDF
+            fileUrl = convertWordToPdf(fileUrl);
+        }
+        String uuid = doSubmitRecognitionTask(fileUrl, config);
+        if (uuid == null) {
+            throw new IOException("提交识别任务失败。");
+        }
+        return uuid;
     }
 
-    private String submitRecognitionTask(String fileUrl) throws IOException {
+    private String doSubmitRecognitionTask(String fileUrl, Doc2xConfig config) throws IOException {
         // 尝试不同的API端点格式
         String endpoint;
         if (fileUrl.endsWith(".pdf")) {
@@ -87,11 +108,7 @@ public class Pdf2MdUtil {
             // endpoint = "/v1/async/img";
         }
         
-        String baseUrl = configApi.getConfigValueByKey(BASE_URL);
-        if (baseUrl == null || baseUrl.trim().isEmpty()) {
-            throw new IOException("doc2x.url 配置未设置或为空");
-        }
-        baseUrl = baseUrl.trim();
+        String baseUrl = config.getBaseUrl();
         String url = baseUrl + endpoint;
 
         Map<String, Object> param = new HashMap<String, Object>();
@@ -99,11 +116,7 @@ public class Pdf2MdUtil {
         param.put("ocr", "true");
         Map<String, String> header = new HashMap<>();
 
-        String apiKey = configApi.getConfigValueByKey(API_KEY);
-        if (apiKey == null || apiKey.trim().isEmpty()) {
-            throw new IOException("doc2x.key 配置未设置或为空");
-        }
-        header.put("Authorization", "Bearer " + apiKey.trim());
+        header.put("Authorization", "Bearer " + config.getApiKey());
 
         // 添加详细日志
         log.info("PDF转Markdown请求 - URL: {}, 参数: {}, 文件: {}", url, param, fileUrl);
@@ -140,62 +153,46 @@ public class Pdf2MdUtil {
         return jsonResponse.getJSONObject("data").getString("uuid");
     }
 
-    private String pollTaskStatus(String uuid, String type) throws IOException, InterruptedException {
-        String status;
-        StringBuilder content = new StringBuilder();
-        long startTime = System.currentTimeMillis();
-        long timeout = 60 * 1000; // 1 minute timeout
-
-        do {
-            if (System.currentTimeMillis() - startTime > timeout) {
-                throw new IOException("任务轮询超时，超过1分钟。");
-            }
-
-            try {
-                Thread.sleep(1000); // Wait for 1 second before polling again
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new InterruptedException("轮询被中断。");
-            }
-
-            String baseUrl = configApi.getConfigValueByKey(BASE_URL);
-            if (baseUrl == null || baseUrl.trim().isEmpty()) {
-                throw new IOException("doc2x.url 配置未设置或为空");
-            }
-            baseUrl = baseUrl.trim();
-            String url = baseUrl + "/api/v1/async/status?uuid=" + uuid;
-
-            String apiKey = configApi.getConfigValueByKey(API_KEY);
-            if (apiKey == null || apiKey.trim().isEmpty()) {
-                throw new IOException("doc2x.key 配置未设置或为空");
-            }
-
-            HttpUtils.HttpRequest httpRequest = HttpUtils.HttpRequest.get(url);
-            httpRequest.addHeaders("Authorization", "Bearer " + apiKey.trim());
+    /**
+     * 查询一次 doc2x 识别任务的状态，不等待
+     *
+     * @param uuid doc2x 任务编号
+     * @param type 解析类型，markdown 或 text
+     * @param config doc2x 配置
+     * @return 识别结果；任务未完成时返回 null
+     * @throws IOException 查询失败，或者识别失败
+     */
+    public String queryRecognitionTask(String uuid, String type, Doc2xConfig config) throws IOException {
+        String url = config.getBaseUrl() + "/api/v1/async/status?uuid=" + uuid;
+        HttpUtils.HttpRequest httpRequest = HttpUtils.HttpRequest.get(url);
+        httpRequest.addHeaders("Authorization", "Bearer " + config.getApiKey());
 
-            HttpUtils.HttpResponse response = HttpUtils.request(httpRequest);
-            if (response.getStatus() != 200) {
-                throw new IOException("获取任务状态失败，http状态码=" + response.getStatus());
-            }
+        HttpUtils.HttpResponse response = HttpUtils.request(httpRequest);
+        if (response.getStatus() != 200) {
+            throw new IOException("获取任务状态失败，http状态码=" + response.getStatus());
+        }
 
-            JSONObject jsonResponse = response.getResponseToJson();
-            status = jsonResponse.getJSONObject("data").getString("status");
-            if ("success".equals(status)) {
-                jsonResponse.getJSONObject("data").getJSONObject("result").getJSONArray("pages").forEach(page -> {
-                    JSONObject pageObject = (JSONObject) page;
-                    if ("markdown".equalsIgnoreCase(type)) {
-                        content.append(pageObject.getString("md")).append("\n");
-                    } else if ("text".equalsIgnoreCase(type)) {
-                        String markdown = pageObject.getString("md");
-                        Parser parser = Parser.builder().build();
-                        Node document = parser.parse(markdown);
-                        TextContentRenderer renderer = TextContentRenderer.builder().build();
-                        content.append(renderer.render(document)).append("\n");
-                    }
-                });
+        JSONObject data = response.getResponseToJson().getJSONObject("data");
+        String status = data.getString("status");
+        if ("failed".equals(status)) {
+            throw new IOException("识别失败：" + data.getString("detail"));
+        }
+        if (!"success".equals(status)) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder();
+        data.getJSONObject("result").getJSONArray("pages").forEach(page -> {
+            JSONObject pageObject = (JSONObject) page;
+            if ("markdown".equalsIgnoreCase(type)) {
+                content.append(pageObject.getString("md")).append("\n");
+            } else if ("text".equalsIgnoreCase(type)) {
+                String markdown = pageObject.getString("md");
+                Parser parser = Parser.builder().build();
+                Node document = parser.parse(markdown);
+                TextContentRenderer renderer = TextContentRenderer.builder().build();
+                content.append(renderer.render(document)).append("\n");
             }
-        } while (!"success".equals(status));
-
+        });
         return content.toString();
     }
 
@@ -261,13 +258,21 @@ public class Pdf2MdUtil {
         }
     }
 
-    public static void main(String[] args) {
-        Pdf2MdUtil service = new Pdf2MdUtil();
-        try {
-            String markdown = service.recognizeMarkdown("https://easegenedu.obs.cn-north-9.myhuaweicloud.com/数字化管理师-第一章-第一节.pdf", "text");
-            System.out.println("Recognized Markdown:\n" + markdown);
-        } catch (IOException | InterruptedException e) {
-            e.printStackTrace();
-        }
+    /**
+     * doc2x 的配置
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Doc2xConfig {
+
+        /**
+         * 接口地址
+         */
+        private final String baseUrl;
+        /**
+         * 密钥
+         */
+        private final String apiKey;
+
     }
 }
@@ -1,23 +1,37 @@
 package cn.iocoder.yudao.module.digitalcourse.util;
 
-import cn.hutool.core.codec.Base64;
-import cn.hutool.core.io.FileUtil;
-import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.HttpUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
 import cn.iocoder.yudao.module.infra.api.file.FileApi;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 public class SrtToVttUtil {
 
+    /**
+     * 下载 .srt 文件的超时时间（毫秒）
+     */
+    private static final int DOWNLOAD_TIMEOUT_MILLIS = 30 * 1000;
+
+    /**
+     * SRT 时间轴，例如 00:00:01,500 --> 00:00:03,000；兼容 . 分隔的毫秒、不补零的时分秒，以及末尾的坐标等附加信息
+     */
+    private static final Pattern TIMING_PATTERN = Pattern.compile(
+            "^\\s*(\\d+):(\\d{1,2}):(\\d{1,2})[,.](\\d{1,3})\\s*-->\\s*(\\d+):(\\d{1,2}):(\\d{1,2})[,.](\\d{1,3}).*$");
+
+    private static final char BOM = '\uFEFF';
+
     // 替换为你实际的文件 API
     @Resource
     private FileApi fileApi;
@@ -25,106 +39,185 @@ public class SrtToVttUtil {
 
     /**
      * 将 .srt 文件从 URL 下载并转换为 .vtt 文件，上传后返回 .vtt 文件 URL。
+     *
+     * 下载流边读边转换，全程在内存中完成，不落临时文件
+     *
      * @param srtUrl .srt 文件的 URL
      * @return 上传后 .vtt 文件的 URL
      * @throws IOException 下载或转换过程中的异常
      */
     public String convertAndUploadSrtToVtt(String srtUrl) throws IOException {
         // 为每个请求生成唯一文件名，确保文件名不冲突
-        String uniqueId = UUID.randomUUID().toString();
-        String vttFileName = "converted_" + uniqueId + ".vtt";
-
-        // 下载 .srt 文件
-        byte[] srtContent = downloadFile(srtUrl);
-
-        // 创建临时文件名
-        File tempSrtFile = new File(System.getProperty("java.io.tmpdir"), "tempSrt_" + uniqueId + ".srt");
-        File tempVttFile = new File(System.getProperty("java.io.tmpdir"), "tempVtt_" + uniqueId + ".vtt");
-
-        try {
-            // 写入 .srt 内容到临时文件
-            FileUtil.writeBytes(srtContent, tempSrtFile);
-
-            // 转换 .srt 为 .vtt
-            convertSrtToVtt(tempSrtFile, tempVttFile);
-
-            // 上传 .vtt 文件并获取 URL
-            return uploadFile(vttFileName, tempVttFile);
+        String vttFileName = "converted_" + UUID.randomUUID() + ".vtt";
+
+        // 下载并转换 .srt 文件
+        log.info("Downloading file from URL: " + srtUrl);
+        ByteArrayOutputStream vttContent = new ByteArrayOutputStream();
+        try (HttpResponse response = HttpRequest.get(srtUrl).timeout(DOWNLOAD_TIMEOUT_MILLIS).executeAsync()) {
+            if (!response.isOk()) {
+                throw new IOException("Failed to download file from URL: " + srtUrl + ", status: " + response.getStatus());
+            }
+            try (Reader reader = new InputStreamReader(response.bodyStream(), StandardCharsets.UTF_8);
+                 Writer writer = new OutputStreamWriter(vttContent, StandardCharsets.UTF_8)) {
+                convertSrtToVtt(reader, writer);
+            }
         } catch (IOException e) {
-            log.error("Error during conversion or upload: " + e.getMessage());
-            throw e; // 重新抛出异常
-        } finally {
-            // 始终删除临时文件，确保资源释放
-            if (tempSrtFile.exists()) tempSrtFile.delete();
-            if (tempVttFile.exists()) tempVttFile.delete();
+            log.error("Error during conversion: " + e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error downloading file: " + e.getMessage());
+            throw new IOException("Failed to download file from URL: " + srtUrl, e);
         }
+
+        // 上传 .vtt 文件并获取 URL
+        return uploadFile(vttFileName, vttContent.toByteArray());
     }
 
     /**
-     * 下载文件内容
-     * @param fileUrl 文件 URL
-     * @return 文件内容字节数组
+     * 异步将 .srt 文件转换为 .vtt 文件并上传，避免阻塞调用方（例如合成结果回刷任务）
+     * @param srtUrl .srt 文件的 URL
+     * @return 上传后 .vtt 文件的 URL
      */
-    private byte[] downloadFile(String fileUrl) throws IOException {
-        log.info("Downloading file from URL: " + fileUrl);
+    @Async
+    public CompletableFuture<String> convertAndUploadSrtToVttAsync(String srtUrl) {
         try {
-            return HttpUtil.downloadBytes(fileUrl);
-        } catch (Exception e) {
-            log.error("Error downloading file: " + e.getMessage());
-            throw new IOException("Failed to download file from URL: " + fileUrl, e);
+            return CompletableFuture.completedFuture(convertAndUploadSrtToVtt(srtUrl));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     /**
-     * 将 .srt 文件转换为 .vtt 格式
-     * @param srtFile 输入 .srt 文件
-     * @param vttFile 输出 .vtt 文件
-     * @throws IOException 文件操作异常
+     * 将 .srt 内容单遍转换为 .vtt 格式
+     *
+     * 1. 时间轴统一为 HH:MM:SS.mmm，并去掉 SRT 的坐标等附加信息
+     * 2. 时间非法（分、秒超过 59，或者结束早于开始）的字幕块整体跳过
+     * 3. 字幕文本中的 --> 在 VTT 中不合法，转义为 --&gt;
+     *
+     * @param reader 输入 .srt 内容
+     * @param writer 输出 .vtt 内容
+     * @throws IOException 读写异常
      */
-    private void convertSrtToVtt(File srtFile, File vttFile) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(srtFile, StandardCharsets.UTF_8));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(vttFile, StandardCharsets.UTF_8))) {
-
-            // 在 .vtt 文件开头添加 `WEBVTT` 头
-            writer.write("WEBVTT\n\n");
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // 转换时间戳格式，将 `,` 替换为 `.`
-                if (line.contains("-->")) {
-                    line = line.replace(",", ".");
+    public static void convertSrtToVtt(Reader reader, Writer writer) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        // 在 .vtt 文件开头添加 `WEBVTT` 头
+        writer.write("WEBVTT\n");
+
+        String identifier = null; // 时间轴之前的序号行
+        boolean inCue = false; // 是否处于有效字幕块的文本中
+        boolean skipCue = false; // 是否处于被跳过字幕块的文本中
+        int skippedCount = 0;
+        String line;
+        boolean firstLine = true;
+        while ((line = bufferedReader.readLine()) != null) {
+            if (firstLine && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+            firstLine = false;
+
+            // 空行结束当前字幕块
+            if (line.trim().isEmpty()) {
+                identifier = null;
+                inCue = false;
+                skipCue = false;
+                continue;
+            }
+            if (inCue) {
+                writer.write(line.replace("-->", "--&gt;"));
+                writer.write('\n');
+                continue;
+            }
+            if (skipCue) {
+                continue;
+            }
+            if (!line.contains("-->")) {
+                // 时间轴之前只允许一行序号，多出的视为无效内容
+                if (identifier != null) {
+                    skipCue = true;
+                    skippedCount++;
+                } else {
+                    identifier = line.trim();
                 }
-                // 写入 .vtt 文件
-                writer.write(line);
-                writer.write("\n");
+                continue;
             }
 
-            log.info("Successfully converted .srt to .vtt");
-        } catch (IOException e) {
-            log.error("Error converting .srt to .vtt: " + e.getMessage());
-            throw e;
+            String timing = normalizeTiming(line);
+            if (timing == null) {
+                skipCue = true;
+                skippedCount++;
+                continue;
+            }
+            writer.write('\n');
+            if (identifier != null) {
+                writer.write(identifier);
+                writer.write('\n');
+            }
+            writer.write(timing);
+            writer.write('\n');
+            inCue = true;
         }
+        writer.flush();
+
+        if (skippedCount > 0) {
+            log.warn("Skipped {} invalid cue(s) while converting .srt to .vtt", skippedCount);
+        }
+    }
+
+    /**
+     * 校验并规范化时间轴
+     *
+     * @param line SRT 时间轴
+     * @return VTT 时间轴；非法时返回 null
+     */
+    private static String normalizeTiming(String line) {
+        Matcher matcher = TIMING_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+        long start = toMillis(matcher.group(1), matcher.group(2), matcher.group(3), matcher.group(4));
+        long end = toMillis(matcher.group(5), matcher.group(6), matcher.group(7), matcher.group(8));
+        if (start < 0 || end < 0 || end < start) {
+            return null;
+        }
+        return formatMillis(start) + " --> " + formatMillis(end);
+    }
+
+    private static long toMillis(String hours, String minutes, String seconds, String millis) {
+        int minute = Integer.parseInt(minutes);
+        int second = Integer.parseInt(seconds);
+        if (minute > 59 || second > 59) {
+            return -1;
+        }
+        // 毫秒是小数部分，不足三位时右侧补零，例如 ,5 表示 500 毫秒
+        StringBuilder fraction = new StringBuilder(millis);
+        while (fraction.length() < 3) {
+            fraction.append('0');
+        }
+        return ((Long.parseLong(hours) * 60 + minute) * 60 + second) * 1000 + Integer.parseInt(fraction.toString());
+    }
+
+    private static String formatMillis(long millis) {
+        return String.format("%02d:%02d:%02d.%03d", millis / 3600000, millis / 60000 % 60, millis / 1000 % 60, millis % 1000);
     }
 
     /**
      * 上传文件到文件服务
      * @param fileName 文件名称，带有 .vtt 扩展名
-     * @param file 要上传的文件
+     * @param fileContent 文件内容
      * @return 上传后文件的 URL
-     * @throws IOException 文件读取异常
+     * @throws IOException 上传异常
      */
-    private String uploadFile(String fileName, File file) throws IOException {
+    private String uploadFile(String fileName, byte[] fileContent) throws IOException {
         try {
-            byte[] fileContent = FileUtil.readBytes(file);
             // 指定文件路径（你可以根据实际情况设置）
             String filePath = "uploads/vtt/"+fileName;
             // 上传文件到文件服务
             String fileUrl = fileApi.createFile(fileName, filePath, fileContent);
-            System.out.println("File uploaded successfully. File URL: " + fileUrl);
+            log.info("File uploaded successfully. File URL: " + fileUrl);
             return fileUrl;
         } catch (Exception e) {
-            System.err.println("Error uploading file: " + e.getMessage());
+            log.error("Error uploading file: " + e.getMessage());
             throw new IOException("Failed to upload file", e);
         }
     }
-}
\ No newline at end of file
+}
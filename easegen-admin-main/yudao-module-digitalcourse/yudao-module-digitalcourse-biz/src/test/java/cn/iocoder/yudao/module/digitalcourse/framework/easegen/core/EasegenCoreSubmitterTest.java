@@ -0,0 +1,148 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.easegen.core;
+
+import cn.iocoder.yudao.module.digitalcourse.framework.easegen.config.EasegenCoreProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link EasegenCoreSubmitter} 的单元测试
+ */
+public class EasegenCoreSubmitterTest {
+
+    private static final String ENDPOINT = "/api/test";
+
+    private final List<Exception> failures = new CopyOnWriteArrayList<>();
+
+    private EasegenCoreSubmitter submitter;
+
+    @AfterEach
+    public void tearDown() {
+        if (submitter != null) {
+            submitter.destroy();
+        }
+    }
+
+    @Test
+    public void testSubmit_circuitOpenNotCountAttempt() throws InterruptedException {
+        // 准备参数：失败 1 次即熔断，最多尝试 2 次；重试时仍在熔断中
+        EasegenCoreProperties properties = new EasegenCoreProperties();
+        properties.setMaxAttempts(2);
+        properties.setRetryInitialDelay(Duration.ofMillis(10));
+        properties.setCircuitBreakerFailureThreshold(1);
+        properties.setCircuitBreakerOpenDuration(Duration.ofMillis(300));
+        submitter = new EasegenCoreSubmitter(properties);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch success = new CountDownLatch(1);
+
+        // 调用
+        long startTime = System.currentTimeMillis();
+        submitter.submit(ENDPOINT, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("第一次失败");
+            }
+            success.countDown();
+        }, failures::add);
+        // 断言：熔断结束后执行第二次尝试并成功，熔断期间的等待不消耗尝试次数
+        assertTrue(success.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - startTime >= 300);
+        assertEquals(2, calls.get());
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    public void testSubmit_rejectWhenCircuitOpen() throws InterruptedException {
+        // 准备参数：失败 1 次即熔断，只尝试 1 次
+        EasegenCoreProperties properties = new EasegenCoreProperties();
+        properties.setMaxAttempts(1);
+        properties.setCircuitBreakerFailureThreshold(1);
+        properties.setCircuitBreakerOpenDuration(Duration.ofSeconds(10));
+        submitter = new EasegenCoreSubmitter(properties);
+        submitter.submit(ENDPOINT, () -> {
+            throw new IllegalStateException("失败");
+        }, failures::add);
+        waitUntil(() -> failures.size() == 1);
+
+        // 调用：熔断中提交
+        AtomicInteger calls = new AtomicInteger();
+        submitter.submit(ENDPOINT, calls::incrementAndGet, failures::add);
+        // 断言：直接拒绝，不会等待熔断结束
+        assertEquals(2, failures.size());
+        assertInstanceOf(RejectedExecutionException.class, failures.get(1));
+        assertEquals(0, calls.get());
+        // 调用：其它接口不受影响
+        CountDownLatch success = new CountDownLatch(1);
+        submitter.submit("/api/other", success::countDown, failures::add);
+        assertTrue(success.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSubmit_requeueWhenQueueFull() throws InterruptedException {
+        // 准备参数：1 个线程、队列容量 1
+        EasegenCoreProperties properties = new EasegenCoreProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryInitialDelay(Duration.ofMillis(50));
+        submitter = new EasegenCoreSubmitter(properties);
+        // 请求 A：第一次失败，等待重试
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch retried = new CountDownLatch(1);
+        submitter.submit(ENDPOINT, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("第一次失败");
+            }
+            retried.countDown();
+        }, failures::add);
+        waitUntil(() -> calls.get() == 1 && submitter.getInFlightCount() == 0);
+        // 请求 B 占住线程、请求 C 占满队列
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submitter.submit(ENDPOINT, () -> {
+            started.countDown();
+            release.await();
+        }, failures::add);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        submitter.submit(ENDPOINT, () -> {}, failures::add);
+
+        // 调用：A 重试时队列已满
+        Thread.sleep(200);
+        // 断言：A 未被判定失败，释放后重试成功
+        assertTrue(failures.isEmpty());
+        release.countDown();
+        assertTrue(retried.await(5, TimeUnit.SECONDS));
+        assertTrue(failures.isEmpty());
+
+        // 调用：首次提交时队列已满，直接拒绝
+        CountDownLatch release2 = new CountDownLatch(1);
+        CountDownLatch started2 = new CountDownLatch(1);
+        submitter.submit(ENDPOINT, () -> {
+            started2.countDown();
+            release2.await();
+        }, failures::add);
+        assertTrue(started2.await(5, TimeUnit.SECONDS));
+        submitter.submit(ENDPOINT, () -> {}, failures::add);
+        submitter.submit(ENDPOINT, () -> {}, failures::add);
+        // 断言
+        assertEquals(1, failures.size());
+        release2.countDown();
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(5);
+        }
+    }
+
+}
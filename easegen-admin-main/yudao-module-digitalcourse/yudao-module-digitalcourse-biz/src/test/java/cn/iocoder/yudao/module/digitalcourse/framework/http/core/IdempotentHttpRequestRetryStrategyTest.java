@@ -0,0 +1,54 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.http.core;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.NoHttpResponseException;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link IdempotentHttpRequestRetryStrategy} 的单元测试
+ */
+public class IdempotentHttpRequestRetryStrategyTest {
+
+    private static final String URL = "http://127.0.0.1/api/test";
+
+    private final IdempotentHttpRequestRetryStrategy strategy = new IdempotentHttpRequestRetryStrategy(1, TimeValue.ofSeconds(1));
+
+    @Test
+    public void testRetryRequest_response() {
+        // 幂等请求：重试
+        assertTrue(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE), 1, buildContext(new HttpGet(URL))));
+        assertTrue(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_TOO_MANY_REQUESTS), 1, buildContext(new HttpGet(URL))));
+        // 超过最大重试次数：不重试
+        assertFalse(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE), 2, buildContext(new HttpGet(URL))));
+        // 非幂等请求：不重试
+        assertFalse(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE), 1, buildContext(new HttpPost(URL))));
+        assertFalse(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_TOO_MANY_REQUESTS), 1, buildContext(new HttpPost(URL))));
+        // 无法确定请求：不重试
+        assertFalse(strategy.retryRequest(new BasicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE), 1, HttpClientContext.create()));
+    }
+
+    @Test
+    public void testRetryRequest_exception() {
+        HttpGet get = new HttpGet(URL);
+        assertTrue(strategy.retryRequest(get, new NoHttpResponseException("test"), 1, buildContext(get)));
+        HttpPost post = new HttpPost(URL);
+        assertFalse(strategy.retryRequest(post, new NoHttpResponseException("test"), 1, buildContext(post)));
+    }
+
+    private static HttpClientContext buildContext(HttpRequest request) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpCoreContext.HTTP_REQUEST, request);
+        return context;
+    }
+
+}
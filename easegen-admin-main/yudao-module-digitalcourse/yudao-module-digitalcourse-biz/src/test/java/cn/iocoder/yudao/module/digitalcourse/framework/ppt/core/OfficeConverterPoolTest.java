@@ -0,0 +1,105 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.hutool.core.io.FileUtil;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xslf.usermodel.SlideLayout;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * {@link OfficeConverterPool} 的单元测试，需要本机安装 LibreOffice，未安装时跳过
+ *
+ * @author 芋道源码
+ */
+public class OfficeConverterPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OfficeConverterPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        assumeTrue(LocalOfficeUtils.getDefaultOfficeHome() != null, "未安装 LibreOffice");
+        PptProperties.Converter properties = new PptProperties.Converter();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(0);
+        pool = new OfficeConverterPool(properties);
+        assertTrue(pool.isAvailable());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.destroy();
+        }
+    }
+
+    @Test
+    public void testConvert_pptxToPdf() throws IOException {
+        // 准备参数
+        File source = createDeck("deck");
+        File target = tempDir.resolve("deck.pdf").toFile();
+
+        // 调用
+        pool.convert(source, target);
+        // 断言：生成 PDF，且许可已归还
+        assertTrue(target.length() > 0);
+        assertTrue(new String(FileUtil.readBytes(target), 0, 4, StandardCharsets.US_ASCII).startsWith("%PDF"));
+        assertEquals(0, pool.getInFlightCount());
+    }
+
+    @Test
+    public void testConvert_rejectWhenQueueFull() throws IOException {
+        // mock 数据：进程数 1、队列 0，唯一的许可被占用
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(pool, "permits");
+        assertNotNull(permits);
+        assertTrue(permits.tryAcquire());
+        File source = createDeck("deck");
+        File target = tempDir.resolve("deck.pdf").toFile();
+
+        // 调用：直接拒绝，不等待
+        assertThrows(RejectedExecutionException.class, () -> pool.convert(source, target));
+        // 断言
+        assertFalse(target.exists());
+        assertEquals(1D, registry.get("office.converter.rejected").functionCounter().count());
+
+        // 调用：许可归还后，可以继续转换
+        permits.release();
+        pool.convert(source, target);
+        assertTrue(target.length() > 0);
+    }
+
+    private File createDeck(String name) throws IOException {
+        File file = tempDir.resolve(name + ".pptx").toFile();
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            XSLFSlide slide = ppt.createSlide(ppt.getSlideMasters().get(0).getLayout(SlideLayout.TITLE_ONLY));
+            slide.getPlaceholder(0).setText("测试页面");
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                ppt.write(out);
+            }
+        }
+        return file;
+    }
+
+}
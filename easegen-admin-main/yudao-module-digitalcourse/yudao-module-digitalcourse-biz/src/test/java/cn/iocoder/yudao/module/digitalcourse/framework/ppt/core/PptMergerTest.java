@@ -0,0 +1,153 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import cn.iocoder.yudao.framework.test.core.util.BenchmarkUtils;
+import cn.iocoder.yudao.module.digitalcourse.framework.ppt.config.PptProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.xslf.usermodel.*;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link PptMerger} 的单元测试
+ */
+@Slf4j
+public class PptMergerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testMerge() throws IOException {
+        // 准备参数：3 个使用相同模板的文件，分别有 2、3、1 页
+        List<File> sources = Arrays.asList(createDeck("a", 2, 0), createDeck("b", 3, 0), createDeck("c", 1, 0));
+        File target = tempDir.resolve("merged.pptx").toFile();
+
+        // 调用
+        newMerger().merge(sources, target);
+        // 断言：页数、文本按顺序追加，相同模板的版式复用，不新增母版
+        try (XMLSlideShow merged = new XMLSlideShow(new FileInputStream(target))) {
+            List<XSLFSlide> slides = merged.getSlides();
+            assertEquals(6, slides.size());
+            assertEquals(Arrays.asList("a-0", "a-1", "b-0", "b-1", "b-2", "c-0"), getTitles(slides));
+            assertEquals(1, merged.getSlideMasters().size());
+            XSLFSlideMaster master = merged.getSlideMasters().get(0);
+            slides.forEach(slide -> assertSame(master, slide.getSlideMaster()));
+            assertEquals(SlideLayout.TITLE_ONLY, slides.get(5).getSlideLayout().getType());
+        }
+        // 断言：源文件不被修改
+        try (XMLSlideShow first = new XMLSlideShow(new FileInputStream(sources.get(0)))) {
+            assertEquals(2, first.getSlides().size());
+        }
+    }
+
+    /**
+     * 合并的基准：N 页合并时的耗时与堆峰值，与整体读入内存的旧实现对比，需要时手动执行
+     */
+    @Test
+    @Disabled("性能对比，手动执行")
+    public void benchmarkMerge() throws Exception {
+        for (int slides : new int[]{50, 200}) {
+            List<File> sources = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                sources.add(createDeck("deck" + i, slides, 256 * 1024));
+            }
+            long fileSize = sources.stream().mapToLong(File::length).sum();
+            File target = tempDir.resolve("merged-" + slides + ".pptx").toFile();
+
+            // 耗时
+            Map<String, BenchmarkUtils.TaskFactory> candidates = new LinkedHashMap<>();
+            candidates.put("PptMerger", () -> () -> newMerger().merge(sources, target));
+            candidates.put("整体读入内存", () -> () -> mergeInMemory(sources));
+            BenchmarkUtils.compare("合并 4 x " + slides + " 页", 1, 3, 1, candidates);
+            // 堆峰值：与耗时分开测量，避免交替执行时相互影响
+            long streaming = measurePeakHeap(() -> newMerger().merge(sources, target));
+            long inMemory = measurePeakHeap(() -> mergeInMemory(sources));
+            log.info("[benchmarkMerge][4 x {} 页，文件共 {} MB：PptMerger 堆峰值 {} MB，整体读入内存 {} MB]",
+                    slides, fileSize >> 20, streaming >> 20, inMemory >> 20);
+        }
+    }
+
+    private static PptMerger newMerger() {
+        return new PptMerger(new PptProperties.Merge());
+    }
+
+    private File createDeck(String name, int slideCount, int pictureSize) throws IOException {
+        File file = tempDir.resolve(name + ".pptx").toFile();
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            XSLFSlideMaster master = ppt.getSlideMasters().get(0);
+            for (int i = 0; i < slideCount; i++) {
+                XSLFSlideLayout layout = master.getLayout(i == slideCount - 1 ? SlideLayout.TITLE_ONLY : SlideLayout.TITLE_AND_CONTENT);
+                XSLFSlide slide = ppt.createSlide(layout);
+                slide.getPlaceholder(0).setText(name + "-" + i);
+                if (pictureSize > 0) {
+                    byte[] picture = new byte[pictureSize];
+                    ThreadLocalRandom.current().nextBytes(picture);
+                    slide.createPicture(ppt.addPicture(picture, PictureData.PictureType.PNG));
+                }
+            }
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                ppt.write(out);
+            }
+        }
+        return file;
+    }
+
+    private static List<String> getTitles(List<XSLFSlide> slides) {
+        List<String> titles = new ArrayList<>();
+        slides.forEach(slide -> titles.add(slide.getPlaceholder(0).getText()));
+        return titles;
+    }
+
+    /**
+     * 旧实现：整体读入内存，合并结果写入字节数组
+     */
+    private static void mergeInMemory(List<File> sources) throws IOException {
+        XMLSlideShow ppt = new XMLSlideShow(Files.newInputStream(sources.get(0).toPath()));
+        for (int i = 1; i < sources.size(); i++) {
+            XMLSlideShow src = new XMLSlideShow(Files.newInputStream(sources.get(i).toPath()));
+            for (XSLFSlide srcSlide : src.getSlides()) {
+                ppt.createSlide(ppt.getSlideMasters().get(0).getSlideLayouts()[0]).importContent(srcSlide);
+            }
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ppt.write(out);
+            out.toByteArray();
+        }
+    }
+
+    private static long measurePeakHeap(BenchmarkUtils.Task task) throws Exception {
+        System.gc();
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                pools.add(pool);
+            }
+        }
+        task.run();
+        return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+}
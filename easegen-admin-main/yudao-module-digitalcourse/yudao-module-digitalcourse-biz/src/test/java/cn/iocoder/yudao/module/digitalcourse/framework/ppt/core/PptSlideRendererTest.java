@@ -0,0 +1,90 @@
+package cn.iocoder.yudao.module.digitalcourse.framework.ppt.core;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.sl.usermodel.Placeholder;
+import org.apache.poi.xslf.usermodel.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PptSlideRenderer} 的单元测试
+ */
+public class PptSlideRendererTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDigestSlides() throws IOException {
+        // 准备参数：第 2 份文件修改了 b 页、调整了页面顺序，并给 a 页加了备注
+        List<String> first = digestSlides(createDeck("first", Arrays.asList("a", "b", "a"), false), "thumbnail=320");
+        List<String> second = digestSlides(createDeck("second", Arrays.asList("c", "a", "b2"), true), "thumbnail=320");
+
+        // 断言：内容相同的页面摘要相同，与页面位置、备注无关
+        assertEquals(first.get(0), first.get(2));
+        assertNotEquals(first.get(0), first.get(1));
+        assertEquals(first.get(0), second.get(1));
+        // 断言：内容变化的页面摘要不同
+        assertNotEquals(first.get(1), second.get(2));
+        assertFalse(first.contains(second.get(0)));
+        // 断言：渲染参数变化时，摘要不同
+        File deck = createDeck("third", Arrays.asList("a"), false);
+        assertNotEquals(digestSlides(deck, "thumbnail=320").get(0), digestSlides(deck, "thumbnail=0").get(0));
+    }
+
+    @Test
+    public void testScaleToWidth() throws IOException {
+        // 准备参数：16:9 的页面
+        BufferedImage image = new BufferedImage(960, 540, BufferedImage.TYPE_INT_RGB);
+
+        // 调用
+        BufferedImage thumbnail = PptSlideRenderer.scaleToWidth(image, 320);
+        // 断言：等比缩放
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(180, thumbnail.getHeight());
+        assertTrue(PptSlideRenderer.toPng(thumbnail).length > 0);
+    }
+
+    private static List<String> digestSlides(File file, String options) throws IOException {
+        OPCPackage pkg = PptSlideRenderer.openPackage(file);
+        try {
+            return PptSlideRenderer.digestSlides(new XMLSlideShow(pkg), options);
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    private File createDeck(String name, List<String> titles, boolean withNotes) throws IOException {
+        File file = tempDir.resolve(name + ".pptx").toFile();
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            XSLFSlideLayout layout = ppt.getSlideMasters().get(0).getLayout(SlideLayout.TITLE_ONLY);
+            for (String title : titles) {
+                XSLFSlide slide = ppt.createSlide(layout);
+                slide.getPlaceholder(0).setText(title);
+                if (withNotes) {
+                    XSLFNotes notes = ppt.getNotesSlide(slide);
+                    for (XSLFTextShape shape : notes.getPlaceholders()) {
+                        if (shape.getTextType() == Placeholder.BODY) {
+                            shape.setText("备注：" + title);
+                        }
+                    }
+                }
+            }
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                ppt.write(out);
+            }
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,140 @@
+package cn.iocoder.yudao.module.digitalcourse.service.courses;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.framework.test.core.util.BenchmarkUtils;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.courses.CoursesDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.courses.CoursesMapper;
+import cn.iocoder.yudao.module.digitalcourse.service.coursescenes.CourseScenesService;
+import cn.iocoder.yudao.module.system.api.user.AdminUserApi;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link CoursesServiceImpl} 的段落索引的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(CoursesServiceImpl.class)
+public class CoursesServiceImplSegmentIndexTest extends BaseRedisUnitTest {
+
+    private static final String COURSE_ID = "1";
+    private static final String SCENE_KEY = "COURSE_SCENE_TEXT_KEY:" + COURSE_ID;
+    private static final String INDEX_KEY = "COURSE_SEGMENT_INDEX_KEY:" + COURSE_ID;
+
+    @Resource
+    private CoursesServiceImpl coursesService;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockBean
+    private CoursesMapper coursesMapper;
+    @MockBean
+    private CourseScenesService courseScenesService;
+    @MockBean
+    private AdminUserApi adminUserApi;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(Arrays.asList(SCENE_KEY, INDEX_KEY));
+    }
+
+    @Test
+    public void testGetIndexedSegment_build() {
+        // mock 数据：2 个场景，共 3 个段落
+        mockScenes(Arrays.asList("第一段，第二段。", "第三段"));
+
+        // 调用：索引不存在，从场景缓存构建
+        Object segment = getIndexedSegment(2);
+        // 断言
+        assertEquals("第二段", ReflectionTestUtils.getField(segment, "text"));
+        assertEquals(3, ReflectionTestUtils.getField(segment, "totalNo"));
+        assertEquals("3", stringRedisTemplate.opsForHash().get(INDEX_KEY, "total"));
+        // 断言：正式 key 不过期，临时 key 已被 rename
+        assertEquals(-1L, stringRedisTemplate.getExpire(INDEX_KEY));
+        assertEquals(Collections.singleton(INDEX_KEY), stringRedisTemplate.keys(INDEX_KEY + "*"));
+    }
+
+    @Test
+    public void testGetIndexedSegment_rebuildWhenVersionMismatch() {
+        // mock 数据：旧格式的索引
+        mockScenes(Collections.singletonList("新的第一段，新的第二段"));
+        stringRedisTemplate.opsForHash().putAll(INDEX_KEY, Map.of("total", "1", "version", "0", "1", "\n旧的段落"));
+
+        // 调用
+        Object segment = getIndexedSegment(1);
+        // 断言：版本不一致，重建索引
+        assertEquals("新的第一段", ReflectionTestUtils.getField(segment, "text"));
+        assertEquals("2", stringRedisTemplate.opsForHash().get(INDEX_KEY, "total"));
+    }
+
+    @Test
+    public void testDeleteCourses_deleteCache() {
+        // mock 数据
+        mockScenes(Collections.singletonList("第一段"));
+        getIndexedSegment(1);
+        when(coursesMapper.selectById(eq(Long.valueOf(COURSE_ID)))).thenReturn(new CoursesDO());
+
+        // 调用
+        coursesService.deleteCourses(Long.valueOf(COURSE_ID));
+        // 断言
+        assertFalse(stringRedisTemplate.hasKey(SCENE_KEY));
+        assertFalse(stringRedisTemplate.hasKey(INDEX_KEY));
+    }
+
+    /**
+     * 获取一个段落时，「GET 场景缓存 + 反序列化 + 拆分整个课程」与「HMGET 段落索引」的耗时对比，需要时手动执行
+     */
+    @Test
+    @Disabled("性能对比，手动执行")
+    public void testGetIndexedSegment_benchmark() throws Exception {
+        // mock 数据：100 个场景，每个场景 20 个段落
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < 20; j++) {
+                text.append("这是第 ").append(i).append(" 个场景的第 ").append(j).append(" 个段落，");
+            }
+            texts.add(text.toString());
+        }
+        mockScenes(texts);
+        int total = 100 * 20;
+
+        Map<String, BenchmarkUtils.TaskFactory> candidates = new LinkedHashMap<>();
+        candidates.put("GET + 反序列化 + 拆分", () -> () -> {
+            List<?> scenes = ReflectionTestUtils.invokeMethod(coursesService, "fetchScenesByCourseId", COURSE_ID);
+            List<?> segments = ReflectionTestUtils.invokeMethod(coursesService, "splitScenesIntoSegments", scenes);
+            assertNotNull(segments.get(ThreadLocalRandom.current().nextInt(total)));
+        });
+        candidates.put("HMGET 段落索引", () -> () ->
+                assertNotNull(getIndexedSegment(ThreadLocalRandom.current().nextInt(total) + 1)));
+        BenchmarkUtils.compare("获取 1 个段落，课程共 " + total + " 段", 3, 5, 200, candidates);
+    }
+
+    private void mockScenes(List<String> texts) {
+        Map<String, Map<String, String>> scenesMap = new HashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            scenesMap.put(String.valueOf(i + 1), Map.of("text", texts.get(i), "background", "http://test/" + i + ".png"));
+        }
+        stringRedisTemplate.opsForValue().set(SCENE_KEY, JsonUtils.toJsonString(scenesMap));
+    }
+
+    private Object getIndexedSegment(int no) {
+        return ReflectionTestUtils.invokeMethod(coursesService, "getIndexedSegment", COURSE_ID, no);
+    }
+
+}
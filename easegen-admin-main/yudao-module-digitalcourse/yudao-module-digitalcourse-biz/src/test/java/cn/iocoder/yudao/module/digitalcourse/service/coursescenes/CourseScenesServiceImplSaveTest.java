@@ -0,0 +1,115 @@
+package cn.iocoder.yudao.module.digitalcourse.service.coursescenes;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursescenebackgrounds.vo.AppCourseSceneBackgroundsSaveReqVO;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursescenes.vo.AppCourseScenesSaveReqVO;
+import cn.iocoder.yudao.module.digitalcourse.controller.admin.coursescenetexts.vo.AppCourseSceneTextsSaveReqVO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenebackgrounds.CourseSceneBackgroundsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenes.CourseScenesDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.coursescenetexts.CourseSceneTextsDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursesceneaudios.CourseSceneAudiosMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenebackgrounds.CourseSceneBackgroundsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenecomponents.CourseSceneComponentsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenes.CourseScenesMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenetexts.CourseSceneTextsMapper;
+import cn.iocoder.yudao.module.digitalcourse.dal.mysql.coursescenevoices.CourseSceneVoicesMapper;
+import cn.iocoder.yudao.module.digitalcourse.framework.course.config.CourseLoadProperties;
+import cn.iocoder.yudao.module.digitalcourse.service.coursesceneaudios.CourseSceneAudiosService;
+import cn.iocoder.yudao.module.digitalcourse.service.coursescenebackgrounds.CourseSceneBackgroundsService;
+import cn.iocoder.yudao.module.digitalcourse.service.coursescenecomponents.CourseSceneComponentsService;
+import cn.iocoder.yudao.module.digitalcourse.service.coursescenetexts.CourseSceneTextsService;
+import cn.iocoder.yudao.module.digitalcourse.service.coursescenevoices.CourseSceneVoicesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link CourseScenesServiceImpl#saveCourseScenes(Long, java.util.List)} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CourseScenesServiceImplSaveTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private CourseScenesServiceImpl courseScenesService;
+
+    @Mock
+    private CourseScenesMapper courseScenesMapper;
+    @Mock
+    private CourseSceneBackgroundsService backgroundsService;
+    @Mock
+    private CourseSceneComponentsService componentsService;
+    @Mock
+    private CourseSceneVoicesService voicesService;
+    @Mock
+    private CourseSceneTextsService textsService;
+    @Mock
+    private CourseSceneAudiosService audiosService;
+    @Mock
+    private CourseSceneBackgroundsMapper backgroundsMapper;
+    @Mock
+    private CourseSceneComponentsMapper componentsMapper;
+    @Mock
+    private CourseSceneVoicesMapper voicesMapper;
+    @Mock
+    private CourseSceneTextsMapper textsMapper;
+    @Mock
+    private CourseSceneAudiosMapper audiosMapper;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(courseScenesService, "courseLoadExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(courseScenesService, "courseLoadProperties", new CourseLoadProperties());
+    }
+
+    @Test
+    public void testSaveCourseScenes_removeChild() {
+        // mock 数据：场景有背景和文本
+        CourseScenesDO dbScene = CourseScenesDO.builder().id(1L).courseId(10).orderNo(1).status(0).build();
+        when(courseScenesMapper.selectList(any())).thenReturn(Collections.singletonList(dbScene));
+        AppCourseSceneBackgroundsSaveReqVO dbBackground = new AppCourseSceneBackgroundsSaveReqVO();
+        dbBackground.setId(100L);
+        dbBackground.setSceneId(1L);
+        dbBackground.setSrc("a.png");
+        dbBackground.setStatus(0);
+        when(backgroundsService.selectBackgroudByScenesCourseIds(anySet())).thenReturn(Collections.singletonList(dbBackground));
+        AppCourseSceneTextsSaveReqVO dbText = new AppCourseSceneTextsSaveReqVO();
+        dbText.setId(200L);
+        dbText.setSceneId(1L);
+        dbText.setStatus(0);
+        when(textsService.selectTextByScenesCourseIds(anySet())).thenReturn(Collections.singletonList(dbText));
+        // 准备参数：移除背景，文本不变
+        AppCourseSceneTextsSaveReqVO text = new AppCourseSceneTextsSaveReqVO();
+        text.setId(200L);
+        text.setSceneId(1L);
+        AppCourseScenesSaveReqVO scene = new AppCourseScenesSaveReqVO();
+        scene.setId(1L);
+        scene.setCourseId(10L);
+        scene.setOrderNo(1L);
+        scene.setStatus(0);
+        scene.setTextDriver(text);
+
+        // 调用
+        Integer rows = courseScenesService.saveCourseScenes(10L, Collections.singletonList(scene));
+        // 断言：只物理删除被移除的背景，不经过 Service 逐条校验
+        assertEquals(1, rows);
+        verify(backgroundsMapper).physicalDelete(eq(Collections.singleton(1L)));
+        verify(backgroundsMapper, never()).updateById(any(CourseSceneBackgroundsDO.class));
+        verify(textsMapper, never()).updateById(any(CourseSceneTextsDO.class));
+        verify(textsMapper, never()).physicalDelete(anySet());
+        verifyNoInteractions(voicesMapper, audiosMapper, componentsMapper);
+        verify(backgroundsService, never()).deleteCourseSceneBackgrounds(any());
+        verify(courseScenesMapper, never()).updateById(any(CourseScenesDO.class));
+    }
+
+}
@@ -0,0 +1,101 @@
+package cn.iocoder.yudao.module.digitalcourse.service.docparse;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.digitalcourse.dal.dataobject.docparse.DocParseJobDO;
+import cn.iocoder.yudao.module.digitalcourse.dal.redis.docparse.DocParseJobRedisDAO;
+import cn.iocoder.yudao.module.digitalcourse.enums.docparse.DocParseJobStatusEnum;
+import cn.iocoder.yudao.module.digitalcourse.framework.docparse.config.DocParseProperties;
+import cn.iocoder.yudao.module.digitalcourse.util.Pdf2MdUtil;
+import cn.iocoder.yudao.module.infra.api.websocket.WebSocketSenderApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link DocParseServiceImpl} 的单元测试，覆盖接管其它节点遗留的任务
+ *
+ * @author 芋道源码
+ */
+public class DocParseServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private DocParseServiceImpl docParseService;
+
+    @Mock
+    private DocParseJobRedisDAO docParseJobRedisDAO;
+    @Mock
+    private Pdf2MdUtil pdf2MdUtil;
+    @Mock
+    private WebSocketSenderApi webSocketSenderApi;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(docParseService, "docParseProperties", new DocParseProperties());
+        ReflectionTestUtils.setField(docParseService, "docParseExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(docParseService, "docParsePollExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    public void testPollRunningJobs_claimExpiredJobs() throws Exception {
+        // mock 数据：租约到期的 3 个任务，分别为已提交、已超时、未提交
+        DocParseJobDO submitted = buildRunningJob("1", "uuid-1", LocalDateTime.now());
+        DocParseJobDO expired = buildRunningJob("2", "uuid-2", LocalDateTime.now().minusHours(1));
+        DocParseJobDO notSubmitted = buildRunningJob("3", null, LocalDateTime.now());
+        when(docParseJobRedisDAO.getExpiredRunning(anyLong(), anyInt())).thenReturn(Arrays.asList("1", "2", "3"));
+        when(docParseJobRedisDAO.claimRunning(anyString(), anyLong(), anyLong())).thenReturn(true);
+        when(docParseJobRedisDAO.get(eq("1"))).thenReturn(submitted);
+        when(docParseJobRedisDAO.get(eq("2"))).thenReturn(expired);
+        when(docParseJobRedisDAO.get(eq("3"))).thenReturn(notSubmitted);
+        // mock 方法：已提交的完成；未提交的重新提交后完成
+        when(pdf2MdUtil.queryRecognitionTask(eq("uuid-1"), any(), any())).thenReturn("content-1");
+        when(pdf2MdUtil.submitRecognitionTask(eq("file-3"), any())).thenReturn("uuid-3");
+        when(pdf2MdUtil.queryRecognitionTask(eq("uuid-3"), any(), any())).thenReturn("content-3");
+
+        // 调用
+        ReflectionTestUtils.invokeMethod(docParseService, "pollRunningJobs");
+        // 断言
+        assertEquals(DocParseJobStatusEnum.SUCCESS.getStatus(), submitted.getStatus());
+        assertEquals("content-1", submitted.getContent());
+        assertEquals(DocParseJobStatusEnum.FAILURE.getStatus(), expired.getStatus());
+        verify(pdf2MdUtil, never()).queryRecognitionTask(eq("uuid-2"), any(), any());
+        assertEquals(DocParseJobStatusEnum.SUCCESS.getStatus(), notSubmitted.getStatus());
+        assertEquals("content-3", notSubmitted.getContent());
+        verify(docParseJobRedisDAO).removeRunning(eq("1"));
+        verify(docParseJobRedisDAO).removeRunning(eq("2"));
+        verify(docParseJobRedisDAO).removeRunning(eq("3"));
+    }
+
+    @Test
+    public void testPollRunningJobs_claimFinishedJob() {
+        // mock 数据：租约到期，但任务已结束
+        DocParseJobDO job = buildRunningJob("1", "uuid-1", LocalDateTime.now())
+                .setStatus(DocParseJobStatusEnum.SUCCESS.getStatus());
+        when(docParseJobRedisDAO.getExpiredRunning(anyLong(), anyInt())).thenReturn(Arrays.asList("1", "2"));
+        when(docParseJobRedisDAO.claimRunning(eq("1"), anyLong(), anyLong())).thenReturn(true);
+        when(docParseJobRedisDAO.get(eq("1"))).thenReturn(job);
+
+        // 调用
+        ReflectionTestUtils.invokeMethod(docParseService, "pollRunningJobs");
+        // 断言：已结束的移除；其它节点抢先接管的，不处理
+        verify(docParseJobRedisDAO).removeRunning(eq("1"));
+        verify(docParseJobRedisDAO, never()).get(eq("2"));
+        verifyNoInteractions(pdf2MdUtil);
+    }
+
+    private static DocParseJobDO buildRunningJob(String id, String taskUuid, LocalDateTime createTime) {
+        return new DocParseJobDO().setId(id).setUserId(1L).setUserType(2)
+                .setFileUrl("file-" + id).setType("markdown").setTaskUuid(taskUuid)
+                .setStatus(DocParseJobStatusEnum.RUNNING.getStatus()).setCreateTime(createTime);
+    }
+
+}
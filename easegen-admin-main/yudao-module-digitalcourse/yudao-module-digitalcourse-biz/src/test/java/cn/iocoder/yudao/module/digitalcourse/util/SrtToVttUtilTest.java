@@ -0,0 +1,55 @@
+package cn.iocoder.yudao.module.digitalcourse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link SrtToVttUtil} 的单元测试
+ */
+public class SrtToVttUtilTest {
+
+    @Test
+    public void testConvertSrtToVtt() throws IOException {
+        // 准备参数：带 BOM、CRLF 换行、不补零的时间与坐标
+        String srt = "\uFEFF1\r\n"
+                + "00:00:01,500 --> 00:00:03,000\r\n"
+                + "第一句\r\n"
+                + "\r\n"
+                + "2\r\n"
+                + "0:0:4,5 --> 0:0:6,25 X1:100 X2:200\r\n"
+                + "第二句 --> 换行\r\n"
+                + "第二行\r\n";
+
+        // 调用
+        String vtt = convert(srt);
+        // 断言
+        assertEquals("WEBVTT\n"
+                + "\n1\n00:00:01.500 --> 00:00:03.000\n第一句\n"
+                + "\n2\n00:00:04.500 --> 00:00:06.250\n第二句 --&gt; 换行\n第二行\n", vtt);
+    }
+
+    @Test
+    public void testConvertSrtToVtt_skipInvalidCue() throws IOException {
+        // 准备参数：秒超过 59、结束早于开始的字幕块都应跳过
+        String srt = "1\n00:00:61,000 --> 00:01:02,000\n非法秒\n\n"
+                + "2\n00:00:05,000 --> 00:00:04,000\n结束早于开始\n\n"
+                + "3\n00:00:07,000 --> 00:00:08,000\n正常\n";
+
+        // 调用
+        String vtt = convert(srt);
+        // 断言
+        assertEquals("WEBVTT\n\n3\n00:00:07.000 --> 00:00:08.000\n正常\n", vtt);
+    }
+
+    private static String convert(String srt) throws IOException {
+        StringWriter writer = new StringWriter();
+        SrtToVttUtil.convertSrtToVtt(new StringReader(srt), writer);
+        return writer.toString();
+    }
+
+}
@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.module.infra.api.config;
 
-import cn.iocoder.yudao.module.infra.dal.dataobject.config.ConfigDO;
 import cn.iocoder.yudao.module.infra.service.config.ConfigService;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
@@ -20,8 +19,7 @@ public class ConfigApiImpl implements ConfigApi {
 
     @Override
     public String getConfigValueByKey(String key) {
-        ConfigDO config = configService.getConfigByKey(key);
-        return config != null ? config.getValue() : null;
+        return configService.getConfigValueByKeyFromCache(key);
     }
 
 }
@@ -3,11 +3,12 @@ package cn.iocoder.yudao.module.infra.dal.mysql.logger;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionResult;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
-import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
-import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDateTime;
 
@@ -35,11 +36,14 @@ public interface ApiAccessLogMapper extends BaseMapperX<ApiAccessLogDO> {
     /**
      * 物理删除指定时间之前的日志
      *
+     * 优先删除过期的分区，剩余的按照主键分批删除，详见 {@link DataRetentionUtils}
+     *
      * @param createTime 最大时间
-     * @param limit 删除条数，防止一次删除太多
-     * @return 删除条数
+     * @param options 删除的选项
+     * @return 删除结果
      */
-    @Delete("DELETE FROM infra_api_access_log WHERE create_time < #{createTime} LIMIT #{limit}")
-    Integer deleteByCreateTimeLt(@Param("createTime") LocalDateTime createTime, @Param("limit") Integer limit);
+    default RetentionResult deleteByCreateTimeLt(LocalDateTime createTime, RetentionOptions options) {
+        return DataRetentionUtils.deleteExpired("infra_api_access_log", createTime, options);
+    }
 
 }
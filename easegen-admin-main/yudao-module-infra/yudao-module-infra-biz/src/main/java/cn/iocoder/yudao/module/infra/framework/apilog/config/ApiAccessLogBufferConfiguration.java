@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.module.infra.framework.apilog.config;
+
+import cn.iocoder.yudao.module.infra.dal.mysql.logger.ApiAccessLogMapper;
+import cn.iocoder.yudao.module.infra.framework.apilog.core.ApiAccessLogBuffer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ApiAccessLogBufferProperties.class)
+public class ApiAccessLogBufferConfiguration {
+
+    @Bean
+    public ApiAccessLogBuffer apiAccessLogBuffer(ApiAccessLogBufferProperties properties,
+                                                 ApiAccessLogMapper apiAccessLogMapper,
+                                                 PlatformTransactionManager transactionManager) {
+        // 一批可能拆分为多条 INSERT，在事务中执行，失败时整体回滚后再逐条写入
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return new ApiAccessLogBuffer(properties, accessLogs -> transactionTemplate.executeWithoutResult(
+                status -> apiAccessLogMapper.insertBatchValues(accessLogs)));
+    }
+
+}
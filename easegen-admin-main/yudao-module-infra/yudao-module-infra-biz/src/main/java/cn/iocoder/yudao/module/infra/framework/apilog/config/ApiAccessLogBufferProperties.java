@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.module.infra.framework.apilog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "yudao.access-log.buffer")
+@Validated
+@Data
+public class ApiAccessLogBufferProperties {
+
+    /**
+     * 是否开启缓冲
+     *
+     * 关闭时，每条日志直接写入数据库
+     */
+    @NotNull(message = "是否开启缓冲不能为空")
+    private Boolean enable = true;
+
+    /**
+     * 缓冲的容量，超过时按照 {@link #overflowPolicy} 处理
+     */
+    @NotNull(message = "缓冲的容量不能为空")
+    private Integer capacity = 10000;
+
+    /**
+     * 每批写入的条数
+     */
+    @NotNull(message = "每批写入的条数不能为空")
+    private Integer batchSize = 200;
+
+    /**
+     * 写入的最大间隔，即一条日志最多在缓冲中等待多久
+     */
+    @NotNull(message = "写入的最大间隔不能为空")
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 缓冲将满时的策略
+     */
+    @NotNull(message = "缓冲将满时的策略不能为空")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SAMPLE;
+
+    /**
+     * 开始采样的缓冲使用率，仅 {@link OverflowPolicy#SAMPLE} 时有效
+     */
+    @NotNull(message = "开始采样的缓冲使用率不能为空")
+    private Double sampleThreshold = 0.8D;
+
+    /**
+     * 采样时，成功请求的保留比例，仅 {@link OverflowPolicy#SAMPLE} 时有效
+     */
+    @NotNull(message = "采样的保留比例不能为空")
+    private Double sampleRatio = 0.1D;
+
+    /**
+     * 关闭时，等待缓冲写完的最长时间
+     */
+    @NotNull(message = "关闭时的等待时间不能为空")
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public enum OverflowPolicy {
+
+        /**
+         * 缓冲满时，丢弃新的日志
+         */
+        DROP,
+        /**
+         * 缓冲使用率超过 {@link #sampleThreshold} 时，成功的请求按照 {@link #sampleRatio} 采样，失败的请求全部保留；
+         * 缓冲满时，丢弃新的日志
+         */
+        SAMPLE
+
+    }
+
+}
@@ -0,0 +1,285 @@
+package cn.iocoder.yudao.module.infra.framework.apilog.core;
+
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
+import cn.iocoder.yudao.module.infra.framework.apilog.config.ApiAccessLogBufferProperties;
+import cn.iocoder.yudao.module.infra.framework.apilog.config.ApiAccessLogBufferProperties.OverflowPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * API 访问日志的缓冲
+ *
+ * 日志先放入固定容量的队列，由单独的线程攒够 batchSize 条、或者等待超过 flushInterval 后，批量写入数据库；
+ * 一批中的日志按照租户分组，每个租户使用一条多行 INSERT 写入，失败时逐条重试，避免一条异常数据导致整批丢失。
+ * 队列将满时，按照 {@link OverflowPolicy} 采样或丢弃，保证记录日志不会阻塞请求、也不会耗尽内存。
+ * 应用关闭时，等待队列中的日志写完
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class ApiAccessLogBuffer implements MeterBinder, InitializingBean, DisposableBean {
+
+    private static final String METRIC_NAME = "yudao.access.log.buffer";
+
+    private final ApiAccessLogBufferProperties properties;
+    /**
+     * 写入数据库，调用时已经设置好租户上下文
+     *
+     * 需要保证原子性（例如在事务中执行）：失败时整体回滚，才能逐条重试而不重复写入
+     */
+    private final Consumer<List<ApiAccessLogDO>> writer;
+
+    private final BlockingQueue<Entry> queue;
+    /**
+     * 开始采样的队列长度
+     */
+    private final int sampleThreshold;
+
+    private final AtomicLong fullCount = new AtomicLong();
+    private final AtomicLong sampledCount = new AtomicLong();
+    private final AtomicLong shutdownCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    /**
+     * 上次打印告警时的丢弃数，避免队列满时每条日志都打印
+     */
+    private long lastDroppedCount;
+
+    private volatile boolean closed;
+    private Thread thread;
+
+    public ApiAccessLogBuffer(ApiAccessLogBufferProperties properties, Consumer<List<ApiAccessLogDO>> writer) {
+        this.properties = properties;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.sampleThreshold = (int) (properties.getCapacity() * properties.getSampleThreshold());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.getEnable()) {
+            return;
+        }
+        thread = new Thread(this::run, "api-access-log-buffer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 添加日志，不会阻塞
+     *
+     * @param accessLog 日志
+     */
+    public void add(ApiAccessLogDO accessLog) {
+        // 在请求线程中记录创建时间，而不是写入时
+        if (accessLog.getCreateTime() == null) {
+            accessLog.setCreateTime(LocalDateTime.now());
+        }
+        // 写入线程中没有登录用户，在此记录创建人、更新人；异步调用时没有请求上下文，使用日志中的用户
+        Long userId = ObjUtil.defaultIfNull(WebFrameworkUtils.getLoginUserId(), accessLog.getUserId());
+        if (userId != null) {
+            if (accessLog.getCreator() == null) {
+                accessLog.setCreator(userId.toString());
+            }
+            if (accessLog.getUpdater() == null) {
+                accessLog.setUpdater(userId.toString());
+            }
+        }
+        Entry entry = new Entry(TenantContextHolder.getTenantId(), accessLog);
+        // 情况一：未开启缓冲，直接写入
+        if (!properties.getEnable()) {
+            write(Collections.singletonList(entry));
+            return;
+        }
+        // 情况二：已经关闭，丢弃
+        if (closed) {
+            shutdownCount.incrementAndGet();
+            return;
+        }
+        // 情况三：队列将满，成功的请求按比例采样，失败的请求全部保留
+        if (properties.getOverflowPolicy() == OverflowPolicy.SAMPLE && queue.size() >= sampleThreshold
+                && ObjUtil.equal(accessLog.getResultCode(), GlobalErrorCodeConstants.SUCCESS.getCode())
+                && RandomUtil.randomDouble() >= properties.getSampleRatio()) {
+            sampledCount.incrementAndGet();
+            return;
+        }
+        // 情况四：放入队列，满时丢弃
+        if (!queue.offer(entry)) {
+            fullCount.incrementAndGet();
+            return;
+        }
+        // 放入时恰好关闭，最后一次 flush 可能已经结束：取回成功的，由当前线程写入；取回失败的，已经被取走写入
+        if (closed && queue.remove(entry)) {
+            write(Collections.singletonList(entry));
+        }
+    }
+
+    /**
+     * 同步写入队列中的所有日志
+     */
+    public void flush() {
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (!closed) {
+            boolean interrupted = false;
+            try {
+                // 1. 等待第一条日志
+                Entry first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 2. 攒批，直到 batchSize 条，或者距离第一条超过 flushInterval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Entry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            } finally {
+                // 3. 写入。被中断时，也写入已经取出的日志
+                write(batch);
+                batch.clear();
+                warnDropped();
+            }
+            if (interrupted) {
+                break;
+            }
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Entry>> tenantEntries = new LinkedHashMap<>();
+        entries.forEach(entry -> tenantEntries.computeIfAbsent(entry.tenantId, key -> new ArrayList<>()).add(entry));
+        tenantEntries.forEach((tenantId, list) -> write(tenantId, convertList(list, entry -> entry.accessLog)));
+    }
+
+    private void write(Long tenantId, List<ApiAccessLogDO> accessLogs) {
+        // 1. 批量写入
+        try {
+            write0(tenantId, accessLogs);
+            writtenCount.addAndGet(accessLogs.size());
+            return;
+        } catch (Throwable ex) {
+            if (accessLogs.size() == 1) {
+                failedCount.incrementAndGet();
+                log.error("[write][租户({}) 写入 API 访问日志失败]", tenantId, ex);
+                return;
+            }
+            log.warn("[write][租户({}) 批量写入 {} 条 API 访问日志失败，改为逐条写入]", tenantId, accessLogs.size(), ex);
+        }
+
+        // 2. 逐条写入。批量写入已整体回滚，清空回滚前回填的编号
+        int failed = 0;
+        Throwable lastEx = null;
+        for (ApiAccessLogDO accessLog : accessLogs) {
+            accessLog.setId(null);
+            try {
+                write0(tenantId, Collections.singletonList(accessLog));
+                writtenCount.incrementAndGet();
+            } catch (Throwable ex) {
+                failed++;
+                lastEx = ex;
+            }
+        }
+        if (failed > 0) {
+            failedCount.addAndGet(failed);
+            log.error("[write][租户({}) 逐条写入后，仍有 {} 条 API 访问日志写入失败]", tenantId, failed, lastEx);
+        }
+    }
+
+    private void write0(Long tenantId, List<ApiAccessLogDO> accessLogs) {
+        if (tenantId != null) {
+            TenantUtils.execute(tenantId, () -> writer.accept(accessLogs));
+        } else {
+            // 极端情况下，上下文中没有租户时，此时忽略租户上下文，避免插入失败！
+            TenantUtils.executeIgnore(() -> writer.accept(accessLogs));
+        }
+    }
+
+    private void warnDropped() {
+        long droppedCount = fullCount.get() + sampledCount.get();
+        if (droppedCount == lastDroppedCount) {
+            return;
+        }
+        log.warn("[warnDropped][缓冲将满，新丢弃 {} 条 API 访问日志，其中采样丢弃 {} 条，累计丢弃 {} 条]",
+                droppedCount - lastDroppedCount, sampledCount.get(), droppedCount);
+        lastDroppedCount = droppedCount;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_NAME + ".queued", queue, Collection::size)
+                .description("排队中的日志数").register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".dropped", fullCount, AtomicLong::get)
+                .description("丢弃的日志数").tag("reason", "full").register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".dropped", sampledCount, AtomicLong::get)
+                .description("丢弃的日志数").tag("reason", "sampled").register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".dropped", shutdownCount, AtomicLong::get)
+                .description("丢弃的日志数").tag("reason", "shutdown").register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".written", writtenCount, AtomicLong::get)
+                .description("写入成功的日志数").register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".failed", failedCount, AtomicLong::get)
+                .description("写入失败的日志数").register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // 1. 不再接收新的日志，等待写入线程退出
+        closed = true;
+        if (thread != null) {
+            thread.join(properties.getShutdownTimeout().toMillis());
+            if (thread.isAlive()) {
+                log.warn("[destroy][等待 API 访问日志写入超过 {}，剩余 {} 条未写入]", properties.getShutdownTimeout(), queue.size());
+                thread.interrupt();
+                return;
+            }
+        }
+        // 2. 写入剩余的日志
+        flush();
+    }
+
+    private record Entry(Long tenantId, ApiAccessLogDO accessLog) {
+    }
+
+}
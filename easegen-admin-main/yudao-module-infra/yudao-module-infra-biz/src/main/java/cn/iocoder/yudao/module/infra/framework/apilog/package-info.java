@@ -0,0 +1,4 @@
+/**
+ * API 访问日志的缓冲写入，攒批后使用多行 INSERT 写入数据库
+ */
+package cn.iocoder.yudao.module.infra.framework.apilog;
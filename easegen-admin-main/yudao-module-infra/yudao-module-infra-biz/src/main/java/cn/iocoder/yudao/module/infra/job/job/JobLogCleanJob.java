@@ -25,9 +25,9 @@ public class JobLogCleanJob implements JobHandler {
     private static final Integer JOB_CLEAN_RETAIN_DAY = 14;
 
     /**
-     * 每次删除间隔的条数，如果值太高可能会造成数据库的压力过大
+     * 每批删除的初始条数，之后根据删除耗时在 [100, 2000] 之间自适应调整
      */
-    private static final Integer DELETE_LIMIT = 100;
+    private static final Integer DELETE_LIMIT = 1000;
 
     @Override
     @TenantIgnore
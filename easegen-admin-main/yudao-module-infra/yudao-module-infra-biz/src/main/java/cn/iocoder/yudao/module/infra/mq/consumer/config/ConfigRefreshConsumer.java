@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.infra.mq.consumer.config;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.infra.mq.message.config.ConfigRefreshMessage;
+import cn.iocoder.yudao.module.infra.service.config.ConfigService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link ConfigRefreshMessage} 的消费者
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class ConfigRefreshConsumer extends AbstractRedisChannelMessageListener<ConfigRefreshMessage> {
+
+    @Resource
+    private ConfigService configService;
+
+    @Override
+    public void onMessage(ConfigRefreshMessage message) {
+        log.info("[onMessage][收到 Config 刷新消息]");
+        configService.clearLocalCache();
+    }
+
+}
@@ -0,0 +1,13 @@
+package cn.iocoder.yudao.module.infra.mq.message.config;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 参数配置的数据刷新 Message
+ *
+ * @author 芋道源码
+ */
+@Data
+public class ConfigRefreshMessage extends AbstractRedisChannelMessage {
+}
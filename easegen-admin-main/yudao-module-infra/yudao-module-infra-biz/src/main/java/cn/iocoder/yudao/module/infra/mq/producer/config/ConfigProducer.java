@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.infra.mq.producer.config;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.infra.mq.message.config.ConfigRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Config 参数配置相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class ConfigProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link ConfigRefreshMessage} 消息
+     */
+    public void sendConfigRefreshMessage() {
+        ConfigRefreshMessage message = new ConfigRefreshMessage();
+        redisMQTemplate.send(message);
+    }
+
+}
@@ -52,6 +52,21 @@ public interface ConfigService {
      */
     ConfigDO getConfigByKey(String key);
 
+    /**
+     * 根据参数键，从本地缓存中获得参数值
+     *
+     * 参数配置变更时，通过 Redis 广播清空各节点的本地缓存
+     *
+     * @param key 配置键
+     * @return 参数值；配置不存在时返回 null
+     */
+    String getConfigValueByKeyFromCache(String key);
+
+    /**
+     * 清空本地缓存
+     */
+    void clearLocalCache();
+
     /**
      * 获得参数配置分页列表
      *
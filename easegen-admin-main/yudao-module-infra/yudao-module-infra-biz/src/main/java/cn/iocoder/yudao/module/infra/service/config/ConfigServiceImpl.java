@@ -7,14 +7,22 @@ import cn.iocoder.yudao.module.infra.convert.config.ConfigConvert;
 import cn.iocoder.yudao.module.infra.dal.dataobject.config.ConfigDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.config.ConfigMapper;
 import cn.iocoder.yudao.module.infra.enums.config.ConfigTypeEnum;
+import cn.iocoder.yudao.module.infra.mq.producer.config.ConfigProducer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.Getter;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.annotation.Resource;
+import java.time.Duration;
+import java.util.Optional;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.*;
 
 /**
@@ -25,9 +33,29 @@ import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.*;
 @Validated
 public class ConfigServiceImpl implements ConfigService {
 
+    /**
+     * 参数值的本地缓存，key 为配置键
+     *
+     * 变更时通过 {@link ConfigProducer} 广播清空；同时定时异步刷新，兜底直接修改数据库的场景
+     */
+    @Getter
+    private final LoadingCache<String, Optional<String>> valueCache = buildAsyncReloadingCache(Duration.ofMinutes(1L),
+            new CacheLoader<String, Optional<String>>() {
+
+                @Override
+                public Optional<String> load(String key) {
+                    ConfigDO config = configMapper.selectByKey(key);
+                    return Optional.ofNullable(config != null ? config.getValue() : null);
+                }
+
+            });
+
     @Resource
     private ConfigMapper configMapper;
 
+    @Resource
+    private ConfigProducer configProducer;
+
     @Override
     public Long createConfig(ConfigSaveReqVO createReqVO) {
         // 校验参数配置 key 的唯一性
@@ -37,6 +65,8 @@ public class ConfigServiceImpl implements ConfigService {
         ConfigDO config = ConfigConvert.INSTANCE.convert(createReqVO);
         config.setType(ConfigTypeEnum.CUSTOM.getType());
         configMapper.insert(config);
+        // 发送刷新消息
+        configProducer.sendConfigRefreshMessage();
         return config.getId();
     }
 
@@ -50,6 +80,8 @@ public class ConfigServiceImpl implements ConfigService {
         // 更新参数配置
         ConfigDO updateObj = ConfigConvert.INSTANCE.convert(updateReqVO);
         configMapper.updateById(updateObj);
+        // 发送刷新消息
+        configProducer.sendConfigRefreshMessage();
     }
 
     @Override
@@ -62,6 +94,8 @@ public class ConfigServiceImpl implements ConfigService {
         }
         // 删除
         configMapper.deleteById(id);
+        // 发送刷新消息
+        configProducer.sendConfigRefreshMessage();
     }
 
     @Override
@@ -74,6 +108,17 @@ public class ConfigServiceImpl implements ConfigService {
         return configMapper.selectByKey(key);
     }
 
+    @Override
+    @SneakyThrows
+    public String getConfigValueByKeyFromCache(String key) {
+        return valueCache.get(key).orElse(null);
+    }
+
+    @Override
+    public void clearLocalCache() {
+        valueCache.invalidateAll();
+    }
+
     @Override
     public PageResult<ConfigDO> getConfigPage(ConfigPageReqVO pageReqVO) {
         return configMapper.selectPage(pageReqVO);
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.infra.service.job;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
 import cn.iocoder.yudao.module.infra.controller.admin.job.vo.log.JobLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.job.JobLogDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.job.JobLogMapper;
@@ -51,20 +52,11 @@ public class JobLogServiceImpl implements JobLogService {
     }
 
     @Override
-    @SuppressWarnings("DuplicatedCode")
     public Integer cleanJobLog(Integer exceedDay, Integer deleteLimit) {
-        int count = 0;
         LocalDateTime expireDate = LocalDateTime.now().minusDays(exceedDay);
-        // 循环删除，直到没有满足条件的数据
-        for (int i = 0; i < Short.MAX_VALUE; i++) {
-            int deleteCount = jobLogMapper.deleteByCreateTimeLt(expireDate, deleteLimit);
-            count += deleteCount;
-            // 达到删除预期条数，说明到底了
-            if (deleteCount < deleteLimit) {
-                break;
-            }
-        }
-        return count;
+        // 优先删除过期的分区，剩余的按照主键分批删除，批次大小从 deleteLimit 开始根据耗时调整
+        return jobLogMapper.deleteByCreateTimeLt(expireDate, new RetentionOptions().setBatchSize(deleteLimit))
+                .getDeletedRows();
     }
 
     @Override
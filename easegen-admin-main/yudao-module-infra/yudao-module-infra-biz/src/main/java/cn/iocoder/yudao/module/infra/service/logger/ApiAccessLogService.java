@@ -31,7 +31,7 @@ public interface ApiAccessLogService {
      * 清理 exceedDay 天前的访问日志
      *
      * @param exceedDay 超过多少天就进行清理
-     * @param deleteLimit 清理的间隔条数
+     * @param deleteLimit 每批删除的初始条数，会根据删除耗时自适应调整
      */
     Integer cleanAccessLog(Integer exceedDay, Integer deleteLimit);
 
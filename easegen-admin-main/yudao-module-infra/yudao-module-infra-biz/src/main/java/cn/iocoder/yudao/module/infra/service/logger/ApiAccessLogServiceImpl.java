@@ -3,12 +3,12 @@ package cn.iocoder.yudao.module.infra.service.logger;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
-import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.logger.ApiAccessLogMapper;
+import cn.iocoder.yudao.module.infra.framework.apilog.core.ApiAccessLogBuffer;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,17 +32,16 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
     @Resource
     private ApiAccessLogMapper apiAccessLogMapper;
 
+    @Resource
+    private ApiAccessLogBuffer apiAccessLogBuffer;
+
     @Override
     public void createApiAccessLog(ApiAccessLogCreateReqDTO createDTO) {
         ApiAccessLogDO apiAccessLog = BeanUtils.toBean(createDTO, ApiAccessLogDO.class);
         apiAccessLog.setRequestParams(StrUtil.maxLength(apiAccessLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
         apiAccessLog.setResultMsg(StrUtil.maxLength(apiAccessLog.getResultMsg(), RESULT_MSG_MAX_LENGTH));
-        if (TenantContextHolder.getTenantId() != null) {
-            apiAccessLogMapper.insert(apiAccessLog);
-        } else {
-            // 极端情况下，上下文中没有租户时，此时忽略租户上下文，避免插入失败！
-            TenantUtils.executeIgnore(() -> apiAccessLogMapper.insert(apiAccessLog));
-        }
+        // 放入缓冲，批量写入
+        apiAccessLogBuffer.add(apiAccessLog);
     }
 
     @Override
@@ -51,20 +50,11 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
     }
 
     @Override
-    @SuppressWarnings("DuplicatedCode")
     public Integer cleanAccessLog(Integer exceedDay, Integer deleteLimit) {
-        int count = 0;
         LocalDateTime expireDate = LocalDateTime.now().minusDays(exceedDay);
-        // 循环删除，直到没有满足条件的数据
-        for (int i = 0; i < Short.MAX_VALUE; i++) {
-            int deleteCount = apiAccessLogMapper.deleteByCreateTimeLt(expireDate, deleteLimit);
-            count += deleteCount;
-            // 达到删除预期条数，说明到底了
-            if (deleteCount < deleteLimit) {
-                break;
-            }
-        }
-        return count;
+        // 优先删除过期的分区，剩余的按照主键分批删除，批次大小从 deleteLimit 开始根据耗时调整
+        return apiAccessLogMapper.deleteByCreateTimeLt(expireDate, new RetentionOptions().setBatchSize(deleteLimit))
+                .getDeletedRows();
     }
 
 }
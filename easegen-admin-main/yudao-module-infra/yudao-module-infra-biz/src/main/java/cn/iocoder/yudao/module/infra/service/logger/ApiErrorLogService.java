@@ -40,7 +40,7 @@ public interface ApiErrorLogService {
      * 清理 exceedDay 天前的错误日志
      *
      * @param exceedDay 超过多少天就进行清理
-     * @param deleteLimit 清理的间隔条数
+     * @param deleteLimit 每批删除的初始条数，会根据删除耗时自适应调整
      */
     Integer cleanErrorLog(Integer exceedDay, Integer deleteLimit);
 
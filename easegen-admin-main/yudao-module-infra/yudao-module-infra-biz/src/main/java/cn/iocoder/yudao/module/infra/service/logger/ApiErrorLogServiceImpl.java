@@ -5,6 +5,7 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apierrorlog.ApiErrorLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiErrorLogDO;
@@ -68,20 +69,11 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
     }
 
     @Override
-    @SuppressWarnings("DuplicatedCode")
     public Integer cleanErrorLog(Integer exceedDay, Integer deleteLimit) {
-        int count = 0;
         LocalDateTime expireDate = LocalDateTime.now().minusDays(exceedDay);
-        // 循环删除，直到没有满足条件的数据
-        for (int i = 0; i < Short.MAX_VALUE; i++) {
-            int deleteCount = apiErrorLogMapper.deleteByCreateTimeLt(expireDate, deleteLimit);
-            count += deleteCount;
-            // 达到删除预期条数，说明到底了
-            if (deleteCount < deleteLimit) {
-                break;
-            }
-        }
-        return count;
+        // 优先删除过期的分区，剩余的按照主键分批删除，批次大小从 deleteLimit 开始根据耗时调整
+        return apiErrorLogMapper.deleteByCreateTimeLt(expireDate, new RetentionOptions().setBatchSize(deleteLimit))
+                .getDeletedRows();
     }
 
 }
@@ -0,0 +1,97 @@
+package cn.iocoder.yudao.module.infra.dal.mysql.logger;
+
+import cn.iocoder.yudao.framework.mybatis.core.interceptor.SqlRewriteInnerInterceptor;
+import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.db.TenantDatabaseInterceptor;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collections;
+
+import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ApiAccessLogMapper} 在多租户下的单元测试，覆盖 BaseMapperX 的批量插入或更新不会覆盖其它租户的记录
+ */
+@Import(ApiAccessLogMapperTenantTest.TenantConfiguration.class)
+public class ApiAccessLogMapperTenantTest extends BaseDbUnitTest {
+
+    @Resource
+    private ApiAccessLogMapper apiAccessLogMapper;
+
+    @Test
+    public void testIsTenantTable() {
+        TenantUtils.execute(1L, () -> assertTrue(MyBatisUtils.isTenantTable("infra_api_access_log")));
+        TenantUtils.executeIgnore(() -> assertFalse(MyBatisUtils.isTenantTable("infra_api_access_log")));
+    }
+
+    @Test
+    public void testUpsertBatch_sameTenant() {
+        // mock 数据
+        ApiAccessLogDO dbLog = randomApiAccessLogDO();
+        TenantUtils.execute(1L, () -> apiAccessLogMapper.insert(dbLog));
+        // 准备参数
+        ApiAccessLogDO updateLog = cloneIgnoreId(dbLog, o -> o.setRequestUrl("/updated"));
+        updateLog.setId(dbLog.getId());
+
+        // 调用
+        TenantUtils.execute(1L, () -> apiAccessLogMapper.upsertBatch(Collections.singletonList(updateLog)));
+        // 断言
+        TenantUtils.execute(1L, () -> assertEquals("/updated", apiAccessLogMapper.selectById(dbLog.getId()).getRequestUrl()));
+    }
+
+    @Test
+    public void testUpsertBatch_otherTenant() {
+        // mock 数据：租户 1 的记录
+        ApiAccessLogDO dbLog = randomApiAccessLogDO();
+        TenantUtils.execute(1L, () -> apiAccessLogMapper.insert(dbLog));
+        // 准备参数：租户 2 使用相同的主键
+        ApiAccessLogDO updateLog = cloneIgnoreId(dbLog, o -> o.setRequestUrl("/overwritten"));
+        updateLog.setId(dbLog.getId());
+
+        // 调用，并断言：视为插入，因主键冲突而失败
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> TenantUtils.execute(2L,
+                () -> apiAccessLogMapper.upsertBatch(Collections.singletonList(updateLog))));
+        assertInstanceOf(DuplicateKeyException.class, ex.getCause());
+        // 断言：租户 1 的记录未被覆盖，也没有被改为租户 2
+        TenantUtils.execute(1L, () -> assertEquals(dbLog.getRequestUrl(),
+                apiAccessLogMapper.selectById(dbLog.getId()).getRequestUrl()));
+        TenantUtils.execute(2L, () -> assertNull(apiAccessLogMapper.selectById(dbLog.getId())));
+    }
+
+    private static ApiAccessLogDO randomApiAccessLogDO() {
+        return randomPojo(ApiAccessLogDO.class, o -> {
+            o.setId(null);
+            o.setUserType(1);
+            o.setOperateType(1);
+            o.setDeleted(false);
+            o.setCreateTime(null);
+            o.setUpdateTime(null);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    public static class TenantConfiguration {
+
+        @Bean
+        public TenantLineInnerInterceptor tenantLineInnerInterceptor(SqlRewriteInnerInterceptor interceptor) {
+            TenantDatabaseInterceptor handler = new TenantDatabaseInterceptor(new TenantProperties());
+            TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(handler);
+            interceptor.addInterceptor(inner, handler);
+            return inner;
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.module.infra.dal.mysql.logger;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.framework.test.core.util.BenchmarkUtils;
+import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ApiAccessLogMapper} 的单元测试，覆盖 BaseMapperX 的多行 VALUES 批量写入
+ */
+public class ApiAccessLogMapperTest extends BaseDbUnitTest {
+
+    @Resource
+    private ApiAccessLogMapper apiAccessLogMapper;
+
+    @Test
+    public void testInsertBatchValues() {
+        // 准备参数
+        List<ApiAccessLogDO> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            list.add(randomApiAccessLogDO());
+        }
+        // 部分字段为 null，使用数据库默认值
+        list.get(1).setTraceId(null);
+
+        // 调用
+        int rows = apiAccessLogMapper.insertBatchValues(list, 2);
+        // 断言
+        assertEquals(5, rows);
+        list.forEach(log -> assertNotNull(log.getId()));
+        assertEquals(5, apiAccessLogMapper.selectCount());
+        assertPojoEquals(list.get(0), apiAccessLogMapper.selectById(list.get(0).getId()), "createTime", "updateTime");
+        assertEquals("", apiAccessLogMapper.selectById(list.get(1).getId()).getTraceId());
+        // 插入填充生效
+        assertNotNull(apiAccessLogMapper.selectById(list.get(2).getId()).getCreateTime());
+    }
+
+    @Test
+    public void testUpsertBatch() {
+        // mock 数据
+        ApiAccessLogDO dbLog = randomApiAccessLogDO();
+        apiAccessLogMapper.insert(dbLog);
+        // 准备参数：一条已存在、一条新的
+        ApiAccessLogDO updateLog = cloneIgnoreId(dbLog, o -> o.setRequestUrl("/updated"));
+        updateLog.setId(dbLog.getId());
+        ApiAccessLogDO newLog = randomApiAccessLogDO();
+
+        // 调用
+        apiAccessLogMapper.upsertBatch(Arrays.asList(updateLog, newLog));
+        // 断言
+        assertEquals(2, apiAccessLogMapper.selectCount());
+        assertEquals("/updated", apiAccessLogMapper.selectById(dbLog.getId()).getRequestUrl());
+        assertNotNull(newLog.getId());
+        assertEquals(newLog.getRequestUrl(), apiAccessLogMapper.selectById(newLog.getId()).getRequestUrl());
+    }
+
+    /**
+     * insertBatch 与 insertBatchValues 的耗时对比，需要时手动执行
+     *
+     * H2 内存数据库没有网络往返，多行 VALUES 的收益主要来自减少往返，所以结果仅供参考，不做断言
+     */
+    @Test
+    @Disabled("性能对比，手动执行")
+    public void testInsertBatchValues_benchmark() throws Exception {
+        int count = 10000;
+        Map<String, BenchmarkUtils.TaskFactory> candidates = new LinkedHashMap<>();
+        candidates.put("insertBatch", () -> {
+            List<ApiAccessLogDO> list = randomApiAccessLogDOList(count);
+            return () -> apiAccessLogMapper.insertBatch(list);
+        });
+        candidates.put("insertBatchValues", () -> {
+            List<ApiAccessLogDO> list = randomApiAccessLogDOList(count);
+            return () -> apiAccessLogMapper.insertBatchValues(list);
+        });
+        BenchmarkUtils.compare("插入 " + count + " 条", 2, 5, 1, candidates);
+    }
+
+    private static List<ApiAccessLogDO> randomApiAccessLogDOList(int count) {
+        List<ApiAccessLogDO> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(randomApiAccessLogDO());
+        }
+        return list;
+    }
+
+    private static ApiAccessLogDO randomApiAccessLogDO() {
+        return randomPojo(ApiAccessLogDO.class, o -> {
+            o.setId(null);
+            o.setUserType(1);
+            o.setOperateType(1);
+            o.setDeleted(false);
+            o.setCreateTime(null);
+            o.setUpdateTime(null);
+        });
+    }
+
+}
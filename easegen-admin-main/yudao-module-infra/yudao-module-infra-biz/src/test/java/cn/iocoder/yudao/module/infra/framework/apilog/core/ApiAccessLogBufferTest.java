@@ -0,0 +1,229 @@
+package cn.iocoder.yudao.module.infra.framework.apilog.core;
+
+import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
+import cn.iocoder.yudao.module.infra.framework.apilog.config.ApiAccessLogBufferProperties;
+import cn.iocoder.yudao.module.infra.framework.apilog.config.ApiAccessLogBufferProperties.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ApiAccessLogBuffer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class ApiAccessLogBufferTest {
+
+    /**
+     * 写入的批次，每批记录写入时的租户编号
+     */
+    private final List<Batch> batches = new CopyOnWriteArrayList<>();
+
+    private ApiAccessLogBuffer buffer;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    public void testAdd_batchSize() throws InterruptedException {
+        // 准备参数：间隔足够长，只能因为攒够 batchSize 写入
+        CountDownLatch latch = new CountDownLatch(2);
+        buffer = new ApiAccessLogBuffer(buildProperties().setBatchSize(2).setFlushInterval(Duration.ofMinutes(1)),
+                accessLogs -> {
+                    batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs));
+                    latch.countDown();
+                });
+        buffer.afterPropertiesSet();
+
+        // 调用
+        for (int i = 0; i < 4; i++) {
+            buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        }
+        // 断言
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, batches.size());
+        batches.forEach(batch -> assertEquals(2, batch.accessLogs.size()));
+    }
+
+    @Test
+    public void testAdd_flushInterval() throws InterruptedException {
+        // 准备参数
+        CountDownLatch latch = new CountDownLatch(1);
+        buffer = new ApiAccessLogBuffer(buildProperties().setFlushInterval(Duration.ofMillis(50)),
+                accessLogs -> {
+                    batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs));
+                    latch.countDown();
+                });
+        buffer.afterPropertiesSet();
+
+        // 调用：不足 batchSize 条
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        // 断言：超过间隔后写入
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batches.get(0).accessLogs.size());
+        assertNotNull(batches.get(0).accessLogs.get(0).getCreateTime());
+    }
+
+    @Test
+    public void testFlush_tenant() {
+        // 准备参数：不启动写入线程
+        buffer = new ApiAccessLogBuffer(buildProperties(),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        TenantUtils.execute(1L, () -> buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode())));
+        TenantUtils.execute(2L, () -> buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode())));
+        TenantUtils.execute(1L, () -> buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode())));
+
+        // 调用
+        buffer.flush();
+        // 断言：按照租户分组写入
+        assertEquals(2, batches.size());
+        assertEquals(1L, batches.get(0).tenantId);
+        assertEquals(2, batches.get(0).accessLogs.size());
+        assertEquals(2L, batches.get(1).tenantId);
+        assertEquals(1, batches.get(1).accessLogs.size());
+    }
+
+    @Test
+    public void testFlush_fallbackRowByRow() {
+        // 准备参数：不启动写入线程；包含异常数据时，整批写入失败
+        buffer = new ApiAccessLogBuffer(buildProperties(), accessLogs -> {
+            if (accessLogs.stream().anyMatch(accessLog -> "/bad".equals(accessLog.getRequestUrl()))) {
+                throw new IllegalStateException("写入失败");
+            }
+            batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs));
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()).setRequestUrl("/bad"));
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+
+        // 调用
+        buffer.flush();
+        // 断言：逐条写入，只丢失异常的一条
+        assertEquals(2, batches.size());
+        batches.forEach(batch -> assertEquals(1, batch.accessLogs.size()));
+        assertEquals(2, registry.get("yudao.access.log.buffer.written").functionCounter().count());
+        assertEquals(1, registry.get("yudao.access.log.buffer.failed").functionCounter().count());
+    }
+
+    @Test
+    public void testAdd_creator() {
+        // 准备参数：不启动写入线程，没有请求上下文
+        buffer = new ApiAccessLogBuffer(buildProperties(),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()).setUserId(100L));
+
+        // 调用
+        buffer.flush();
+        // 断言：使用日志中的用户，作为创建人、更新人
+        ApiAccessLogDO accessLog = batches.get(0).accessLogs.get(0);
+        assertEquals("100", accessLog.getCreator());
+        assertEquals("100", accessLog.getUpdater());
+    }
+
+    @Test
+    public void testAdd_drop() {
+        // 准备参数：不启动写入线程
+        buffer = new ApiAccessLogBuffer(buildProperties().setCapacity(2).setOverflowPolicy(OverflowPolicy.DROP),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+
+        // 调用
+        for (int i = 0; i < 3; i++) {
+            buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        }
+        // 断言
+        assertEquals(2, registry.get("yudao.access.log.buffer.queued").gauge().value());
+        assertEquals(1, registry.get("yudao.access.log.buffer.dropped").tag("reason", "full").functionCounter().count());
+        buffer.flush();
+        assertEquals(2, batches.get(0).accessLogs.size());
+        assertEquals(2, registry.get("yudao.access.log.buffer.written").functionCounter().count());
+    }
+
+    @Test
+    public void testAdd_sample() {
+        // 准备参数：不启动写入线程；超过一半后，成功的请求全部丢弃
+        buffer = new ApiAccessLogBuffer(buildProperties().setCapacity(4).setSampleThreshold(0.5D).setSampleRatio(0D),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+
+        // 调用
+        for (int i = 0; i < 3; i++) {
+            buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        }
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.INTERNAL_SERVER_ERROR.getCode()));
+        // 断言：失败的请求不被采样丢弃
+        assertEquals(1, registry.get("yudao.access.log.buffer.dropped").tag("reason", "sampled").functionCounter().count());
+        buffer.flush();
+        assertEquals(Arrays.asList(GlobalErrorCodeConstants.SUCCESS.getCode(), GlobalErrorCodeConstants.SUCCESS.getCode(),
+                GlobalErrorCodeConstants.INTERNAL_SERVER_ERROR.getCode()),
+                batches.get(0).accessLogs.stream().map(ApiAccessLogDO::getResultCode).toList());
+    }
+
+    @Test
+    public void testDestroy() throws InterruptedException {
+        // 准备参数：间隔足够长，只能因为关闭写入
+        buffer = new ApiAccessLogBuffer(buildProperties().setFlushInterval(Duration.ofMillis(200)),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        buffer.afterPropertiesSet();
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+
+        // 调用
+        buffer.destroy();
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        // 断言：关闭前的日志写入，关闭后的日志丢弃
+        assertEquals(1, batches.stream().mapToInt(batch -> batch.accessLogs.size()).sum());
+    }
+
+    @Test
+    public void testAdd_disable() {
+        // 准备参数
+        buffer = new ApiAccessLogBuffer(buildProperties().setEnable(false),
+                accessLogs -> batches.add(new Batch(TenantContextHolder.getTenantId(), accessLogs)));
+        buffer.afterPropertiesSet();
+
+        // 调用
+        buffer.add(buildAccessLog(GlobalErrorCodeConstants.SUCCESS.getCode()));
+        // 断言：直接写入
+        assertEquals(1, batches.size());
+    }
+
+    private static ApiAccessLogBufferProperties buildProperties() {
+        return new ApiAccessLogBufferProperties();
+    }
+
+    private static ApiAccessLogDO buildAccessLog(Integer resultCode) {
+        return ApiAccessLogDO.builder().requestUrl("/test").resultCode(resultCode).build();
+    }
+
+    private record Batch(Long tenantId, List<ApiAccessLogDO> accessLogs) {
+
+        private Batch(Long tenantId, List<ApiAccessLogDO> accessLogs) {
+            this.tenantId = tenantId;
+            this.accessLogs = Collections.unmodifiableList(new ArrayList<>(accessLogs));
+        }
+
+    }
+
+}
@@ -9,7 +9,9 @@ import cn.iocoder.yudao.module.infra.controller.admin.config.vo.ConfigSaveReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.config.ConfigDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.config.ConfigMapper;
 import cn.iocoder.yudao.module.infra.enums.config.ConfigTypeEnum;
+import cn.iocoder.yudao.module.infra.mq.producer.config.ConfigProducer;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import jakarta.annotation.Resource;
@@ -24,6 +26,7 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServic
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
 
 @Import(ConfigServiceImpl.class)
 public class ConfigServiceImplTest extends BaseDbUnitTest {
@@ -34,6 +37,9 @@ public class ConfigServiceImplTest extends BaseDbUnitTest {
     @Resource
     private ConfigMapper configMapper;
 
+    @MockBean
+    private ConfigProducer configProducer;
+
     @Test
     public void testCreateConfig_success() {
         // 准备参数
@@ -48,6 +54,8 @@ public class ConfigServiceImplTest extends BaseDbUnitTest {
         ConfigDO config = configMapper.selectById(configId);
         assertPojoEquals(reqVO, config, "id");
         assertEquals(ConfigTypeEnum.CUSTOM.getType(), config.getType());
+        // 校验调用
+        verify(configProducer).sendConfigRefreshMessage();
     }
 
     @Test
@@ -65,6 +73,8 @@ public class ConfigServiceImplTest extends BaseDbUnitTest {
         // 校验是否更新正确
         ConfigDO config = configMapper.selectById(reqVO.getId()); // 获取最新的
         assertPojoEquals(reqVO, config);
+        // 校验调用
+        verify(configProducer).sendConfigRefreshMessage();
     }
 
     @Test
@@ -81,6 +91,8 @@ public class ConfigServiceImplTest extends BaseDbUnitTest {
         configService.deleteConfig(id);
         // 校验数据不存在了
         assertNull(configMapper.selectById(id));
+        // 校验调用
+        verify(configProducer).sendConfigRefreshMessage();
     }
 
     @Test
@@ -206,6 +218,25 @@ public class ConfigServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(dbConfig, config);
     }
 
+    @Test
+    public void testGetConfigValueByKeyFromCache() {
+        // mock 数据
+        ConfigDO dbConfig = randomConfigDO();
+        configMapper.insert(dbConfig);// @Sql: 先插入出一条存在的数据
+        // 准备参数
+        String key = dbConfig.getConfigKey();
+
+        // 调用，并断言
+        assertEquals(dbConfig.getValue(), configService.getConfigValueByKeyFromCache(key));
+        assertNull(configService.getConfigValueByKeyFromCache(randomString()));
+        // 修改数据库后，清空缓存前仍命中缓存
+        configMapper.updateById(new ConfigDO().setId(dbConfig.getId()).setValue("new-value"));
+        assertEquals(dbConfig.getValue(), configService.getConfigValueByKeyFromCache(key));
+        // 清空缓存后，重新加载
+        configService.clearLocalCache();
+        assertEquals("new-value", configService.getConfigValueByKeyFromCache(key));
+    }
+
     // ========== 随机对象 ==========
 
     @SafeVarargs
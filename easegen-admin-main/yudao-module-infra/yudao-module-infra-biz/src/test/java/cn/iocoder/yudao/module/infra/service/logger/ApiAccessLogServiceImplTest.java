@@ -8,6 +8,7 @@ import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.logger.ApiAccessLogMapper;
+import cn.iocoder.yudao.module.infra.framework.apilog.config.ApiAccessLogBufferConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
 
@@ -21,7 +22,7 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEq
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-@Import(ApiAccessLogServiceImpl.class)
+@Import({ApiAccessLogServiceImpl.class, ApiAccessLogBufferConfiguration.class})
 public class ApiAccessLogServiceImplTest extends BaseDbUnitTest {
 
     @Resource
@@ -3,11 +3,16 @@ package cn.iocoder.yudao.module.system.dal.mysql.logger;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionResult;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.time.LocalDateTime;
+
 @Mapper
 public interface OperateLogMapper extends BaseMapperX<OperateLogDO> {
 
@@ -30,4 +35,17 @@ public interface OperateLogMapper extends BaseMapperX<OperateLogDO> {
                 .orderByDesc(OperateLogDO::getId));
     }
 
+    /**
+     * 物理删除指定时间之前的日志
+     *
+     * 优先删除过期的分区，剩余的按照主键分批删除，详见 {@link DataRetentionUtils}
+     *
+     * @param createTime 最大时间
+     * @param options 删除的选项
+     * @return 删除结果
+     */
+    default RetentionResult deleteByCreateTimeLt(LocalDateTime createTime, RetentionOptions options) {
+        return DataRetentionUtils.deleteExpired("system_operate_log", createTime, options);
+    }
+
 }
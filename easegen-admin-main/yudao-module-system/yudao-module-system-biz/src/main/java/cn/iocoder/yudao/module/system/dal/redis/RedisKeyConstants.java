@@ -49,6 +49,14 @@ public interface RedisKeyConstants {
      */
     String PERMISSION_MENU_ID_LIST = "permission_menu_ids";
 
+    /**
+     * 权限索引的版本号
+     * <p>
+     * KEY 格式：permission_index_version:{tenantId}
+     * VALUE 数据类型：String 版本号，每次角色、菜单的授权变化时自增
+     */
+    String PERMISSION_INDEX_VERSION = "permission_index_version:%d";
+
     /**
      * OAuth2 客户端的缓存
      * <p>
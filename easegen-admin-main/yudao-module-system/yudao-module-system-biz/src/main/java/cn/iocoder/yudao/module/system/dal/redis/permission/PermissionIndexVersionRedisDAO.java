@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.module.system.dal.redis.permission;
+
+import cn.hutool.core.util.NumberUtil;
+import jakarta.annotation.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.PERMISSION_INDEX_VERSION;
+
+/**
+ * 权限索引的版本号的 RedisDAO
+ *
+ * 各节点共享同一个版本号，用于判断本地的权限索引是否已经包含某次变化
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class PermissionIndexVersionRedisDAO {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 获得租户的版本号
+     *
+     * @param tenantId 租户编号
+     * @return 版本号。不存在时，返回 0
+     */
+    public long get(Long tenantId) {
+        String value = stringRedisTemplate.opsForValue().get(formatKey(tenantId));
+        return value != null ? NumberUtil.parseLong(value) : 0L;
+    }
+
+    /**
+     * 自增租户的版本号
+     *
+     * @param tenantId 租户编号
+     * @return 自增后的版本号
+     */
+    public long increment(Long tenantId) {
+        Long version = stringRedisTemplate.opsForValue().increment(formatKey(tenantId));
+        return version != null ? version : 0L;
+    }
+
+    private static String formatKey(Long tenantId) {
+        return String.format(PERMISSION_INDEX_VERSION, tenantId);
+    }
+
+}
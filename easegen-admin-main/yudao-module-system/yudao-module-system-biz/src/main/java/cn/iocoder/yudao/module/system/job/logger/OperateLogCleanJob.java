@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.system.job.logger;
+
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
+import cn.iocoder.yudao.module.system.service.logger.OperateLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Resource;
+
+/**
+ * 物理删除 N 天前的操作日志的 Job
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class OperateLogCleanJob implements JobHandler {
+
+    @Resource
+    private OperateLogService operateLogService;
+
+    /**
+     * 清理超过（180）天的日志
+     */
+    private static final Integer JOB_CLEAN_RETAIN_DAY = 180;
+
+    /**
+     * 每批删除的初始条数，之后根据删除耗时在 [100, 2000] 之间自适应调整
+     */
+    private static final Integer DELETE_LIMIT = 1000;
+
+    @Override
+    @TenantIgnore
+    public String execute(String param) {
+        Integer count = operateLogService.cleanOperateLog(JOB_CLEAN_RETAIN_DAY, DELETE_LIMIT);
+        log.info("[execute][定时执行清理操作日志数量 ({}) 个]", count);
+        return String.format("定时执行清理操作日志数量 %s 个", count);
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.mq.consumer.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenRemoveMessage;
+import cn.iocoder.yudao.module.system.service.oauth2.OAuth2TokenService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link OAuth2AccessTokenRemoveMessage} 的消费者
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class OAuth2AccessTokenRemoveConsumer extends AbstractRedisChannelMessageListener<OAuth2AccessTokenRemoveMessage> {
+
+    @Resource
+    private OAuth2TokenService oauth2TokenService;
+
+    @Override
+    public void onMessage(OAuth2AccessTokenRemoveMessage message) {
+        log.debug("[onMessage][收到访问令牌({}) 移除消息]", message.getAccessTokens());
+        oauth2TokenService.clearAccessTokenLocalCache(message.getAccessTokens());
+    }
+
+}
@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.module.system.mq.message.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * 访问令牌的移除 Message
+ *
+ * 用于通知各节点，移除本地缓存中的访问令牌
+ *
+ * @author 芋道源码
+ */
+@Data
+public class OAuth2AccessTokenRemoveMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 访问令牌数组
+     */
+    private Collection<String> accessTokens;
+
+}
@@ -0,0 +1,88 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 权限索引的刷新 Message
+ *
+ * 用于通知各节点，增量更新本地的权限索引。租户编号，通过消息的 Header 传递
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PermissionIndexRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 刷新类型
+     */
+    private Type type;
+    /**
+     * 版本号，即租户的权限数据的版本，用于忽略重复、过期的消息
+     *
+     * 类型 {@link Type#isTenant()} 为 true 时；否则为 null
+     */
+    private Long version;
+
+    /**
+     * 角色编号
+     *
+     * 类型为 {@link Type#ROLE_MENU}、{@link Type#ROLE_DELETE}、{@link Type#ROLE_UPDATE} 时
+     */
+    private Long roleId;
+    /**
+     * 角色拥有的菜单编号集合
+     *
+     * 类型为 {@link Type#ROLE_MENU} 时
+     */
+    private Set<Long> menuIds;
+
+    /**
+     * 用户编号
+     *
+     * 类型为 {@link Type#USER_ROLE} 时
+     */
+    private Long userId;
+    /**
+     * 用户拥有的角色编号集合
+     *
+     * 类型为 {@link Type#USER_ROLE} 时
+     */
+    private Set<Long> roleIds;
+
+    /**
+     * 菜单编号
+     *
+     * 类型为 {@link Type#MENU_DELETE}、{@link Type#MENU_UPDATE} 时
+     */
+    private Long menuId;
+
+    @Getter
+    @AllArgsConstructor
+    public enum Type {
+
+        ROLE_MENU("角色的菜单变化", true),
+        USER_ROLE("用户的角色变化", true),
+        ROLE_DELETE("角色删除", true),
+        ROLE_UPDATE("角色更新，需要重建当前租户的索引", true),
+        MENU_DELETE("菜单删除", false),
+        MENU_UPDATE("菜单更新，需要重建所有租户的索引", false);
+
+        /**
+         * 描述
+         */
+        private final String description;
+        /**
+         * 是否只影响当前租户
+         *
+         * 是的话，按租户的版本号更新；菜单不区分租户，删除是幂等的、更新则直接重建，所以无需版本号
+         */
+        private final boolean tenant;
+
+    }
+
+}
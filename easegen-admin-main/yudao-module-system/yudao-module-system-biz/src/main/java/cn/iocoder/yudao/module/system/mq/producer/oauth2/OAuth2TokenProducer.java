@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.module.system.mq.producer.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenRemoveMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * OAuth2 令牌相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class OAuth2TokenProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link OAuth2AccessTokenRemoveMessage} 消息
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void sendAccessTokenRemoveMessage(Collection<String> accessTokens) {
+        OAuth2AccessTokenRemoveMessage message = new OAuth2AccessTokenRemoveMessage().setAccessTokens(accessTokens);
+        redisMQTemplate.send(message);
+    }
+
+}
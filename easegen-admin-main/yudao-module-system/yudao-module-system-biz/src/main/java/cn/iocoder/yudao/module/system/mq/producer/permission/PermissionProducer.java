@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.system.mq.producer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionIndexRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Permission 权限相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PermissionProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PermissionIndexRefreshMessage} 消息
+     *
+     * @param message 消息
+     */
+    public void sendPermissionIndexRefreshMessage(PermissionIndexRefreshMessage message) {
+        redisMQTemplate.send(message);
+    }
+
+}
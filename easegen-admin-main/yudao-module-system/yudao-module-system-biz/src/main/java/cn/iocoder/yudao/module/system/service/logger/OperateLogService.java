@@ -36,4 +36,13 @@ public interface OperateLogService {
      */
     PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqDTO pageReqVO);
 
+    /**
+     * 清理 exceedDay 天前的操作日志
+     *
+     * @param exceedDay 超过多少天就进行清理
+     * @param deleteLimit 每批删除的初始条数，会根据删除耗时自适应调整
+     * @return 删除的条数
+     */
+    Integer cleanOperateLog(Integer exceedDay, Integer deleteLimit);
+
 }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.system.service.logger;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.mybatis.core.util.DataRetentionUtils.RetentionOptions;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
@@ -12,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.LocalDateTime;
+
 /**
  * 操作日志 Service 实现类
  *
@@ -41,4 +44,12 @@ public class OperateLogServiceImpl implements OperateLogService {
         return operateLogMapper.selectPage(pageReqDTO);
     }
 
+    @Override
+    public Integer cleanOperateLog(Integer exceedDay, Integer deleteLimit) {
+        LocalDateTime expireDate = LocalDateTime.now().minusDays(exceedDay);
+        // 优先删除过期的分区，剩余的按照主键分批删除，批次大小从 deleteLimit 开始根据耗时调整
+        return operateLogMapper.deleteByCreateTimeLt(expireDate, new RetentionOptions().setBatchSize(deleteLimit))
+                .getDeletedRows();
+    }
+
 }
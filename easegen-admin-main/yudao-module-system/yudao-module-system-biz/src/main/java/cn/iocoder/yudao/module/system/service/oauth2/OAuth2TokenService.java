@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.oauth2.vo.token.OAuth2AccessTokenPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.oauth2.OAuth2AccessTokenDO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -69,6 +70,15 @@ public interface OAuth2TokenService {
      */
     OAuth2AccessTokenDO removeAccessToken(String accessToken);
 
+    /**
+     * 移除本地缓存中的访问令牌
+     *
+     * 访问令牌被移除时，各节点通过 Redis Pub/Sub 收到消息后调用
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    void clearAccessTokenLocalCache(Collection<String> accessTokens);
+
     /**
      * 获得访问令牌分页
      *
@@ -21,16 +21,22 @@ import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2AccessTokenMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2RefreshTokenMapper;
 import cn.iocoder.yudao.module.system.dal.redis.oauth2.OAuth2AccessTokenRedisDAO;
+import cn.iocoder.yudao.module.system.mq.producer.oauth2.OAuth2TokenProducer;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Resource;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception0;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
@@ -43,6 +49,40 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 @Service
 public class OAuth2TokenServiceImpl implements OAuth2TokenService {
 
+    /**
+     * 本地缓存的最大数量
+     */
+    private static final int LOCAL_CACHE_MAXIMUM_SIZE = 10000;
+    /**
+     * 访问令牌的本地缓存时间
+     *
+     * 访问令牌移除时，会通过 Redis Pub/Sub 通知各节点移除本地缓存；
+     * 但 Pub/Sub 不保证送达，所以本地缓存最多保留该时间，超过后重新从 Redis 读取
+     */
+    private static final Duration LOCAL_CACHE_TIMEOUT = Duration.ofMinutes(1);
+    /**
+     * 不存在的访问令牌的本地缓存时间
+     *
+     * 避免伪造、已失效的访问令牌反复查询 Redis、MySQL
+     */
+    private static final Duration LOCAL_CACHE_NULL_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * 访问令牌的本地缓存，位于 Redis 之前
+     *
+     * key：访问令牌
+     * 读取时，超过访问令牌的过期时间，则视为不存在
+     */
+    private final Cache<String, OAuth2AccessTokenDO> accessTokenCache = CacheBuilder.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAXIMUM_SIZE).expireAfterWrite(LOCAL_CACHE_TIMEOUT).build();
+    /**
+     * 不存在的访问令牌的本地缓存
+     *
+     * key：访问令牌
+     */
+    private final Cache<String, Boolean> nullAccessTokenCache = CacheBuilder.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAXIMUM_SIZE).expireAfterWrite(LOCAL_CACHE_NULL_TIMEOUT).build();
+
     @Resource
     private OAuth2AccessTokenMapper oauth2AccessTokenMapper;
     @Resource
@@ -51,6 +91,9 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
     @Resource
     private OAuth2AccessTokenRedisDAO oauth2AccessTokenRedisDAO;
 
+    @Resource
+    private OAuth2TokenProducer oauth2TokenProducer;
+
     @Resource
     private OAuth2ClientService oauth2ClientService;
     @Resource
@@ -86,7 +129,9 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
         List<OAuth2AccessTokenDO> accessTokenDOs = oauth2AccessTokenMapper.selectListByRefreshToken(refreshToken);
         if (CollUtil.isNotEmpty(accessTokenDOs)) {
             oauth2AccessTokenMapper.deleteByIds(convertSet(accessTokenDOs, OAuth2AccessTokenDO::getId));
-            oauth2AccessTokenRedisDAO.deleteList(convertSet(accessTokenDOs, OAuth2AccessTokenDO::getAccessToken));
+            Set<String> accessTokens = convertSet(accessTokenDOs, OAuth2AccessTokenDO::getAccessToken);
+            oauth2AccessTokenRedisDAO.deleteList(accessTokens);
+            removeAccessTokenLocalCache(accessTokens);
         }
 
         // 已过期的情况下，删除刷新令牌
@@ -101,9 +146,21 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
 
     @Override
     public OAuth2AccessTokenDO getAccessToken(String accessToken) {
-        // 优先从 Redis 中获取
-        OAuth2AccessTokenDO accessTokenDO = oauth2AccessTokenRedisDAO.get(accessToken);
+        // 优先从本地缓存中获取
+        OAuth2AccessTokenDO accessTokenDO = accessTokenCache.getIfPresent(accessToken);
+        if (accessTokenDO != null) {
+            if (!DateUtils.isExpired(accessTokenDO.getExpiresTime())) {
+                return accessTokenDO;
+            }
+            accessTokenCache.invalidate(accessToken);
+        } else if (nullAccessTokenCache.getIfPresent(accessToken) != null) {
+            return null;
+        }
+
+        // 其次从 Redis 中获取
+        accessTokenDO = oauth2AccessTokenRedisDAO.get(accessToken);
         if (accessTokenDO != null) {
+            accessTokenCache.put(accessToken, accessTokenDO);
             return accessTokenDO;
         }
 
@@ -119,9 +176,12 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
             }
         }
 
-        // 如果在 MySQL 存在，则往 Redis 中写入
-        if (accessTokenDO != null && !DateUtils.isExpired(accessTokenDO.getExpiresTime())) {
+        // 如果在 MySQL 存在，则往 Redis、本地缓存中写入；不存在，则短暂缓存不存在的结果
+        if (accessTokenDO == null) {
+            nullAccessTokenCache.put(accessToken, Boolean.TRUE);
+        } else if (!DateUtils.isExpired(accessTokenDO.getExpiresTime())) {
             oauth2AccessTokenRedisDAO.set(accessTokenDO);
+            accessTokenCache.put(accessToken, accessTokenDO);
         }
         return accessTokenDO;
     }
@@ -148,11 +208,27 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
         }
         oauth2AccessTokenMapper.deleteById(accessTokenDO.getId());
         oauth2AccessTokenRedisDAO.delete(accessToken);
+        removeAccessTokenLocalCache(Collections.singleton(accessToken));
         // 删除刷新令牌
         oauth2RefreshTokenMapper.deleteByRefreshToken(accessTokenDO.getRefreshToken());
         return accessTokenDO;
     }
 
+    @Override
+    public void clearAccessTokenLocalCache(Collection<String> accessTokens) {
+        accessTokenCache.invalidateAll(accessTokens);
+    }
+
+    /**
+     * 移除访问令牌的本地缓存，并通知其它节点移除
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    private void removeAccessTokenLocalCache(Collection<String> accessTokens) {
+        clearAccessTokenLocalCache(accessTokens);
+        oauth2TokenProducer.sendAccessTokenRemoveMessage(accessTokens);
+    }
+
     @Override
     public PageResult<OAuth2AccessTokenDO> getAccessTokenPage(OAuth2AccessTokenPageReqVO reqVO) {
         return oauth2AccessTokenMapper.selectPage(reqVO);
@@ -169,6 +245,7 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
         oauth2AccessTokenMapper.insert(accessTokenDO);
         // 记录到 Redis 中
         oauth2AccessTokenRedisDAO.set(accessTokenDO);
+        nullAccessTokenCache.invalidate(accessTokenDO.getAccessToken());
         return accessTokenDO;
     }
 
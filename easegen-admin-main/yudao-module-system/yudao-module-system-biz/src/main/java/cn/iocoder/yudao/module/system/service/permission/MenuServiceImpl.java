@@ -80,6 +80,8 @@ public class MenuServiceImpl implements MenuService {
         MenuDO updateObj = BeanUtils.toBean(updateReqVO, MenuDO.class);
         initMenuProperty(updateObj);
         menuMapper.updateById(updateObj);
+        // 刷新权限索引，菜单的权限标识可能变化
+        permissionService.processMenuUpdated(updateReqVO.getId());
     }
 
     @Override
@@ -0,0 +1,350 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import cn.iocoder.yudao.module.system.enums.permission.RoleCodeEnum;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 权限索引，用于 {@link PermissionServiceImpl#hasAnyPermissions(Long, String...)} 的快速判断
+ *
+ * 每个角色对应一个位，权限标识、用户都预先转换成角色的位图，判断权限时只需要几次位运算，无需访问 Redis、MySQL。
+ *
+ * 索引是不可变的：角色的菜单变化、角色或菜单删除时，复制出新的索引替换，并且角色的位保持不变；
+ * 新增角色、新增菜单、角色或菜单的其它变化，则需要重建索引，此时 withXXX 方法返回 null
+ *
+ * 每个索引带有版本号，对应租户的权限数据的版本，用于判断刷新消息是否已经包含在索引中
+ *
+ * @author 芋道源码
+ */
+class PermissionIndex {
+
+    /**
+     * 用户的角色位图的最大缓存数量
+     */
+    private static final int USER_CACHE_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 构建时间
+     *
+     * 增量更新时保持不变，用于定期重建索引
+     */
+    private final long buildTime;
+    /**
+     * 版本号
+     *
+     * 构建时，为读取数据前租户的版本号；增量更新时，为更新消息的版本号
+     */
+    private final long version;
+    /**
+     * 角色编号与位的映射
+     */
+    private final Map<Long, Integer> roleBits;
+    /**
+     * 开启的角色
+     */
+    private final BitSet enableRoleBits;
+    /**
+     * 开启的超级管理员角色
+     */
+    private final BitSet superAdminRoleBits;
+    /**
+     * 菜单编号与权限标识的映射，只包含权限标识非空的菜单
+     */
+    private final Map<Long, String> menuPermissions;
+    /**
+     * 拥有菜单的角色，包含所有菜单
+     *
+     * key：菜单编号
+     */
+    private final Map<Long, BitSet> menuRoleBits;
+    /**
+     * 拥有权限的角色，即权限标识对应的各菜单的 {@link #menuRoleBits} 的并集
+     *
+     * key：权限标识
+     */
+    private final Map<String, BitSet> permissionRoleBits;
+    /**
+     * 用户拥有的角色，按需加载
+     *
+     * 由于增量更新时角色的位保持不变，所以增量更新前后的索引共享
+     * key：用户编号
+     */
+    private final Cache<Long, BitSet> userRoleBits;
+
+    private PermissionIndex(long buildTime, long version, Map<Long, Integer> roleBits,
+                            BitSet enableRoleBits, BitSet superAdminRoleBits,
+                            Map<Long, String> menuPermissions, Map<Long, BitSet> menuRoleBits,
+                            Map<String, BitSet> permissionRoleBits, Cache<Long, BitSet> userRoleBits) {
+        this.buildTime = buildTime;
+        this.version = version;
+        this.roleBits = roleBits;
+        this.enableRoleBits = enableRoleBits;
+        this.superAdminRoleBits = superAdminRoleBits;
+        this.menuPermissions = menuPermissions;
+        this.menuRoleBits = menuRoleBits;
+        this.permissionRoleBits = permissionRoleBits;
+        this.userRoleBits = userRoleBits;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param version 版本号，需要在读取角色、菜单等数据之前获得
+     * @param roles 角色列表
+     * @param menus 菜单列表
+     * @param roleMenus 角色与菜单的关联列表
+     * @return 索引
+     */
+    static PermissionIndex build(long version, List<RoleDO> roles, List<MenuDO> menus, List<RoleMenuDO> roleMenus) {
+        // 角色
+        Map<Long, Integer> roleBits = new HashMap<>(roles.size());
+        BitSet enableRoleBits = new BitSet(roles.size());
+        BitSet superAdminRoleBits = new BitSet();
+        for (RoleDO role : roles) {
+            int bit = roleBits.size();
+            roleBits.put(role.getId(), bit);
+            if (CommonStatusEnum.ENABLE.getStatus().equals(role.getStatus())) {
+                enableRoleBits.set(bit);
+                if (RoleCodeEnum.isSuperAdmin(role.getCode())) {
+                    superAdminRoleBits.set(bit);
+                }
+            }
+        }
+        // 菜单
+        Map<Long, String> menuPermissions = new HashMap<>();
+        Map<Long, BitSet> menuRoleBits = new HashMap<>(menus.size());
+        for (MenuDO menu : menus) {
+            menuRoleBits.put(menu.getId(), new BitSet());
+            if (StrUtil.isNotEmpty(menu.getPermission())) {
+                menuPermissions.put(menu.getId(), menu.getPermission());
+            }
+        }
+        // 角色与菜单的关联。忽略已经不存在的角色、菜单
+        for (RoleMenuDO roleMenu : roleMenus) {
+            Integer bit = roleBits.get(roleMenu.getRoleId());
+            BitSet bits = menuRoleBits.get(roleMenu.getMenuId());
+            if (bit != null && bits != null) {
+                bits.set(bit);
+            }
+        }
+        return new PermissionIndex(System.currentTimeMillis(), version, roleBits, enableRoleBits, superAdminRoleBits,
+                menuPermissions, menuRoleBits,
+                mergePermissionRoleBits(Collections.emptyMap(), menuPermissions, menuRoleBits, new HashSet<>(menuPermissions.values())),
+                CacheBuilder.newBuilder().maximumSize(USER_CACHE_MAXIMUM_SIZE).build());
+    }
+
+    /**
+     * 判断是否有权限，任一一个即可
+     *
+     * @param userRoleBits 用户拥有的角色，通过 {@link #getUserRoleBits(Long, Function)} 获得
+     * @param permissions 权限标识数组
+     * @return 是否
+     */
+    boolean hasAnyPermissions(BitSet userRoleBits, String... permissions) {
+        // 只保留开启的角色。如果为空，说明没有权限
+        BitSet roleBits = (BitSet) userRoleBits.clone();
+        roleBits.and(enableRoleBits);
+        if (roleBits.isEmpty()) {
+            return false;
+        }
+
+        // 情况一：遍历判断每个权限，如果有一满足，说明有权限
+        for (String permission : permissions) {
+            // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
+            BitSet bits = permissionRoleBits.get(permission);
+            if (bits != null && bits.intersects(roleBits)) {
+                return true;
+            }
+        }
+
+        // 情况二：如果是超管，也说明有权限
+        return superAdminRoleBits.intersects(roleBits);
+    }
+
+    /**
+     * 获得用户拥有的角色
+     *
+     * @param userId 用户编号
+     * @param roleIdsLoader 缓存不存在时，加载用户拥有的角色编号集合
+     * @return 角色的位图。忽略索引中不存在的角色
+     */
+    BitSet getUserRoleBits(Long userId, Function<Long, Collection<Long>> roleIdsLoader) {
+        BitSet bits = userRoleBits.getIfPresent(userId);
+        if (bits != null) {
+            return bits;
+        }
+        bits = toRoleBits(roleIdsLoader.apply(userId));
+        // 使用 putIfAbsent 的原因：加载期间，用户的角色可能被 withUserRoles 更新，此时以更新的为准
+        BitSet existBits = userRoleBits.asMap().putIfAbsent(userId, bits);
+        return existBits != null ? existBits : bits;
+    }
+
+    /**
+     * 是否超过指定的使用时间
+     *
+     * @param timeoutMillis 使用时间，单位：毫秒
+     * @return 是否
+     */
+    boolean isExpired(long timeoutMillis) {
+        return System.currentTimeMillis() - buildTime > timeoutMillis;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    // ========== 增量更新 ==========
+
+    /**
+     * 更新版本号
+     *
+     * @param version 版本号
+     * @return 更新后的索引
+     */
+    PermissionIndex withVersion(long version) {
+        if (version == this.version) {
+            return this;
+        }
+        return new PermissionIndex(buildTime, version, roleBits, enableRoleBits, superAdminRoleBits,
+                menuPermissions, menuRoleBits, permissionRoleBits, userRoleBits);
+    }
+
+    /**
+     * 更新用户拥有的角色
+     *
+     * @param userId 用户编号
+     * @param roleIds 角色编号集合
+     * @return 更新后的索引；存在索引中不存在的角色时，返回 null
+     */
+    PermissionIndex withUserRoles(Long userId, Collection<Long> roleIds) {
+        if (!roleBits.keySet().containsAll(roleIds)) {
+            return null;
+        }
+        userRoleBits.put(userId, toRoleBits(roleIds));
+        return this;
+    }
+
+    /**
+     * 更新角色拥有的菜单
+     *
+     * @param roleId 角色编号
+     * @param menuIds 菜单编号集合
+     * @return 更新后的索引；角色或菜单在索引中不存在时，返回 null
+     */
+    PermissionIndex withRoleMenus(Long roleId, Collection<Long> menuIds) {
+        Integer bit = roleBits.get(roleId);
+        if (bit == null || !menuRoleBits.keySet().containsAll(menuIds)) {
+            return null;
+        }
+        // 只复制变化的菜单
+        Map<Long, BitSet> newMenuRoleBits = null;
+        Set<String> changedPermissions = new HashSet<>();
+        for (Map.Entry<Long, BitSet> entry : menuRoleBits.entrySet()) {
+            boolean granted = menuIds.contains(entry.getKey());
+            if (entry.getValue().get(bit) == granted) {
+                continue;
+            }
+            if (newMenuRoleBits == null) {
+                newMenuRoleBits = new HashMap<>(menuRoleBits);
+            }
+            BitSet newBits = (BitSet) entry.getValue().clone();
+            newBits.set(bit, granted);
+            newMenuRoleBits.put(entry.getKey(), newBits);
+            String permission = menuPermissions.get(entry.getKey());
+            if (permission != null) {
+                changedPermissions.add(permission);
+            }
+        }
+        if (newMenuRoleBits == null) {
+            return this;
+        }
+        return new PermissionIndex(buildTime, version, roleBits, enableRoleBits, superAdminRoleBits,
+                menuPermissions, newMenuRoleBits,
+                mergePermissionRoleBits(permissionRoleBits, menuPermissions, newMenuRoleBits, changedPermissions),
+                userRoleBits);
+    }
+
+    /**
+     * 移除角色
+     *
+     * 只需要将角色标记为未开启：用户、菜单中残留的该角色的位，判断权限时会被忽略
+     *
+     * @param roleId 角色编号
+     * @return 更新后的索引
+     */
+    PermissionIndex withoutRole(Long roleId) {
+        Integer bit = roleBits.get(roleId);
+        if (bit == null) {
+            return this;
+        }
+        BitSet newEnableRoleBits = (BitSet) enableRoleBits.clone();
+        newEnableRoleBits.clear(bit);
+        BitSet newSuperAdminRoleBits = (BitSet) superAdminRoleBits.clone();
+        newSuperAdminRoleBits.clear(bit);
+        return new PermissionIndex(buildTime, version, roleBits, newEnableRoleBits, newSuperAdminRoleBits,
+                menuPermissions, menuRoleBits, permissionRoleBits, userRoleBits);
+    }
+
+    /**
+     * 移除菜单
+     *
+     * @param menuId 菜单编号
+     * @return 更新后的索引
+     */
+    PermissionIndex withoutMenu(Long menuId) {
+        if (!menuRoleBits.containsKey(menuId)) {
+            return this;
+        }
+        Map<Long, BitSet> newMenuRoleBits = new HashMap<>(menuRoleBits);
+        newMenuRoleBits.remove(menuId);
+        Map<Long, String> newMenuPermissions = new HashMap<>(menuPermissions);
+        String permission = newMenuPermissions.remove(menuId);
+        Map<String, BitSet> newPermissionRoleBits = permission == null ? permissionRoleBits
+                : mergePermissionRoleBits(permissionRoleBits, newMenuPermissions, newMenuRoleBits, Collections.singleton(permission));
+        return new PermissionIndex(buildTime, version, roleBits, enableRoleBits, superAdminRoleBits,
+                newMenuPermissions, newMenuRoleBits, newPermissionRoleBits, userRoleBits);
+    }
+
+    private BitSet toRoleBits(Collection<Long> roleIds) {
+        BitSet bits = new BitSet(roleBits.size());
+        for (Long roleId : roleIds) {
+            Integer bit = roleBits.get(roleId);
+            if (bit != null) {
+                bits.set(bit);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 重新计算指定权限标识的 {@link #permissionRoleBits}
+     *
+     * @param permissionRoleBits 原有的 permissionRoleBits，不会被修改
+     * @param menuPermissions 菜单编号与权限标识的映射
+     * @param menuRoleBits 拥有菜单的角色
+     * @param permissions 需要重新计算的权限标识
+     * @return 新的 permissionRoleBits
+     */
+    private static Map<String, BitSet> mergePermissionRoleBits(Map<String, BitSet> permissionRoleBits,
+                                                               Map<Long, String> menuPermissions,
+                                                               Map<Long, BitSet> menuRoleBits,
+                                                               Set<String> permissions) {
+        Map<String, BitSet> result = new HashMap<>(permissionRoleBits);
+        permissions.forEach(result::remove);
+        menuPermissions.forEach((menuId, permission) -> {
+            if (permissions.contains(permission)) {
+                result.computeIfAbsent(permission, key -> new BitSet()).or(menuRoleBits.get(menuId));
+            }
+        });
+        return result;
+    }
+
+}
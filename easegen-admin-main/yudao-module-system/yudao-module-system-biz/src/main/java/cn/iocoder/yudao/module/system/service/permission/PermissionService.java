@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.system.service.permission;
 
 import cn.iocoder.yudao.module.system.api.permission.dto.DeptDataPermissionRespDTO;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionIndexRefreshMessage;
 
 import java.util.Collection;
 import java.util.Set;
@@ -50,6 +51,13 @@ public interface PermissionService {
      */
     void processRoleDeleted(Long roleId);
 
+    /**
+     * 处理角色更新时，例如说状态、编码的变化，刷新权限索引
+     *
+     * @param roleId 角色编号
+     */
+    void processRoleUpdated(Long roleId);
+
     /**
      * 处理菜单删除时，删除关联授权数据
      *
@@ -57,6 +65,13 @@ public interface PermissionService {
      */
     void processMenuDeleted(Long menuId);
 
+    /**
+     * 处理菜单更新时，例如说权限标识的变化，刷新权限索引
+     *
+     * @param menuId 菜单编号
+     */
+    void processMenuUpdated(Long menuId);
+
     /**
      * 获得角色拥有的菜单编号集合
      *
@@ -143,4 +158,15 @@ public interface PermissionService {
      */
     DeptDataPermissionRespDTO getDeptDataPermission(Long userId);
 
+    // ========== 权限索引的相关方法  ==========
+
+    /**
+     * 刷新本地的权限索引
+     *
+     * 权限相关的数据变化时，各节点通过 Redis Pub/Sub 收到消息后调用
+     *
+     * @param message 刷新消息
+     */
+    void refreshLocalPermissionIndex(PermissionIndexRefreshMessage message);
+
 }
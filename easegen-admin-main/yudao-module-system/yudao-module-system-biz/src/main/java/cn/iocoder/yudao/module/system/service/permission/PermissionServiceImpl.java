@@ -3,10 +3,13 @@ package cn.iocoder.yudao.module.system.service.permission;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ArrayUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.system.api.permission.dto.DeptDataPermissionRespDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
@@ -15,12 +18,18 @@ import cn.iocoder.yudao.module.system.dal.dataobject.permission.UserRoleDO;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.system.dal.redis.permission.PermissionIndexVersionRedisDAO;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionIndexRefreshMessage;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import com.baomidou.dynamic.datasource.annotation.DSTransactional;
+import com.baomidou.dynamic.datasource.tx.TransactionContext;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -28,10 +37,14 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.annotation.Resource;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.json.JsonUtils.toJsonString;
@@ -45,6 +58,26 @@ import static cn.iocoder.yudao.framework.common.util.json.JsonUtils.toJsonString
 @Slf4j
 public class PermissionServiceImpl implements PermissionService {
 
+    /**
+     * 权限索引的最大缓存数量，即租户数量
+     */
+    private static final int PERMISSION_INDEX_MAXIMUM_SIZE = 1000;
+    /**
+     * 权限索引的最长使用时间，超过后重建
+     *
+     * 权限相关的数据变化时，会在事务提交后通过 Redis Pub/Sub 通知各节点增量更新；
+     * 但 Pub/Sub 不保证送达、事务提交后节点也可能宕机，所以定期重建兜底
+     */
+    private static final long PERMISSION_INDEX_TIMEOUT = Duration.ofMinutes(10).toMillis();
+
+    /**
+     * 权限索引的缓存
+     *
+     * key：租户编号。未开启多租户时，为 0
+     */
+    private final Cache<Long, PermissionIndex> permissionIndexCache = CacheBuilder.newBuilder()
+            .maximumSize(PERMISSION_INDEX_MAXIMUM_SIZE).build();
+
     @Resource
     private RoleMenuMapper roleMenuMapper;
     @Resource
@@ -59,6 +92,12 @@ public class PermissionServiceImpl implements PermissionService {
     @Resource
     private AdminUserService userService;
 
+    @Resource
+    private PermissionIndexVersionRedisDAO permissionIndexVersionRedisDAO;
+
+    @Resource
+    private PermissionProducer permissionProducer;
+
     @Override
     public boolean hasAnyPermissions(Long userId, String... permissions) {
         // 如果为空，说明已经有权限
@@ -66,48 +105,9 @@ public class PermissionServiceImpl implements PermissionService {
             return true;
         }
 
-        // 获得当前登录的角色。如果为空，说明没有权限
-        List<RoleDO> roles = getEnableUserRoleListByUserIdFromCache(userId);
-        if (CollUtil.isEmpty(roles)) {
-            return false;
-        }
-
-        // 情况一：遍历判断每个权限，如果有一满足，说明有权限
-        for (String permission : permissions) {
-            if (hasAnyPermission(roles, permission)) {
-                return true;
-            }
-        }
-
-        // 情况二：如果是超管，也说明有权限
-        return roleService.hasAnySuperAdmin(convertSet(roles, RoleDO::getId));
-    }
-
-    /**
-     * 判断指定角色，是否拥有该 permission 权限
-     *
-     * @param roles 指定角色数组
-     * @param permission 权限标识
-     * @return 是否拥有
-     */
-    private boolean hasAnyPermission(List<RoleDO> roles, String permission) {
-        List<Long> menuIds = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
-        if (CollUtil.isEmpty(menuIds)) {
-            return false;
-        }
-
-        // 判断是否有权限
-        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
-        for (Long menuId : menuIds) {
-            // 获得拥有该菜单的角色编号集合
-            Set<Long> menuRoleIds = getSelf().getMenuRoleIdListByMenuIdFromCache(menuId);
-            // 如果有交集，说明有权限
-            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
-                return true;
-            }
-        }
-        return false;
+        // 基于权限索引判断：获得用户拥有的角色，再与权限对应的角色求交集
+        PermissionIndex index = getPermissionIndex();
+        return index.hasAnyPermissions(index.getUserRoleBits(userId, this::getUserRoleIdListByUserId), permissions);
     }
 
     @Override
@@ -153,6 +153,9 @@ public class PermissionServiceImpl implements PermissionService {
         if (CollUtil.isNotEmpty(deleteMenuIds)) {
             roleMenuMapper.deleteListByRoleIdAndMenuIds(roleId, deleteMenuIds);
         }
+        // 刷新权限索引
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.ROLE_MENU)
+                .setRoleId(roleId).setMenuIds(menuIdList));
     }
 
     @Override
@@ -168,12 +171,30 @@ public class PermissionServiceImpl implements PermissionService {
         userRoleMapper.deleteListByRoleId(roleId);
         // 标记删除 RoleMenu
         roleMenuMapper.deleteListByRoleId(roleId);
+        // 刷新权限索引
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.ROLE_DELETE)
+                .setRoleId(roleId));
+    }
+
+    @Override
+    public void processRoleUpdated(Long roleId) {
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.ROLE_UPDATE)
+                .setRoleId(roleId));
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
     public void processMenuDeleted(Long menuId) {
         roleMenuMapper.deleteListByMenuId(menuId);
+        // 刷新权限索引
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.MENU_DELETE)
+                .setMenuId(menuId));
+    }
+
+    @Override
+    public void processMenuUpdated(Long menuId) {
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.MENU_UPDATE)
+                .setMenuId(menuId));
     }
 
     @Override
@@ -221,12 +242,18 @@ public class PermissionServiceImpl implements PermissionService {
         if (!CollectionUtil.isEmpty(deleteMenuIds)) {
             userRoleMapper.deleteListByUserIdAndRoleIdIds(userId, deleteMenuIds);
         }
+        // 刷新权限索引
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.USER_ROLE)
+                .setUserId(userId).setRoleIds(roleIdList));
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST, key = "#userId")
     public void processUserDeleted(Long userId) {
         userRoleMapper.deleteListByUserId(userId);
+        // 刷新权限索引
+        refreshPermissionIndex(new PermissionIndexRefreshMessage().setType(PermissionIndexRefreshMessage.Type.USER_ROLE)
+                .setUserId(userId).setRoleIds(Collections.emptySet()));
     }
 
     @Override
@@ -325,6 +352,142 @@ public class PermissionServiceImpl implements PermissionService {
         return result;
     }
 
+    // ========== 权限索引的相关方法  ==========
+
+    @Override
+    public void refreshLocalPermissionIndex(PermissionIndexRefreshMessage message) {
+        Long version = message.getVersion();
+        switch (message.getType()) {
+            case ROLE_MENU:
+                updatePermissionIndex(getPermissionIndexKey(), version,
+                        index -> index.withRoleMenus(message.getRoleId(), message.getMenuIds()));
+                break;
+            case USER_ROLE:
+                updatePermissionIndex(getPermissionIndexKey(), version,
+                        index -> index.withUserRoles(message.getUserId(), message.getRoleIds()));
+                break;
+            case ROLE_DELETE:
+                updatePermissionIndex(getPermissionIndexKey(), version, index -> index.withoutRole(message.getRoleId()));
+                break;
+            case ROLE_UPDATE:
+                updatePermissionIndex(getPermissionIndexKey(), version, index -> null);
+                break;
+            case MENU_DELETE: // 菜单不区分租户，所以更新所有租户的索引
+                permissionIndexCache.asMap().keySet().forEach(key ->
+                        updatePermissionIndex(key, null, index -> index.withoutMenu(message.getMenuId())));
+                break;
+            case MENU_UPDATE:
+                permissionIndexCache.invalidateAll();
+                break;
+            default:
+                log.error("[refreshLocalPermissionIndex][消息({}) 无法处理]", message);
+        }
+    }
+
+    /**
+     * 事务提交后，刷新本节点的权限索引，并通知其它节点刷新
+     *
+     * 如果在事务提交前刷新，一方面事务可能回滚；另一方面其它线程此时重建索引，读到的仍是旧数据，而刷新已经结束
+     *
+     * @param message 刷新消息
+     */
+    private void refreshPermissionIndex(PermissionIndexRefreshMessage message) {
+        Long key = getPermissionIndexKey();
+        executeAfterCommit(() -> {
+            try {
+                if (message.getType().isTenant()) {
+                    message.setVersion(permissionIndexVersionRedisDAO.increment(key));
+                }
+                refreshLocalPermissionIndex(message);
+                permissionProducer.sendPermissionIndexRefreshMessage(message);
+            } catch (Exception ex) {
+                // 事务已经提交，不影响业务，移除本节点的索引即可；其它节点依赖定期重建
+                log.error("[refreshPermissionIndex][消息({}) 刷新失败]", message, ex);
+                permissionIndexCache.invalidate(key);
+            }
+        });
+    }
+
+    /**
+     * 获得当前租户的权限索引。不存在或已过期时，重建
+     *
+     * @return 权限索引
+     */
+    private PermissionIndex getPermissionIndex() {
+        Long key = getPermissionIndexKey();
+        PermissionIndex index = permissionIndexCache.getIfPresent(key);
+        if (index != null && !index.isExpired(PERMISSION_INDEX_TIMEOUT)) {
+            return index;
+        }
+        // 通过 compute 保证同一租户只重建一次；并且与 updatePermissionIndex 互斥，重建期间的变化会在重建后再更新
+        return permissionIndexCache.asMap().compute(key, (k, old) ->
+                old != null && !old.isExpired(PERMISSION_INDEX_TIMEOUT) ? old : buildPermissionIndex(k));
+    }
+
+    private PermissionIndex buildPermissionIndex(Long key) {
+        // 先获得版本号，再读取数据：读到的数据至少包含该版本号之前的变化，之后的变化通过消息增量更新
+        long version = permissionIndexVersionRedisDAO.get(key);
+        PermissionIndex index = PermissionIndex.build(version, roleService.getRoleList(), menuService.getMenuList(),
+                roleMenuMapper.selectList());
+        log.info("[buildPermissionIndex][租户({}) 构建权限索引完成，版本号({})]", TenantContextHolder.getTenantId(), version);
+        return index;
+    }
+
+    /**
+     * 增量更新权限索引。索引不存在时，无需更新，使用时再构建即可
+     *
+     * @param key 权限索引的 key
+     * @param version 变化的版本号。为 null 时，不校验版本号
+     * @param updater 更新逻辑，返回 null 时表示无法增量更新，移除索引，使用时再重建
+     */
+    private void updatePermissionIndex(Long key, Long version, UnaryOperator<PermissionIndex> updater) {
+        permissionIndexCache.asMap().computeIfPresent(key, (k, index) -> {
+            if (version == null) {
+                return updater.apply(index);
+            }
+            // 情况一：索引已经包含该变化，即重复、过期的消息，忽略
+            if (version <= index.getVersion()) {
+                return index;
+            }
+            // 情况二：缺少之前的变化，即消息丢失、乱序，移除索引，使用时再重建
+            if (version > index.getVersion() + 1) {
+                return null;
+            }
+            // 情况三：正好是下一个变化，增量更新
+            PermissionIndex newIndex = updater.apply(index);
+            return newIndex != null ? newIndex.withVersion(version) : null;
+        });
+    }
+
+    private static Long getPermissionIndexKey() {
+        return ObjUtil.defaultIfNull(TenantContextHolder.getTenantId(), 0L);
+    }
+
+    /**
+     * 事务提交后执行。不在事务中时，直接执行
+     *
+     * 同时支持 {@link DSTransactional} 和 Spring 的 {@link Transactional}
+     *
+     * @param runnable 执行逻辑
+     */
+    private static void executeAfterCommit(Runnable runnable) {
+        TransactionSynchronization synchronization = new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+
+        };
+        if (StrUtil.isNotEmpty(TransactionContext.getXID())) {
+            TransactionContext.registerSynchronization(synchronization);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        } else {
+            runnable.run();
+        }
+    }
+
     /**
      * 获得自身的代理对象，解决 AOP 生效问题
      *
@@ -81,9 +81,11 @@ public class RoleServiceImpl implements RoleService {
         // 1.2 校验角色的唯一字段是否重复
         validateRoleDuplicate(updateReqVO.getName(), updateReqVO.getCode(), updateReqVO.getId());
 
-        // 2. 更新到数据库
+        // 2.1 更新到数据库
         RoleDO updateObj = BeanUtils.toBean(updateReqVO, RoleDO.class);
         roleMapper.updateById(updateObj);
+        // 2.2 刷新权限索引，角色的状态、编码可能变化
+        permissionService.processRoleUpdated(updateReqVO.getId());
 
         // 3. 记录操作日志上下文
         LogRecordContext.putVariable("role", role);
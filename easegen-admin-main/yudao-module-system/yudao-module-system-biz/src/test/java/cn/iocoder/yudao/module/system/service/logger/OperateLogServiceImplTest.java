@@ -12,10 +12,15 @@ import jakarta.annotation.Resource;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
 
+import java.time.Duration;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.addTime;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildBetweenTime;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildTime;
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @Import({OperateLogServiceImpl.class})
@@ -110,4 +115,24 @@ public class OperateLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(operateLogDO, pageResult.getList().get(0));
     }
 
+    @Test
+    public void testCleanOperateLog() {
+        // mock 数据
+        OperateLogDO log01 = randomPojo(OperateLogDO.class, o -> o.setCreateTime(addTime(Duration.ofDays(-3))));
+        operateLogMapper.insert(log01);
+        OperateLogDO log02 = randomPojo(OperateLogDO.class, o -> o.setCreateTime(addTime(Duration.ofDays(-1))));
+        operateLogMapper.insert(log02);
+        // 准备参数
+        Integer exceedDay = 2;
+        Integer deleteLimit = 1;
+
+        // 调用
+        Integer count = operateLogServiceImpl.cleanOperateLog(exceedDay, deleteLimit);
+        // 断言
+        assertEquals(1, count);
+        List<OperateLogDO> logs = operateLogMapper.selectList();
+        assertEquals(1, logs.size());
+        assertPojoEquals(log02, logs.get(0), "createTime", "updateTime");
+    }
+
 }
@@ -15,6 +15,7 @@ import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2AccessTokenMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2RefreshTokenMapper;
 import cn.iocoder.yudao.module.system.dal.redis.oauth2.OAuth2AccessTokenRedisDAO;
+import cn.iocoder.yudao.module.system.mq.producer.oauth2.OAuth2TokenProducer;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import jakarta.annotation.Resource;
 import org.assertj.core.util.Lists;
@@ -23,6 +24,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
@@ -31,6 +33,7 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServic
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -56,6 +59,8 @@ public class OAuth2TokenServiceImplTest extends BaseDbAndRedisUnitTest {
     private OAuth2ClientService oauth2ClientService;
     @MockBean
     private AdminUserService adminUserService;
+    @MockBean
+    private OAuth2TokenProducer oauth2TokenProducer;
 
     @Test
     public void testCreateAccessToken() {
@@ -178,6 +183,7 @@ public class OAuth2TokenServiceImplTest extends BaseDbAndRedisUnitTest {
         // 断言，老的访问令牌被删除
         assertNull(oauth2AccessTokenMapper.selectByAccessToken(accessTokenDO.getAccessToken()));
         assertNull(oauth2AccessTokenRedisDAO.get(accessTokenDO.getAccessToken()));
+        verify(oauth2TokenProducer).sendAccessTokenRemoveMessage(eq(Collections.singleton(accessTokenDO.getAccessToken())));
         // 断言，新的访问令牌
         OAuth2AccessTokenDO dbAccessTokenDO = oauth2AccessTokenMapper.selectByAccessToken(newAccessTokenDO.getAccessToken());
         // TODO @芋艿：expiresTime 被屏蔽，仅 win11 会复现，建议后续修复。
@@ -211,6 +217,44 @@ public class OAuth2TokenServiceImplTest extends BaseDbAndRedisUnitTest {
                 "creator", "updater");
     }
 
+    @Test
+    public void testGetAccessToken_localCache() {
+        // mock 数据（访问令牌）
+        OAuth2AccessTokenDO accessTokenDO = randomPojo(OAuth2AccessTokenDO.class)
+                .setExpiresTime(LocalDateTime.now().plusDays(1));
+        oauth2AccessTokenMapper.insert(accessTokenDO);
+        // 准备参数
+        String accessToken = accessTokenDO.getAccessToken();
+        // 调用：第一次，写入本地缓存
+        oauth2TokenService.getAccessToken(accessToken);
+
+        // 调用：移除 Redis、MySQL 中的访问令牌，仍然从本地缓存中获取
+        oauth2AccessTokenMapper.deleteById(accessTokenDO.getId());
+        oauth2AccessTokenRedisDAO.delete(accessToken);
+        OAuth2AccessTokenDO result = oauth2TokenService.getAccessToken(accessToken);
+        // 断言
+        assertEquals(accessToken, result.getAccessToken());
+
+        // 调用：移除本地缓存后，获取不到
+        oauth2TokenService.clearAccessTokenLocalCache(Collections.singleton(accessToken));
+        assertNull(oauth2TokenService.getAccessToken(accessToken));
+    }
+
+    @Test
+    public void testGetAccessToken_nullCache() {
+        // 准备参数
+        String accessToken = randomString();
+        // 调用：第一次，缓存不存在的结果
+        assertNull(oauth2TokenService.getAccessToken(accessToken));
+
+        // mock 数据（访问令牌）：写入后，短时间内仍然视为不存在
+        OAuth2AccessTokenDO accessTokenDO = randomPojo(OAuth2AccessTokenDO.class).setAccessToken(accessToken)
+                .setExpiresTime(LocalDateTime.now().plusDays(1));
+        oauth2AccessTokenMapper.insert(accessTokenDO);
+        // 调用，并断言
+        assertNull(oauth2TokenService.getAccessToken(accessToken));
+    }
+
     @Test
     public void testCheckAccessToken_null() {
         // 调研，并断言
@@ -290,6 +334,8 @@ public class OAuth2TokenServiceImplTest extends BaseDbAndRedisUnitTest {
         assertNull(oauth2AccessTokenMapper.selectByAccessToken(accessTokenDO.getAccessToken()));
         assertNull(oauth2RefreshTokenMapper.selectByRefreshToken(accessTokenDO.getRefreshToken()));
         assertNull(oauth2AccessTokenRedisDAO.get(accessTokenDO.getAccessToken()));
+        assertNull(oauth2TokenService.getAccessToken(accessTokenDO.getAccessToken()));
+        verify(oauth2TokenProducer).sendAccessTokenRemoveMessage(eq(Collections.singleton(accessTokenDO.getAccessToken())));
     }
 
 
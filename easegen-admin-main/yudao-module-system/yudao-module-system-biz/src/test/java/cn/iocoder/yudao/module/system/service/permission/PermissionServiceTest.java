@@ -13,9 +13,14 @@ import cn.iocoder.yudao.module.system.dal.dataobject.permission.UserRoleDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
+import cn.iocoder.yudao.module.system.dal.redis.permission.PermissionIndexVersionRedisDAO;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.enums.permission.RoleCodeEnum;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionIndexRefreshMessage;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -23,6 +28,7 @@ import org.springframework.context.annotation.Import;
 
 import jakarta.annotation.Resource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -56,6 +62,17 @@ public class PermissionServiceTest extends BaseDbUnitTest {
     private DeptService deptService;
     @MockBean
     private AdminUserService userService;
+    @MockBean
+    private PermissionIndexVersionRedisDAO permissionIndexVersionRedisDAO;
+    @MockBean
+    private PermissionProducer permissionProducer;
+
+    @BeforeEach
+    public void setUp() {
+        // 清空权限索引，避免不同单元测试之间相互影响
+        permissionService.refreshLocalPermissionIndex(new PermissionIndexRefreshMessage()
+                .setType(PermissionIndexRefreshMessage.Type.MENU_UPDATE));
+    }
 
     @Test
     public void testHasAnyPermissions_superAdmin() {
@@ -68,11 +85,9 @@ public class PermissionServiceTest extends BaseDbUnitTest {
             String[] roles = new String[]{"system:user:query", "system:user:create"};
             // mock 用户登录的角色
             userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(100L));
-            RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L)
+            RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L).setCode(RoleCodeEnum.SUPER_ADMIN.getCode())
                     .setStatus(CommonStatusEnum.ENABLE.getStatus()));
-            when(roleService.getRoleListFromCache(eq(singleton(100L)))).thenReturn(toList(role));
-            // mock 其它方法
-            when(roleService.hasAnySuperAdmin(eq(asSet(100L)))).thenReturn(true);
+            when(roleService.getRoleList()).thenReturn(toList(role));
 
             // 调用，并断言
             assertTrue(permissionService.hasAnyPermissions(userId, roles));
@@ -90,13 +105,13 @@ public class PermissionServiceTest extends BaseDbUnitTest {
             String[] roles = new String[]{"system:user:query", "system:user:create"};
             // mock 用户登录的角色
             userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(100L));
-            RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L)
+            RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L).setCode("normal")
                     .setStatus(CommonStatusEnum.ENABLE.getStatus()));
-            when(roleService.getRoleListFromCache(eq(singleton(100L)))).thenReturn(toList(role));
+            when(roleService.getRoleList()).thenReturn(toList(role));
             // mock 菜单
             Long menuId = 1000L;
-            when(menuService.getMenuIdListByPermissionFromCache(
-                    eq("system:user:create"))).thenReturn(singletonList(menuId));
+            when(menuService.getMenuList()).thenReturn(singletonList(
+                    randomPojo(MenuDO.class, o -> o.setId(menuId).setPermission("system:user:create"))));
             roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1000L));
 
             // 调用，并断言
@@ -104,6 +119,87 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         }
     }
 
+    @Test
+    public void testHasAnyPermissions_refresh() {
+        // 准备参数
+        Long userId = 1L;
+        String permission = "system:user:create";
+        // mock 用户登录的角色
+        userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(100L));
+        RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L).setCode("normal")
+                .setStatus(CommonStatusEnum.ENABLE.getStatus()));
+        when(roleService.getRoleList()).thenReturn(toList(role));
+        // mock 菜单
+        when(menuService.getMenuList()).thenReturn(toList(
+                randomPojo(MenuDO.class, o -> o.setId(1000L).setPermission(permission)),
+                randomPojo(MenuDO.class, o -> o.setId(2000L).setPermission("system:user:query"))));
+        roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1000L));
+        // mock 版本号
+        when(permissionIndexVersionRedisDAO.increment(eq(0L))).thenReturn(1L, 2L);
+        // 调用，构建权限索引
+        assertTrue(permissionService.hasAnyPermissions(userId, permission));
+
+        // 调用：取消菜单授权，增量更新索引
+        permissionService.assignRoleMenu(100L, asSet(2000L));
+        // 断言
+        assertFalse(permissionService.hasAnyPermissions(userId, permission));
+        assertTrue(permissionService.hasAnyPermissions(userId, "system:user:query"));
+        verify(permissionProducer).sendPermissionIndexRefreshMessage(argThat(message ->
+                message.getType() == PermissionIndexRefreshMessage.Type.ROLE_MENU && message.getRoleId().equals(100L)
+                        && message.getVersion().equals(1L)));
+
+        // 调用：取消用户的角色，增量更新索引
+        permissionService.assignUserRole(userId, Collections.emptySet());
+        // 断言
+        assertFalse(permissionService.hasAnyPermissions(userId, "system:user:query"));
+        // 断言：只构建过一次索引
+        verify(roleService, times(1)).getRoleList();
+    }
+
+    @Test
+    public void testRefreshLocalPermissionIndex_version() {
+        // 准备参数
+        Long userId = 1L;
+        String permission = "system:user:create";
+        // mock 用户登录的角色
+        userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(100L));
+        RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L).setCode("normal")
+                .setStatus(CommonStatusEnum.ENABLE.getStatus()));
+        when(roleService.getRoleList()).thenReturn(toList(role));
+        // mock 菜单
+        when(menuService.getMenuList()).thenReturn(singletonList(
+                randomPojo(MenuDO.class, o -> o.setId(1000L).setPermission(permission))));
+        roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1000L));
+        // mock 版本号：构建索引时为 5
+        when(permissionIndexVersionRedisDAO.get(eq(0L))).thenReturn(5L);
+        // 调用，构建权限索引
+        assertTrue(permissionService.hasAnyPermissions(userId, permission));
+
+        // 调用：已经包含在索引中的消息，忽略
+        permissionService.refreshLocalPermissionIndex(new PermissionIndexRefreshMessage()
+                .setType(PermissionIndexRefreshMessage.Type.ROLE_MENU).setVersion(5L)
+                .setRoleId(100L).setMenuIds(Collections.emptySet()));
+        assertTrue(permissionService.hasAnyPermissions(userId, permission));
+        // 调用：下一个版本的消息，增量更新
+        permissionService.refreshLocalPermissionIndex(new PermissionIndexRefreshMessage()
+                .setType(PermissionIndexRefreshMessage.Type.ROLE_MENU).setVersion(6L)
+                .setRoleId(100L).setMenuIds(Collections.emptySet()));
+        assertFalse(permissionService.hasAnyPermissions(userId, permission));
+        // 调用：乱序到达的旧消息，忽略，不会覆盖新的索引
+        permissionService.refreshLocalPermissionIndex(new PermissionIndexRefreshMessage()
+                .setType(PermissionIndexRefreshMessage.Type.ROLE_MENU).setVersion(4L)
+                .setRoleId(100L).setMenuIds(singleton(1000L)));
+        assertFalse(permissionService.hasAnyPermissions(userId, permission));
+        verify(roleService, times(1)).getRoleList();
+
+        // 调用：缺少版本 7 的消息，移除索引，使用时重建
+        permissionService.refreshLocalPermissionIndex(new PermissionIndexRefreshMessage()
+                .setType(PermissionIndexRefreshMessage.Type.USER_ROLE).setVersion(8L)
+                .setUserId(userId).setRoleIds(singleton(100L)));
+        assertTrue(permissionService.hasAnyPermissions(userId, permission));
+        verify(roleService, times(2)).getRoleList();
+    }
+
     @Test
     public void testHasAnyRoles() {
         try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {